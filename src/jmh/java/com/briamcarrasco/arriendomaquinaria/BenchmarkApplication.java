@@ -0,0 +1,83 @@
+package com.briamcarrasco.arriendomaquinaria;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.briamcarrasco.arriendomaquinaria.model.Category;
+import com.briamcarrasco.arriendomaquinaria.model.Machinery;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryStatus;
+import com.briamcarrasco.arriendomaquinaria.repository.CategoryRepository;
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryBatchRepository;
+import com.briamcarrasco.arriendomaquinaria.service.MachinerySearchIndex;
+import com.briamcarrasco.arriendomaquinaria.service.RentalAvailabilityIndex;
+
+/**
+ * Arranque de la aplicación para los benchmarks que necesitan el contexto de
+ * Spring. Usa el perfil {@code benchmark}, con H2 en memoria, y agrega un
+ * catálogo sintético de maquinarias a los datos de {@code DataInitializer}.
+ */
+public final class BenchmarkApplication {
+
+    private static final String[] BRANDS = { "John Deere", "Case IH", "New Holland", "Massey Ferguson", "Kubota",
+            "Claas" };
+    private static final String[] TYPES = { "Tractor", "Cosechadora", "Sembradora", "Pulverizador" };
+    private static final String[] CATEGORIES = { "Tractores", "Cosechadoras", "Sembradoras", "Pulverizadores" };
+    private static final int BATCH_SIZE = 1000;
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * Inicia la aplicación y carga el catálogo sintético.
+     *
+     * @param machineryCount cantidad de maquinarias a agregar
+     * @return contexto de la aplicación
+     */
+    public static ConfigurableApplicationContext start(int machineryCount) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ArriendomaquinariaApplication.class)
+                .profiles("benchmark")
+                .logStartupInfo(false)
+                .run();
+        seed(context, machineryCount);
+        return context;
+    }
+
+    private static void seed(ConfigurableApplicationContext context, int machineryCount) {
+        CategoryRepository categoryRepository = context.getBean(CategoryRepository.class);
+        List<Category> categories = new ArrayList<>();
+        for (String name : CATEGORIES) {
+            Category category = categoryRepository.findByName(name);
+            if (category == null) {
+                category = new Category();
+                category.setName(name);
+                category = categoryRepository.save(category);
+            }
+            categories.add(category);
+        }
+
+        MachineryBatchRepository batchRepository = context.getBean(MachineryBatchRepository.class);
+        List<Machinery> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < machineryCount; i++) {
+            int type = i % TYPES.length;
+            Machinery machinery = new Machinery();
+            machinery.setNameMachinery(BRANDS[i % BRANDS.length] + " " + TYPES[type] + " " + (1000 + i));
+            machinery.setCategory(categories.get(type));
+            machinery.setStatus(i % 10 == 0 ? MachineryStatus.MANTENIMIENTO : MachineryStatus.DISPONIBLE);
+            machinery.setPricePerDay(BigDecimal.valueOf(100 + (i % 400), 0));
+            machinery.setImageUrl(Machinery.DEFAULT_IMAGE_URL);
+            batch.add(machinery);
+            if (batch.size() == BATCH_SIZE) {
+                batchRepository.insertAll(batch);
+                batch.clear();
+            }
+        }
+        batchRepository.insertAll(batch);
+
+        context.getBean(MachinerySearchIndex.class).rebuild();
+        context.getBean(RentalAvailabilityIndex.class).rebuild();
+    }
+}
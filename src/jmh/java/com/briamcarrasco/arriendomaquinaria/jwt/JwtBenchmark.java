@@ -0,0 +1,99 @@
+package com.briamcarrasco.arriendomaquinaria.jwt;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+/**
+ * Benchmarks de la generación de tokens y del filtro de autorización JWT.
+ *
+ * El filtro se mide en sus dos caminos: con el token ya presente en
+ * {@link JwtAuthenticationCache} y sin caché, donde cada petición verifica la
+ * firma HMAC y parsea los claims.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "XDWDH3u4tdxebqBp2Iesst01kCurg10QegORWr3igpt";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+    };
+
+    private JWTAuthtenticationConfig tokenConfig;
+    private JWTAuthorizationFilter cachedFilter;
+    private JWTAuthorizationFilter uncachedFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() throws ServletException, IOException {
+        JwtKeyProvider keyProvider = new JwtKeyProvider(SECRET);
+        tokenConfig = new JWTAuthtenticationConfig(keyProvider);
+        cachedFilter = new JWTAuthorizationFilter(keyProvider, new JwtAuthenticationCache(10000),
+                new SimpleMeterRegistry());
+        uncachedFilter = new JWTAuthorizationFilter(keyProvider, new JwtAuthenticationCache(0) {
+            @Override
+            public Authentication get(String token) {
+                return null;
+            }
+
+            @Override
+            public void put(String token, Authentication authentication, Date expiration) {
+                // Sin caché: cada petición verifica el token completo.
+            }
+        }, new SimpleMeterRegistry());
+
+        request = new MockHttpServletRequest("GET", "/home");
+        request.setServletPath("/home");
+        request.addHeader(Constants.HEADER_AUTHORIZACION_KEY, tokenConfig.getJWTToken("admin", "ROLE_ADMIN"));
+        response = new MockHttpServletResponse();
+        cachedFilter.doFilterInternal(request, response, NO_OP_CHAIN);
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public String getJWTToken() {
+        return tokenConfig.getJWTToken("admin", "ROLE_ADMIN");
+    }
+
+    @Benchmark
+    public Authentication doFilterInternalCached() throws ServletException, IOException {
+        cachedFilter.doFilterInternal(request, response, NO_OP_CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public Authentication doFilterInternalUncached() throws ServletException, IOException {
+        uncachedFilter.doFilterInternal(request, response, NO_OP_CHAIN);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
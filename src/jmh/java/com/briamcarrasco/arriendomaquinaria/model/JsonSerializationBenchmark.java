@@ -0,0 +1,149 @@
+package com.briamcarrasco.arriendomaquinaria.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.briamcarrasco.arriendomaquinaria.dto.MachineryDetail;
+import com.briamcarrasco.arriendomaquinaria.dto.MachinerySummary;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Benchmarks de la serialización JSON de maquinarias y reseñas con un
+ * {@link ObjectMapper} configurado como el de Spring Boot.
+ *
+ * Las entidades se arman en memoria, sin proxies de Hibernate: cada
+ * maquinaria incluye su categoría, su información adicional y tres archivos
+ * multimedia, y cada reseña su maquinaria y su usuario. Las proyecciones que
+ * devuelve la API ({@link MachineryDetail}, {@link MachinerySummary}) se
+ * miden con los mismos datos para comparar tamaño y costo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private static final int MACHINERY_COUNT = 50;
+    private static final int REVIEWS_PER_MACHINERY = 4;
+
+    private ObjectMapper objectMapper;
+    private Machinery machinery;
+    private List<Machinery> machineryList;
+    private List<Review> reviews;
+    private MachineryDetail machineryDetail;
+    private List<MachinerySummary> summaryList;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        Category category = new Category();
+        category.setId(1L);
+        category.setName("Tractores");
+        category.setDescription("Maquinaria para labores de tiro y transporte");
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("user1");
+        user.setEmail("user1@demo.com");
+        user.setRole(User.Role.USER);
+
+        machineryList = new ArrayList<>(MACHINERY_COUNT);
+        reviews = new ArrayList<>(MACHINERY_COUNT * REVIEWS_PER_MACHINERY);
+        for (int i = 0; i < MACHINERY_COUNT; i++) {
+            Machinery m = machinery(i + 1L, category);
+            machineryList.add(m);
+            for (int j = 0; j < REVIEWS_PER_MACHINERY; j++) {
+                Review review = new Review();
+                review.setId((long) i * REVIEWS_PER_MACHINERY + j + 1);
+                review.setMachinery(m);
+                review.setUser(user);
+                review.setRating(1 + j % 5);
+                review.setComment("Buen rendimiento en terreno irregular, consumo moderado.");
+                review.setCreatedAt(LocalDateTime.of(2025, 1, 1, 12, 0).plusDays(j));
+                reviews.add(review);
+            }
+        }
+        machinery = machineryList.get(0);
+        machineryDetail = new MachineryDetail(machinery.getId(), machinery.getNameMachinery(), category.getId(),
+                category.getName(), machinery.getStatus(), machinery.getPricePerDay(), machinery.getImageUrl(),
+                machinery.getThumbnailUrl(), machinery.getMachineryInfo().getDescription(),
+                machinery.getRatingCount(), machinery.getRatingSum());
+        summaryList = machineryList.stream()
+                .map(m -> new MachinerySummary(m.getId(), m.getNameMachinery(), category.getName(), m.getStatus(),
+                        m.getPricePerDay(), m.getImageUrl(), m.getRatingCount(), m.getRatingSum()))
+                .toList();
+    }
+
+    private static Machinery machinery(Long id, Category category) {
+        MachineryInfo info = new MachineryInfo();
+        info.setId(id);
+        info.setDescription("Tractor utilitario 75 HP, transmisión PowrReverser 12x12");
+
+        List<MachineryMedia> media = new ArrayList<>();
+        for (int k = 0; k < 3; k++) {
+            MachineryMedia item = new MachineryMedia();
+            item.setId(id * 10 + k);
+            item.setImgUrl("/uploads/" + id + "_" + k + ".png");
+            item.setThumbUrl("/uploads/" + id + "_" + k + "_thumb.jpg");
+            media.add(item);
+        }
+
+        Machinery m = new Machinery();
+        m.setId(id);
+        m.setNameMachinery("John Deere 5075E Tractor " + id);
+        m.setStatus(MachineryStatus.DISPONIBLE);
+        m.setPricePerDay(new BigDecimal("150.00"));
+        m.setImageUrl("/images/john_deere_5075e.png");
+        m.setThumbnailUrl("/uploads/" + id + "_thumb.jpg");
+        m.setCategory(category);
+        m.setMachineryInfo(info);
+        m.setMedia(media);
+        m.setRatingCount(12L);
+        m.setRatingSum(51L);
+        return m;
+    }
+
+    @Benchmark
+    public byte[] serializeMachinery() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(machinery);
+    }
+
+    @Benchmark
+    public byte[] serializeMachineryList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(machineryList);
+    }
+
+    @Benchmark
+    public byte[] serializeMachineryDetail() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(machineryDetail);
+    }
+
+    @Benchmark
+    public byte[] serializeMachinerySummaryList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(summaryList);
+    }
+
+    @Benchmark
+    public byte[] serializeReviewList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(reviews);
+    }
+}
@@ -0,0 +1,90 @@
+package com.briamcarrasco.arriendomaquinaria.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.briamcarrasco.arriendomaquinaria.BenchmarkApplication;
+import com.briamcarrasco.arriendomaquinaria.dto.FacetedSearchResult;
+import com.briamcarrasco.arriendomaquinaria.dto.MachinerySearchCriteria;
+import com.briamcarrasco.arriendomaquinaria.model.Machinery;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryStatus;
+import com.briamcarrasco.arriendomaquinaria.repository.CategoryRepository;
+
+/**
+ * Benchmarks de la búsqueda de maquinarias sobre un catálogo de 10.000
+ * maquinarias en H2: la consulta al índice de texto en memoria, la búsqueda
+ * por texto que carga las entidades y la búsqueda facetada con y sin texto.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MachinerySearchBenchmark {
+
+    private static final int MACHINERY_COUNT = 10_000;
+    private static final int PAGE_SIZE = 20;
+
+    private ConfigurableApplicationContext context;
+    private MachinerySearchIndex searchIndex;
+    private MachineryService machineryService;
+    private MachinerySearchCriteria textCriteria;
+    private MachinerySearchCriteria filterCriteria;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(MACHINERY_COUNT);
+        searchIndex = context.getBean(MachinerySearchIndex.class);
+        machineryService = context.getBean(MachineryService.class);
+
+        textCriteria = new MachinerySearchCriteria();
+        textCriteria.setText("kubota");
+
+        filterCriteria = new MachinerySearchCriteria();
+        filterCriteria.setCategoryId(context.getBean(CategoryRepository.class).findByName("Tractores").getId());
+        filterCriteria.setStatus(MachineryStatus.DISPONIBLE);
+        filterCriteria.setMinPrice(new BigDecimal("150"));
+        filterCriteria.setMaxPrice(new BigDecimal("300"));
+        filterCriteria.setSortByRating(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Long> searchIndex() {
+        return searchIndex.search("cosechadora 15");
+    }
+
+    @Benchmark
+    public List<Machinery> findByNameMachinery() {
+        return machineryService.findByNameMachinery("sembradora 12");
+    }
+
+    @Benchmark
+    public FacetedSearchResult facetedSearchText() {
+        return machineryService.facetedSearch(textCriteria, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public FacetedSearchResult facetedSearchFilters() {
+        return machineryService.facetedSearch(filterCriteria, PAGE_SIZE);
+    }
+}
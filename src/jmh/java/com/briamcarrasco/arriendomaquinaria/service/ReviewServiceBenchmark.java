@@ -0,0 +1,73 @@
+package com.briamcarrasco.arriendomaquinaria.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.briamcarrasco.arriendomaquinaria.BenchmarkApplication;
+import com.briamcarrasco.arriendomaquinaria.model.Review;
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryRepository;
+import com.briamcarrasco.arriendomaquinaria.repository.UserRepository;
+
+/**
+ * Benchmark de {@link ReviewService#upsertReview} sobre H2 en memoria, pasando
+ * por el proxy transaccional y la evicción de caché igual que en la
+ * aplicación.
+ *
+ * Las reseñas se crean durante la preparación, por lo que las mediciones
+ * recorren el camino de actualización: {@code MERGE} sobre la clave única de
+ * la reseña, recálculo de los contadores de calificación y lectura del
+ * identificador.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReviewServiceBenchmark {
+
+    private static final int MACHINERY_COUNT = 1000;
+    private static final int REVIEWED_MACHINERY = 100;
+
+    private ConfigurableApplicationContext context;
+    private ReviewService reviewService;
+    private List<Long> machineryIds;
+    private Long userId;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start(MACHINERY_COUNT);
+        reviewService = context.getBean(ReviewService.class);
+        machineryIds = context.getBean(MachineryRepository.class).findAllIds().subList(0, REVIEWED_MACHINERY);
+        userId = context.getBean(UserRepository.class).findByUsername("user1").getId();
+        for (Long machineryId : machineryIds) {
+            reviewService.upsertReview(machineryId, userId, 3, "Reseña inicial");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Review upsertReview() {
+        int i = next++;
+        Long machineryId = machineryIds.get(i % machineryIds.size());
+        return reviewService.upsertReview(machineryId, userId, 1 + i % 5, "Comentario " + i);
+    }
+}
@@ -0,0 +1,158 @@
+package com.briamcarrasco.arriendomaquinaria.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Registro de latencias por endpoint, seguro para uso concurrente.
+ *
+ * Guarda cada muestra para calcular percentiles exactos al final de la
+ * prueba. Usa {@link ReentrantLock} en vez de {@code synchronized} para no
+ * fijar los hilos virtuales a su hilo portador mientras registran.
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+    private final List<String> order = new ArrayList<>();
+    private final ReentrantLock orderLock = new ReentrantLock();
+
+    /**
+     * Registra una petición.
+     *
+     * @param endpoint     nombre del paso del escenario
+     * @param latencyNanos latencia de la petición, en nanosegundos
+     * @param success      true si la respuesta fue la esperada
+     */
+    public void record(String endpoint, long latencyNanos, boolean success) {
+        samples.computeIfAbsent(endpoint, this::register).add(latencyNanos, success);
+    }
+
+    /**
+     * Marca como error una petición ya registrada, por ejemplo cuando la
+     * respuesta tuvo el estado esperado pero su contenido no era válido.
+     *
+     * @param endpoint nombre del paso del escenario
+     */
+    public void markError(String endpoint) {
+        samples.computeIfAbsent(endpoint, this::register).markError();
+    }
+
+    /**
+     * Calcula las estadísticas de cada endpoint, en el orden en que se
+     * registraron por primera vez.
+     *
+     * @param elapsedSeconds duración de la medición, para calcular el
+     *                       rendimiento
+     * @return estadísticas por endpoint
+     */
+    public Map<String, EndpointStats> summarize(double elapsedSeconds) {
+        Map<String, EndpointStats> result = new LinkedHashMap<>();
+        orderLock.lock();
+        try {
+            for (String endpoint : order) {
+                result.put(endpoint, samples.get(endpoint).stats(elapsedSeconds));
+            }
+        } finally {
+            orderLock.unlock();
+        }
+        return result;
+    }
+
+    private Samples register(String endpoint) {
+        orderLock.lock();
+        try {
+            order.add(endpoint);
+        } finally {
+            orderLock.unlock();
+        }
+        return new Samples();
+    }
+
+    /**
+     * Estadísticas de un endpoint. Las latencias se expresan en milisegundos.
+     *
+     * @param requests   cantidad de peticiones
+     * @param errors     peticiones con una respuesta inesperada o fallidas
+     * @param throughput peticiones por segundo
+     * @param p50        mediana
+     * @param p95        percentil 95
+     * @param p99        percentil 99
+     * @param max        latencia máxima
+     */
+    public record EndpointStats(long requests, long errors, double throughput, double p50, double p95,
+            double p99, double max) {
+    }
+
+    /**
+     * Calcula un percentil por el método del rango más cercano.
+     *
+     * @param sorted     muestras ordenadas ascendentemente
+     * @param percentile percentil entre 0 y 100
+     * @return valor del percentil, o 0 si no hay muestras
+     */
+    static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+    }
+
+    private static final class Samples {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        void add(long latencyNanos, boolean success) {
+            lock.lock();
+            try {
+                if (size == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, size * 2);
+                }
+                latencies[size++] = latencyNanos;
+                if (!success) {
+                    errors++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void markError() {
+            lock.lock();
+            try {
+                errors++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        EndpointStats stats(double elapsedSeconds) {
+            long[] sorted;
+            long errorCount;
+            lock.lock();
+            try {
+                sorted = Arrays.copyOf(latencies, size);
+                errorCount = errors;
+            } finally {
+                lock.unlock();
+            }
+            Arrays.sort(sorted);
+            return new EndpointStats(sorted.length, errorCount,
+                    elapsedSeconds > 0 ? sorted.length / elapsedSeconds : 0,
+                    millis(percentile(sorted, 50)), millis(percentile(sorted, 95)),
+                    millis(percentile(sorted, 99)), millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.briamcarrasco.arriendomaquinaria.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parámetros de una prueba de carga, leídos de argumentos
+ * {@code --nombre=valor}.
+ *
+ * @param virtualUsers usuarios virtuales concurrentes; cada uno es un hilo
+ *                     virtual que repite el escenario
+ * @param users        usuarios a generar en la base de datos
+ * @param machinery    maquinarias a generar
+ * @param reviews      reseñas a generar
+ * @param warmup       tiempo inicial cuyas muestras se descartan
+ * @param duration     tiempo de medición, después del calentamiento
+ * @param threads      modo de ejecución de las peticiones en el servidor:
+ *                     {@code platform} o {@code virtual}
+ */
+public record LoadTestConfig(int virtualUsers, int users, int machinery, int reviews, Duration warmup,
+        Duration duration, String threads) {
+
+    /**
+     * Lee la configuración de los argumentos de línea de comandos. Los
+     * parámetros no indicados toman su valor por defecto.
+     *
+     * @param args argumentos {@code --nombre=valor}
+     * @return configuración de la prueba
+     * @throws IllegalArgumentException si un argumento no es válido
+     */
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Argumento inválido: " + arg);
+            }
+            values.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        LoadTestConfig config = new LoadTestConfig(
+                Integer.parseInt(values.getOrDefault("virtual-users", "50")),
+                Integer.parseInt(values.getOrDefault("users", "500")),
+                Integer.parseInt(values.getOrDefault("machinery", "5000")),
+                Integer.parseInt(values.getOrDefault("reviews", "20000")),
+                Duration.parse(values.getOrDefault("warmup", "PT15S")),
+                Duration.parse(values.getOrDefault("duration", "PT60S")),
+                values.getOrDefault("threads", "platform"));
+        if (config.virtualUsers() <= 0 || config.users() <= 0 || config.machinery() <= 0) {
+            throw new IllegalArgumentException("virtual-users, users y machinery deben ser mayores que cero");
+        }
+        if (!config.threads().equals("platform") && !config.threads().equals("virtual")) {
+            throw new IllegalArgumentException("threads debe ser platform o virtual");
+        }
+        return config;
+    }
+}
@@ -0,0 +1,192 @@
+package com.briamcarrasco.arriendomaquinaria.loadtest;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.briamcarrasco.arriendomaquinaria.model.Category;
+import com.briamcarrasco.arriendomaquinaria.model.Machinery;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryStatus;
+import com.briamcarrasco.arriendomaquinaria.repository.CategoryRepository;
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryBatchRepository;
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryRepository;
+import com.briamcarrasco.arriendomaquinaria.service.MachinerySearchIndex;
+import com.briamcarrasco.arriendomaquinaria.service.RentalAvailabilityIndex;
+
+/**
+ * Versión escalable de {@code DataInitializer} para las pruebas de carga.
+ * Agrega usuarios, maquinarias y reseñas en la cantidad indicada usando lotes
+ * JDBC, y al terminar sincroniza los contadores de calificación y reconstruye
+ * los índices en memoria.
+ *
+ * Todos los usuarios comparten la contraseña {@link #PASSWORD}; se codifica
+ * una sola vez porque BCrypt es deliberadamente lento.
+ */
+public class LoadTestDataSeeder {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestDataSeeder.class);
+
+    /**
+     * Prefijo del nombre de los usuarios generados.
+     */
+    public static final String USERNAME_PREFIX = "loaduser";
+
+    /**
+     * Contraseña de los usuarios generados.
+     */
+    public static final String PASSWORD = "password";
+
+    /**
+     * Tipos usados en los nombres de las maquinarias, que se generan como
+     * {@code "<marca> <tipo> <número>"}; sirven como términos de búsqueda.
+     */
+    public static final List<String> TYPES = List.of("Tractor", "Cosechadora", "Sembradora", "Pulverizador");
+
+    private static final String[] BRANDS = { "John Deere", "Case IH", "New Holland", "Massey Ferguson", "Kubota",
+            "Claas" };
+    private static final String[] CATEGORIES = { "Tractores", "Cosechadoras", "Sembradoras", "Pulverizadores" };
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_USER = "INSERT INTO tb_users "
+            + "(username_users, password_users, email_users, role_users) VALUES (?, ?, ?, 'USER')";
+    private static final String INSERT_REVIEW = "INSERT INTO tb_reviews "
+            + "(machinery_id, user_id, rating, comment, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final CategoryRepository categoryRepository;
+    private final MachineryRepository machineryRepository;
+    private final MachineryBatchRepository batchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MachinerySearchIndex searchIndex;
+    private final RentalAvailabilityIndex availabilityIndex;
+
+    public LoadTestDataSeeder(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder,
+            CategoryRepository categoryRepository, MachineryRepository machineryRepository,
+            MachineryBatchRepository batchRepository, PlatformTransactionManager transactionManager,
+            MachinerySearchIndex searchIndex, RentalAvailabilityIndex availabilityIndex) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.categoryRepository = categoryRepository;
+        this.machineryRepository = machineryRepository;
+        this.batchRepository = batchRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.searchIndex = searchIndex;
+        this.availabilityIndex = availabilityIndex;
+    }
+
+    /**
+     * Datos generados que necesita el escenario de carga.
+     *
+     * @param usernames    nombres de los usuarios generados
+     * @param machineryIds identificadores de todas las maquinarias
+     */
+    public record SeededData(List<String> usernames, List<Long> machineryIds) {
+    }
+
+    /**
+     * Genera los datos de la prueba.
+     *
+     * @param users     cantidad de usuarios
+     * @param machinery cantidad de maquinarias
+     * @param reviews   cantidad de reseñas; se limita a una por par
+     *                  maquinaria-usuario
+     * @return usuarios y maquinarias disponibles para el escenario
+     */
+    public SeededData seed(int users, int machinery, int reviews) {
+        long start = System.nanoTime();
+        List<String> usernames = seedUsers(users);
+        seedMachinery(machinery);
+        List<Long> machineryIds = machineryRepository.findAllIds();
+        List<Long> userIds = jdbcTemplate.queryForList(
+                "SELECT id_users FROM tb_users WHERE username_users LIKE ? ORDER BY id_users", Long.class,
+                USERNAME_PREFIX + "%");
+        int reviewCount = seedReviews(Math.min(reviews, machineryIds.size() * userIds.size()), machineryIds,
+                userIds);
+
+        transactionTemplate.executeWithoutResult(status -> machineryRepository.recalculateRatingTotals());
+        searchIndex.rebuild();
+        availabilityIndex.rebuild();
+        logger.info("Datos de carga generados: {} usuarios, {} maquinarias, {} reseñas en {} ms", usernames.size(),
+                machineryIds.size(), reviewCount, (System.nanoTime() - start) / 1_000_000);
+        return new SeededData(usernames, machineryIds);
+    }
+
+    private List<String> seedUsers(int users) {
+        String hash = passwordEncoder.encode(PASSWORD);
+        List<String> usernames = new ArrayList<>(users);
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < users; i++) {
+            String username = USERNAME_PREFIX + i;
+            usernames.add(username);
+            batch.add(new Object[] { username, hash, username + "@loadtest.local" });
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT_USER, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_USER, batch);
+        }
+        return usernames;
+    }
+
+    private void seedMachinery(int count) {
+        List<Category> categories = new ArrayList<>();
+        for (String name : CATEGORIES) {
+            Category category = categoryRepository.findByName(name);
+            if (category == null) {
+                category = new Category();
+                category.setName(name);
+                category = categoryRepository.save(category);
+            }
+            categories.add(category);
+        }
+
+        List<Machinery> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            int type = i % TYPES.size();
+            Machinery machinery = new Machinery();
+            machinery.setNameMachinery(BRANDS[i % BRANDS.length] + " " + TYPES.get(type) + " " + (1000 + i));
+            machinery.setCategory(categories.get(type));
+            machinery.setStatus(i % 10 == 0 ? MachineryStatus.MANTENIMIENTO : MachineryStatus.DISPONIBLE);
+            machinery.setPricePerDay(BigDecimal.valueOf(100 + (i % 400), 0));
+            machinery.setImageUrl(Machinery.DEFAULT_IMAGE_URL);
+            batch.add(machinery);
+            if (batch.size() == BATCH_SIZE) {
+                batchRepository.insertAll(batch);
+                batch.clear();
+            }
+        }
+        batchRepository.insertAll(batch);
+    }
+
+    private int seedReviews(int count, List<Long> machineryIds, List<Long> userIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            // Recorre las maquinarias y cambia de usuario en cada vuelta, de
+            // modo que cada par maquinaria-usuario se usa una sola vez.
+            Long machineryId = machineryIds.get(i % machineryIds.size());
+            Long userId = userIds.get((i / machineryIds.size()) % userIds.size());
+            batch.add(new Object[] { machineryId, userId, 1 + i % 5, "Reseña de carga " + i, now, now });
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT_REVIEW, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_REVIEW, batch);
+        }
+        return count;
+    }
+}
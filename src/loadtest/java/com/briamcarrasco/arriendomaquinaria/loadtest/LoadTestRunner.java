@@ -0,0 +1,125 @@
+package com.briamcarrasco.arriendomaquinaria.loadtest;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.briamcarrasco.arriendomaquinaria.ArriendomaquinariaApplication;
+import com.briamcarrasco.arriendomaquinaria.repository.CategoryRepository;
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryBatchRepository;
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryRepository;
+import com.briamcarrasco.arriendomaquinaria.service.MachinerySearchIndex;
+import com.briamcarrasco.arriendomaquinaria.service.RentalAvailabilityIndex;
+
+/**
+ * Punto de entrada de las pruebas de carga.
+ *
+ * Inicia la aplicación con el perfil {@code loadtest} (H2 en memoria, puerto
+ * aleatorio), genera los datos con {@link LoadTestDataSeeder} y lanza un hilo
+ * virtual por usuario virtual, cada uno repitiendo
+ * {@link RentalFlowScenario} hasta completar el calentamiento y la medición.
+ * Al final imprime, por endpoint, peticiones, errores, rendimiento y los
+ * percentiles p50, p95 y p99 de latencia.
+ *
+ * Con {@code --threads=virtual} el servidor atiende las peticiones con hilos
+ * virtuales; ejecutar la misma prueba con {@code platform} y {@code virtual}
+ * permite comparar ambos modos.
+ *
+ * Ejemplo: {@code --virtual-users=200 --machinery=20000 --duration=PT2M}
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ArriendomaquinariaApplication.class)
+                .profiles("loadtest")
+                .properties("spring.threads.virtual.enabled=" + config.threads().equals("virtual"))
+                .logStartupInfo(false)
+                .run()) {
+            LoadTestDataSeeder.SeededData data = seeder(context)
+                    .seed(config.users(), config.machinery(), config.reviews());
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            LatencyRecorder recorder = new LatencyRecorder();
+            double elapsedSeconds = run(config, new RentalFlowScenario(client(), baseUrl, recorder, data));
+            print(config, recorder.summarize(elapsedSeconds), elapsedSeconds);
+        }
+    }
+
+    private static LoadTestDataSeeder seeder(ConfigurableApplicationContext context) {
+        return new LoadTestDataSeeder(context.getBean(JdbcTemplate.class), context.getBean(PasswordEncoder.class),
+                context.getBean(CategoryRepository.class), context.getBean(MachineryRepository.class),
+                context.getBean(MachineryBatchRepository.class), context.getBean(PlatformTransactionManager.class),
+                context.getBean(MachinerySearchIndex.class), context.getBean(RentalAvailabilityIndex.class));
+    }
+
+    private static HttpClient client() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    /**
+     * Ejecuta los usuarios virtuales y espera a que terminen.
+     *
+     * @return duración real de la medición, en segundos
+     */
+    private static double run(LoadTestConfig config, RentalFlowScenario scenario) throws InterruptedException {
+        long start = System.nanoTime();
+        long recordFrom = start + config.warmup().toNanos();
+        long end = recordFrom + config.duration().toNanos();
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.virtualUsers(); i++) {
+                users.submit(() -> {
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        scenario.run(now >= recordFrom);
+                    }
+                    return null;
+                });
+            }
+            users.shutdown();
+            if (!users.awaitTermination(config.warmup().plus(config.duration()).toSeconds() + 60,
+                    TimeUnit.SECONDS)) {
+                users.shutdownNow();
+            }
+        }
+        // Las sesiones que empezaron antes del fin siguen registrando, por lo
+        // que la medición dura hasta que termina la última.
+        return (System.nanoTime() - recordFrom) / 1_000_000_000.0;
+    }
+
+    private static void print(LoadTestConfig config, Map<String, LatencyRecorder.EndpointStats> stats,
+            double elapsedSeconds) {
+        System.out.printf(Locale.ROOT, "%nPrueba de carga: %d usuarios virtuales, hilos %s, %.1f s medidos%n",
+                config.virtualUsers(), config.threads(), elapsedSeconds);
+        System.out.printf(Locale.ROOT, "%-18s %9s %7s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors",
+                "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        long requests = 0;
+        long errors = 0;
+        for (Map.Entry<String, LatencyRecorder.EndpointStats> entry : stats.entrySet()) {
+            LatencyRecorder.EndpointStats s = entry.getValue();
+            requests += s.requests();
+            errors += s.errors();
+            System.out.printf(Locale.ROOT, "%-18s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(),
+                    s.requests(), s.errors(), s.throughput(), s.p50(), s.p95(), s.p99(), s.max());
+        }
+        System.out.printf(Locale.ROOT, "%-18s %9d %7d %9.1f%n", "total", requests, errors,
+                elapsedSeconds > 0 ? requests / elapsedSeconds : 0);
+    }
+}
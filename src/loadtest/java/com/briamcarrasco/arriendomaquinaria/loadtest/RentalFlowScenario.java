@@ -0,0 +1,175 @@
+package com.briamcarrasco.arriendomaquinaria.loadtest;
+
+import java.io.IOException;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Escenario de una sesión de usuario: portada, login, inicio, búsqueda,
+ * detalle de una maquinaria y publicación de una reseña.
+ *
+ * Cada paso se mide por separado y se registra en {@link LatencyRecorder} con
+ * su nombre. Las cookies (JWT y CSRF) se guardan por sesión, de modo que un
+ * solo {@link HttpClient} se comparte entre todos los usuarios virtuales. Las
+ * redirecciones no se siguen, para medir cada petición por sí sola.
+ */
+public class RentalFlowScenario {
+
+    private static final Pattern CSRF_INPUT = Pattern.compile("name=\"_csrf\"[^>]*?value=\"([^\"]+)\"");
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final LatencyRecorder recorder;
+    private final List<String> usernames;
+    private final List<Long> machineryIds;
+
+    public RentalFlowScenario(HttpClient client, String baseUrl, LatencyRecorder recorder,
+            LoadTestDataSeeder.SeededData data) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+        this.usernames = data.usernames();
+        this.machineryIds = data.machineryIds();
+    }
+
+    /**
+     * Ejecuta una sesión completa. Si un paso falla, la sesión se interrumpe
+     * porque los pasos siguientes dependen de él.
+     *
+     * @param recording true para registrar las latencias; false durante el
+     *                  calentamiento
+     * @throws InterruptedException si el hilo se interrumpe
+     */
+    public void run(boolean recording) throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Session session = new Session();
+        String username = usernames.get(random.nextInt(usernames.size()));
+        Long machineryId = machineryIds.get(random.nextInt(machineryIds.size()));
+        // Prefijo de "<tipo> <número>": coincide con unas pocas maquinarias.
+        String term = LoadTestDataSeeder.TYPES.get(random.nextInt(LoadTestDataSeeder.TYPES.size())) + " "
+                + (1000 + random.nextInt(machineryIds.size())) / 10;
+
+        if (!step("landing", session, get("/landing"), recording, 200)) {
+            return;
+        }
+        HttpResponse<String> loginPage = send("login-page", session, get("/login"), recording, 200);
+        if (loginPage == null) {
+            return;
+        }
+        Matcher csrf = CSRF_INPUT.matcher(loginPage.body());
+        if (!csrf.find()) {
+            if (recording) {
+                recorder.markError("login-page");
+            }
+            return;
+        }
+        String form = "username=" + encode(username) + "&password=" + encode(LoadTestDataSeeder.PASSWORD)
+                + "&_csrf=" + encode(csrf.group(1));
+        HttpResponse<String> login = send("login", session, post("/auth/login", form,
+                "application/x-www-form-urlencoded"), recording, 302);
+        if (login == null || !session.cookies.containsKey("jwt_token")) {
+            return;
+        }
+        if (!step("home", session, get("/home"), recording, 200)
+                || !step("search", session, get("/api/machinery/search?tipo=nombre&name=" + encode(term)),
+                        recording, 200)
+                || !step("machinery-detail", session, get("/machinerydetail?id=" + machineryId), recording, 200)) {
+            return;
+        }
+        String review = "{\"rating\":" + (1 + random.nextInt(5)) + ",\"comment\":\"Reseña de carga de "
+                + username + "\"}";
+        step("post-review", session, post("/api/reviews/machinery/" + machineryId, review, "application/json"),
+                recording, 200);
+    }
+
+    private boolean step(String name, Session session, HttpRequest.Builder request, boolean recording,
+            int expectedStatus) throws InterruptedException {
+        return send(name, session, request, recording, expectedStatus) != null;
+    }
+
+    /**
+     * Envía una petición con las cookies de la sesión y registra su latencia.
+     *
+     * @return la respuesta, o null si falló o su estado no es el esperado
+     */
+    private HttpResponse<String> send(String name, Session session, HttpRequest.Builder request,
+            boolean recording, int expectedStatus) throws InterruptedException {
+        String cookieHeader = session.cookieHeader();
+        if (!cookieHeader.isEmpty()) {
+            request.header("Cookie", cookieHeader);
+        }
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            if (recording) {
+                recorder.record(name, System.nanoTime() - start, false);
+            }
+            return null;
+        }
+        long latency = System.nanoTime() - start;
+        boolean success = response.statusCode() == expectedStatus;
+        if (recording) {
+            recorder.record(name, latency, success);
+        }
+        session.store(response);
+        return success ? response : null;
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String body, String contentType) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", contentType)
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Cookies de una sesión de navegador simulada.
+     */
+    private static final class Session {
+
+        private final Map<String, String> cookies = new LinkedHashMap<>();
+
+        void store(HttpResponse<?> response) {
+            for (String header : response.headers().allValues("Set-Cookie")) {
+                for (HttpCookie cookie : HttpCookie.parse(header)) {
+                    if (cookie.getMaxAge() == 0) {
+                        cookies.remove(cookie.getName());
+                    } else {
+                        cookies.put(cookie.getName(), cookie.getValue());
+                    }
+                }
+            }
+        }
+
+        String cookieHeader() {
+            StringBuilder header = new StringBuilder();
+            for (Map.Entry<String, String> cookie : cookies.entrySet()) {
+                if (!header.isEmpty()) {
+                    header.append("; ");
+                }
+                header.append(cookie.getKey()).append('=').append(cookie.getValue());
+            }
+            return header.toString();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.briamcarrasco.arriendomaquinaria.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuración de la ejecución asíncrona de la aplicación.
+ * Define un pool acotado para el procesamiento de imágenes, de modo que el
+ * trabajo pesado no ocupe los hilos de las peticiones ni crezca sin límite
+ * cuando llegan muchas subidas a la vez.
+ *
+ * Declarar este pool haría que Spring Boot no creara su ejecutor
+ * {@code applicationTaskExecutor}, y los {@code @Async} sin nombre y las
+ * respuestas asíncronas de Spring MVC terminarían en este pool o en un
+ * ejecutor de respaldo. Por eso {@code spring.task.execution.mode=force}
+ * mantiene el ejecutor de Boot, que con {@code spring.threads.virtual.enabled}
+ * usa hilos virtuales. Este pool se mantiene con hilos de plataforma:
+ * redimensionar imágenes ocupa CPU, y un hilo virtual no lo haría más rápido
+ * ni permitiría acotar la cola.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncConfig.class);
+
+    /**
+     * Nombre del ejecutor usado para generar variantes de imágenes.
+     */
+    public static final String MEDIA_EXECUTOR = "mediaExecutor";
+
+    @Value("${app.media.workers:2}")
+    private int mediaWorkers;
+
+    @Value("${app.media.queue-capacity:100}")
+    private int mediaQueueCapacity;
+
+    /**
+     * Crea el pool de hilos para el procesamiento de imágenes. Si la cola está
+     * llena la tarea se descarta: la imagen original sigue disponible y solo
+     * se pierde la variante.
+     *
+     * @return ejecutor del procesamiento de imágenes
+     */
+    @Bean(name = MEDIA_EXECUTOR)
+    public ThreadPoolTaskExecutor mediaExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(mediaWorkers);
+        executor.setMaxPoolSize(mediaWorkers);
+        executor.setQueueCapacity(mediaQueueCapacity);
+        executor.setThreadNamePrefix("media-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.setRejectedExecutionHandler((task, pool) -> logger
+                .warn("Cola de procesamiento de imágenes llena; se omiten las variantes de una imagen"));
+        return executor;
+    }
+}
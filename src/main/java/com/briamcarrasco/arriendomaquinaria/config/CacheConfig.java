@@ -0,0 +1,79 @@
+package com.briamcarrasco.arriendomaquinaria.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Configuración de la caché en memoria de la aplicación basada en Caffeine.
+ * Cada caché tiene un tamaño máximo y un tiempo de expiración propios, y
+ * registra estadísticas de aciertos, fallos y desalojos que se publican en
+ * Actuator bajo la métrica {@code cache.*}.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Caché de maquinarias por identificador.
+     */
+    public static final String MACHINERY = "machinery";
+
+    /**
+     * Caché del listado de categorías.
+     */
+    public static final String CATEGORIES = "categories";
+
+    /**
+     * Caché de calendarios de disponibilidad por maquinaria y rango.
+     */
+    public static final String CALENDARS = "calendars";
+
+    @Value("${app.cache.machinery.max-size:1000}")
+    private long machineryMaxSize;
+
+    @Value("${app.cache.machinery.ttl:10m}")
+    private Duration machineryTtl;
+
+    @Value("${app.cache.reference.max-size:50}")
+    private long referenceMaxSize;
+
+    @Value("${app.cache.reference.ttl:1h}")
+    private Duration referenceTtl;
+
+    @Value("${app.cache.calendar.max-size:2000}")
+    private long calendarMaxSize;
+
+    @Value("${app.cache.calendar.ttl:10m}")
+    private Duration calendarTtl;
+
+    /**
+     * Crea el administrador de cachés con una configuración de tamaño y
+     * expiración por caché.
+     *
+     * @return administrador de cachés Caffeine
+     */
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager manager = new CaffeineCacheManager();
+        manager.registerCustomCache(MACHINERY, build(machineryMaxSize, machineryTtl));
+        manager.registerCustomCache(CATEGORIES, build(referenceMaxSize, referenceTtl));
+        manager.registerCustomCache(CALENDARS, build(calendarMaxSize, calendarTtl));
+        return manager;
+    }
+
+    private static com.github.benmanes.caffeine.cache.Cache<Object, Object> build(long maxSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.briamcarrasco.arriendomaquinaria.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Configuración de las métricas HTTP y del conteo de sentencias SQL.
+ *
+ * Agrega a {@code http.server.requests} la etiqueta {@code handler} con el
+ * controlador y el método que atendieron la petición (por ejemplo
+ * {@code MachineryDetailController#machineryDetail}), de modo que la
+ * latencia se pueda agrupar por endpoint aunque varias rutas compartan el
+ * mismo patrón. La misma etiqueta se usa en las métricas de sentencias SQL
+ * por petición de {@link SqlStatementBudgetFilter}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    static final String HANDLER_TAG = "handler";
+    static final String NO_HANDLER = "none";
+
+    /**
+     * Convención de observación de las peticiones del servidor con la
+     * etiqueta {@code handler}.
+     *
+     * @return convención usada por el filtro de observación de Spring MVC
+     */
+    @Bean
+    public DefaultServerRequestObservationConvention handlerTagObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context).and(handler(context));
+            }
+        };
+    }
+
+    /**
+     * Registra {@link SqlStatementInspector} en Hibernate para contar las
+     * sentencias y medir el tiempo de JDBC de cada petición.
+     *
+     * @return personalizador de las propiedades de Hibernate
+     */
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementInspectorCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, SqlStatementInspector.class.getName());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlStatementInspector.class.getName());
+        };
+    }
+
+    /**
+     * Obtiene la etiqueta del método del controlador que atendió la petición.
+     *
+     * @param context contexto de la observación
+     * @return etiqueta {@code handler}
+     */
+    static KeyValue handler(ServerRequestObservationContext context) {
+        return KeyValue.of(HANDLER_TAG, handlerName(context.getCarrier()));
+    }
+
+    /**
+     * Obtiene el controlador y el método que atendieron la petición. Las
+     * peticiones sin controlador (estáticos, 404, filtros de seguridad) usan
+     * {@value #NO_HANDLER} para no aumentar la cardinalidad.
+     *
+     * @param request petición HTTP
+     * @return nombre {@code Controlador#metodo} o {@value #NO_HANDLER}
+     */
+    static String handlerName(HttpServletRequest request) {
+        Object handler = request == null ? null
+                : request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "#" + method.getMethod().getName();
+        }
+        return NO_HANDLER;
+    }
+}
@@ -0,0 +1,13 @@
+package com.briamcarrasco.arriendomaquinaria.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita las tareas programadas de la aplicación, como la reconciliación
+ * periódica del estado de las maquinarias.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
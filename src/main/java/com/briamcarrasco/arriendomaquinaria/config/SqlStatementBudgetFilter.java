@@ -0,0 +1,94 @@
+package com.briamcarrasco.arriendomaquinaria.config;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Cuenta las sentencias SQL y el tiempo de JDBC de cada petición.
+ *
+ * Abre un ámbito de {@link SqlStatementCounter} antes de la cadena de filtros
+ * (incluida la seguridad) y, al terminar, publica los valores en las
+ * métricas {@code http.server.requests.sql.statements} y
+ * {@code http.server.requests.sql.time}, etiquetadas con el método del
+ * controlador. Las estadísticas quedan además en el atributo
+ * {@link #STATS_ATTRIBUTE} de la petición.
+ *
+ * Si una petición supera {@code app.sql.budget.max-statements} se registra
+ * una advertencia, que suele indicar un problema N+1. Con
+ * {@code app.sql.budget.fail-on-exceed=true}, pensado para las pruebas, la
+ * petición termina con {@link IllegalStateException}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementBudgetFilter.class);
+
+    public static final String STATS_ATTRIBUTE = SqlStatementBudgetFilter.class.getName() + ".STATS";
+
+    private final int maxStatements;
+    private final boolean failOnExceed;
+    private final MeterRegistry meterRegistry;
+
+    public SqlStatementBudgetFilter(@Value("${app.sql.budget.max-statements:20}") int maxStatements,
+            @Value("${app.sql.budget.fail-on-exceed:false}") boolean failOnExceed,
+            MeterRegistry meterRegistry) {
+        this.maxStatements = maxStatements;
+        this.failOnExceed = failOnExceed;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementCounter.Stats stats = SqlStatementCounter.start();
+        request.setAttribute(STATS_ATTRIBUTE, stats);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlStatementCounter.stop();
+        }
+        record(request, stats);
+    }
+
+    private void record(HttpServletRequest request, SqlStatementCounter.Stats stats) {
+        String handler = MetricsConfig.handlerName(request);
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("Sentencias SQL ejecutadas por petición")
+                .tag(MetricsConfig.HANDLER_TAG, handler)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder("http.server.requests.sql.time")
+                .description("Tiempo de JDBC por petición")
+                .tag(MetricsConfig.HANDLER_TAG, handler)
+                .register(meterRegistry)
+                .record(stats.getJdbcTime().toNanos(), TimeUnit.NANOSECONDS);
+
+        if (stats.getStatements() <= maxStatements) {
+            logger.debug("{} {} ({}): {}", request.getMethod(), request.getRequestURI(), handler, stats);
+            return;
+        }
+        String message = String.format("%s %s (%s) supera el presupuesto de %d sentencias SQL: %s",
+                request.getMethod(), request.getRequestURI(), handler, maxStatements, stats);
+        if (failOnExceed) {
+            throw new IllegalStateException(message);
+        }
+        logger.warn(message);
+    }
+}
@@ -0,0 +1,101 @@
+package com.briamcarrasco.arriendomaquinaria.config;
+
+import java.time.Duration;
+
+/**
+ * Contador de sentencias SQL del hilo actual.
+ *
+ * {@link SqlStatementBudgetFilter} abre un ámbito al comenzar cada petición y
+ * lo cierra al terminar; mientras está abierto, {@link SqlStatementInspector}
+ * suma cada sentencia que prepara Hibernate y el tiempo que tarda su
+ * ejecución en JDBC. Fuera de un ámbito no se registra nada.
+ *
+ * Las sentencias que se ejecutan directamente con {@code JdbcTemplate} (la
+ * importación masiva) no pasan por Hibernate y no se cuentan.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    /**
+     * Abre un ámbito de conteo en el hilo actual, reemplazando el anterior si
+     * existía.
+     *
+     * @return estadísticas del nuevo ámbito
+     */
+    public static Stats start() {
+        Stats stats = new Stats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Cierra el ámbito de conteo del hilo actual.
+     *
+     * @return estadísticas del ámbito cerrado, o null si no había uno abierto
+     */
+    public static Stats stop() {
+        Stats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    /**
+     * Obtiene las estadísticas del ámbito abierto en el hilo actual.
+     *
+     * @return estadísticas en curso, o null si no hay un ámbito abierto
+     */
+    public static Stats current() {
+        return CURRENT.get();
+    }
+
+    static void statementPrepared() {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements++;
+        }
+    }
+
+    static void jdbcTimeElapsed(long nanos) {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.jdbcNanos += nanos;
+        }
+    }
+
+    /**
+     * Sentencias SQL y tiempo de JDBC acumulados en un ámbito. Solo lo
+     * modifica el hilo que abrió el ámbito.
+     */
+    public static final class Stats {
+
+        private int statements;
+        private long jdbcNanos;
+
+        /**
+         * Obtiene la cantidad de sentencias SQL preparadas.
+         *
+         * @return cantidad de sentencias
+         */
+        public int getStatements() {
+            return statements;
+        }
+
+        /**
+         * Obtiene el tiempo total de ejecución de las sentencias en JDBC.
+         *
+         * @return tiempo acumulado
+         */
+        public Duration getJdbcTime() {
+            return Duration.ofNanos(jdbcNanos);
+        }
+
+        @Override
+        public String toString() {
+            return statements + " sentencias SQL, " + getJdbcTime().toMillis() + " ms en JDBC";
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.briamcarrasco.arriendomaquinaria.config;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Registra en {@link SqlStatementCounter} las sentencias que ejecuta
+ * Hibernate.
+ *
+ * Como {@link StatementInspector} cuenta cada sentencia que se prepara, sin
+ * modificarla; como {@link SessionEventListener} mide el tiempo de cada
+ * ejecución y de cada lote en JDBC. Hibernate crea una instancia por sesión
+ * a partir del nombre de la clase, por lo que el tiempo de inicio se guarda
+ * en la instancia sin sincronización.
+ */
+public class SqlStatementInspector implements StatementInspector, SessionEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private long executeStart;
+    private long batchStart;
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementCounter.statementPrepared();
+        return sql;
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlStatementCounter.jdbcTimeElapsed(System.nanoTime() - executeStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        SqlStatementCounter.jdbcTimeElapsed(System.nanoTime() - batchStart);
+    }
+}
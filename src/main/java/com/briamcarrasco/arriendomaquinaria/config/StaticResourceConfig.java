@@ -2,9 +2,11 @@ package com.briamcarrasco.arriendomaquinaria.config;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -12,10 +14,20 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  * Configuración para servir archivos estáticos subidos por los usuarios.
  * Permite acceder a los archivos bajo la ruta /uploads/** desde el sistema de
  * archivos local.
+ *
+ * Los archivos subidos nunca se sobrescriben: su nombre se deriva del hash de
+ * su contenido. Por eso se sirven como inmutables con caché de larga duración
+ * y con un ETag fuerte basado en el nombre. Las peticiones con {@code Range}
+ * las resuelve el propio manejador de recursos.
  */
 @Configuration
 public class StaticResourceConfig implements WebMvcConfigurer {
 
+    /**
+     * Duración de la caché de los archivos subidos.
+     */
+    private static final Duration UPLOADS_MAX_AGE = Duration.ofDays(365);
+
     @Value("${app.upload-dir:uploads}")
     private String uploadDir;
 
@@ -23,6 +35,8 @@ public class StaticResourceConfig implements WebMvcConfigurer {
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         Path dir = Paths.get(uploadDir).toAbsolutePath().normalize();
         registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:" + dir.toString() + "/");
+                .addResourceLocations("file:" + dir.toString() + "/")
+                .setCacheControl(CacheControl.maxAge(UPLOADS_MAX_AGE).cachePublic().immutable())
+                .setEtagGenerator(resource -> "\"" + resource.getFilename() + "\"");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,109 @@
+package com.briamcarrasco.arriendomaquinaria.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Diagnóstico de hilos virtuales fijados a su hilo portador.
+ *
+ * Un hilo virtual que se bloquea dentro de un bloque {@code synchronized} o
+ * de código nativo no libera su portador, y con pocos portadores unas cuantas
+ * esperas de ese tipo detienen todas las peticiones. Este componente escucha
+ * en la propia JVM el evento JFR {@code jdk.VirtualThreadPinned}, registra
+ * cada caso que supera el umbral con la pila en que ocurrió y lo cuenta en la
+ * métrica {@code jvm.threads.virtual.pinned}.
+ *
+ * Se activa con {@code app.threads.pinning-monitor.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.threads.pinning-monitor.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_FRAMES = 8;
+
+    private final Duration threshold;
+    private final Counter pinnedCounter;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(@Value("${app.threads.pinning-monitor.threshold:20ms}") Duration threshold,
+            MeterRegistry meterRegistry) {
+        this.threshold = threshold;
+        this.pinnedCounter = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Hilos virtuales que quedaron fijados a su portador más del umbral")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+        stream = recording;
+        logger.info("Monitor de hilos virtuales fijados activo (umbral {} ms)", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    /**
+     * Obtiene la cantidad de casos detectados desde el inicio.
+     *
+     * @return número de hilos virtuales fijados sobre el umbral
+     */
+    public long getPinnedCount() {
+        return (long) pinnedCounter.count();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        logger.warn("Hilo virtual fijado a su portador durante {} ms en:\n{}", event.getDuration().toMillis(),
+                describe(event.getStackTrace()));
+    }
+
+    /**
+     * Describe los primeros marcos de la pila de un evento.
+     *
+     * @param stackTrace pila registrada por JFR, o null si no se registró
+     * @return un marco por línea
+     */
+    static String describe(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "\t(sin pila)";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        return frames.stream()
+                .limit(MAX_FRAMES)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+}
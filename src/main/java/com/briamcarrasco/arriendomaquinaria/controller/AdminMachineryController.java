@@ -1,10 +1,19 @@
 package com.briamcarrasco.arriendomaquinaria.controller;
 
+import com.briamcarrasco.arriendomaquinaria.dto.CursorPage;
+import com.briamcarrasco.arriendomaquinaria.dto.FacetedSearchResult;
+import com.briamcarrasco.arriendomaquinaria.dto.MachineryDetail;
+import com.briamcarrasco.arriendomaquinaria.dto.MachinerySearchCriteria;
+import com.briamcarrasco.arriendomaquinaria.dto.MachinerySummary;
+import com.briamcarrasco.arriendomaquinaria.dto.ResourceVersion;
 import com.briamcarrasco.arriendomaquinaria.model.Category;
 import com.briamcarrasco.arriendomaquinaria.model.Machinery;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryStatus;
+import com.briamcarrasco.arriendomaquinaria.service.MachineryMediaService;
 import com.briamcarrasco.arriendomaquinaria.service.MachineryService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.validation.constraints.Pattern;
@@ -13,15 +22,12 @@ import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.validation.annotation.Validated;
 import java.math.BigDecimal;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.List;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import java.nio.file.Path;
 
 /**
  * Controlador para la administración de maquinarias en el sistema.
@@ -39,20 +45,26 @@ public class AdminMachineryController {
     private static final Logger logger = LoggerFactory.getLogger(AdminMachineryController.class);
 
     private final MachineryService machineryService;
+    private final MachineryMediaService mediaService;
 
-    public AdminMachineryController(MachineryService machineryService) {
+    public AdminMachineryController(MachineryService machineryService, MachineryMediaService mediaService) {
         this.machineryService = machineryService;
+        this.mediaService = mediaService;
     }
 
     /**
      * Crea una nueva maquinaria en el sistema.
+     * La imagen se guarda en el directorio de subidas y su miniatura se genera
+     * en segundo plano después de crear la maquinaria.
      *
      * @param nameMachinery nombre de la maquinaria
      * @param categoryId    identificador de la categoría
-     * @param status        estado de la maquinaria
+     * @param status        estado inicial de la maquinaria; solo se aceptan los
+     *                      estados asignables manualmente
      * @param pricePerDay   precio por día de arriendo
-     * @param imageUrl      URL de la imagen de la maquinaria (opcional)
-     * @return redirección a la página principal
+     * @param imageFile     archivo de imagen de la maquinaria (opcional)
+     * @return redirección a la página principal, o a la página de error si el
+     *         estado no es válido
      */
     @PostMapping
     public String createMachinery(
@@ -67,9 +79,21 @@ public class AdminMachineryController {
                 nameMachinery, categoryId, status, pricePerDay,
                 imageFile != null ? imageFile.getOriginalFilename() : "null");
 
+        MachineryStatus initialStatus;
+        try {
+            initialStatus = MachineryStatus.from(status);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Estado de maquinaria inválido: {}", status);
+            return "redirect:/error";
+        }
+        if (!MachineryStatus.manualValues().contains(initialStatus)) {
+            logger.warn("El estado {} no se puede asignar manualmente", initialStatus);
+            return "redirect:/error";
+        }
+
         Machinery machinery = new Machinery();
         machinery.setNameMachinery(nameMachinery);
-        machinery.setStatus(status);
+        machinery.setStatus(initialStatus);
         machinery.setPricePerDay(pricePerDay);
 
         Category category = new Category();
@@ -77,25 +101,23 @@ public class AdminMachineryController {
         machinery.setCategory(category);
         if (imageFile != null && !imageFile.isEmpty()) {
             try {
-                String uploadDir = "src/main/resources/static/images/";
-                String fileName = System.currentTimeMillis() + "_" + imageFile.getOriginalFilename();
-                Path filePath = Paths.get(uploadDir, fileName);
-                Files.createDirectories(filePath.getParent());
-                Files.write(filePath, imageFile.getBytes());
-                machinery.setImageUrl("/images/" + fileName);
-                logger.info("Imagen subida y guardada en: {}", filePath);
+                machinery.setImageUrl(mediaService.storeImage(imageFile));
+                logger.info("Imagen subida y guardada en: {}", machinery.getImageUrl());
             } catch (Exception e) {
                 logger.error("Error al guardar la imagen", e);
-                machinery.setImageUrl("/images/Case_IH_Axial-Flow.png");
+                machinery.setImageUrl(Machinery.DEFAULT_IMAGE_URL);
             }
         } else {
-            machinery.setImageUrl("/images/Case_IH_Axial-Flow.png");
+            machinery.setImageUrl(Machinery.DEFAULT_IMAGE_URL);
             logger.info("No se proporcionó imagen, se asigna imagen por defecto.");
         }
 
         try {
-            machineryService.createMachinery(machinery);
+            Machinery saved = machineryService.createMachinery(machinery);
             logger.info("Maquinaria creada exitosamente: {}", machinery);
+            if (saved != null) {
+                mediaService.processMachineryImage(saved.getId(), saved.getImageUrl());
+            }
         } catch (Exception e) {
             logger.error("Error al crear maquinaria", e);
             return "redirect:/error";
@@ -104,25 +126,47 @@ public class AdminMachineryController {
     }
 
     /**
-     * Obtiene la lista de todas las maquinarias registradas.
+     * Obtiene una página del catálogo de maquinarias usando paginación por
+     * cursor. Cada elemento es un resumen con el nombre de la categoría y los
+     * contadores de calificación.
      *
-     * @return respuesta HTTP con la lista de maquinarias
+     * @param cursor cursor opaco de la página anterior (opcional)
+     * @param size   cantidad máxima de elementos por página
+     * @return respuesta HTTP con la página de maquinarias o bad request si el
+     *         cursor no es válido
      */
     @GetMapping
-    public ResponseEntity<List<Machinery>> findAll() {
-        return ResponseEntity.ok(machineryService.findAll());
+    public ResponseEntity<CursorPage<MachinerySummary>> findAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(machineryService.findSummaryPage(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
-     * Busca una maquinaria por su identificador.
+     * Busca el detalle de una maquinaria por su identificador. Responde 304
+     * sin consultar el detalle si el cliente ya tiene la versión actual, según
+     * la fecha de última modificación de la maquinaria.
      *
-     * @param id identificador de la maquinaria
-     * @return respuesta HTTP con la maquinaria encontrada o not found si no existe
+     * @param id      identificador de la maquinaria
+     * @param request petición con las cabeceras condicionales
+     * @return respuesta HTTP con el detalle de la maquinaria, not modified si
+     *         no cambió o not found si no existe
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Machinery> findById(@PathVariable Long id) {
-        Optional<Machinery> machinery = machineryService.findById(id);
-        return machinery.map(ResponseEntity::ok)
+    public ResponseEntity<MachineryDetail> findById(@PathVariable Long id, WebRequest request) {
+        ResourceVersion version = machineryService.getVersion(id);
+        if (!version.exists()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (ConditionalGet.isNotModified(request, version)) {
+            return ConditionalGet.notModified(version);
+        }
+        Optional<MachineryDetail> machinery = machineryService.findDetailById(id);
+        return machinery.map(detail -> ConditionalGet.ok(version, detail))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -131,13 +175,20 @@ public class AdminMachineryController {
      *
      * @param id        identificador de la maquinaria a actualizar
      * @param machinery datos actualizados de la maquinaria
-     * @return respuesta HTTP con la maquinaria actualizada o not found si no existe
+     * @return respuesta HTTP con el detalle de la maquinaria actualizada, bad
+     *         request si la transición de estado no es válida o not found si no
+     *         existe
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Machinery> updateMachinery(@PathVariable Long id, @RequestBody Machinery machinery) {
+    public ResponseEntity<MachineryDetail> updateMachinery(@PathVariable Long id,
+            @RequestBody Machinery machinery) {
         try {
-            Machinery updated = machineryService.updateMachinery(id, machinery);
-            return ResponseEntity.ok(updated);
+            machineryService.updateMachinery(id, machinery);
+            return machineryService.findDetailById(id)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -199,4 +250,49 @@ public class AdminMachineryController {
         model.addAttribute("maquinarias", maquinarias);
         return "search";
     }
-}
\ No newline at end of file
+
+    /**
+     * Búsqueda facetada de maquinarias. Combina texto, categoría, estado y rango
+     * de precio en una sola consulta y devuelve los conteos por categoría y
+     * estado en la misma respuesta.
+     *
+     * @param text       texto a buscar en nombre, categoría o descripción
+     *                   (opcional)
+     * @param categoryId identificador de la categoría (opcional)
+     * @param status     estado de la maquinaria (opcional)
+     * @param minPrice   precio mínimo por día (opcional)
+     * @param maxPrice   precio máximo por día (opcional)
+     * @param sort       criterio de orden; {@code rating} ordena por promedio de
+     *                   calificación (opcional)
+     * @param size       cantidad máxima de resultados
+     * @return respuesta HTTP con resultados y facetas, o bad request si el rango
+     *         de precio o el estado no son válidos
+     */
+    @GetMapping("/faceted-search")
+    public ResponseEntity<FacetedSearchResult> facetedSearch(
+            @RequestParam(required = false) @Size(max = 50, message = "El texto no debe superar 50 caracteres") @Pattern(regexp = "[\\p{L}\\p{N} .-]*", message = "Texto contiene caracteres no permitidos") String text,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) @Size(max = 50, message = "El estado no debe superar 50 caracteres") String status,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "20") int size) {
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        MachinerySearchCriteria criteria = new MachinerySearchCriteria();
+        if (status != null && !status.isBlank()) {
+            try {
+                criteria.setStatus(MachineryStatus.from(status));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        criteria.setText(text);
+        criteria.setCategoryId(categoryId);
+        criteria.setMinPrice(minPrice);
+        criteria.setMaxPrice(maxPrice);
+        criteria.setSortByRating("rating".equalsIgnoreCase(sort));
+        return ResponseEntity.ok(machineryService.facetedSearch(criteria, size));
+    }
+}
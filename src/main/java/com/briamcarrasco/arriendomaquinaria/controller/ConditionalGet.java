@@ -0,0 +1,69 @@
+package com.briamcarrasco.arriendomaquinaria.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import com.briamcarrasco.arriendomaquinaria.dto.ResourceVersion;
+
+/**
+ * Respuestas para las peticiones GET condicionales de la API JSON.
+ *
+ * Los controladores consultan primero la versión del recurso y solo
+ * construyen el cuerpo si no coincide con {@code If-None-Match} o, sin ETag,
+ * con {@code If-Modified-Since}; en ese caso responden 304 sin cuerpo. Las
+ * respuestas se marcan {@code public, no-cache} para que navegadores y CDN
+ * las guarden pero las revaliden en cada uso.
+ */
+final class ConditionalGet {
+
+    static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePublic();
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Evalúa las cabeceras condicionales de la petición contra la versión del
+     * recurso.
+     *
+     * @param request petición actual
+     * @param version versión del recurso
+     * @return true si el cliente ya tiene la versión actual
+     */
+    static boolean isNotModified(WebRequest request, ResourceVersion version) {
+        return request.checkNotModified(version.getETag(), version.getLastModifiedMillis());
+    }
+
+    /**
+     * Construye la respuesta 304 con las cabeceras de la versión.
+     *
+     * @param version versión del recurso
+     * @param <T>     tipo del cuerpo de la respuesta
+     * @return respuesta sin cuerpo
+     */
+    static <T> ResponseEntity<T> notModified(ResourceVersion version) {
+        return withVersion(ResponseEntity.status(HttpStatus.NOT_MODIFIED), version).build();
+    }
+
+    /**
+     * Construye la respuesta 200 con el cuerpo y las cabeceras de la versión.
+     *
+     * @param version versión del recurso
+     * @param body    cuerpo de la respuesta
+     * @param <T>     tipo del cuerpo de la respuesta
+     * @return respuesta con ETag, Last-Modified y Cache-Control
+     */
+    static <T> ResponseEntity<T> ok(ResourceVersion version, T body) {
+        return withVersion(ResponseEntity.ok(), version).body(body);
+    }
+
+    private static ResponseEntity.BodyBuilder withVersion(ResponseEntity.BodyBuilder builder,
+            ResourceVersion version) {
+        builder.cacheControl(CACHE_CONTROL).eTag(version.getETag());
+        if (version.getLastModified() != null) {
+            builder.lastModified(version.getLastModifiedMillis());
+        }
+        return builder;
+    }
+}
@@ -1,9 +1,12 @@
 package com.briamcarrasco.arriendomaquinaria.controller;
 
-import com.briamcarrasco.arriendomaquinaria.repository.MachineryRepository;
+import com.briamcarrasco.arriendomaquinaria.dto.CursorPage;
+import com.briamcarrasco.arriendomaquinaria.dto.MachinerySummary;
+import com.briamcarrasco.arriendomaquinaria.service.MachineryService;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.security.core.Authentication;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,15 +21,15 @@ import org.slf4j.LoggerFactory;
 public class HomeController {
 
     private static final Logger logger = LoggerFactory.getLogger(HomeController.class);
-    private final MachineryRepository repo;
+    private final MachineryService machineryService;
 
     /**
-     * Constructor que recibe el repositorio de maquinarias.
+     * Constructor que recibe el servicio de maquinarias.
      *
-     * @param repo repositorio de maquinarias
+     * @param machineryService servicio de maquinarias
      */
-    public HomeController(MachineryRepository repo) {
-        this.repo = repo;
+    public HomeController(MachineryService machineryService) {
+        this.machineryService = machineryService;
     }
 
     /**
@@ -45,18 +48,24 @@ public class HomeController {
     }
 
     /**
-     * Muestra la página principal con el nombre del usuario autenticado y la lista
-     * de maquinarias.
+     * Muestra la página principal con el nombre del usuario autenticado y una
+     * página del listado de maquinarias.
      *
      * @param authentication información de autenticación del usuario
+     * @param cursor         cursor opaco de la página anterior (opcional)
      * @param model          modelo para la vista
      * @return nombre de la vista principal
      */
     @GetMapping("/home")
-    public String home(Authentication authentication, Model model) {
+    public String home(Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            Model model) {
         logger.info("Authentication in /home: {}", authentication);
         model.addAttribute("name", authentication != null ? authentication.getName() : "Invitado");
-        model.addAttribute("maquinarias", repo.findAll());
+        CursorPage<MachinerySummary> page = machineryService.findSummaryPageOrFirst(cursor, 0);
+        model.addAttribute("maquinarias", page.getItems());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("pageUrl", "/home");
         return "home";
     }
 
@@ -69,4 +78,4 @@ public class HomeController {
     public String redirectToLanding() {
         return "redirect:/landing";
     }
-}
\ No newline at end of file
+}
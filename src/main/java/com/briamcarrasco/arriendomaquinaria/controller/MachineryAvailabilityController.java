@@ -0,0 +1,130 @@
+package com.briamcarrasco.arriendomaquinaria.controller;
+
+import com.briamcarrasco.arriendomaquinaria.dto.AvailabilityBatchRequest;
+import com.briamcarrasco.arriendomaquinaria.dto.AvailabilityCalendar;
+import com.briamcarrasco.arriendomaquinaria.service.MachineryRentalService;
+import com.briamcarrasco.arriendomaquinaria.service.MachineryService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controlador REST para consultar la disponibilidad de las maquinarias.
+ *
+ * Permite saber si una maquinaria está libre en un rango de fechas, obtener
+ * todas las maquinarias libres en un rango, consultar varias maquinarias a la
+ * vez y el calendario de ocupación diaria de una maquinaria. Las fechas se reciben en formato
+ * ISO ({@code yyyy-MM-dd}) y ambos extremos del rango son inclusivos.
+ */
+@RestController
+@RequestMapping("/api/machinery")
+public class MachineryAvailabilityController {
+
+    /**
+     * Cantidad de días del calendario cuando no se indica el último día.
+     */
+    private static final int DEFAULT_CALENDAR_DAYS = 365;
+
+    private final MachineryRentalService rentalService;
+    private final MachineryService machineryService;
+
+    public MachineryAvailabilityController(MachineryRentalService rentalService,
+            MachineryService machineryService) {
+        this.rentalService = rentalService;
+        this.machineryService = machineryService;
+    }
+
+    /**
+     * Obtiene las maquinarias libres en un rango de fechas.
+     *
+     * @param from primer día del rango
+     * @param to   último día del rango
+     * @return respuesta HTTP con los identificadores de las maquinarias libres o
+     *         bad request si el rango no es válido
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<List<Long>> findAvailable(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(rentalService.findAvailableMachinery(from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Indica si una maquinaria está libre en un rango de fechas.
+     *
+     * @param id   identificador de la maquinaria
+     * @param from primer día del rango
+     * @param to   último día del rango
+     * @return respuesta HTTP con el identificador y la disponibilidad, o bad
+     *         request si el rango no es válido
+     */
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<Map<String, Object>> isAvailable(@PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            boolean available = rentalService.isAvailable(id, from, to);
+            Map<String, Object> body = new HashMap<>();
+            body.put("machineryId", id);
+            body.put("available", available);
+            return ResponseEntity.ok(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Indica la disponibilidad de varias maquinarias en un mismo rango de
+     * fechas, por ejemplo los resultados de una búsqueda.
+     *
+     * @param request identificadores de las maquinarias y rango de fechas
+     * @return respuesta HTTP con la disponibilidad por identificador de
+     *         maquinaria o bad request si la solicitud no es válida
+     */
+    @PostMapping("/availability/batch")
+    public ResponseEntity<Map<Long, Boolean>> findAvailability(
+            @Validated @RequestBody AvailabilityBatchRequest request) {
+        try {
+            return ResponseEntity.ok(rentalService.findAvailability(
+                    request.getMachineryIds(), request.getFrom(), request.getTo()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Obtiene el calendario de ocupación diaria de una maquinaria. Por defecto
+     * cubre los próximos 12 meses a partir de hoy.
+     *
+     * @param id   identificador de la maquinaria
+     * @param from primer día del calendario (opcional)
+     * @param to   último día del calendario (opcional)
+     * @return respuesta HTTP con el calendario, not found si la maquinaria no
+     *         existe o bad request si el rango no es válido
+     */
+    @GetMapping("/{id}/calendar")
+    public ResponseEntity<AvailabilityCalendar> getCalendar(@PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (machineryService.findById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start.plusDays(DEFAULT_CALENDAR_DAYS - 1L);
+        try {
+            return ResponseEntity.ok(rentalService.getCalendar(id, start, end));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
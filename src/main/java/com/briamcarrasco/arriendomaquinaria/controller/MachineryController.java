@@ -1,11 +1,14 @@
 package com.briamcarrasco.arriendomaquinaria.controller;
 
-import com.briamcarrasco.arriendomaquinaria.repository.MachineryRepository;
+import com.briamcarrasco.arriendomaquinaria.dto.CursorPage;
+import com.briamcarrasco.arriendomaquinaria.dto.MachinerySummary;
+import com.briamcarrasco.arriendomaquinaria.service.MachineryService;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 /**
  * Controlador para la gestión del inventario de maquinarias en el sistema.
@@ -15,29 +18,35 @@ import org.springframework.web.bind.annotation.GetMapping;
 @Controller
 public class MachineryController {
 
-    private final MachineryRepository repo;
+    private final MachineryService machineryService;
 
     /**
-     * Constructor que recibe el repositorio de maquinarias.
+     * Constructor que recibe el servicio de maquinarias.
      *
-     * @param repo repositorio de maquinarias
+     * @param machineryService servicio de maquinarias
      */
-    public MachineryController(MachineryRepository repo) {
-        this.repo = repo;
+    public MachineryController(MachineryService machineryService) {
+        this.machineryService = machineryService;
     }
 
     /**
      * Muestra la página de inventario de maquinarias.
-     * Agrega al modelo la lista de maquinarias y el nombre del usuario autenticado.
+     * Agrega al modelo una página de maquinarias y el nombre del usuario
+     * autenticado.
      *
-     * @param model modelo para la vista
-     * @param user  usuario autenticado
+     * @param model  modelo para la vista
+     * @param user   usuario autenticado
+     * @param cursor cursor opaco de la página anterior (opcional)
      * @return nombre de la vista de inventario
      */
     @GetMapping("/inventario")
-    public String home(Model model, @AuthenticationPrincipal UserDetails user) {
-        model.addAttribute("maquinarias", repo.findAll());
+    public String home(Model model, @AuthenticationPrincipal UserDetails user,
+            @RequestParam(required = false) String cursor) {
+        CursorPage<MachinerySummary> page = machineryService.findSummaryPageOrFirst(cursor, 0);
+        model.addAttribute("maquinarias", page.getItems());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("pageUrl", "/inventario");
         model.addAttribute("name", user != null ? user.getUsername() : "la plataforma");
         return "home";
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,5 @@
 package com.briamcarrasco.arriendomaquinaria.controller;
 
-import java.util.List;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.Authentication;
@@ -10,8 +8,9 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import com.briamcarrasco.arriendomaquinaria.dto.CursorPage;
+import com.briamcarrasco.arriendomaquinaria.dto.ReviewSummary;
 import com.briamcarrasco.arriendomaquinaria.model.Machinery;
-import com.briamcarrasco.arriendomaquinaria.model.Review;
 import com.briamcarrasco.arriendomaquinaria.service.MachineryService;
 import com.briamcarrasco.arriendomaquinaria.service.ReviewService;
 
@@ -23,6 +22,9 @@ import jakarta.servlet.http.HttpServletRequest;
  * Permite visualizar la información de una maquinaria, sus reseñas y el
  * promedio de calificaciones,
  * tanto para usuarios autenticados como para visitantes públicos.
+ * El promedio se obtiene de los contadores de la maquinaria, sin consultar las
+ * reseñas, y solo se renderiza la primera página de reseñas; las siguientes se
+ * cargan bajo demanda desde {@code /api/reviews/machinery/{id}}.
  */
 @Controller
 public class MachineryDetailController {
@@ -65,14 +67,15 @@ public class MachineryDetailController {
             return "machinery-not-found";
         }
 
-        List<Review> reviews = reviewService.getReviewsByMachinery(id);
-        Double averageRating = reviewService.getAverageRating(id);
+        CursorPage<ReviewSummary> reviews = reviewService.getReviewPage(id, null, 0);
+        Double averageRating = machinery.getAverageRating();
 
         String currentUrl = request.getRequestURL().toString()
                 + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
 
         model.addAttribute(MACHINERY_ATTR, machinery);
-        model.addAttribute("reviews", reviews);
+        model.addAttribute("reviews", reviews.getItems());
+        model.addAttribute("reviewsNextCursor", reviews.getNextCursor());
         model.addAttribute("averageRating", averageRating);
         model.addAttribute("currentUrl", currentUrl);
         model.addAttribute("name", authentication != null ? authentication.getName() : "Invitado");
@@ -99,12 +102,13 @@ public class MachineryDetailController {
             model.addAttribute(MACHINERY_ATTR, null);
             return "machinery-not-found";
         }
-        List<Review> reviews = reviewService.getReviewsByMachinery(id);
-        Double averageRating = reviewService.getAverageRating(id);
+        CursorPage<ReviewSummary> reviews = reviewService.getReviewPage(id, null, 0);
+        Double averageRating = machinery.getAverageRating();
         String currentUrl = request.getRequestURL().toString()
                 + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
         model.addAttribute(MACHINERY_ATTR, machinery);
-        model.addAttribute("reviews", reviews);
+        model.addAttribute("reviews", reviews.getItems());
+        model.addAttribute("reviewsNextCursor", reviews.getNextCursor());
         model.addAttribute("averageRating", averageRating);
         model.addAttribute("currentUrl", currentUrl);
         model.addAttribute("name", "Visitante");
@@ -0,0 +1,107 @@
+package com.briamcarrasco.arriendomaquinaria.controller;
+
+import com.briamcarrasco.arriendomaquinaria.service.MachineryExportService;
+
+import java.util.concurrent.Semaphore;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Controlador REST para exportar el catálogo completo de maquinarias.
+ *
+ * La respuesta se escribe en streaming a medida que se leen las filas, sin
+ * armar el catálogo en memoria, y está pensada para integraciones que
+ * necesitan descargar todas las maquinarias de una vez.
+ *
+ * Cada descarga ocupa una conexión del pool mientras dura, por lo que se
+ * atienden a lo más {@code app.export.max-concurrent} a la vez; las demás
+ * reciben 503 con {@code Retry-After} en lugar de esperar una conexión.
+ */
+@RestController
+@RequestMapping("/api/machinery")
+public class MachineryExportController {
+
+    /**
+     * Tipo de contenido de las exportaciones NDJSON.
+     */
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    /**
+     * Tipo de contenido de las exportaciones CSV.
+     */
+    static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    /**
+     * Segundos sugeridos al cliente antes de reintentar una descarga rechazada.
+     */
+    static final String RETRY_AFTER_SECONDS = "30";
+
+    private final MachineryExportService exportService;
+    private final Semaphore exports;
+
+    public MachineryExportController(MachineryExportService exportService,
+            @Value("${app.export.max-concurrent:2}") int maxConcurrent) {
+        this.exportService = exportService;
+        this.exports = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Exporta el catálogo de maquinarias.
+     *
+     * @param format formato de salida: {@code ndjson} (por defecto) o
+     *               {@code csv}
+     * @return respuesta HTTP con el catálogo en streaming, bad request si el
+     *         formato no es válido o service unavailable si ya hay demasiadas
+     *         descargas en curso
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        if (!ndjson && !"csv".equalsIgnoreCase(format)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!exports.tryAcquire()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .build();
+        }
+        if (ndjson) {
+            return ResponseEntity.ok()
+                    .contentType(NDJSON)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, attachment("maquinarias.ndjson"))
+                    .body(releasing(exportService::exportNdjson));
+        }
+        return ResponseEntity.ok()
+                .contentType(CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachment("maquinarias.csv"))
+                .body(releasing(exportService::exportCsv));
+    }
+
+    /**
+     * Envuelve la escritura para liberar el cupo de descarga al terminar,
+     * también si falla o el cliente se desconecta.
+     */
+    private StreamingResponseBody releasing(StreamingResponseBody body) {
+        return out -> {
+            try {
+                body.writeTo(out);
+            } finally {
+                exports.release();
+            }
+        };
+    }
+
+    private static String attachment(String filename) {
+        return ContentDisposition.attachment().filename(filename).build().toString();
+    }
+}
@@ -0,0 +1,93 @@
+package com.briamcarrasco.arriendomaquinaria.controller;
+
+import com.briamcarrasco.arriendomaquinaria.dto.BulkImportResult;
+import com.briamcarrasco.arriendomaquinaria.jwt.Constants;
+import com.briamcarrasco.arriendomaquinaria.service.MachineryImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Controlador REST para la importación masiva de maquinarias.
+ *
+ * Recibe un archivo CSV o NDJSON y responde con la cantidad de maquinarias
+ * insertadas y los errores de validación por línea. Solo los administradores
+ * pueden importar.
+ */
+@RestController
+@RequestMapping("/api/machinery")
+public class MachineryImportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(MachineryImportController.class);
+
+    private final MachineryImportService importService;
+
+    public MachineryImportController(MachineryImportService importService) {
+        this.importService = importService;
+    }
+
+    /**
+     * Importa maquinarias desde un archivo.
+     *
+     * @param file   archivo CSV o NDJSON
+     * @param format formato del archivo: {@code csv} o {@code ndjson}; si no se
+     *               indica se deduce de la extensión del archivo
+     * @return respuesta HTTP con el resultado de la importación, o bad request
+     *         si el archivo o el formato no son válidos
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/import")
+    public ResponseEntity<Object> importMachinery(@RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format) {
+        if (file == null || file.isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of(Constants.ERROR_KEY, "empty_file", Constants.MESSAGE_KEY, "El archivo está vacío"));
+        }
+        String resolved = format != null ? format.toLowerCase(Locale.ROOT) : formatOf(file.getOriginalFilename());
+        try (InputStream in = file.getInputStream()) {
+            BulkImportResult result;
+            if ("csv".equals(resolved)) {
+                result = importService.importCsv(in);
+            } else if ("ndjson".equals(resolved)) {
+                result = importService.importNdjson(in);
+            } else {
+                return ResponseEntity.badRequest().body(Map.of(Constants.ERROR_KEY, "invalid_format",
+                        Constants.MESSAGE_KEY, "Formato no soportado; use csv o ndjson"));
+            }
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of(Constants.ERROR_KEY, "invalid_file", Constants.MESSAGE_KEY, e.getMessage()));
+        } catch (IOException e) {
+            logger.error("Error leyendo el archivo de importación", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of(Constants.ERROR_KEY, "read_error"));
+        }
+    }
+
+    private static String formatOf(String filename) {
+        if (filename == null) {
+            return null;
+        }
+        String lower = filename.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".csv")) {
+            return "csv";
+        }
+        if (lower.endsWith(".ndjson") || lower.endsWith(".jsonl")) {
+            return "ndjson";
+        }
+        return null;
+    }
+}
@@ -14,7 +14,10 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.briamcarrasco.arriendomaquinaria.dto.MachineryMediaSummary;
+import com.briamcarrasco.arriendomaquinaria.dto.ResourceVersion;
 import com.briamcarrasco.arriendomaquinaria.jwt.Constants;
 
 import com.briamcarrasco.arriendomaquinaria.model.MachineryMedia;
@@ -39,13 +42,21 @@ public class MachineryMediaController {
 
     /**
      * Obtiene la lista de archivos multimedia asociados a una maquinaria.
+     * Responde 304 sin consultar los archivos si el cliente ya tiene la
+     * versión actual de la maquinaria.
      *
      * @param machineryId identificador de la maquinaria
-     * @return lista de objetos MachineryMedia
+     * @param request     petición con las cabeceras condicionales
+     * @return lista de archivos multimedia con sus URL, o not modified si no
+     *         cambió
      */
     @GetMapping("/machinery/{machineryId}")
-    public ResponseEntity<List<MachineryMedia>> list(@PathVariable Long machineryId) {
-        return ResponseEntity.ok(mediaService.getMediaByMachinery(machineryId));
+    public ResponseEntity<List<MachineryMediaSummary>> list(@PathVariable Long machineryId, WebRequest request) {
+        ResourceVersion version = mediaService.getMediaVersion(machineryId);
+        if (ConditionalGet.isNotModified(request, version)) {
+            return ConditionalGet.notModified(version);
+        }
+        return ConditionalGet.ok(version, mediaService.getMediaByMachinery(machineryId));
     }
 
     /**
@@ -54,7 +65,7 @@ public class MachineryMediaController {
      *
      * @param machineryId identificador de la maquinaria
      * @param body        mapa con la URL de la imagen
-     * @return el objeto MachineryMedia creado o error si la URL es inválida o
+     * @return el archivo multimedia creado o error si la URL es inválida o
      *         duplicada
      */
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
@@ -67,7 +78,7 @@ public class MachineryMediaController {
         }
         try {
             MachineryMedia media = mediaService.addImage(machineryId, url);
-            return ResponseEntity.ok(media);
+            return ResponseEntity.ok(MachineryMediaSummary.from(media));
         } catch (org.springframework.dao.DataIntegrityViolationException dive) {
             return ResponseEntity.status(409).body(Map.of(Constants.ERROR_KEY, Constants.DUPLICATE_MEDIA_ERROR,
                     Constants.MESSAGE_KEY,
@@ -84,7 +95,7 @@ public class MachineryMediaController {
      *
      * @param machineryId identificador de la maquinaria
      * @param file        archivo de imagen a subir
-     * @return el objeto MachineryMedia creado o error si el archivo es inválido o
+     * @return el archivo multimedia creado o error si el archivo es inválido o
      *         duplicado
      */
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
@@ -93,7 +104,7 @@ public class MachineryMediaController {
             @RequestParam("file") org.springframework.web.multipart.MultipartFile file) {
         try {
             MachineryMedia media = mediaService.addImageFile(machineryId, file);
-            return ResponseEntity.ok(media);
+            return ResponseEntity.ok(MachineryMediaSummary.from(media));
         } catch (org.springframework.dao.DataIntegrityViolationException dive) {
             return ResponseEntity.status(409).body(Map.of(Constants.ERROR_KEY, Constants.DUPLICATE_MEDIA_ERROR,
                     Constants.MESSAGE_KEY,
@@ -110,7 +121,7 @@ public class MachineryMediaController {
      *
      * @param machineryId identificador de la maquinaria
      * @param body        mapa con la URL del video
-     * @return el objeto MachineryMedia creado o error si la URL es inválida o
+     * @return el archivo multimedia creado o error si la URL es inválida o
      *         duplicada
      */
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
@@ -123,7 +134,7 @@ public class MachineryMediaController {
         }
         try {
             MachineryMedia media = mediaService.addVideo(machineryId, url);
-            return ResponseEntity.ok(media);
+            return ResponseEntity.ok(MachineryMediaSummary.from(media));
         } catch (org.springframework.dao.DataIntegrityViolationException dive) {
             return ResponseEntity.status(409).body(Map.of(Constants.ERROR_KEY, Constants.DUPLICATE_MEDIA_ERROR,
                     Constants.MESSAGE_KEY,
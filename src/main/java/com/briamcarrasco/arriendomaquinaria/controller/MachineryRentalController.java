@@ -0,0 +1,80 @@
+package com.briamcarrasco.arriendomaquinaria.controller;
+
+import com.briamcarrasco.arriendomaquinaria.dto.RentalRequest;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryRental;
+import com.briamcarrasco.arriendomaquinaria.model.User;
+import com.briamcarrasco.arriendomaquinaria.repository.UserRepository;
+import com.briamcarrasco.arriendomaquinaria.service.MachineryRentalService;
+import com.briamcarrasco.arriendomaquinaria.service.MachineryService;
+import com.briamcarrasco.arriendomaquinaria.service.RentalConflictException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Controlador REST para arrendar maquinarias.
+ *
+ * Permite al usuario autenticado registrar el arriendo de una maquinaria en un
+ * rango de fechas. Si la maquinaria ya está arrendada en parte del rango se
+ * responde con 409 Conflict.
+ */
+@RestController
+@RequestMapping("/api/machinery")
+public class MachineryRentalController {
+
+    private final MachineryRentalService rentalService;
+    private final MachineryService machineryService;
+    private final UserRepository userRepository;
+
+    public MachineryRentalController(MachineryRentalService rentalService,
+            MachineryService machineryService,
+            UserRepository userRepository) {
+        this.rentalService = rentalService;
+        this.machineryService = machineryService;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Registra el arriendo de una maquinaria por el usuario autenticado.
+     *
+     * @param id             identificador de la maquinaria
+     * @param request        fechas del arriendo
+     * @param authentication información de autenticación del usuario
+     * @return respuesta con los datos del arriendo creado, o el error
+     *         correspondiente
+     */
+    @PostMapping("/{id}/rentals")
+    public ResponseEntity<Object> book(@PathVariable Long id,
+            @Validated @RequestBody RentalRequest request,
+            Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return ResponseEntity.status(401).body("No autenticado");
+        }
+        if (machineryService.findById(id).isEmpty()) {
+            return ResponseEntity.status(404).body("Maquinaria no encontrada");
+        }
+        User user = userRepository.findByUsername(authentication.getName());
+        if (user == null) {
+            return ResponseEntity.status(404).body("Usuario no encontrado");
+        }
+        try {
+            MachineryRental rental = rentalService.book(id, user, request.getFrom(), request.getTo());
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("id", rental.getId());
+            payload.put("machineryId", id);
+            payload.put("from", request.getFrom());
+            payload.put("to", request.getTo());
+            payload.put("user", user.getUsername());
+            return ResponseEntity.status(HttpStatus.CREATED).body(payload);
+        } catch (RentalConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
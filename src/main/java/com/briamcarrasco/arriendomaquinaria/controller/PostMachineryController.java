@@ -3,8 +3,8 @@ package com.briamcarrasco.arriendomaquinaria.controller;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryStatus;
 import com.briamcarrasco.arriendomaquinaria.service.CategoryService;
-import com.briamcarrasco.arriendomaquinaria.service.StatusService;
 
 /**
  * Controlador para la publicación de maquinarias en el sistema.
@@ -16,18 +16,14 @@ public class PostMachineryController {
 
     private final CategoryService categoryService;
 
-    private final StatusService statusService;
-
-    public PostMachineryController(
-            CategoryService categoryService,
-            StatusService statusService) {
+    public PostMachineryController(CategoryService categoryService) {
         this.categoryService = categoryService;
-        this.statusService = statusService;
     }
 
     /**
      * Muestra la página de publicación de maquinaria.
-     * Agrega al modelo las categorías y estados disponibles para la selección.
+     * Agrega al modelo las categorías y los estados que se pueden asignar
+     * manualmente; el estado arrendado se deriva de los arriendos.
      *
      * @param model modelo para la vista
      * @return nombre de la vista de publicación de maquinaria
@@ -35,7 +31,7 @@ public class PostMachineryController {
     @GetMapping("/postmachinery")
     public String postMachinery(Model model) {
         model.addAttribute("categories", categoryService.findAll());
-        model.addAttribute("statuses", statusService.findAll());
+        model.addAttribute("statuses", MachineryStatus.manualValues());
         return "postmachinery";
     }
 
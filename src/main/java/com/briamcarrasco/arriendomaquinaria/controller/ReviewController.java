@@ -1,16 +1,17 @@
 package com.briamcarrasco.arriendomaquinaria.controller;
 
+import com.briamcarrasco.arriendomaquinaria.dto.CursorPage;
+import com.briamcarrasco.arriendomaquinaria.dto.ResourceVersion;
 import com.briamcarrasco.arriendomaquinaria.dto.ReviewRequest;
+import com.briamcarrasco.arriendomaquinaria.dto.ReviewSummary;
 import com.briamcarrasco.arriendomaquinaria.model.Review;
-import com.briamcarrasco.arriendomaquinaria.model.User;
 import com.briamcarrasco.arriendomaquinaria.service.ReviewService;
 import com.briamcarrasco.arriendomaquinaria.repository.UserRepository;
-import com.briamcarrasco.arriendomaquinaria.service.MachineryService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -27,26 +28,40 @@ import java.util.Map;
 public class ReviewController {
 
     private final ReviewService reviewService;
-    private final MachineryService machineryService; // para validar existencia
     private final UserRepository userRepository;
 
-    public ReviewController(ReviewService reviewService,
-            MachineryService machineryService,
-            UserRepository userRepository) {
+    public ReviewController(ReviewService reviewService, UserRepository userRepository) {
         this.reviewService = reviewService;
-        this.machineryService = machineryService;
         this.userRepository = userRepository;
     }
 
     /**
-     * Obtiene la lista de reseñas asociadas a una maquinaria.
+     * Obtiene una página de reseñas de una maquinaria, de la más reciente a la
+     * más antigua, usando paginación por cursor. Responde 304 sin consultar la
+     * página si el cliente ya tiene la versión actual, según la cantidad de
+     * reseñas y la fecha de la última modificada.
      *
      * @param machineryId identificador de la maquinaria
-     * @return lista de reseñas de la maquinaria
+     * @param cursor      cursor opaco de la página anterior (opcional)
+     * @param size        cantidad máxima de reseñas por página
+     * @param request     petición con las cabeceras condicionales
+     * @return respuesta HTTP con la página de reseñas, not modified si no
+     *         cambió o bad request si el cursor no es válido
      */
     @GetMapping("/machinery/{machineryId}")
-    public ResponseEntity<List<Review>> getReviewsByMachinery(@PathVariable Long machineryId) {
-        return ResponseEntity.ok(reviewService.getReviewsByMachinery(machineryId));
+    public ResponseEntity<CursorPage<ReviewSummary>> getReviewsByMachinery(@PathVariable Long machineryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request) {
+        ResourceVersion version = reviewService.getReviewsVersion(machineryId);
+        if (ConditionalGet.isNotModified(request, version)) {
+            return ConditionalGet.notModified(version);
+        }
+        try {
+            return ConditionalGet.ok(version, reviewService.getReviewPage(machineryId, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -62,11 +77,14 @@ public class ReviewController {
 
     /**
      * Crea o actualiza una reseña para una maquinaria por el usuario autenticado.
+     * La existencia de la maquinaria la comprueba la misma escritura, sin una
+     * consulta previa.
      *
      * @param machineryId    identificador de la maquinaria
      * @param request        datos de la reseña (calificación y comentario)
      * @param authentication información de autenticación del usuario
-     * @return respuesta con los datos de la reseña y el promedio actualizado
+     * @return respuesta con los datos de la reseña y el promedio actualizado,
+     *         o not found si la maquinaria o el usuario no existen
      */
     @PostMapping("/machinery/{machineryId}")
     public ResponseEntity<Object> upsertReview(@PathVariable Long machineryId,
@@ -75,23 +93,25 @@ public class ReviewController {
         if (authentication == null || !authentication.isAuthenticated()) {
             return ResponseEntity.status(401).body("No autenticado");
         }
-        if (machineryService.findById(machineryId).isEmpty()) {
-            return ResponseEntity.status(404).body("Maquinaria no encontrada");
-        }
-        User user = userRepository.findByUsername(authentication.getName());
-        if (user == null) {
+        Long userId = userRepository.findIdByUsername(authentication.getName());
+        if (userId == null) {
             return ResponseEntity.status(404).body("Usuario no encontrado");
         }
-        Review review = reviewService.upsertReview(
-                machineryId,
-                user.getId(),
-                request.getRating(),
-                request.getComment());
+        Review review;
+        try {
+            review = reviewService.upsertReview(
+                    machineryId,
+                    userId,
+                    request.getRating(),
+                    request.getComment());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(404).body("Maquinaria no encontrada");
+        }
         Map<String, Object> payload = new HashMap<>();
         payload.put("id", review.getId());
         payload.put("rating", review.getRating());
         payload.put("comment", review.getComment());
-        payload.put("user", user.getUsername());
+        payload.put("user", authentication.getName());
         payload.put("averageRating", reviewService.getAverageRating(machineryId));
         return ResponseEntity.ok(payload);
     }
@@ -0,0 +1,37 @@
+package com.briamcarrasco.arriendomaquinaria.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * DTO para consultar vía JSON la disponibilidad de varias maquinarias en un
+ * mismo rango de fechas. Ambas fechas se reciben en formato ISO
+ * ({@code yyyy-MM-dd}) y son inclusivas.
+ */
+@Data
+public class AvailabilityBatchRequest {
+
+    /**
+     * Identificadores de las maquinarias a consultar.
+     */
+    @NotEmpty
+    @Size(max = 500)
+    private List<Long> machineryIds;
+
+    /**
+     * Primer día del rango.
+     */
+    @NotNull
+    private LocalDate from;
+
+    /**
+     * Último día del rango.
+     */
+    @NotNull
+    private LocalDate to;
+}
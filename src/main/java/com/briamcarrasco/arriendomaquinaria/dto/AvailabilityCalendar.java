@@ -0,0 +1,51 @@
+package com.briamcarrasco.arriendomaquinaria.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Calendario de disponibilidad de una maquinaria en un rango de días.
+ * La ocupación se envía como un bitset codificado en base64: el bit {@code i}
+ * (bit {@code i % 8} del byte {@code i / 8}, empezando por el menos
+ * significativo) indica si el día {@code from + i} tiene algún arriendo. Los
+ * bytes finales en cero se omiten, por lo que un calendario sin arriendos es
+ * una cadena vacía.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityCalendar {
+
+    /**
+     * Identificador de la maquinaria.
+     */
+    private Long machineryId;
+
+    /**
+     * Primer día del calendario.
+     */
+    private LocalDate from;
+
+    /**
+     * Último día del calendario.
+     */
+    private LocalDate to;
+
+    /**
+     * Cantidad de días del calendario.
+     */
+    private int days;
+
+    /**
+     * Cantidad de días con algún arriendo.
+     */
+    private int bookedDays;
+
+    /**
+     * Días ocupados como bitset codificado en base64.
+     */
+    private String booked;
+}
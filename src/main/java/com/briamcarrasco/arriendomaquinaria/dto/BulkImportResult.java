@@ -0,0 +1,74 @@
+package com.briamcarrasco.arriendomaquinaria.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el resultado de una importación masiva de maquinarias.
+ * Informa cuántas filas se insertaron, cuántas se rechazaron y el motivo de
+ * cada rechazo, indicando la línea del archivo en que ocurrió.
+ */
+@Data
+@NoArgsConstructor
+public class BulkImportResult {
+
+    /**
+     * Cantidad de maquinarias insertadas.
+     */
+    private long imported;
+
+    /**
+     * Cantidad de filas rechazadas.
+     */
+    private long failed;
+
+    /**
+     * Errores por fila, en el orden del archivo.
+     */
+    private List<RowError> errors = new ArrayList<>();
+
+    /**
+     * Indica si se omitieron errores por superar el máximo informado.
+     */
+    private boolean errorsTruncated;
+
+    /**
+     * Registra una fila rechazada. Solo se guarda el detalle de los primeros
+     * {@code maxErrors} errores para acotar el tamaño de la respuesta.
+     *
+     * @param line      línea del archivo
+     * @param message   motivo del rechazo
+     * @param maxErrors cantidad máxima de errores a detallar
+     */
+    public void addError(long line, String message, int maxErrors) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(line, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    /**
+     * Error de validación de una fila del archivo importado.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+
+        /**
+         * Línea del archivo, empezando en 1.
+         */
+        private long line;
+
+        /**
+         * Motivo del rechazo.
+         */
+        private String message;
+    }
+}
@@ -0,0 +1,75 @@
+package com.briamcarrasco.arriendomaquinaria.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO que representa una página de resultados obtenida mediante paginación por
+ * cursor (keyset).
+ * Incluye los elementos de la página, el cursor opaco para solicitar la página
+ * siguiente y un indicador de si existen más resultados.
+ *
+ * @param <T> tipo de los elementos de la página
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Elementos contenidos en la página.
+     */
+    private List<T> items;
+
+    /**
+     * Cursor opaco para obtener la página siguiente, o null si no hay más.
+     */
+    private String nextCursor;
+
+    /**
+     * Indica si existen más resultados después de esta página.
+     */
+    private boolean hasMore;
+
+    /**
+     * Codifica los valores de posición de un cursor en un token opaco seguro para
+     * URL.
+     *
+     * @param parts valores que identifican la posición del último elemento
+     * @return token opaco en base64 url-safe
+     */
+    public static String encodeCursor(Object... parts) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                raw.append(SEPARATOR);
+            }
+            raw.append(parts[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un token opaco generado por {@link #encodeCursor(Object...)}.
+     *
+     * @param cursor token opaco
+     * @return valores de posición contenidos en el cursor
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return raw.split("\\" + SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.briamcarrasco.arriendomaquinaria.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO que representa el conteo de resultados para un valor de una faceta.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetCount {
+
+    /**
+     * Valor usado para filtrar por esta faceta (por ejemplo, el id de la
+     * categoría).
+     */
+    private String key;
+
+    /**
+     * Etiqueta legible del valor.
+     */
+    private String label;
+
+    /**
+     * Cantidad de maquinarias que coinciden con este valor.
+     */
+    private long count;
+}
@@ -0,0 +1,47 @@
+package com.briamcarrasco.arriendomaquinaria.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el resultado de una búsqueda facetada de maquinarias.
+ * Incluye los resultados, el total de coincidencias y los conteos por
+ * categoría y por estado.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetedSearchResult {
+
+    /**
+     * Resúmenes de las maquinarias encontradas, limitados al tamaño solicitado.
+     */
+    private List<MachinerySummary> items;
+
+    /**
+     * Total de maquinarias que cumplen todos los filtros.
+     */
+    private long total;
+
+    /**
+     * Conteo por categoría, aplicando todos los filtros excepto la categoría.
+     */
+    private List<FacetCount> categories;
+
+    /**
+     * Conteo por estado, aplicando todos los filtros excepto el estado.
+     */
+    private List<FacetCount> statuses;
+
+    /**
+     * Crea un resultado vacío.
+     *
+     * @return resultado sin elementos ni facetas
+     */
+    public static FacetedSearchResult empty() {
+        return new FacetedSearchResult(List.of(), 0, List.of(), List.of());
+    }
+}
@@ -0,0 +1,88 @@
+package com.briamcarrasco.arriendomaquinaria.dto;
+
+import java.math.BigDecimal;
+
+import com.briamcarrasco.arriendomaquinaria.model.MachineryStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Proyección de una maquinaria para la API JSON de detalle.
+ * Incluye los datos de la categoría y la descripción en columnas planas,
+ * obtenidas en una única consulta; no expone reseñas ni archivos multimedia,
+ * que tienen sus propios endpoints.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MachineryDetail {
+
+    /**
+     * Identificador de la maquinaria.
+     */
+    private Long id;
+
+    /**
+     * Nombre de la maquinaria.
+     */
+    private String nameMachinery;
+
+    /**
+     * Identificador de la categoría, o null si no tiene.
+     */
+    private Long categoryId;
+
+    /**
+     * Nombre de la categoría, o null si no tiene.
+     */
+    private String categoryName;
+
+    /**
+     * Estado de la maquinaria.
+     */
+    private MachineryStatus status;
+
+    /**
+     * Precio por día de arriendo.
+     */
+    private BigDecimal pricePerDay;
+
+    /**
+     * URL de la imagen de la maquinaria.
+     */
+    private String imageUrl;
+
+    /**
+     * URL de la miniatura de la imagen, o null si aún no se genera.
+     */
+    private String thumbnailUrl;
+
+    /**
+     * Descripción de la maquinaria, o null si no tiene información adicional.
+     */
+    private String description;
+
+    /**
+     * Cantidad de reseñas de la maquinaria.
+     */
+    private Long ratingCount;
+
+    /**
+     * Suma de las calificaciones de las reseñas.
+     */
+    private Long ratingSum;
+
+    /**
+     * Calcula el promedio de calificaciones a partir de los contadores.
+     *
+     * @return promedio de calificaciones, o 0 si no tiene reseñas
+     */
+    public double getAverageRating() {
+        if (ratingCount == null || ratingCount == 0 || ratingSum == null) {
+            return 0.0;
+        }
+        return (double) ratingSum / ratingCount;
+    }
+}
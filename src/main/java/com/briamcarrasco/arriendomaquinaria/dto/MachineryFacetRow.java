@@ -0,0 +1,59 @@
+package com.briamcarrasco.arriendomaquinaria.dto;
+
+import com.briamcarrasco.arriendomaquinaria.model.MachineryStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Columnas de una maquinaria necesarias para calcular en memoria los conteos
+ * por faceta, el total y el orden de una búsqueda facetada por texto.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MachineryFacetRow {
+
+    /**
+     * Identificador de la maquinaria.
+     */
+    private Long id;
+
+    /**
+     * Identificador de la categoría, o null si no tiene.
+     */
+    private Long categoryId;
+
+    /**
+     * Nombre de la categoría, o null si no tiene.
+     */
+    private String categoryName;
+
+    /**
+     * Estado de la maquinaria.
+     */
+    private MachineryStatus status;
+
+    /**
+     * Cantidad de reseñas de la maquinaria.
+     */
+    private Long ratingCount;
+
+    /**
+     * Suma de las calificaciones de las reseñas.
+     */
+    private Long ratingSum;
+
+    /**
+     * Calcula el promedio de calificaciones a partir de los contadores.
+     *
+     * @return promedio de calificaciones, o 0 si no tiene reseñas
+     */
+    public double getAverageRating() {
+        if (ratingCount == null || ratingCount == 0 || ratingSum == null) {
+            return 0.0;
+        }
+        return (double) ratingSum / ratingCount;
+    }
+}
@@ -0,0 +1,54 @@
+package com.briamcarrasco.arriendomaquinaria.dto;
+
+import com.briamcarrasco.arriendomaquinaria.model.MachineryMedia;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Proyección de un archivo multimedia de una maquinaria para la API JSON.
+ * Contiene solo las URL del archivo y sus variantes, sin la maquinaria
+ * asociada.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MachineryMediaSummary {
+
+    /**
+     * Identificador del archivo multimedia.
+     */
+    private Long id;
+
+    /**
+     * URL de la imagen, o null si es un video.
+     */
+    private String imgUrl;
+
+    /**
+     * URL del video, o null si es una imagen.
+     */
+    private String vidUrl;
+
+    /**
+     * URL de la miniatura de la imagen, o null si aún no se genera.
+     */
+    private String thumbUrl;
+
+    /**
+     * URL de la variante WebP de la imagen, o null si aún no se genera.
+     */
+    private String webpUrl;
+
+    /**
+     * Crea la proyección de un archivo multimedia recién guardado.
+     *
+     * @param media archivo multimedia
+     * @return proyección con las URL del archivo
+     */
+    public static MachineryMediaSummary from(MachineryMedia media) {
+        return new MachineryMediaSummary(media.getId(), media.getImgUrl(), media.getVidUrl(),
+                media.getThumbUrl(), media.getWebpUrl());
+    }
+}
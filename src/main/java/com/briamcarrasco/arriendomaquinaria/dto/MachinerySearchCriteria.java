@@ -0,0 +1,46 @@
+package com.briamcarrasco.arriendomaquinaria.dto;
+
+import java.math.BigDecimal;
+
+import com.briamcarrasco.arriendomaquinaria.model.MachineryStatus;
+
+import lombok.Data;
+
+/**
+ * DTO con los filtros de la búsqueda facetada de maquinarias.
+ * Todos los filtros son opcionales y se combinan entre sí.
+ */
+@Data
+public class MachinerySearchCriteria {
+
+    /**
+     * Texto a buscar en el nombre, categoría o descripción.
+     */
+    private String text;
+
+    /**
+     * Identificador de la categoría.
+     */
+    private Long categoryId;
+
+    /**
+     * Estado de la maquinaria.
+     */
+    private MachineryStatus status;
+
+    /**
+     * Precio mínimo por día (inclusive).
+     */
+    private BigDecimal minPrice;
+
+    /**
+     * Precio máximo por día (inclusive).
+     */
+    private BigDecimal maxPrice;
+
+    /**
+     * Indica si los resultados se ordenan por promedio de calificación
+     * descendente en lugar de por identificador.
+     */
+    private boolean sortByRating;
+}
@@ -0,0 +1,72 @@
+package com.briamcarrasco.arriendomaquinaria.dto;
+
+import java.math.BigDecimal;
+
+import com.briamcarrasco.arriendomaquinaria.model.MachineryStatus;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Proyección liviana de una maquinaria para las páginas de catálogo.
+ * Contiene solo las columnas que muestran los listados, obtenidas en una única
+ * consulta sin cargar la entidad ni sus asociaciones.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MachinerySummary {
+
+    /**
+     * Identificador de la maquinaria.
+     */
+    private Long id;
+
+    /**
+     * Nombre de la maquinaria.
+     */
+    private String nameMachinery;
+
+    /**
+     * Nombre de la categoría, o null si no tiene.
+     */
+    private String categoryName;
+
+    /**
+     * Estado de la maquinaria.
+     */
+    private MachineryStatus status;
+
+    /**
+     * Precio por día de arriendo.
+     */
+    private BigDecimal pricePerDay;
+
+    /**
+     * URL de la imagen de la maquinaria.
+     */
+    private String imageUrl;
+
+    /**
+     * Cantidad de reseñas de la maquinaria.
+     */
+    private Long ratingCount;
+
+    /**
+     * Suma de las calificaciones de las reseñas.
+     */
+    private Long ratingSum;
+
+    /**
+     * Calcula el promedio de calificaciones a partir de los contadores.
+     *
+     * @return promedio de calificaciones, o 0 si no tiene reseñas
+     */
+    public double getAverageRating() {
+        if (ratingCount == null || ratingCount == 0 || ratingSum == null) {
+            return 0.0;
+        }
+        return (double) ratingSum / ratingCount;
+    }
+}
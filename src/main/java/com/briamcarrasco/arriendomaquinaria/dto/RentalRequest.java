@@ -0,0 +1,27 @@
+package com.briamcarrasco.arriendomaquinaria.dto;
+
+import java.time.LocalDate;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * DTO para recibir la solicitud de arriendo de una maquinaria vía JSON.
+ * Ambas fechas se reciben en formato ISO ({@code yyyy-MM-dd}) y son
+ * inclusivas.
+ */
+@Data
+public class RentalRequest {
+
+    /**
+     * Primer día del arriendo.
+     */
+    @NotNull
+    private LocalDate from;
+
+    /**
+     * Último día del arriendo.
+     */
+    @NotNull
+    private LocalDate to;
+}
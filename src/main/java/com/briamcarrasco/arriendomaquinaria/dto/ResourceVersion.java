@@ -0,0 +1,71 @@
+package com.briamcarrasco.arriendomaquinaria.dto;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Versión de un recurso de la API JSON para las peticiones GET condicionales.
+ * Se obtiene con una consulta agregada de una sola fila (cantidad de filas y
+ * fecha de la última modificación), sin cargar las entidades, y de ella se
+ * derivan las cabeceras {@code ETag} y {@code Last-Modified}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResourceVersion {
+
+    /**
+     * Cantidad de filas que componen el recurso; 0 si no existe.
+     */
+    private Long count;
+
+    /**
+     * Fecha y hora de la última modificación, o null si no se conoce.
+     */
+    private LocalDateTime lastModified;
+
+    /**
+     * Indica si el recurso tiene al menos una fila.
+     *
+     * @return true si la cantidad de filas es mayor que 0
+     */
+    public boolean exists() {
+        return count != null && count > 0;
+    }
+
+    /**
+     * Obtiene la fecha de la última modificación en milisegundos desde la época,
+     * en la zona horaria del servidor.
+     *
+     * @return milisegundos de la última modificación, o -1 si no se conoce
+     */
+    public long getLastModifiedMillis() {
+        if (lastModified == null) {
+            return -1;
+        }
+        return toInstant().toEpochMilli();
+    }
+
+    /**
+     * Construye un ETag débil a partir de la cantidad de filas y la fecha de
+     * la última modificación en microsegundos, la precisión de la columna. Es
+     * débil porque la misma versión puede enviarse comprimida o sin comprimir.
+     *
+     * @return ETag débil, por ejemplo {@code W/"3-1700000000000000"}
+     */
+    public String getETag() {
+        long rows = count == null ? 0 : count;
+        long micros = lastModified == null ? 0 : ChronoUnit.MICROS.between(Instant.EPOCH, toInstant());
+        return "W/\"" + rows + "-" + micros + "\"";
+    }
+
+    private Instant toInstant() {
+        return lastModified.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
@@ -3,6 +3,7 @@ package com.briamcarrasco.arriendomaquinaria.dto;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 
 /**
@@ -15,6 +16,7 @@ public class ReviewRequest {
     /**
      * Calificación de la reseña (valor entre 1 y 5).
      */
+    @NotNull
     @Min(1)
     @Max(5)
     private Integer rating;
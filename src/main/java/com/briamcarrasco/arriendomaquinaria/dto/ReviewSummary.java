@@ -0,0 +1,48 @@
+package com.briamcarrasco.arriendomaquinaria.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Proyección compacta de una reseña para el listado paginado de reseñas de una
+ * maquinaria. Se construye en una única consulta junto con el nombre del
+ * autor, sin cargar la entidad ni su usuario.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewSummary {
+
+    /**
+     * Identificador de la reseña.
+     */
+    private Long id;
+
+    /**
+     * Puntuación otorgada (1 a 5).
+     */
+    private Integer rating;
+
+    /**
+     * Comentario de la reseña.
+     */
+    private String comment;
+
+    /**
+     * Nombre del usuario que realizó la reseña.
+     */
+    private String username;
+
+    /**
+     * Fecha y hora de creación de la reseña.
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * Fecha y hora de la última actualización de la reseña.
+     */
+    private LocalDateTime updatedAt;
+}
@@ -2,16 +2,17 @@ package com.briamcarrasco.arriendomaquinaria.jwt;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
-import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -19,7 +20,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import static com.briamcarrasco.arriendomaquinaria.jwt.Constants.*;
 
 /**
@@ -28,19 +32,58 @@ import static com.briamcarrasco.arriendomaquinaria.jwt.Constants.*;
  * de la petición,
  * establecer la autenticación en el contexto de seguridad y permitir el acceso
  * a los recursos protegidos.
- * Omite el filtrado en rutas públicas como login, recursos estáticos y la API
- * pública de maquinaria.
+ * Omite el filtrado en rutas públicas como login, recursos estáticos y las
+ * lecturas de la API pública de maquinaria.
+ * Los tokens ya verificados se resuelven desde {@link JwtAuthenticationCache}
+ * sin volver a validar la firma.
+ * El tiempo de resolución del token se mide en el timer {@code jwt.filter},
+ * etiquetado con el resultado ({@code cached}, {@code verified},
+ * {@code anonymous}, {@code expired}, etc.), sin incluir el resto de la cadena
+ * de filtros.
  */
 @Component
 public class JWTAuthorizationFilter extends OncePerRequestFilter {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JWTAuthorizationFilter.class);
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    static final String TIMER_NAME = "jwt.filter";
+    static final String OUTCOME_CACHED = "cached";
+    static final String OUTCOME_VERIFIED = "verified";
+    static final String OUTCOME_NO_AUTHORITIES = "no_authorities";
+    static final String OUTCOME_ANONYMOUS = "anonymous";
+    static final String OUTCOME_EXPIRED = "expired";
+    static final String OUTCOME_INVALID = "invalid";
+    static final String OUTCOME_ERROR = "error";
+
+    private final JwtKeyProvider keyProvider;
+    private final JwtAuthenticationCache authenticationCache;
+    private final Map<String, Timer> timers = new HashMap<>();
+
+    /**
+     * Constructor para la inyección de dependencias.
+     *
+     * @param keyProvider         proveedor de la clave y el parser de JWT
+     * @param authenticationCache caché de tokens verificados
+     * @param meterRegistry       registro de métricas
+     */
+    public JWTAuthorizationFilter(JwtKeyProvider keyProvider, JwtAuthenticationCache authenticationCache,
+            MeterRegistry meterRegistry) {
+        this.keyProvider = keyProvider;
+        this.authenticationCache = authenticationCache;
+        for (String outcome : List.of(OUTCOME_CACHED, OUTCOME_VERIFIED, OUTCOME_NO_AUTHORITIES, OUTCOME_ANONYMOUS,
+                OUTCOME_EXPIRED, OUTCOME_INVALID, OUTCOME_ERROR)) {
+            timers.put(outcome, Timer.builder(TIMER_NAME)
+                    .description("Tiempo de resolución del token JWT de una petición")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
 
     /**
-     * Determina si la petición no debe ser filtrada por el JWT.
+     * Determina si la petición no debe ser filtrada por el JWT. En la API de
+     * maquinaria solo se omiten las lecturas públicas; las escrituras (crear,
+     * arrendar, importar) necesitan la autenticación del token.
      *
      * @param request petición HTTP
      * @return true si la ruta es pública, false en caso contrario
@@ -55,8 +98,11 @@ public class JWTAuthorizationFilter extends OncePerRequestFilter {
                 || path.startsWith("/css/")
                 || path.startsWith("/js/")
                 || path.startsWith("/images/")
-                || path.equals("/api/machinery")
-                || path.startsWith("/api/machinery/");
+                || (isRead(request) && (path.equals("/api/machinery") || path.startsWith("/api/machinery/")));
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
     }
 
     /**
@@ -82,33 +128,18 @@ public class JWTAuthorizationFilter extends OncePerRequestFilter {
     }
 
     /**
-     * Parsea los claims del token JWT.
-     *
-     * @param rawToken token JWT en formato String
-     * @return objeto Claims extraído del token
-     */
-    private Claims parseClaims(String rawToken) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey(jwtSecret))
-                .build()
-                .parseSignedClaims(rawToken)
-                .getPayload();
-    }
-
-    /**
-     * Establece la autenticación en el contexto de seguridad usando los claims del
-     * token.
+     * Construye la autenticación a partir de los claims del token.
      *
      * @param claims claims extraídos del token JWT
+     * @return autenticación con el usuario y sus roles
      */
-    private void setAuthentication(Claims claims) {
+    private Authentication toAuthentication(Claims claims) {
         List<?> authorities = (List<?>) claims.get("authorities");
-        UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
+        return new UsernamePasswordAuthenticationToken(
                 claims.getSubject(),
                 null,
                 authorities.stream().map(Object::toString).map(SimpleGrantedAuthority::new)
                         .toList());
-        SecurityContextHolder.getContext().setAuthentication(auth);
     }
 
     /**
@@ -124,30 +155,53 @@ public class JWTAuthorizationFilter extends OncePerRequestFilter {
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
+        long start = System.nanoTime();
+        String outcome = OUTCOME_ERROR;
         try {
             LOGGER.debug("JWT filter processing {} {}", request.getMethod(), request.getServletPath());
-            String token = resolveToken(request);
-            if (token != null) {
-                LOGGER.debug("JWT token present in request (length={})", token.length());
-                Claims claims = parseClaims(token);
-                if (claims.get("authorities") != null) {
-                    setAuthentication(claims);
-                } else {
-                    SecurityContextHolder.clearContext();
-                }
-            } else {
-                LOGGER.debug("No JWT token found in request");
-                SecurityContextHolder.clearContext();
-            }
-            chain.doFilter(request, response);
+            outcome = authenticate(request);
         } catch (ExpiredJwtException e) {
             request.setAttribute("jwt_error", "TOKEN_EXPIRED");
             SecurityContextHolder.clearContext();
-            chain.doFilter(request, response);
+            outcome = OUTCOME_EXPIRED;
         } catch (UnsupportedJwtException | MalformedJwtException e) {
             request.setAttribute("jwt_error", "TOKEN_INVALID");
             SecurityContextHolder.clearContext();
-            chain.doFilter(request, response);
+            outcome = OUTCOME_INVALID;
+        } finally {
+            timers.get(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Resuelve el token de la petición y establece la autenticación en el
+     * contexto de seguridad.
+     *
+     * @param request petición HTTP
+     * @return resultado de la resolución, usado como etiqueta de la métrica
+     */
+    private String authenticate(HttpServletRequest request) {
+        String token = resolveToken(request);
+        if (token == null) {
+            LOGGER.debug("No JWT token found in request");
+            SecurityContextHolder.clearContext();
+            return OUTCOME_ANONYMOUS;
+        }
+        LOGGER.debug("JWT token present in request (length={})", token.length());
+        Authentication cached = authenticationCache.get(token);
+        if (cached != null) {
+            SecurityContextHolder.getContext().setAuthentication(cached);
+            return OUTCOME_CACHED;
         }
+        Claims claims = keyProvider.parseClaims(token);
+        if (claims.get("authorities") == null) {
+            SecurityContextHolder.clearContext();
+            return OUTCOME_NO_AUTHORITIES;
+        }
+        Authentication auth = toAuthentication(claims);
+        authenticationCache.put(token, auth, claims.getExpiration());
+        SecurityContextHolder.getContext().setAuthentication(auth);
+        return OUTCOME_VERIFIED;
     }
 }
\ No newline at end of file
@@ -1,7 +1,6 @@
 package com.briamcarrasco.arriendomaquinaria.jwt;
 
 import io.jsonwebtoken.Jwts;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.AuthorityUtils;
@@ -20,8 +19,16 @@ import static com.briamcarrasco.arriendomaquinaria.jwt.Constants.*;
 @Configuration
 public class JWTAuthtenticationConfig {
 
-        @Value("${jwt.secret}")
-        private String jwtSecret;
+        private final JwtKeyProvider keyProvider;
+
+        /**
+         * Constructor para la inyección de dependencias.
+         *
+         * @param keyProvider proveedor de la clave de firma de JWT
+         */
+        public JWTAuthtenticationConfig(JwtKeyProvider keyProvider) {
+                this.keyProvider = keyProvider;
+        }
 
         /**
          * Genera un token JWT para el usuario y rol especificados.
@@ -44,7 +51,7 @@ public class JWTAuthtenticationConfig {
                                 .subject(username)
                                 .issuedAt(new Date(System.currentTimeMillis()))
                                 .expiration(new Date(System.currentTimeMillis() + TOKEN_EXPIRATION_TIME))
-                                .signWith(getSigningKey(jwtSecret))
+                                .signWith(keyProvider.getSigningKey())
                                 .compact();
 
                 return TOKEN_BEARER_PREFIX + token;
@@ -0,0 +1,103 @@
+package com.briamcarrasco.arriendomaquinaria.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caché acotada de tokens JWT ya verificados y su autenticación asociada.
+ * Permite que las peticiones repetidas de una misma sesión omitan la
+ * verificación HMAC y el parseo de claims. Cada entrada expira a más tardar
+ * cuando expira su token, y el número de entradas está limitado.
+ */
+@Component
+public class JwtAuthenticationCache {
+
+    private final Cache<String, Entry> cache;
+
+    /**
+     * Constructor que crea la caché con el tamaño máximo configurado.
+     *
+     * @param maxSize cantidad máxima de tokens en caché
+     */
+    public JwtAuthenticationCache(@Value("${app.jwt.auth-cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .build();
+    }
+
+    /**
+     * Obtiene la autenticación de un token verificado previamente.
+     * Se devuelve una copia nueva para que cada petición tenga su propia
+     * instancia en el contexto de seguridad.
+     *
+     * @param token token JWT
+     * @return autenticación del token, o null si no está en caché o expiró
+     */
+    public Authentication get(String token) {
+        Entry entry = cache.getIfPresent(token);
+        if (entry == null || entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            return null;
+        }
+        Authentication cached = entry.authentication();
+        return new UsernamePasswordAuthenticationToken(cached.getPrincipal(), null, cached.getAuthorities());
+    }
+
+    /**
+     * Guarda la autenticación de un token verificado hasta su expiración.
+     * Los tokens sin fecha de expiración o ya expirados no se guardan.
+     *
+     * @param token          token JWT
+     * @param authentication autenticación construida desde sus claims
+     * @param expiration     fecha de expiración del token
+     */
+    public void put(String token, Authentication authentication, Date expiration) {
+        if (expiration == null || expiration.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        cache.put(token, new Entry(authentication, expiration.getTime()));
+    }
+
+    /**
+     * Obtiene la cantidad aproximada de tokens en caché.
+     *
+     * @return número de entradas
+     */
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private record Entry(Authentication authentication, long expiresAtMillis) {
+    }
+
+    /**
+     * Política de expiración que usa la fecha de expiración de cada token.
+     */
+    private static class TokenExpiry implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(String key, Entry value, long currentTime) {
+            long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
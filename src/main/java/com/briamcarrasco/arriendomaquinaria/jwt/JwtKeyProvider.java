@@ -0,0 +1,51 @@
+package com.briamcarrasco.arriendomaquinaria.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+
+/**
+ * Componente que construye una sola vez, al iniciar la aplicación, la clave de
+ * firma HMAC y el parser de JWT.
+ * Ambos objetos son inmutables y seguros para uso concurrente, por lo que se
+ * reutilizan en cada login y en cada petición autenticada.
+ */
+@Component
+public class JwtKeyProvider {
+
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    /**
+     * Constructor que decodifica la clave secreta y prepara el parser.
+     *
+     * @param jwtSecret clave secreta en base64
+     */
+    public JwtKeyProvider(@Value("${jwt.secret}") String jwtSecret) {
+        this.signingKey = Constants.getSigningKey(jwtSecret);
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+    }
+
+    /**
+     * Obtiene la clave de firma de los tokens.
+     *
+     * @return clave HMAC para firmar y verificar tokens
+     */
+    public SecretKey getSigningKey() {
+        return signingKey;
+    }
+
+    /**
+     * Verifica la firma de un token y extrae sus claims.
+     *
+     * @param rawToken token JWT en formato String
+     * @return objeto Claims extraído del token
+     */
+    public Claims parseClaims(String rawToken) {
+        return parser.parseSignedClaims(rawToken).getPayload();
+    }
+}
@@ -131,7 +131,7 @@ public class DataInitializer implements CommandLineRunner {
                info.setDescription("Tractor utilitario 75 HP, transmisión PowrReverser 12x12");
                Machinery m = new Machinery();
                m.setNameMachinery(MACHINERY_JOHN_DEERE);
-               m.setStatus(STATUS_DISPONIBLE);
+               m.setStatus(MachineryStatus.DISPONIBLE);
                m.setPricePerDay(new BigDecimal("150.00"));
                m.setCategory(tractores);
                m.setMachineryInfo(info);
@@ -143,7 +143,7 @@ public class DataInitializer implements CommandLineRunner {
                info.setDescription("Cosechadora Axial-Flow 7150, motor FPT Cursor 11, rotor único");
                Machinery m = new Machinery();
                m.setNameMachinery(MACHINERY_CASE_IH);
-               m.setStatus(STATUS_DISPONIBLE);
+               m.setStatus(MachineryStatus.DISPONIBLE);
                m.setPricePerDay(new BigDecimal("350.00"));
                m.setCategory(cosechadoras);
                m.setMachineryInfo(info);
@@ -155,7 +155,7 @@ public class DataInitializer implements CommandLineRunner {
                info.setDescription("Cosechadora CR8.90 Twin Rotor, alta capacidad en cereales");
                Machinery m = new Machinery();
                m.setNameMachinery(MACHINERY_NEW_HOLLAND);
-               m.setStatus(STATUS_ARRENDADA);
+               m.setStatus(MachineryStatus.ARRENDADA);
                m.setPricePerDay(new BigDecimal("400.00"));
                m.setCategory(cosechadoras);
                m.setMachineryInfo(info);
@@ -2,8 +2,15 @@ package com.briamcarrasco.arriendomaquinaria.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UpdateTimestamp;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -13,9 +20,15 @@ import java.util.List;
  * Los métodos getters y setters para los atributos id, nameMachinery, status,
  * pricePerDay, category y machineryInfo
  * se generan automáticamente mediante las anotaciones de Lombok.
+ * Las actualizaciones solo escriben las columnas modificadas, para no pisar los
+ * contadores de calificación que se mantienen con actualizaciones atómicas.
  */
 @Entity
-@Table(name = "tb_machinery")
+@DynamicUpdate
+@Table(name = "tb_machinery", indexes = {
+        @Index(name = "idx_machinery_category_status_price", columnList = "category_id, status, price_per_day"),
+        @Index(name = "idx_machinery_status", columnList = "status")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -23,6 +36,11 @@ import java.util.List;
 @ToString
 public class Machinery {
 
+    /**
+     * Imagen que se asigna a las maquinarias creadas sin imagen propia.
+     */
+    public static final String DEFAULT_IMAGE_URL = "/images/Case_IH_Axial-Flow.png";
+
     /**
      * Identificador único de la maquinaria.
      */
@@ -39,11 +57,13 @@ public class Machinery {
     private String nameMachinery;
 
     /**
-     * Estado de la maquinaria.
+     * Estado de la maquinaria. Disponible y arrendada se derivan de los
+     * arriendos; ver {@link MachineryStatus}.
      */
-    @Column(name = "status", nullable = false)
-    @NotBlank
-    private String status;
+    @Column(name = "status", nullable = false, length = 20)
+    @Convert(converter = MachineryStatusConverter.class)
+    @NotNull
+    private MachineryStatus status;
 
     /**
      * Precio por día de arriendo de la maquinaria.
@@ -57,6 +77,13 @@ public class Machinery {
     @Column(name = "image_url")
     private String imageUrl;
 
+    /**
+     * URL de la miniatura de la imagen principal. La genera en segundo plano
+     * {@code MediaVariantProcessor}; es nula mientras no esté disponible.
+     */
+    @Column(name = "thumbnail_url")
+    private String thumbnailUrl;
+
     /**
      * Categoría a la que pertenece la maquinaria.
      */
@@ -75,12 +102,55 @@ public class Machinery {
      * Lista de reseñas asociadas a la maquinaria.
      */
     @OneToMany(mappedBy = "machinery", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @JsonIgnore
     private List<Review> reviews;
 
     /**
      * Lista de medios (imágenes, videos) asociados a la maquinaria.
      */
     @OneToMany(mappedBy = "machinery", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @ToString.Exclude
     private List<MachineryMedia> media;
-    
+
+    /**
+     * Cantidad de reseñas de la maquinaria. Se mantiene desde
+     * {@code ReviewServiceImpl} para evitar calcular agregados al listar.
+     */
+    @Column(name = "rating_count", nullable = false)
+    @ColumnDefault("0")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long ratingCount = 0L;
+
+    /**
+     * Suma de las calificaciones de las reseñas de la maquinaria.
+     */
+    @Column(name = "rating_sum", nullable = false)
+    @ColumnDefault("0")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long ratingSum = 0L;
+
+    /**
+     * Fecha y hora de la última modificación de la maquinaria, de sus
+     * contadores de calificación o de sus archivos multimedia. Las
+     * actualizaciones masivas de {@code MachineryRepository} también la
+     * renuevan; es la versión que usan los ETag de la API JSON.
+     */
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Calcula el promedio de calificaciones a partir de los contadores
+     * desnormalizados.
+     *
+     * @return promedio de calificaciones, o 0 si no tiene reseñas
+     */
+    public double getAverageRating() {
+        if (ratingCount == null || ratingCount == 0 || ratingSum == null) {
+            return 0.0;
+        }
+        return (double) ratingSum / ratingCount;
+    }
 }
\ No newline at end of file
@@ -4,11 +4,15 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import jakarta.persistence.Id;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.OneToOne;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 /**
  * Entidad que representa la información adicional de una maquinaria en el
  * sistema.
@@ -39,6 +43,9 @@ public class MachineryInfo {
      * Relación uno a uno con la entidad Machinery.
      */
     @OneToOne(mappedBy = "machineryInfo")
+    @ToString.Exclude
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
     private Machinery machinery;
 
 
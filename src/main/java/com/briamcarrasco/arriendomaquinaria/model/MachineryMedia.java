@@ -42,6 +42,18 @@ public class MachineryMedia {
     @Column(name = "vid_url")
     private String vidUrl;
 
+    /**
+     * URL de la miniatura de la imagen, generada en segundo plano.
+     */
+    @Column(name = "thumb_url")
+    private String thumbUrl;
+
+    /**
+     * URL de la variante WebP de la imagen, generada en segundo plano.
+     */
+    @Column(name = "webp_url")
+    private String webpUrl;
+
     /**
      * Maquinaria a la que pertenece el archivo multimedia.
      */
@@ -2,6 +2,7 @@ package com.briamcarrasco.arriendomaquinaria.model;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.persistence.Id;
 import jakarta.persistence.GeneratedValue;
@@ -20,7 +21,9 @@ import java.util.Date;
  * se generan automáticamente mediante la anotación @Data de Lombok.
  */
 @Entity
-@Table(name = "tb_machinery_rentals")
+@Table(name = "tb_machinery_rentals", indexes = {
+        @Index(name = "idx_rental_machinery_dates", columnList = "machinery_id, rental_date, return_date")
+})
 @Data
 public class MachineryRental {
 
@@ -0,0 +1,113 @@
+package com.briamcarrasco.arriendomaquinaria.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+/**
+ * Estados posibles de una maquinaria y las transiciones permitidas entre
+ * ellos. Una maquinaria disponible pasa a arrendada cuando comienza un
+ * arriendo y vuelve a disponible cuando termina; cualquiera de las dos puede
+ * pasar a mantenimiento, y desde mantenimiento solo se vuelve a disponible.
+ *
+ * Los estados disponible y arrendada los calcula
+ * {@code MachineryStatusReconciler} a partir de los arriendos; mantenimiento
+ * es el único estado que se asigna manualmente.
+ */
+public enum MachineryStatus {
+
+    DISPONIBLE("Disponible"),
+    ARRENDADA("Arrendada"),
+    MANTENIMIENTO("En mantenimiento");
+
+    private final String label;
+
+    MachineryStatus(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Obtiene el nombre del estado para mostrar en las vistas.
+     *
+     * @return nombre legible del estado
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Obtiene los estados que se pueden asignar manualmente al crear o editar
+     * una maquinaria. Arrendada se excluye porque depende de los arriendos.
+     *
+     * @return estados asignables manualmente
+     */
+    public static List<MachineryStatus> manualValues() {
+        return List.of(DISPONIBLE, MANTENIMIENTO);
+    }
+
+    /**
+     * Indica si la maquinaria puede pasar de este estado al indicado. Mantener
+     * el mismo estado siempre está permitido.
+     *
+     * @param target estado de destino
+     * @return true si la transición es válida
+     */
+    public boolean canTransitionTo(MachineryStatus target) {
+        if (target == null) {
+            return false;
+        }
+        if (target == this) {
+            return true;
+        }
+        return switch (this) {
+            case DISPONIBLE -> target == ARRENDADA || target == MANTENIMIENTO;
+            case ARRENDADA -> target == DISPONIBLE || target == MANTENIMIENTO;
+            case MANTENIMIENTO -> target == DISPONIBLE;
+        };
+    }
+
+    /**
+     * Indica si un administrador puede cambiar manualmente la maquinaria de
+     * este estado al indicado. Además de ser una transición válida, el destino
+     * debe ser asignable manualmente, y una maquinaria arrendada no se puede
+     * devolver a disponible a mano: ambos cambios los determinan los arriendos.
+     *
+     * @param target estado de destino
+     * @return true si el cambio manual es válido
+     */
+    public boolean canTransitionManuallyTo(MachineryStatus target) {
+        if (target == this) {
+            return true;
+        }
+        if (this == ARRENDADA && target == DISPONIBLE) {
+            return false;
+        }
+        return manualValues().contains(target) && canTransitionTo(target);
+    }
+
+    /**
+     * Obtiene el estado a partir de su nombre o de su etiqueta, sin distinguir
+     * mayúsculas ni minúsculas. Acepta los valores en texto libre que se
+     * guardaban antes de que el estado fuera una enumeración.
+     *
+     * @param value nombre o etiqueta del estado
+     * @return estado correspondiente
+     * @throws IllegalArgumentException si el valor no corresponde a ningún
+     *                                  estado
+     */
+    @JsonCreator
+    public static MachineryStatus from(String value) {
+        if (value != null) {
+            String trimmed = value.trim();
+            for (MachineryStatus status : values()) {
+                if (status.name().equalsIgnoreCase(trimmed) || status.label.equalsIgnoreCase(trimmed)) {
+                    return status;
+                }
+            }
+            if ("mantenimiento".equalsIgnoreCase(trimmed)) {
+                return MANTENIMIENTO;
+            }
+        }
+        throw new IllegalArgumentException("Estado de maquinaria inválido: " + value);
+    }
+}
@@ -0,0 +1,28 @@
+package com.briamcarrasco.arriendomaquinaria.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Convierte el estado de una maquinaria a la columna {@code status}. Se guarda
+ * el nombre de la constante, igual que con {@code EnumType.STRING}, pero al
+ * leer se aceptan también los valores en texto libre de registros anteriores
+ * (por ejemplo {@code "disponible"}). Esos valores los reescribe al iniciar
+ * {@code MachineryStatusReconciler#normalizeLegacyStatuses()}, ya que las
+ * consultas que filtran o agrupan por estado comparan la columna con el
+ * nombre de la constante; ese mismo proceso pasa a mantenimiento los valores
+ * desconocidos, que aquí producirían un error al leer la fila.
+ */
+@Converter
+public class MachineryStatusConverter implements AttributeConverter<MachineryStatus, String> {
+
+    @Override
+    public String convertToDatabaseColumn(MachineryStatus status) {
+        return status == null ? null : status.name();
+    }
+
+    @Override
+    public MachineryStatus convertToEntityAttribute(String value) {
+        return value == null ? null : MachineryStatus.from(value);
+    }
+}
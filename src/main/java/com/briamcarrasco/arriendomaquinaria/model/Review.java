@@ -11,9 +11,11 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.Data;
@@ -24,7 +26,12 @@ import lombok.Data;
  */
 @Entity
 @Data
-@Table(name = "tb_reviews")
+@Table(name = "tb_reviews", indexes = {
+        @Index(name = "idx_review_machinery_created", columnList = "machinery_id, created_at, id"),
+        @Index(name = "idx_review_machinery_updated", columnList = "machinery_id, updated_at")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_review_machinery_user", columnNames = { "machinery_id", "user_id" })
+})
 public class Review {
 
     /**
@@ -0,0 +1,107 @@
+package com.briamcarrasco.arriendomaquinaria.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import com.briamcarrasco.arriendomaquinaria.model.Machinery;
+
+/**
+ * Inserciones masivas de maquinarias usando lotes JDBC.
+ *
+ * {@link Machinery} usa identificadores {@code IDENTITY}, con los que
+ * Hibernate inserta fila por fila para obtener cada clave generada. Aquí las
+ * filas se envían en un único lote por llamada; en MySQL, con
+ * {@code rewriteBatchedStatements}, el lote viaja como un solo INSERT de
+ * múltiples valores. Las maquinarias insertadas no quedan en el contexto de
+ * persistencia; los identificadores generados se leen del mismo lote y se
+ * asignan a cada maquinaria.
+ */
+@Repository
+public class MachineryBatchRepository {
+
+    static final String INSERT_SQL = "INSERT INTO tb_machinery "
+            + "(name_machinery, status, price_per_day, image_url, category_id, rating_count, rating_sum, "
+            + "updated_at) VALUES (?, ?, ?, ?, ?, 0, 0, CURRENT_TIMESTAMP)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MachineryBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserta las maquinarias indicadas en un solo lote. Se usan el nombre,
+     * estado, precio, imagen y el identificador de la categoría, y a cada
+     * maquinaria se le asigna el identificador generado.
+     *
+     * @param machinery maquinarias a insertar
+     * @return cantidad de filas insertadas
+     */
+    public int insertAll(List<Machinery> machinery) {
+        if (machinery.isEmpty()) {
+            return 0;
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        int[] counts = jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Machinery m = machinery.get(i);
+                        ps.setString(1, m.getNameMachinery());
+                        ps.setString(2, m.getStatus().name());
+                        ps.setBigDecimal(3, m.getPricePerDay());
+                        if (m.getImageUrl() == null) {
+                            ps.setNull(4, Types.VARCHAR);
+                        } else {
+                            ps.setString(4, m.getImageUrl());
+                        }
+                        ps.setLong(5, m.getCategory().getId());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return machinery.size();
+                    }
+                }, keyHolder);
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < keys.size() && i < machinery.size(); i++) {
+            machinery.get(i).setId(idOf(keys.get(i)));
+        }
+        int inserted = 0;
+        for (int count : counts) {
+            // Con lotes reescritos el driver no informa filas por sentencia.
+            inserted += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+        }
+        return inserted;
+    }
+
+    /**
+     * Obtiene el identificador de una fila de claves generadas. El nombre de
+     * la columna depende del driver ({@code ID} en H2, {@code GENERATED_KEY}
+     * en MySQL).
+     */
+    private static Long idOf(Map<String, Object> key) {
+        Object value = null;
+        for (Map.Entry<String, Object> entry : key.entrySet()) {
+            if ("id".equalsIgnoreCase(entry.getKey())) {
+                value = entry.getValue();
+                break;
+            }
+        }
+        if (value == null && !key.isEmpty()) {
+            value = key.values().iterator().next();
+        }
+        return value instanceof Number number ? number.longValue() : null;
+    }
+}
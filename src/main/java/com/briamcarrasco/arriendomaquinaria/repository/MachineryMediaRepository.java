@@ -3,7 +3,11 @@ package com.briamcarrasco.arriendomaquinaria.repository;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.briamcarrasco.arriendomaquinaria.dto.MachineryMediaSummary;
 import com.briamcarrasco.arriendomaquinaria.model.MachineryMedia;
 
 /**
@@ -19,4 +23,29 @@ public interface MachineryMediaRepository extends JpaRepository<MachineryMedia,
      * @return lista de objetos MachineryMedia
      */
     List<MachineryMedia> findByMachineryId(Long machineryId);
-}
\ No newline at end of file
+
+    /**
+     * Obtiene los archivos multimedia de una maquinaria como proyección, sin
+     * cargar las entidades ni su maquinaria.
+     *
+     * @param machineryId identificador de la maquinaria
+     * @return lista de archivos multimedia ordenados por identificador
+     */
+    @Query("SELECT new com.briamcarrasco.arriendomaquinaria.dto.MachineryMediaSummary("
+            + "m.id, m.imgUrl, m.vidUrl, m.thumbUrl, m.webpUrl) "
+            + "FROM MachineryMedia m WHERE m.machinery.id = :machineryId ORDER BY m.id ASC")
+    List<MachineryMediaSummary> findSummariesByMachineryId(@Param("machineryId") Long machineryId);
+
+    /**
+     * Registra las variantes generadas para una imagen.
+     *
+     * @param id       identificador del archivo multimedia
+     * @param thumbUrl URL de la miniatura, o null si no se generó
+     * @param webpUrl  URL de la variante WebP, o null si no se generó
+     * @return cantidad de filas actualizadas
+     */
+    @Modifying
+    @Query("UPDATE MachineryMedia m SET m.thumbUrl = :thumbUrl, m.webpUrl = :webpUrl WHERE m.id = :id")
+    int updateVariants(@Param("id") Long id, @Param("thumbUrl") String thumbUrl,
+            @Param("webpUrl") String webpUrl);
+}
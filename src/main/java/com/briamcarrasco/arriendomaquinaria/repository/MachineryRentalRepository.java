@@ -1,6 +1,13 @@
 package com.briamcarrasco.arriendomaquinaria.repository;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import com.briamcarrasco.arriendomaquinaria.model.MachineryRental;
 
 /**
@@ -9,4 +16,44 @@ import com.briamcarrasco.arriendomaquinaria.model.MachineryRental;
  * la base de datos.
  */
 public interface MachineryRentalRepository extends JpaRepository<MachineryRental, Long> {
-}
\ No newline at end of file
+
+    /**
+     * Obtiene los intervalos de todos los arriendos para construir el índice de
+     * disponibilidad en memoria, sin cargar las entidades completas.
+     *
+     * @return filas con id del arriendo, id de la maquinaria, fecha de inicio y
+     *         fecha de devolución
+     */
+    @Query("SELECT r.id, r.machinery.id, r.rentalDate, r.returnDate FROM MachineryRental r")
+    List<Object[]> findIntervals();
+
+    /**
+     * Indica si una maquinaria tiene algún arriendo que se solape con el rango
+     * {@code [from, to)}. Usa el índice compuesto
+     * {@code (machinery_id, rental_date, return_date)}.
+     *
+     * @param machineryId identificador de la maquinaria
+     * @param to          fin del rango (exclusivo)
+     * @param from        inicio del rango
+     * @return true si existe un arriendo que se solapa
+     */
+    boolean existsByMachineryIdAndRentalDateBeforeAndReturnDateAfter(Long machineryId, Date to, Date from);
+
+    /**
+     * Cuenta, en una sola consulta, los arriendos que se solapan con el rango
+     * {@code [from, to)} para cada una de las maquinarias indicadas. Las
+     * maquinarias sin arriendos en el rango aparecen con conteo cero y las que
+     * no existen no aparecen.
+     *
+     * @param machineryIds identificadores de las maquinarias
+     * @param from         inicio del rango
+     * @param to           fin del rango (exclusivo)
+     * @return filas con id de la maquinaria y cantidad de arriendos que se
+     *         solapan
+     */
+    @Query("SELECT m.id, COUNT(r.id) FROM Machinery m "
+            + "LEFT JOIN MachineryRental r ON r.machinery = m AND r.rentalDate < :to AND r.returnDate > :from "
+            + "WHERE m.id IN :machineryIds GROUP BY m.id")
+    List<Object[]> countOverlappingByMachinery(@Param("machineryIds") Collection<Long> machineryIds,
+            @Param("from") Date from, @Param("to") Date to);
+}
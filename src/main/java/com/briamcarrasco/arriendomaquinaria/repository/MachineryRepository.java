@@ -1,14 +1,26 @@
 package com.briamcarrasco.arriendomaquinaria.repository;
 
+import com.briamcarrasco.arriendomaquinaria.dto.MachineryDetail;
+import com.briamcarrasco.arriendomaquinaria.dto.MachinerySummary;
+import com.briamcarrasco.arriendomaquinaria.dto.ResourceVersion;
 import com.briamcarrasco.arriendomaquinaria.model.Machinery;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+
 
 /**
  * Repositorio para la entidad Machinery.
  * Proporciona métodos para acceder y gestionar maquinarias en la base de datos.
  */
-public interface MachineryRepository extends JpaRepository<Machinery, Long> {
+public interface MachineryRepository extends JpaRepository<Machinery, Long>, MachineryRepositoryCustom {
 
     /**
      * Verifica si existe una maquinaria con el nombre especificado.
@@ -42,5 +54,236 @@ public interface MachineryRepository extends JpaRepository<Machinery, Long> {
      * @param name nombre de la categoría
      * @return lista de maquinarias que pertenecen a la categoría
      */
+    @EntityGraph(attributePaths = { "category", "machineryInfo" })
     List<Machinery> findByCategory_NameIgnoreCase(String name);
-}
\ No newline at end of file
+
+    /**
+     * Obtiene los campos de texto de todas las maquinarias para construir el
+     * índice de búsqueda en memoria, sin cargar las entidades completas.
+     *
+     * @return filas con id, nombre de maquinaria, nombre de categoría y
+     *         descripción
+     */
+    @Query("SELECT m.id, m.nameMachinery, c.name, i.description FROM Machinery m "
+            + "LEFT JOIN m.category c LEFT JOIN m.machineryInfo i")
+    List<Object[]> findSearchDocuments();
+
+    /**
+     * Obtiene los identificadores de todas las maquinarias.
+     *
+     * @return identificadores de las maquinarias
+     */
+    @Query("SELECT m.id FROM Machinery m")
+    List<Long> findAllIds();
+
+    /**
+     * Obtiene las maquinarias con los identificadores indicados, cargando su
+     * categoría e información adicional en la misma consulta.
+     *
+     * @param ids identificadores de las maquinarias
+     * @return lista de maquinarias encontradas
+     */
+    @Override
+    @EntityGraph(attributePaths = { "category", "machineryInfo" })
+    List<Machinery> findAllById(Iterable<Long> ids);
+
+    /**
+     * Busca una maquinaria por su identificador cargando en la misma consulta su
+     * categoría, información adicional y medios.
+     *
+     * @param id identificador de la maquinaria
+     * @return un Optional con la maquinaria encontrada o vacío si no existe
+     */
+    @EntityGraph(attributePaths = { "category", "machineryInfo", "media" })
+    Optional<Machinery> findDetailedById(Long id);
+
+    /**
+     * Obtiene el detalle de una maquinaria para la API JSON como proyección,
+     * con su categoría y descripción en una sola consulta.
+     *
+     * @param id identificador de la maquinaria
+     * @return un Optional con el detalle o vacío si la maquinaria no existe
+     */
+    @Query("SELECT new com.briamcarrasco.arriendomaquinaria.dto.MachineryDetail("
+            + "m.id, m.nameMachinery, c.id, c.name, m.status, m.pricePerDay, m.imageUrl, m.thumbnailUrl, "
+            + "i.description, m.ratingCount, m.ratingSum) "
+            + "FROM Machinery m LEFT JOIN m.category c LEFT JOIN m.machineryInfo i WHERE m.id = :id")
+    Optional<MachineryDetail> findDetailById(@Param("id") Long id);
+
+    /**
+     * Obtiene la versión de una maquinaria para las peticiones GET
+     * condicionales: la cantidad de filas (0 si no existe) y su fecha de última
+     * modificación. Se resuelve por clave primaria sin cargar la entidad.
+     *
+     * @param id identificador de la maquinaria
+     * @return versión de la maquinaria
+     */
+    @Query("SELECT new com.briamcarrasco.arriendomaquinaria.dto.ResourceVersion(COUNT(m), MAX(m.updatedAt)) "
+            + "FROM Machinery m WHERE m.id = :id")
+    ResourceVersion findVersionById(@Param("id") Long id);
+
+    /**
+     * Renueva la fecha de última modificación de una maquinaria cuando cambia
+     * un dato que se expone con ella pero vive en otra tabla, como sus
+     * archivos multimedia.
+     *
+     * @param id identificador de la maquinaria
+     * @return cantidad de filas actualizadas
+     */
+    @Modifying
+    @Query("UPDATE Machinery m SET m.updatedAt = LOCAL DATETIME WHERE m.id = :id")
+    int touch(@Param("id") Long id);
+
+    /**
+     * Obtiene la siguiente página del catálogo como proyección liviana, usando
+     * paginación por cursor sobre el identificador.
+     *
+     * @param afterId  identificador del último elemento de la página anterior
+     * @param pageable límite de elementos a obtener
+     * @return lista de resúmenes de maquinaria ordenados por identificador
+     */
+    @Query("SELECT new com.briamcarrasco.arriendomaquinaria.dto.MachinerySummary("
+            + "m.id, m.nameMachinery, c.name, m.status, m.pricePerDay, m.imageUrl, m.ratingCount, m.ratingSum) "
+            + "FROM Machinery m LEFT JOIN m.category c WHERE m.id > :afterId ORDER BY m.id ASC")
+    List<MachinerySummary> findSummariesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Aplica de forma atómica una variación a los contadores de calificación de
+     * una maquinaria. La actualización se resuelve en la base de datos, por lo
+     * que es segura frente a reseñas concurrentes.
+     *
+     * @param id          identificador de la maquinaria
+     * @param countDelta  variación de la cantidad de reseñas
+     * @param ratingDelta variación de la suma de calificaciones
+     * @return cantidad de filas actualizadas
+     */
+    @Modifying
+    @Query("UPDATE Machinery m SET m.ratingCount = m.ratingCount + :countDelta, "
+            + "m.ratingSum = m.ratingSum + :ratingDelta, m.updatedAt = LOCAL DATETIME WHERE m.id = :id")
+    int adjustRatingTotals(@Param("id") Long id, @Param("countDelta") long countDelta,
+            @Param("ratingDelta") long ratingDelta);
+
+    /**
+     * Obtiene el promedio de calificaciones desde los contadores desnormalizados.
+     *
+     * @param id identificador de la maquinaria
+     * @return promedio de calificaciones, o null si la maquinaria no existe
+     */
+    @Query("SELECT CASE WHEN m.ratingCount = 0 THEN 0.0 ELSE m.ratingSum * 1.0 / m.ratingCount END "
+            + "FROM Machinery m WHERE m.id = :id")
+    Double findAverageRating(@Param("id") Long id);
+
+    /**
+     * Recalcula los contadores de calificación de las maquinarias cuyos
+     * contadores no coinciden con la tabla de reseñas. Se usa para sincronizar
+     * datos existentes; las maquinarias ya sincronizadas no se escriben, por
+     * lo que después del primer arranque no actualiza ninguna fila. La fecha
+     * de modificación solo se renueva en las filas corregidas, para no
+     * invalidar en cada arranque los ETag de todo el catálogo.
+     *
+     * @return cantidad de filas actualizadas
+     */
+    @Modifying
+    @Query("UPDATE Machinery m SET "
+            + "m.ratingCount = (SELECT COUNT(r) FROM Review r WHERE r.machinery = m), "
+            + "m.ratingSum = (SELECT COALESCE(SUM(r.rating), 0) FROM Review r WHERE r.machinery = m), "
+            + "m.updatedAt = LOCAL DATETIME "
+            + "WHERE m.ratingCount <> (SELECT COUNT(r) FROM Review r WHERE r.machinery = m) "
+            + "OR m.ratingSum <> (SELECT COALESCE(SUM(r.rating), 0) FROM Review r WHERE r.machinery = m)")
+    int recalculateRatingTotals();
+
+    /**
+     * Aplica a los contadores de calificación de una maquinaria la reseña que
+     * el usuario va a crear o reemplazar. La calificación anterior se lee en
+     * la misma sentencia con la clave única (machinery_id, user_id), por lo
+     * que no se recorren las reseñas de la maquinaria: si no existía reseña
+     * se suma una a la cantidad y la calificación a la suma; si existía solo
+     * cambia la suma en la diferencia. Debe ejecutarse antes de la inserción o
+     * actualización de la reseña y en la misma transacción; el bloqueo de la
+     * fila de la maquinaria ordena las reseñas concurrentes sobre ella.
+     *
+     * @param id     identificador de la maquinaria
+     * @param userId identificador del usuario que escribe la reseña
+     * @param rating calificación nueva
+     * @return cantidad de filas actualizadas; 0 si la maquinaria no existe
+     */
+    @Modifying
+    @Query("UPDATE Machinery m SET "
+            + "m.ratingCount = m.ratingCount + 1 - (SELECT COUNT(r) FROM Review r "
+            + "WHERE r.machinery.id = :id AND r.user.id = :userId), "
+            + "m.ratingSum = m.ratingSum + :rating - (SELECT COALESCE(SUM(r.rating), 0) FROM Review r "
+            + "WHERE r.machinery.id = :id AND r.user.id = :userId), "
+            + "m.updatedAt = LOCAL DATETIME WHERE m.id = :id")
+    int applyReviewRating(@Param("id") Long id, @Param("userId") Long userId, @Param("rating") long rating);
+
+    /**
+     * Registra la miniatura generada para la imagen principal de una
+     * maquinaria.
+     *
+     * @param id           identificador de la maquinaria
+     * @param thumbnailUrl URL pública de la miniatura
+     * @return cantidad de filas actualizadas
+     */
+    @Modifying
+    @Query("UPDATE Machinery m SET m.thumbnailUrl = :thumbnailUrl, m.updatedAt = LOCAL DATETIME "
+            + "WHERE m.id = :id")
+    int updateThumbnailUrl(@Param("id") Long id, @Param("thumbnailUrl") String thumbnailUrl);
+
+    /**
+     * Obtiene los valores distintos guardados en la columna de estado, sin
+     * pasar por el conversor, para detectar los escritos en texto libre antes
+     * de que el estado fuera una enumeración.
+     *
+     * @return valores de la columna {@code status}
+     */
+    @Query(value = "SELECT DISTINCT status FROM tb_machinery", nativeQuery = true)
+    List<String> findDistinctStatusValues();
+
+    /**
+     * Reemplaza un valor de la columna de estado por el nombre de la constante
+     * equivalente. No renueva la fecha de modificación porque el estado leído
+     * ya era el mismo.
+     *
+     * @param legacy    valor guardado
+     * @param canonical nombre de la constante de {@link MachineryStatus}
+     * @return cantidad de filas actualizadas
+     */
+    @Modifying
+    @Query(value = "UPDATE tb_machinery SET status = :canonical WHERE status = :legacy", nativeQuery = true)
+    int replaceStatusValue(@Param("legacy") String legacy, @Param("canonical") String canonical);
+
+    /**
+     * Cambia el estado de las maquinarias que tienen un arriendo vigente en el
+     * instante indicado. Solo afecta a las que están en el estado de origen,
+     * de modo que una maquinaria en mantenimiento no se modifica.
+     *
+     * @param from estado de origen
+     * @param to   estado de destino
+     * @param now  instante de referencia
+     * @return cantidad de filas actualizadas
+     */
+    @Modifying
+    @Query("UPDATE Machinery m SET m.status = :to, m.updatedAt = LOCAL DATETIME "
+            + "WHERE m.status = :from AND EXISTS ("
+            + "SELECT r.id FROM MachineryRental r WHERE r.machinery.id = m.id "
+            + "AND r.rentalDate <= :now AND r.returnDate > :now)")
+    int updateStatusWithActiveRental(@Param("from") MachineryStatus from, @Param("to") MachineryStatus to,
+            @Param("now") Date now);
+
+    /**
+     * Cambia el estado de las maquinarias que no tienen un arriendo vigente en
+     * el instante indicado. Solo afecta a las que están en el estado de origen.
+     *
+     * @param from estado de origen
+     * @param to   estado de destino
+     * @param now  instante de referencia
+     * @return cantidad de filas actualizadas
+     */
+    @Modifying
+    @Query("UPDATE Machinery m SET m.status = :to, m.updatedAt = LOCAL DATETIME "
+            + "WHERE m.status = :from AND NOT EXISTS ("
+            + "SELECT r.id FROM MachineryRental r WHERE r.machinery.id = m.id "
+            + "AND r.rentalDate <= :now AND r.returnDate > :now)")
+    int updateStatusWithoutActiveRental(@Param("from") MachineryStatus from, @Param("to") MachineryStatus to,
+            @Param("now") Date now);
+}
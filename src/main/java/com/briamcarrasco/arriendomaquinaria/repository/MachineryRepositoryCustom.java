@@ -0,0 +1,83 @@
+package com.briamcarrasco.arriendomaquinaria.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.briamcarrasco.arriendomaquinaria.dto.FacetCount;
+import com.briamcarrasco.arriendomaquinaria.dto.MachineryFacetRow;
+import com.briamcarrasco.arriendomaquinaria.dto.MachinerySearchCriteria;
+import com.briamcarrasco.arriendomaquinaria.dto.MachinerySummary;
+
+/**
+ * Consultas personalizadas de maquinaria para la búsqueda facetada.
+ * Los filtros por categoría, estado y precio se resuelven con el índice
+ * compuesto de {@code tb_machinery}; el texto se resuelve previamente con el
+ * índice en memoria y llega como lista de identificadores.
+ */
+public interface MachineryRepositoryCustom {
+
+    /**
+     * Busca maquinarias que cumplen todos los filtros y las devuelve como
+     * proyección de catálogo, construida en la misma consulta con el nombre de
+     * la categoría.
+     *
+     * @param criteria filtros de búsqueda
+     * @param ids      identificadores permitidos, o null para no restringir
+     * @param limit    cantidad máxima de resultados
+     * @return lista de resúmenes de las maquinarias encontradas
+     */
+    List<MachinerySummary> searchByCriteria(MachinerySearchCriteria criteria, Collection<Long> ids, int limit);
+
+    /**
+     * Cuenta las maquinarias que cumplen todos los filtros.
+     *
+     * @param criteria filtros de búsqueda
+     * @param ids      identificadores permitidos, o null para no restringir
+     * @return total de coincidencias
+     */
+    long countByCriteria(MachinerySearchCriteria criteria, Collection<Long> ids);
+
+    /**
+     * Cuenta coincidencias por categoría, ignorando el filtro de categoría.
+     *
+     * @param criteria filtros de búsqueda
+     * @param ids      identificadores permitidos, o null para no restringir
+     * @return conteos por categoría
+     */
+    List<FacetCount> countCategoryFacets(MachinerySearchCriteria criteria, Collection<Long> ids);
+
+    /**
+     * Cuenta coincidencias por estado, ignorando el filtro de estado.
+     *
+     * @param criteria filtros de búsqueda
+     * @param ids      identificadores permitidos, o null para no restringir
+     * @return conteos por estado
+     */
+    List<FacetCount> countStatusFacets(MachinerySearchCriteria criteria, Collection<Long> ids);
+
+    /**
+     * Obtiene las columnas de faceta de las maquinarias indicadas que cumplen
+     * el rango de precio, para filtrar por categoría y estado y contar en
+     * memoria. Los identificadores se envían una sola vez, en consultas de a
+     * lo más {@code MachineryRepositoryCustomImpl#MAX_IDS_PER_QUERY}.
+     *
+     * @param criteria filtros de búsqueda; solo se aplica el rango de precio
+     * @param ids      identificadores de las maquinarias
+     * @return filas de faceta de las maquinarias encontradas
+     */
+    List<MachineryFacetRow> findFacetRows(MachinerySearchCriteria criteria, Collection<Long> ids);
+
+    /**
+     * Recorre el catálogo completo como proyección liviana, ordenado por
+     * identificador. Las filas se leen del cursor JDBC a medida que se consumen
+     * y, al no ser entidades, no se acumulan en el contexto de persistencia.
+     * El flujo debe consumirse y cerrarse dentro de una transacción.
+     *
+     * @param fetchSize filas que el driver pide por vez; con MySQL,
+     *                  {@link Integer#MIN_VALUE} lee fila a fila sin cargar el
+     *                  resultado completo en memoria
+     * @return flujo de resúmenes de maquinaria
+     */
+    Stream<MachinerySummary> streamSummaries(int fetchSize);
+}
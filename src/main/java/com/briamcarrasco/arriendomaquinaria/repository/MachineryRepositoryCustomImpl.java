@@ -0,0 +1,186 @@
+package com.briamcarrasco.arriendomaquinaria.repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+
+import com.briamcarrasco.arriendomaquinaria.dto.FacetCount;
+import com.briamcarrasco.arriendomaquinaria.dto.MachineryFacetRow;
+import com.briamcarrasco.arriendomaquinaria.dto.MachinerySearchCriteria;
+import com.briamcarrasco.arriendomaquinaria.dto.MachinerySummary;
+import com.briamcarrasco.arriendomaquinaria.model.Category;
+import com.briamcarrasco.arriendomaquinaria.model.Machinery;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryStatus;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Implementación de las consultas de búsqueda facetada de maquinaria usando
+ * Criteria API.
+ */
+public class MachineryRepositoryCustomImpl implements MachineryRepositoryCustom {
+
+    private static final String CATEGORY = "category";
+    private static final String STATUS = "status";
+    private static final String PRICE_PER_DAY = "pricePerDay";
+    private static final String RATING_COUNT = "ratingCount";
+    private static final String RATING_SUM = "ratingSum";
+
+    /**
+     * Cantidad máxima de identificadores en una lista {@code IN}.
+     */
+    static final int MAX_IDS_PER_QUERY = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Dimensión que se excluye al calcular los conteos de una faceta.
+     */
+    private enum Facet {
+        NONE, CATEGORY, STATUS
+    }
+
+    @Override
+    public List<MachinerySummary> searchByCriteria(MachinerySearchCriteria criteria, Collection<Long> ids,
+            int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<MachinerySummary> query = cb.createQuery(MachinerySummary.class);
+        Root<Machinery> root = query.from(Machinery.class);
+        Join<Machinery, Category> category = root.join(CATEGORY, JoinType.LEFT);
+        query.select(cb.construct(MachinerySummary.class,
+                root.get("id"), root.get("nameMachinery"), category.get("name"), root.get(STATUS),
+                root.get(PRICE_PER_DAY), root.get("imageUrl"), root.get(RATING_COUNT), root.get(RATING_SUM)))
+                .where(predicates(cb, root, criteria, ids, Facet.NONE))
+                .orderBy(ordering(cb, root, criteria));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public long countByCriteria(MachinerySearchCriteria criteria, Collection<Long> ids) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Machinery> root = query.from(Machinery.class);
+        query.select(cb.count(root)).where(predicates(cb, root, criteria, ids, Facet.NONE));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public List<FacetCount> countCategoryFacets(MachinerySearchCriteria criteria, Collection<Long> ids) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Machinery> root = query.from(Machinery.class);
+        Join<Machinery, Category> category = root.join(CATEGORY);
+        query.multiselect(category.get("id"), category.get("name"), cb.count(root))
+                .where(predicates(cb, root, criteria, ids, Facet.CATEGORY))
+                .groupBy(category.get("id"), category.get("name"))
+                .orderBy(cb.asc(category.get("name")));
+        List<FacetCount> facets = new ArrayList<>();
+        for (Object[] row : entityManager.createQuery(query).getResultList()) {
+            facets.add(new FacetCount(String.valueOf(row[0]), (String) row[1], (Long) row[2]));
+        }
+        return facets;
+    }
+
+    @Override
+    public List<FacetCount> countStatusFacets(MachinerySearchCriteria criteria, Collection<Long> ids) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Machinery> root = query.from(Machinery.class);
+        query.multiselect(root.get(STATUS), cb.count(root))
+                .where(predicates(cb, root, criteria, ids, Facet.STATUS))
+                .groupBy(root.get(STATUS))
+                .orderBy(cb.asc(root.get(STATUS)));
+        List<FacetCount> facets = new ArrayList<>();
+        for (Object[] row : entityManager.createQuery(query).getResultList()) {
+            MachineryStatus status = (MachineryStatus) row[0];
+            facets.add(new FacetCount(status.name(), status.getLabel(), (Long) row[1]));
+        }
+        return facets;
+    }
+
+    @Override
+    public List<MachineryFacetRow> findFacetRows(MachinerySearchCriteria criteria, Collection<Long> ids) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        List<MachineryFacetRow> rows = new ArrayList<>();
+        Iterator<Long> remaining = ids.iterator();
+        while (remaining.hasNext()) {
+            List<Long> chunk = new ArrayList<>(Math.min(ids.size(), MAX_IDS_PER_QUERY));
+            while (remaining.hasNext() && chunk.size() < MAX_IDS_PER_QUERY) {
+                chunk.add(remaining.next());
+            }
+            CriteriaQuery<MachineryFacetRow> query = cb.createQuery(MachineryFacetRow.class);
+            Root<Machinery> root = query.from(Machinery.class);
+            Join<Machinery, Category> category = root.join(CATEGORY, JoinType.LEFT);
+            MachinerySearchCriteria priceOnly = new MachinerySearchCriteria();
+            priceOnly.setMinPrice(criteria.getMinPrice());
+            priceOnly.setMaxPrice(criteria.getMaxPrice());
+            query.select(cb.construct(MachineryFacetRow.class,
+                    root.get("id"), category.get("id"), category.get("name"), root.get(STATUS),
+                    root.get(RATING_COUNT), root.get(RATING_SUM)))
+                    .where(predicates(cb, root, priceOnly, chunk, Facet.NONE));
+            rows.addAll(entityManager.createQuery(query).getResultList());
+        }
+        return rows;
+    }
+
+    @Override
+    public Stream<MachinerySummary> streamSummaries(int fetchSize) {
+        return entityManager.createQuery("SELECT new com.briamcarrasco.arriendomaquinaria.dto.MachinerySummary("
+                + "m.id, m.nameMachinery, c.name, m.status, m.pricePerDay, m.imageUrl, m.ratingCount, m.ratingSum) "
+                + "FROM Machinery m LEFT JOIN m.category c ORDER BY m.id ASC", MachinerySummary.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    private Predicate[] predicates(CriteriaBuilder cb, Root<Machinery> root, MachinerySearchCriteria criteria,
+            Collection<Long> ids, Facet excluded) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getCategoryId() != null && excluded != Facet.CATEGORY) {
+            predicates.add(cb.equal(root.get(CATEGORY).get("id"), criteria.getCategoryId()));
+        }
+        if (criteria.getStatus() != null && excluded != Facet.STATUS) {
+            predicates.add(cb.equal(root.get(STATUS), criteria.getStatus()));
+        }
+        if (criteria.getMinPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.<BigDecimal>get(PRICE_PER_DAY), criteria.getMinPrice()));
+        }
+        if (criteria.getMaxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.<BigDecimal>get(PRICE_PER_DAY), criteria.getMaxPrice()));
+        }
+        if (ids != null) {
+            predicates.add(root.get("id").in(ids));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    /**
+     * Construye el orden de los resultados. Al ordenar por calificación se usan
+     * los contadores desnormalizados de la maquinaria, sin agregar reseñas.
+     */
+    private List<Order> ordering(CriteriaBuilder cb, Root<Machinery> root, MachinerySearchCriteria criteria) {
+        List<Order> orders = new ArrayList<>();
+        if (criteria.isSortByRating()) {
+            Expression<Number> average = cb.quot(cb.prod(root.<Long>get(RATING_SUM), 1.0),
+                    cb.nullif(root.<Long>get(RATING_COUNT), 0L));
+            orders.add(cb.desc(cb.coalesce(average, (Number) 0.0)));
+            orders.add(cb.desc(root.get(RATING_COUNT)));
+        }
+        orders.add(cb.asc(root.get("id")));
+        return orders;
+    }
+}
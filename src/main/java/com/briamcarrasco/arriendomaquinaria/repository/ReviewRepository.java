@@ -1,8 +1,12 @@
 package com.briamcarrasco.arriendomaquinaria.repository;
 
+import com.briamcarrasco.arriendomaquinaria.dto.ResourceVersion;
+import com.briamcarrasco.arriendomaquinaria.dto.ReviewSummary;
 import com.briamcarrasco.arriendomaquinaria.model.Review;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -38,4 +42,52 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
      */
     @Query("SELECT COALESCE(AVG(r.rating),0) FROM Review r WHERE r.machinery.id = :machineryId")
     Double findAverageRatingByMachinery(@Param("machineryId") Long machineryId);
-}
\ No newline at end of file
+
+    /**
+     * Obtiene la versión de las reseñas de una maquinaria para las peticiones
+     * GET condicionales: la cantidad de reseñas y la fecha de la última
+     * creada o actualizada. Se resuelve sobre el índice (machinery_id,
+     * updated_at) sin leer las filas.
+     *
+     * @param machineryId identificador de la maquinaria
+     * @return versión de las reseñas de la maquinaria
+     */
+    @Query("SELECT new com.briamcarrasco.arriendomaquinaria.dto.ResourceVersion(COUNT(r), MAX(r.updatedAt)) "
+            + "FROM Review r WHERE r.machinery.id = :machineryId")
+    ResourceVersion findVersionByMachineryId(@Param("machineryId") Long machineryId);
+
+    /**
+     * Obtiene la primera página de reseñas de una maquinaria como proyección
+     * compacta, ordenada de la más reciente a la más antigua.
+     *
+     * @param machineryId identificador de la maquinaria
+     * @param pageable    límite de elementos a obtener
+     * @return lista de reseñas resumidas
+     */
+    @Query("SELECT new com.briamcarrasco.arriendomaquinaria.dto.ReviewSummary("
+            + "r.id, r.rating, r.comment, u.username, r.createdAt, r.updatedAt) "
+            + "FROM Review r JOIN r.user u WHERE r.machinery.id = :machineryId "
+            + "ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewSummary> findFeed(@Param("machineryId") Long machineryId, Pageable pageable);
+
+    /**
+     * Obtiene la página de reseñas siguiente a la posición indicada, usando
+     * paginación por cursor sobre la fecha de creación y el identificador.
+     *
+     * @param machineryId identificador de la maquinaria
+     * @param createdAt   fecha de creación de la última reseña de la página
+     *                    anterior
+     * @param id          identificador de la última reseña de la página anterior
+     * @param pageable    límite de elementos a obtener
+     * @return lista de reseñas resumidas
+     */
+    @Query("SELECT new com.briamcarrasco.arriendomaquinaria.dto.ReviewSummary("
+            + "r.id, r.rating, r.comment, u.username, r.createdAt, r.updatedAt) "
+            + "FROM Review r JOIN r.user u WHERE r.machinery.id = :machineryId "
+            + "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) "
+            + "ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewSummary> findFeedBefore(@Param("machineryId") Long machineryId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable);
+}
@@ -0,0 +1,123 @@
+package com.briamcarrasco.arriendomaquinaria.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.jdbc.spi.JdbcServices;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Inserción o actualización de reseñas en una sola sentencia.
+ *
+ * La clave única (machinery_id, user_id) de {@code tb_reviews} resuelve en la
+ * base de datos si la reseña ya existe, sin leerla antes ni bloquearla. En
+ * MySQL se usa {@code INSERT ... ON DUPLICATE KEY UPDATE}, que con
+ * {@code id = LAST_INSERT_ID(id)} devuelve como clave generada el
+ * identificador de la reseña también cuando la actualiza. En el resto de bases
+ * (H2 en pruebas, benchmarks y pruebas de carga) un {@code MERGE} estándar
+ * dentro de {@code SELECT ... FROM FINAL TABLE} devuelve el identificador en
+ * la misma sentencia. La fecha de creación se conserva al actualizar.
+ *
+ * La sentencia se prepara con el coordinador JDBC de la sesión de Hibernate,
+ * de modo que usa la conexión de la transacción, pasa por el inspector de
+ * sentencias y sus errores se traducen igual que los de las demás consultas.
+ */
+@Repository
+public class ReviewUpsertRepository {
+
+    static final String MYSQL_UPSERT_SQL = "INSERT INTO tb_reviews "
+            + "(machinery_id, user_id, rating, comment, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE id = LAST_INSERT_ID(id), rating = ?, comment = ?, updated_at = ?";
+
+    static final String MERGE_UPSERT_SQL = "SELECT id FROM FINAL TABLE (MERGE INTO tb_reviews r "
+            + "USING (SELECT CAST(? AS BIGINT) AS machinery_id, CAST(? AS BIGINT) AS user_id) s "
+            + "ON r.machinery_id = s.machinery_id AND r.user_id = s.user_id "
+            + "WHEN MATCHED THEN UPDATE SET rating = ?, comment = ?, updated_at = ? "
+            + "WHEN NOT MATCHED THEN INSERT (machinery_id, user_id, created_at, rating, comment, updated_at) "
+            + "VALUES (s.machinery_id, s.user_id, ?, ?, ?, ?))";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Crea la reseña del usuario sobre la maquinaria o, si ya existe,
+     * reemplaza su calificación y comentario.
+     *
+     * @param machineryId identificador de la maquinaria
+     * @param userId      identificador del usuario
+     * @param rating      calificación
+     * @param comment     comentario de la reseña
+     * @return identificador de la reseña creada o actualizada
+     */
+    public Long upsert(Long machineryId, Long userId, Integer rating, String comment) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        JdbcCoordinator jdbc = entityManager.unwrap(SharedSessionContractImplementor.class).getJdbcCoordinator();
+        PreparedStatement ps = null;
+        try {
+            if (isMySql()) {
+                ps = jdbc.getStatementPreparer().prepareStatement(MYSQL_UPSERT_SQL, Statement.RETURN_GENERATED_KEYS);
+                bind(ps, machineryId, userId, rating, comment, now);
+                jdbc.getResultSetReturn().executeUpdate(ps, MYSQL_UPSERT_SQL);
+                return firstId(ps.getGeneratedKeys());
+            }
+            ps = jdbc.getStatementPreparer().prepareStatement(MERGE_UPSERT_SQL);
+            bind(ps, machineryId, userId, rating, comment, now);
+            return firstId(jdbc.getResultSetReturn().extract(ps, MERGE_UPSERT_SQL));
+        } catch (SQLException e) {
+            throw jdbcServices().getSqlExceptionHelper().convert(e, "No se pudo guardar la reseña");
+        } finally {
+            if (ps != null) {
+                jdbc.getLogicalConnection().getResourceRegistry().release(ps);
+                jdbc.afterStatementExecution();
+            }
+        }
+    }
+
+    /**
+     * Asigna los parámetros, que ambas sentencias declaran en el mismo orden:
+     * maquinaria, usuario, calificación, comentario, dos fechas y de nuevo
+     * calificación, comentario y fecha.
+     */
+    private static void bind(PreparedStatement ps, Long machineryId, Long userId, Integer rating, String comment,
+            Timestamp now) throws SQLException {
+        ps.setLong(1, machineryId);
+        ps.setLong(2, userId);
+        ps.setInt(3, rating);
+        ps.setString(4, comment);
+        ps.setTimestamp(5, now);
+        ps.setTimestamp(6, now);
+        ps.setInt(7, rating);
+        ps.setString(8, comment);
+        ps.setTimestamp(9, now);
+    }
+
+    private static Long firstId(ResultSet rs) throws SQLException {
+        try (rs) {
+            return rs.next() ? rs.getLong(1) : null;
+        }
+    }
+
+    private boolean isMySql() {
+        Dialect dialect = jdbcServices().getDialect();
+        return dialect instanceof MySQLDialect;
+    }
+
+    private JdbcServices jdbcServices() {
+        return entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices();
+    }
+}
@@ -1,6 +1,8 @@
 package com.briamcarrasco.arriendomaquinaria.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.briamcarrasco.arriendomaquinaria.model.User;
 
 /**
@@ -17,6 +19,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     User findByUsername(String username);
 
+    /**
+     * Obtiene el identificador de un usuario por su nombre de usuario, sin
+     * cargar la entidad ni su información asociada.
+     *
+     * @param username nombre de usuario
+     * @return identificador del usuario, o null si no existe
+     */
+    @Query("SELECT u.id FROM User u WHERE u.username = :username")
+    Long findIdByUsername(@Param("username") String username);
+
     /**
      * Verifica si existe un usuario con el nombre de usuario especificado.
      *
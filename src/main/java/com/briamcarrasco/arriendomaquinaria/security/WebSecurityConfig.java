@@ -3,6 +3,7 @@ package com.briamcarrasco.arriendomaquinaria.security;
 import com.briamcarrasco.arriendomaquinaria.jwt.JWTAuthorizationFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -76,14 +77,27 @@ public class WebSecurityConfig {
 
                                 .authorizeHttpRequests(auth -> auth
                                                 .requestMatchers("/", "/landing", "/login", "/auth/login",
-                                                                "/css/**", "/js/**", "/images/**", "/webjars/**",
-                                                                "/style.css", "/api/machinery/**", "register",
+                                                                "/css/**", "/js/**", "/images/**", "/uploads/**",
+                                                                "/webjars/**",
+                                                                "/style.css", "register",
                                                                 "/search", "/search/**", "/bootstrap.min.css",
                                                                 "/bootstrap.bundle.min.js", "/favicon.ico",
                                                                 "/register/user",
                                                                 "/public/**", "/api/reviews/**",
                                                                 "/api/machinery-media/**")
                                                 .permitAll()
+                                                // La API de maquinaria es pública solo para lectura; la
+                                                // consulta de disponibilidad por lote usa POST.
+                                                .requestMatchers(HttpMethod.GET, "/api/machinery/**").permitAll()
+                                                .requestMatchers(HttpMethod.HEAD, "/api/machinery/**").permitAll()
+                                                .requestMatchers(HttpMethod.POST, "/api/machinery/availability/batch")
+                                                .permitAll()
+                                                .requestMatchers(HttpMethod.POST, "/api/machinery/*/rentals")
+                                                .authenticated()
+                                                .requestMatchers(HttpMethod.POST, "/api/machinery/import")
+                                                .hasRole("ADMIN")
+                                                .requestMatchers("/actuator/health").permitAll()
+                                                .requestMatchers("/actuator/**").hasRole("ADMIN")
                                                 .anyRequest().authenticated())
                                 .headers(headers -> headers
                                                 .contentSecurityPolicy(csp -> csp
@@ -1,7 +1,9 @@
 package com.briamcarrasco.arriendomaquinaria.service;
 
 import java.util.List;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import com.briamcarrasco.arriendomaquinaria.config.CacheConfig;
 import com.briamcarrasco.arriendomaquinaria.model.Category;
 import com.briamcarrasco.arriendomaquinaria.repository.CategoryRepository;
 
@@ -26,6 +28,7 @@ public class CategoryServiceImpl implements CategoryService {
      * @return lista de objetos Category
      */
     @Override
+    @Cacheable(CacheConfig.CATEGORIES)
     public List<Category> findAll() {
         return categoryRepository.findAll();
     }
@@ -0,0 +1,30 @@
+package com.briamcarrasco.arriendomaquinaria.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Interfaz para el servicio de exportación del catálogo de maquinarias.
+ * Define métodos para escribir el catálogo completo en un flujo de salida a
+ * medida que se lee de la base de datos.
+ */
+public interface MachineryExportService {
+
+    /**
+     * Escribe el catálogo en formato NDJSON: un objeto JSON por línea.
+     *
+     * @param out flujo de salida; no se cierra
+     * @return cantidad de maquinarias exportadas
+     * @throws IOException si ocurre un error al escribir
+     */
+    long exportNdjson(OutputStream out) throws IOException;
+
+    /**
+     * Escribe el catálogo en formato CSV con una fila de encabezados.
+     *
+     * @param out flujo de salida; no se cierra
+     * @return cantidad de maquinarias exportadas
+     * @throws IOException si ocurre un error al escribir
+     */
+    long exportCsv(OutputStream out) throws IOException;
+}
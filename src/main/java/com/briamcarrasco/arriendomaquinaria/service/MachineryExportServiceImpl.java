@@ -0,0 +1,131 @@
+package com.briamcarrasco.arriendomaquinaria.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.briamcarrasco.arriendomaquinaria.dto.MachinerySummary;
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Implementación del servicio de exportación del catálogo de maquinarias.
+ *
+ * Las filas se obtienen con {@link MachineryRepository#streamSummaries(int)},
+ * que lee la tabla con un cursor de solo avance, y cada una se escribe en la
+ * salida apenas llega. No se construye ninguna lista ni se cargan entidades,
+ * por lo que la memoria usada no depende del tamaño del catálogo. El tamaño
+ * de lectura ({@code app.export.fetch-size}) se aplica solo a esta consulta:
+ * en MySQL se configura en {@link Integer#MIN_VALUE} para que el driver
+ * entregue las filas de a una sin cambiar la conexión para el resto de la
+ * aplicación.
+ */
+@Service
+public class MachineryExportServiceImpl implements MachineryExportService {
+
+    static final String CSV_HEADER = "id,name,category,status,price_per_day,image_url,rating_count,average_rating";
+
+    private final MachineryRepository machineryRepository;
+    private final ObjectWriter jsonWriter;
+    private final int fetchSize;
+
+    public MachineryExportServiceImpl(MachineryRepository machineryRepository, ObjectMapper objectMapper,
+            @Value("${app.export.fetch-size:500}") int fetchSize) {
+        this.machineryRepository = machineryRepository;
+        this.jsonWriter = objectMapper.writerFor(MachinerySummary.class);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportNdjson(OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<MachinerySummary> rows = machineryRepository.streamSummaries(fetchSize)) {
+            Iterator<MachinerySummary> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                out.write(jsonWriter.writeValueAsBytes(iterator.next()));
+                out.write('\n');
+                count++;
+            }
+        }
+        out.flush();
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        long count = 0;
+        try (Stream<MachinerySummary> rows = machineryRepository.streamSummaries(fetchSize)) {
+            Iterator<MachinerySummary> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writeCsvRow(writer, iterator.next());
+                count++;
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsvRow(Writer writer, MachinerySummary row) throws IOException {
+        writer.write(String.valueOf(row.getId()));
+        writer.write(',');
+        writer.write(csvText(row.getNameMachinery()));
+        writer.write(',');
+        writer.write(csvText(row.getCategoryName()));
+        writer.write(',');
+        writer.write(row.getStatus() == null ? "" : row.getStatus().name());
+        writer.write(',');
+        writer.write(row.getPricePerDay() == null ? "" : row.getPricePerDay().toPlainString());
+        writer.write(',');
+        writer.write(csvText(row.getImageUrl()));
+        writer.write(',');
+        writer.write(row.getRatingCount() == null ? "0" : String.valueOf(row.getRatingCount()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getAverageRating()));
+        writer.write("\r\n");
+    }
+
+    /**
+     * Escapa un campo de texto según RFC 4180. Los valores que empiezan con un
+     * carácter que las planillas interpretan como fórmula se anteponen con un
+     * apóstrofo para que se muestren como texto.
+     *
+     * @param value valor del campo
+     * @return campo listo para escribir
+     */
+    static String csvText(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        String text = value;
+        char first = text.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@') {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0
+                || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
@@ -0,0 +1,38 @@
+package com.briamcarrasco.arriendomaquinaria.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.briamcarrasco.arriendomaquinaria.dto.BulkImportResult;
+
+/**
+ * Interfaz para el servicio de importación masiva de maquinarias.
+ * Define métodos para cargar maquinarias desde archivos CSV o NDJSON,
+ * validando cada fila e informando los errores por línea.
+ */
+public interface MachineryImportService {
+
+    /**
+     * Importa maquinarias desde un CSV con fila de encabezados. Las columnas
+     * {@code name}, {@code category} (o {@code category_id}) y
+     * {@code price_per_day} son obligatorias; {@code status} e
+     * {@code image_url} son opcionales y el resto se ignora, de modo que se
+     * puede reimportar una exportación del catálogo.
+     *
+     * @param in contenido del archivo
+     * @return resultado de la importación
+     * @throws IOException              si ocurre un error al leer el archivo
+     * @throws IllegalArgumentException si faltan columnas obligatorias
+     */
+    BulkImportResult importCsv(InputStream in) throws IOException;
+
+    /**
+     * Importa maquinarias desde un archivo NDJSON, un objeto JSON por línea,
+     * con los mismos campos que la exportación del catálogo.
+     *
+     * @param in contenido del archivo
+     * @return resultado de la importación
+     * @throws IOException si ocurre un error al leer el archivo
+     */
+    BulkImportResult importNdjson(InputStream in) throws IOException;
+}
@@ -0,0 +1,361 @@
+package com.briamcarrasco.arriendomaquinaria.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.briamcarrasco.arriendomaquinaria.dto.BulkImportResult;
+import com.briamcarrasco.arriendomaquinaria.model.Category;
+import com.briamcarrasco.arriendomaquinaria.model.Machinery;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryStatus;
+import com.briamcarrasco.arriendomaquinaria.repository.CategoryRepository;
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryBatchRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Implementación del servicio de importación masiva de maquinarias.
+ *
+ * El archivo se lee fila a fila: cada fila se valida apenas se lee y las
+ * válidas se acumulan hasta completar un lote, que se inserta con
+ * {@link MachineryBatchRepository} y se confirma en su propia transacción.
+ * Tras confirmarlo, sus maquinarias se agregan a los índices de búsqueda y
+ * disponibilidad con los identificadores generados, sin reconstruir los
+ * índices ni perder las actualizaciones concurrentes, y el lote se descarta.
+ * Así la memoria usada depende del tamaño del lote y no del archivo. Las
+ * filas inválidas se omiten y se informan con su número de línea; si la
+ * lectura falla a mitad del archivo, los lotes ya confirmados se conservan.
+ */
+@Service
+public class MachineryImportServiceImpl implements MachineryImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MachineryImportServiceImpl.class);
+
+    /**
+     * Cantidad máxima de errores detallados en la respuesta.
+     */
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    static final String NAME = "name";
+    static final String CATEGORY = "category";
+    static final String CATEGORY_ID = "category_id";
+    static final String STATUS = "status";
+    static final String PRICE_PER_DAY = "price_per_day";
+    static final String IMAGE_URL = "image_url";
+
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_PRICE_INTEGER_DIGITS = 10;
+    private static final int MAX_PRICE_SCALE = 2;
+
+    /**
+     * Nombres de los campos de la exportación NDJSON y su columna equivalente.
+     */
+    private static final Map<String, String> JSON_FIELDS = Map.of(
+            "nameMachinery", NAME,
+            "categoryName", CATEGORY,
+            "categoryId", CATEGORY_ID,
+            "pricePerDay", PRICE_PER_DAY,
+            "imageUrl", IMAGE_URL);
+
+    private final MachineryBatchRepository batchRepository;
+    private final CategoryRepository categoryRepository;
+    private final MachinerySearchIndex searchIndex;
+    private final RentalAvailabilityIndex availabilityIndex;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public MachineryImportServiceImpl(MachineryBatchRepository batchRepository,
+            CategoryRepository categoryRepository, MachinerySearchIndex searchIndex,
+            RentalAvailabilityIndex availabilityIndex, ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.import.batch-size:1000}") int batchSize) {
+        this.batchRepository = batchRepository;
+        this.categoryRepository = categoryRepository;
+        this.searchIndex = searchIndex;
+        this.availabilityIndex = availabilityIndex;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Fila leída del archivo, antes de validarla.
+     *
+     * @param line   línea del archivo en que empieza la fila
+     * @param values valores por nombre de columna
+     * @param error  error de formato de la fila, o null si se pudo leer
+     */
+    record ImportRow(long line, Map<String, String> values, String error) {
+    }
+
+    /**
+     * Fuente de filas de un archivo.
+     */
+    @FunctionalInterface
+    interface RowSource {
+
+        /**
+         * Lee la siguiente fila.
+         *
+         * @return la fila, o null si no quedan filas
+         * @throws IOException si ocurre un error al leer
+         */
+        ImportRow next() throws IOException;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BulkImportResult importCsv(InputStream in) throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(
+                new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new IllegalArgumentException("El archivo está vacío");
+        }
+        List<String> columns = new ArrayList<>(header.size());
+        for (String column : header) {
+            columns.add(column.replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT));
+        }
+        if (!columns.contains(NAME) || !columns.contains(PRICE_PER_DAY)
+                || !(columns.contains(CATEGORY) || columns.contains(CATEGORY_ID))) {
+            throw new IllegalArgumentException(
+                    "Faltan columnas obligatorias: name, category o category_id, price_per_day");
+        }
+        return importRows(() -> {
+            List<String> fields = reader.next();
+            while (fields != null && fields.size() == 1 && fields.get(0).isBlank()) {
+                fields = reader.next();
+            }
+            if (fields == null) {
+                return null;
+            }
+            if (fields.size() != columns.size()) {
+                return new ImportRow(reader.recordLine(), Map.of(),
+                        "Se esperaban " + columns.size() + " columnas y hay " + fields.size());
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < columns.size(); i++) {
+                values.put(columns.get(i), fields.get(i));
+            }
+            return new ImportRow(reader.recordLine(), values, null);
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BulkImportResult importNdjson(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        long[] lineNumber = { 0 };
+        return importRows(() -> {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber[0]++;
+            } while (line != null && line.isBlank());
+            if (line == null) {
+                return null;
+            }
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                if (!node.isObject()) {
+                    return new ImportRow(lineNumber[0], Map.of(), "La línea no es un objeto JSON");
+                }
+                Map<String, String> values = new HashMap<>();
+                for (Map.Entry<String, JsonNode> field : node.properties()) {
+                    if (!field.getValue().isNull()) {
+                        values.put(JSON_FIELDS.getOrDefault(field.getKey(), field.getKey()),
+                                field.getValue().asText());
+                    }
+                }
+                return new ImportRow(lineNumber[0], values, null);
+            } catch (JsonProcessingException e) {
+                return new ImportRow(lineNumber[0], Map.of(), "JSON inválido");
+            }
+        });
+    }
+
+    private BulkImportResult importRows(RowSource source) throws IOException {
+        Map<String, Long> categoriesByName = new HashMap<>();
+        Map<Long, String> categoryNames = new HashMap<>();
+        for (Category category : categoryRepository.findAll()) {
+            categoriesByName.put(category.getName().trim().toLowerCase(Locale.ROOT), category.getId());
+            categoryNames.put(category.getId(), category.getName());
+        }
+
+        BulkImportResult result = new BulkImportResult();
+        List<Machinery> batch = new ArrayList<>(batchSize);
+        ImportRow row;
+        while ((row = source.next()) != null) {
+            try {
+                batch.add(toMachinery(row, categoriesByName, categoryNames.keySet()));
+            } catch (IllegalArgumentException e) {
+                result.addError(row.line(), e.getMessage(), MAX_REPORTED_ERRORS);
+                continue;
+            }
+            if (batch.size() >= batchSize) {
+                insertBatch(batch, result, categoryNames);
+            }
+        }
+        insertBatch(batch, result, categoryNames);
+        logger.info("Importación de maquinarias: {} insertadas, {} rechazadas", result.getImported(),
+                result.getFailed());
+        return result;
+    }
+
+    /**
+     * Inserta un lote en su propia transacción, agrega a los índices las
+     * maquinarias con identificador generado y vacía el lote.
+     */
+    private void insertBatch(List<Machinery> batch, BulkImportResult result, Map<Long, String> categoryNames) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(
+                status -> result.setImported(result.getImported() + batchRepository.insertAll(batch)));
+        List<Machinery> inserted = new ArrayList<>(batch.size());
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (Machinery machinery : batch) {
+            if (machinery.getId() != null) {
+                machinery.getCategory().setName(categoryNames.get(machinery.getCategory().getId()));
+                inserted.add(machinery);
+                ids.add(machinery.getId());
+            }
+        }
+        if (!inserted.isEmpty()) {
+            searchIndex.indexAll(inserted);
+            availabilityIndex.addAllMachinery(ids);
+        }
+        batch.clear();
+    }
+
+    /**
+     * Valida una fila y la convierte en maquinaria. Las maquinarias importadas
+     * no tienen arriendos, por lo que un estado arrendado se importa como
+     * disponible.
+     *
+     * @param row              fila leída
+     * @param categoriesByName identificadores de categoría por nombre
+     * @param categoryIds      identificadores de categoría existentes
+     * @return maquinaria lista para insertar
+     * @throws IllegalArgumentException si la fila no es válida
+     */
+    static Machinery toMachinery(ImportRow row, Map<String, Long> categoriesByName, Set<Long> categoryIds) {
+        if (row.error() != null) {
+            throw new IllegalArgumentException(row.error());
+        }
+        Map<String, String> values = row.values();
+
+        String name = trimToNull(values.get(NAME));
+        if (name == null) {
+            throw new IllegalArgumentException("El nombre es obligatorio");
+        }
+        if (name.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("El nombre no debe superar " + MAX_NAME_LENGTH + " caracteres");
+        }
+
+        Long categoryId = resolveCategory(values, categoriesByName, categoryIds);
+
+        String priceText = trimToNull(values.get(PRICE_PER_DAY));
+        if (priceText == null) {
+            throw new IllegalArgumentException("El precio por día es obligatorio");
+        }
+        BigDecimal price;
+        try {
+            price = new BigDecimal(priceText);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Precio por día inválido: " + priceText);
+        }
+        if (price.signum() <= 0 || price.scale() > MAX_PRICE_SCALE
+                || price.precision() - price.scale() > MAX_PRICE_INTEGER_DIGITS) {
+            throw new IllegalArgumentException("Precio por día inválido: " + priceText);
+        }
+
+        String statusText = trimToNull(values.get(STATUS));
+        MachineryStatus status = statusText == null ? MachineryStatus.DISPONIBLE : MachineryStatus.from(statusText);
+        if (status == MachineryStatus.ARRENDADA) {
+            status = MachineryStatus.DISPONIBLE;
+        }
+
+        String imageUrl = trimToNull(values.get(IMAGE_URL));
+
+        Category category = new Category();
+        category.setId(categoryId);
+        Machinery machinery = new Machinery();
+        machinery.setNameMachinery(unescapeFormula(name));
+        machinery.setCategory(category);
+        machinery.setStatus(status);
+        machinery.setPricePerDay(price);
+        machinery.setImageUrl(imageUrl == null ? Machinery.DEFAULT_IMAGE_URL : imageUrl);
+        return machinery;
+    }
+
+    private static Long resolveCategory(Map<String, String> values, Map<String, Long> categoriesByName,
+            Set<Long> categoryIds) {
+        String idText = trimToNull(values.get(CATEGORY_ID));
+        if (idText != null) {
+            Long id;
+            try {
+                id = Long.valueOf(idText);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Identificador de categoría inválido: " + idText);
+            }
+            if (!categoryIds.contains(id)) {
+                throw new IllegalArgumentException("Categoría no encontrada: " + idText);
+            }
+            return id;
+        }
+        String name = trimToNull(values.get(CATEGORY));
+        if (name == null) {
+            throw new IllegalArgumentException("La categoría es obligatoria");
+        }
+        Long id = categoriesByName.get(unescapeFormula(name).toLowerCase(Locale.ROOT));
+        if (id == null) {
+            throw new IllegalArgumentException("Categoría no encontrada: " + name);
+        }
+        return id;
+    }
+
+    /**
+     * Quita el apóstrofo que la exportación CSV antepone a los textos que
+     * empiezan como una fórmula.
+     */
+    private static String unescapeFormula(String value) {
+        if (value.length() > 1 && value.charAt(0) == '\'') {
+            char next = value.charAt(1);
+            if (next == '=' || next == '+' || next == '-' || next == '@') {
+                return value.substring(1);
+            }
+        }
+        return value;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
@@ -1,6 +1,8 @@
 package com.briamcarrasco.arriendomaquinaria.service;
 
 import java.util.List;
+import com.briamcarrasco.arriendomaquinaria.dto.MachineryMediaSummary;
+import com.briamcarrasco.arriendomaquinaria.dto.ResourceVersion;
 import com.briamcarrasco.arriendomaquinaria.model.MachineryMedia;
 
 /**
@@ -12,12 +14,23 @@ import com.briamcarrasco.arriendomaquinaria.model.MachineryMedia;
  */
 public interface MachineryMediaService {
     /**
-     * Obtiene la lista de archivos multimedia asociados a una maquinaria.
+     * Obtiene los archivos multimedia asociados a una maquinaria como
+     * proyección.
      *
      * @param machineryId identificador de la maquinaria
-     * @return lista de objetos MachineryMedia
+     * @return lista de archivos multimedia de la maquinaria
      */
-    List<MachineryMedia> getMediaByMachinery(Long machineryId);
+    List<MachineryMediaSummary> getMediaByMachinery(Long machineryId);
+
+    /**
+     * Obtiene la versión de los archivos multimedia de una maquinaria para las
+     * peticiones GET condicionales. Coincide con la versión de la maquinaria,
+     * que se renueva al agregar, eliminar o procesar sus archivos.
+     *
+     * @param machineryId identificador de la maquinaria
+     * @return versión de la maquinaria; sin filas si no existe
+     */
+    ResourceVersion getMediaVersion(Long machineryId);
 
     /**
      * Agrega una imagen a una maquinaria usando una URL.
@@ -37,6 +50,25 @@ public interface MachineryMediaService {
      */
     MachineryMedia addImageFile(Long machineryId, org.springframework.web.multipart.MultipartFile file);
 
+    /**
+     * Guarda en el directorio de subidas la imagen principal de una maquinaria,
+     * sin asociarla a ningún registro.
+     *
+     * @param file archivo de imagen a subir
+     * @return URL pública de la imagen guardada
+     */
+    String storeImage(org.springframework.web.multipart.MultipartFile file);
+
+    /**
+     * Solicita la generación en segundo plano de la miniatura de la imagen
+     * principal de una maquinaria. No hace nada si la imagen no es un archivo
+     * subido.
+     *
+     * @param machineryId identificador de la maquinaria
+     * @param imageUrl    URL de la imagen principal
+     */
+    void processMachineryImage(Long machineryId, String imageUrl);
+
     /**
      * Agrega un video a una maquinaria usando una URL.
      *
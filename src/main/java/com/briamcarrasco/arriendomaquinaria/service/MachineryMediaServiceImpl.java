@@ -1,17 +1,17 @@
 package com.briamcarrasco.arriendomaquinaria.service;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.List;
-import java.util.UUID;
 
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.briamcarrasco.arriendomaquinaria.config.CacheConfig;
+import com.briamcarrasco.arriendomaquinaria.dto.MachineryMediaSummary;
+import com.briamcarrasco.arriendomaquinaria.dto.ResourceVersion;
 import com.briamcarrasco.arriendomaquinaria.model.Machinery;
 import com.briamcarrasco.arriendomaquinaria.model.MachineryMedia;
 import com.briamcarrasco.arriendomaquinaria.repository.MachineryMediaRepository;
@@ -24,6 +24,9 @@ import com.briamcarrasco.arriendomaquinaria.repository.MachineryRepository;
  * Permite agregar imágenes y videos a una maquinaria, obtener archivos
  * multimedia por maquinaria,
  * subir archivos de imagen y eliminar archivos multimedia.
+ *
+ * Las imágenes subidas se guardan mediante {@link MediaStorage} y sus
+ * variantes se generan en segundo plano en {@link MediaVariantProcessor}.
  */
 @Service
 @Transactional
@@ -31,25 +34,43 @@ public class MachineryMediaServiceImpl implements MachineryMediaService {
 
     private final MachineryMediaRepository mediaRepository;
     private final MachineryRepository machineryRepository;
-    @Value("${app.upload-dir:uploads}")
-    private String uploadDir;
+    private final MediaStorage storage;
+    private final ApplicationEventPublisher eventPublisher;
     private static final String MACHINERY_NOT_FOUND = "Maquinaria no encontrada";
 
     public MachineryMediaServiceImpl(MachineryMediaRepository mediaRepository,
-            MachineryRepository machineryRepository) {
+            MachineryRepository machineryRepository, MediaStorage storage,
+            ApplicationEventPublisher eventPublisher) {
         this.mediaRepository = mediaRepository;
         this.machineryRepository = machineryRepository;
+        this.storage = storage;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
-     * Obtiene la lista de archivos multimedia asociados a una maquinaria.
+     * Obtiene los archivos multimedia asociados a una maquinaria con una
+     * consulta de proyección, sin cargar las entidades.
      *
      * @param machineryId identificador de la maquinaria
-     * @return lista de objetos MachineryMedia
+     * @return lista de archivos multimedia de la maquinaria
      */
     @Override
-    public List<MachineryMedia> getMediaByMachinery(Long machineryId) {
-        return mediaRepository.findByMachineryId(machineryId);
+    @Transactional(readOnly = true)
+    public List<MachineryMediaSummary> getMediaByMachinery(Long machineryId) {
+        return mediaRepository.findSummariesByMachineryId(machineryId);
+    }
+
+    /**
+     * Obtiene la versión de los archivos multimedia de una maquinaria a partir
+     * de la fecha de última modificación de la maquinaria.
+     *
+     * @param machineryId identificador de la maquinaria
+     * @return versión de la maquinaria; sin filas si no existe
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersion getMediaVersion(Long machineryId) {
+        return machineryRepository.findVersionById(machineryId);
     }
 
     /**
@@ -60,66 +81,75 @@ public class MachineryMediaServiceImpl implements MachineryMediaService {
      * @return el objeto MachineryMedia creado
      */
     @Override
+    @CacheEvict(cacheNames = CacheConfig.MACHINERY, key = "#machineryId")
     public MachineryMedia addImage(Long machineryId, String imageUrl) {
         Machinery machinery = machineryRepository.findById(machineryId)
                 .orElseThrow(() -> new IllegalArgumentException(MACHINERY_NOT_FOUND));
         MachineryMedia media = new MachineryMedia();
         media.setMachinery(machinery);
         media.setImgUrl(imageUrl);
-        return mediaRepository.save(media);
+        MachineryMedia saved = mediaRepository.save(media);
+        machineryRepository.touch(machineryId);
+        return saved;
     }
 
     /**
-     * Agrega una imagen a una maquinaria subiendo un archivo.
+     * Agrega una imagen a una maquinaria subiendo un archivo. El archivo se
+     * valida y se comprueba que la maquinaria exista antes de escribirlo en
+     * disco, para no dejar archivos huérfanos.
      *
      * @param machineryId identificador de la maquinaria
      * @param file        archivo de imagen a subir
      * @return el objeto MachineryMedia creado
-     * @throws IllegalArgumentException si el archivo es vacío o el tipo no es
-     *                                  permitido
+     * @throws IllegalArgumentException si el archivo es vacío, el tipo no es
+     *                                  permitido o la maquinaria no existe
      * @throws IllegalStateException    si ocurre un error al guardar el archivo
      */
     @Override
+    @CacheEvict(cacheNames = CacheConfig.MACHINERY, key = "#machineryId")
     public MachineryMedia addImageFile(Long machineryId, MultipartFile file) {
-        if (file == null || file.isEmpty()) {
-            throw new IllegalArgumentException("Archivo vacío");
-        }
-        String contentType = file.getContentType();
-        if (contentType == null || !contentType.startsWith("image/")) {
-            throw new IllegalArgumentException("Tipo de archivo no permitido");
-        }
-
-        String extension;
-        switch (contentType) {
-            case "image/jpeg":
-                extension = ".jpg";
-                break;
-            case "image/png":
-                extension = ".png";
-                break;
-            case "image/webp":
-                extension = ".webp";
-                break;
-            default:
-                extension = ".img";
-        }
-
-        String filename = UUID.randomUUID().toString() + extension;
-        Path dir = Paths.get(uploadDir).toAbsolutePath().normalize();
-        try {
-            Files.createDirectories(dir);
-            Path target = dir.resolve(filename);
-            file.transferTo(target);
-        } catch (IOException e) {
-            throw new IllegalStateException("Error guardando archivo", e);
-        }
-
+        String extension = extensionOf(file);
         Machinery machinery = machineryRepository.findById(machineryId)
                 .orElseThrow(() -> new IllegalArgumentException(MACHINERY_NOT_FOUND));
+        String filename = store(file, extension);
+
         MachineryMedia media = new MachineryMedia();
         media.setMachinery(machinery);
-        media.setImgUrl("/uploads/" + filename);
-        return mediaRepository.save(media);
+        media.setImgUrl(storage.publicUrl(filename));
+        MachineryMedia saved = mediaRepository.save(media);
+        machineryRepository.touch(machineryId);
+        eventPublisher.publishEvent(new MediaImageStoredEvent(machineryId, saved.getId(), filename));
+        return saved;
+    }
+
+    /**
+     * Guarda en el directorio de subidas la imagen principal de una maquinaria.
+     *
+     * @param file archivo de imagen a subir
+     * @return URL pública de la imagen guardada
+     * @throws IllegalArgumentException si el archivo es vacío o el tipo no es
+     *                                  permitido
+     * @throws IllegalStateException    si ocurre un error al guardar el archivo
+     */
+    @Override
+    public String storeImage(MultipartFile file) {
+        return storage.publicUrl(store(file, extensionOf(file)));
+    }
+
+    /**
+     * Solicita la generación en segundo plano de la miniatura de la imagen
+     * principal de una maquinaria.
+     *
+     * @param machineryId identificador de la maquinaria
+     * @param imageUrl    URL de la imagen principal
+     */
+    @Override
+    public void processMachineryImage(Long machineryId, String imageUrl) {
+        String filename = storage.filenameOf(imageUrl);
+        if (machineryId == null || filename == null) {
+            return;
+        }
+        eventPublisher.publishEvent(new MediaImageStoredEvent(machineryId, null, filename));
     }
 
     /**
@@ -130,22 +160,64 @@ public class MachineryMediaServiceImpl implements MachineryMediaService {
      * @return el objeto MachineryMedia creado
      */
     @Override
+    @CacheEvict(cacheNames = CacheConfig.MACHINERY, key = "#machineryId")
     public MachineryMedia addVideo(Long machineryId, String videoUrl) {
         Machinery machinery = machineryRepository.findById(machineryId)
                 .orElseThrow(() -> new IllegalArgumentException(MACHINERY_NOT_FOUND));
         MachineryMedia media = new MachineryMedia();
         media.setMachinery(machinery);
         media.setVidUrl(videoUrl);
-        return mediaRepository.save(media);
+        MachineryMedia saved = mediaRepository.save(media);
+        machineryRepository.touch(machineryId);
+        return saved;
     }
 
     /**
-     * Elimina un archivo multimedia por su identificador.
+     * Elimina un archivo multimedia por su identificador y renueva la fecha de
+     * última modificación de su maquinaria.
      *
      * @param mediaId identificador del archivo multimedia a eliminar
      */
     @Override
+    @CacheEvict(cacheNames = CacheConfig.MACHINERY, allEntries = true)
     public void deleteMedia(Long mediaId) {
-        mediaRepository.deleteById(mediaId);
+        mediaRepository.findById(mediaId).ifPresent(media -> {
+            mediaRepository.delete(media);
+            machineryRepository.touch(media.getMachinery().getId());
+        });
+    }
+
+    private static String extensionOf(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Archivo vacío");
+        }
+        String contentType = file.getContentType();
+        if (contentType == null || !contentType.startsWith("image/")) {
+            throw new IllegalArgumentException("Tipo de archivo no permitido");
+        }
+
+        String extension;
+        switch (contentType) {
+            case "image/jpeg":
+                extension = ".jpg";
+                break;
+            case "image/png":
+                extension = ".png";
+                break;
+            case "image/webp":
+                extension = ".webp";
+                break;
+            default:
+                extension = ".img";
+        }
+        return extension;
+    }
+
+    private String store(MultipartFile file, String extension) {
+        try {
+            return storage.store(file, extension);
+        } catch (IOException e) {
+            throw new IllegalStateException("Error guardando archivo", e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,71 @@
+package com.briamcarrasco.arriendomaquinaria.service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.briamcarrasco.arriendomaquinaria.dto.AvailabilityCalendar;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryRental;
+import com.briamcarrasco.arriendomaquinaria.model.User;
+
+/**
+ * Interfaz para el servicio de arriendos de maquinaria.
+ * Define métodos para consultar la disponibilidad de las maquinarias en un
+ * rango de fechas y para registrar arriendos.
+ */
+public interface MachineryRentalService {
+
+    /**
+     * Indica si una maquinaria está libre entre dos fechas, ambas incluidas.
+     *
+     * @param machineryId identificador de la maquinaria
+     * @param from        primer día del rango
+     * @param to          último día del rango
+     * @return true si la maquinaria existe y no tiene arriendos en el rango
+     */
+    boolean isAvailable(Long machineryId, LocalDate from, LocalDate to);
+
+    /**
+     * Obtiene las maquinarias libres entre dos fechas, ambas incluidas.
+     *
+     * @param from primer día del rango
+     * @param to   último día del rango
+     * @return identificadores de las maquinarias libres
+     */
+    List<Long> findAvailableMachinery(LocalDate from, LocalDate to);
+
+    /**
+     * Indica la disponibilidad de varias maquinarias entre dos fechas, ambas
+     * incluidas, usando una sola consulta.
+     *
+     * @param machineryIds identificadores de las maquinarias
+     * @param from         primer día del rango
+     * @param to           último día del rango
+     * @return disponibilidad por identificador de maquinaria existente, en el
+     *         orden de la solicitud
+     */
+    Map<Long, Boolean> findAvailability(Collection<Long> machineryIds, LocalDate from, LocalDate to);
+
+    /**
+     * Obtiene el calendario de ocupación diaria de una maquinaria entre dos
+     * fechas, ambas incluidas.
+     *
+     * @param machineryId identificador de la maquinaria
+     * @param from        primer día del calendario
+     * @param to          último día del calendario
+     * @return calendario con los días ocupados como bitset
+     */
+    AvailabilityCalendar getCalendar(Long machineryId, LocalDate from, LocalDate to);
+
+    /**
+     * Registra el arriendo de una maquinaria entre dos fechas, ambas incluidas.
+     *
+     * @param machineryId identificador de la maquinaria
+     * @param user        usuario que arrienda
+     * @param from        primer día del arriendo
+     * @param to          último día del arriendo
+     * @return el arriendo registrado
+     */
+    MachineryRental book(Long machineryId, User user, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,305 @@
+package com.briamcarrasco.arriendomaquinaria.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.briamcarrasco.arriendomaquinaria.config.CacheConfig;
+import com.briamcarrasco.arriendomaquinaria.dto.AvailabilityCalendar;
+import com.briamcarrasco.arriendomaquinaria.model.Machinery;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryRental;
+import com.briamcarrasco.arriendomaquinaria.model.User;
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryRentalRepository;
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryRepository;
+
+/**
+ * Implementación del servicio de arriendos de maquinaria.
+ * Las consultas de disponibilidad se resuelven en memoria con
+ * {@link RentalAvailabilityIndex}, sin consultar la tabla de arriendos.
+ *
+ * Un rango de días {@code [from, to]} se traduce al intervalo semiabierto que
+ * va desde el inicio de {@code from} hasta el inicio del día siguiente a
+ * {@code to}, en la zona horaria del servidor.
+ *
+ * Los arriendos de una misma maquinaria se serializan con un conjunto fijo de
+ * locks repartidos por identificador de maquinaria: dos solicitudes para la
+ * misma maquinaria no pueden comprobar disponibilidad e insertar a la vez,
+ * mientras que las de maquinarias distintas avanzan en paralelo. El lock se
+ * libera después del commit, de modo que la siguiente solicitud ya ve el
+ * arriendo confirmado. Estos locks protegen una sola instancia de la
+ * aplicación.
+ */
+@Service
+public class MachineryRentalServiceImpl implements MachineryRentalService {
+
+    /**
+     * Cantidad máxima de días de un calendario de disponibilidad.
+     */
+    public static final int MAX_CALENDAR_DAYS = 731;
+
+    /**
+     * Cantidad máxima de maquinarias por consulta de disponibilidad en lote.
+     */
+    public static final int MAX_BATCH_SIZE = 500;
+
+    private static final String CONFLICT_MESSAGE = "La maquinaria ya está arrendada en esas fechas";
+    private static final String BUSY_MESSAGE = "La maquinaria está siendo reservada por otra solicitud";
+
+    private final RentalAvailabilityIndex availabilityIndex;
+    private final MachineryRepository machineryRepository;
+    private final MachineryRentalRepository rentalRepository;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock[] stripes;
+    private final long lockTimeoutMillis;
+
+    public MachineryRentalServiceImpl(RentalAvailabilityIndex availabilityIndex,
+            MachineryRepository machineryRepository,
+            MachineryRentalRepository rentalRepository,
+            CacheManager cacheManager,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.rental.lock-stripes:64}") int lockStripes,
+            @Value("${app.rental.lock-timeout:500ms}") Duration lockTimeout) {
+        this.availabilityIndex = availabilityIndex;
+        this.machineryRepository = machineryRepository;
+        this.rentalRepository = rentalRepository;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.stripes = new ReentrantLock[Math.max(1, lockStripes)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.lockTimeoutMillis = lockTimeout.toMillis();
+    }
+
+    /**
+     * Indica si una maquinaria está libre entre dos fechas, ambas incluidas.
+     *
+     * @param machineryId identificador de la maquinaria
+     * @param from        primer día del rango
+     * @param to          último día del rango
+     * @return true si la maquinaria existe y no tiene arriendos en el rango
+     * @throws IllegalArgumentException si el rango no es válido
+     */
+    @Override
+    public boolean isAvailable(Long machineryId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return availabilityIndex.isAvailable(machineryId, startOf(from), startOf(to.plusDays(1)));
+    }
+
+    /**
+     * Obtiene las maquinarias libres entre dos fechas, ambas incluidas.
+     *
+     * @param from primer día del rango
+     * @param to   último día del rango
+     * @return identificadores de las maquinarias libres, ordenados
+     *         ascendentemente
+     * @throws IllegalArgumentException si el rango no es válido
+     */
+    @Override
+    public List<Long> findAvailableMachinery(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return availabilityIndex.findAvailable(startOf(from), startOf(to.plusDays(1)));
+    }
+
+    /**
+     * Indica la disponibilidad de varias maquinarias entre dos fechas, ambas
+     * incluidas. Se resuelve con una única consulta agrupada sobre la tabla de
+     * arriendos, de modo que el costo no crece con una consulta por maquinaria.
+     *
+     * @param machineryIds identificadores de las maquinarias
+     * @param from         primer día del rango
+     * @param to           último día del rango
+     * @return disponibilidad por identificador de maquinaria existente, en el
+     *         orden de la solicitud
+     * @throws IllegalArgumentException si el rango no es válido, no hay
+     *                                  identificadores o superan
+     *                                  {@link #MAX_BATCH_SIZE}
+     */
+    @Override
+    public Map<Long, Boolean> findAvailability(Collection<Long> machineryIds, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        if (machineryIds == null || machineryIds.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar al menos una maquinaria");
+        }
+        Set<Long> ids = new LinkedHashSet<>(machineryIds);
+        ids.remove(null);
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Demasiadas maquinarias en la consulta");
+        }
+
+        Map<Long, Long> overlaps = new HashMap<>();
+        for (Object[] row : rentalRepository.countOverlappingByMachinery(ids,
+                new Date(startOf(from)), new Date(startOf(to.plusDays(1))))) {
+            overlaps.put((Long) row[0], (Long) row[1]);
+        }
+        Map<Long, Boolean> result = new LinkedHashMap<>();
+        for (Long id : ids) {
+            Long count = overlaps.get(id);
+            if (count != null) {
+                result.put(id, count == 0);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Obtiene el calendario de ocupación diaria de una maquinaria entre dos
+     * fechas, ambas incluidas. Un día está ocupado si algún arriendo se solapa
+     * con él. El resultado se guarda en caché hasta el siguiente arriendo. La
+     * clave incluye la revisión de la maquinaria en el índice, leída antes de
+     * calcular: si un arriendo se registra mientras tanto, el calendario
+     * calculado queda bajo la revisión anterior y no se vuelve a servir.
+     *
+     * @param machineryId identificador de la maquinaria
+     * @param from        primer día del calendario
+     * @param to          último día del calendario
+     * @return calendario con los días ocupados como bitset
+     * @throws IllegalArgumentException si el rango no es válido o supera
+     *                                  {@link #MAX_CALENDAR_DAYS} días
+     */
+    @Override
+    @Cacheable(cacheNames = CacheConfig.CALENDARS,
+            key = "#machineryId + ':' + @rentalAvailabilityIndex.revision(#machineryId) + ':' + #from + ':' + #to")
+    public AvailabilityCalendar getCalendar(Long machineryId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days > MAX_CALENDAR_DAYS) {
+            throw new IllegalArgumentException("Rango de fechas demasiado amplio");
+        }
+        int count = (int) days;
+        long[] dayStarts = new long[count + 1];
+        for (int i = 0; i <= count; i++) {
+            dayStarts[i] = startOf(from.plusDays(i));
+        }
+
+        BitSet booked = new BitSet(count);
+        for (long[] interval : availabilityIndex.findBookedIntervals(machineryId, dayStarts[0], dayStarts[count])) {
+            int position = Arrays.binarySearch(dayStarts, interval[0]);
+            int first = Math.max(0, position >= 0 ? position : -position - 2);
+            for (int day = first; day < count && dayStarts[day] < interval[1]; day++) {
+                booked.set(day);
+            }
+        }
+        return new AvailabilityCalendar(machineryId, from, to, count, booked.cardinality(),
+                Base64.getEncoder().encodeToString(booked.toByteArray()));
+    }
+
+    /**
+     * Registra el arriendo de una maquinaria entre dos fechas, ambas incluidas.
+     * Si el índice en memoria ya muestra un solapamiento, la solicitud se
+     * rechaza sin tomar el lock ni consultar la base de datos. Al registrarse
+     * se invalidan solo los calendarios en caché de esa maquinaria.
+     *
+     * @param machineryId identificador de la maquinaria
+     * @param user        usuario que arrienda
+     * @param from        primer día del arriendo
+     * @param to          último día del arriendo
+     * @return el arriendo registrado
+     * @throws IllegalArgumentException si el rango no es válido, comienza antes
+     *                                  de hoy o la maquinaria no existe
+     * @throws RentalConflictException  si la maquinaria ya está arrendada en el
+     *                                  rango o no se obtuvo el lock a tiempo
+     */
+    @Override
+    public MachineryRental book(Long machineryId, User user, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        if (from.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("La fecha de inicio no puede ser anterior a hoy");
+        }
+        Date start = new Date(startOf(from));
+        Date end = new Date(startOf(to.plusDays(1)));
+        if (availabilityIndex.isBooked(machineryId, start.getTime(), end.getTime())) {
+            throw new RentalConflictException(CONFLICT_MESSAGE);
+        }
+
+        ReentrantLock lock = stripeFor(machineryId);
+        acquire(lock);
+        try {
+            MachineryRental saved = transactionTemplate.execute(status -> {
+                Machinery machinery = machineryRepository.findById(machineryId)
+                        .orElseThrow(() -> new IllegalArgumentException("Maquinaria no encontrada"));
+                if (rentalRepository.existsByMachineryIdAndRentalDateBeforeAndReturnDateAfter(
+                        machineryId, end, start)) {
+                    throw new RentalConflictException(CONFLICT_MESSAGE);
+                }
+                MachineryRental rental = new MachineryRental();
+                rental.setMachinery(machinery);
+                rental.setUser(user);
+                rental.setRentalDate(start);
+                rental.setReturnDate(end);
+                return rentalRepository.save(rental);
+            });
+            availabilityIndex.addRental(saved);
+            evictCalendars(machineryId);
+            return saved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Elimina de la caché los calendarios de una maquinaria, cuyas claves
+     * comienzan con su identificador, sin tocar los de las demás.
+     */
+    private void evictCalendars(Long machineryId) {
+        Cache cache = cacheManager.getCache(CacheConfig.CALENDARS);
+        if (cache == null) {
+            return;
+        }
+        String prefix = machineryId + ":";
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> calendars) {
+            calendars.asMap().keySet().removeIf(key -> key.toString().startsWith(prefix));
+        } else {
+            cache.clear();
+        }
+    }
+
+    ReentrantLock stripeFor(Long machineryId) {
+        int hash = Long.hashCode(machineryId) * 0x9E3779B9;
+        return stripes[Math.floorMod(hash ^ (hash >>> 16), stripes.length)];
+    }
+
+    private void acquire(ReentrantLock lock) {
+        try {
+            if (!lock.tryLock(lockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new RentalConflictException(BUSY_MESSAGE);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RentalConflictException(BUSY_MESSAGE);
+        }
+    }
+
+    static long startOf(LocalDate date) {
+        return date.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    static void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("Rango de fechas inválido");
+        }
+    }
+}
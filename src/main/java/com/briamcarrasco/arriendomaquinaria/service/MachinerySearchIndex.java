@@ -0,0 +1,251 @@
+package com.briamcarrasco.arriendomaquinaria.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.briamcarrasco.arriendomaquinaria.model.Category;
+import com.briamcarrasco.arriendomaquinaria.model.Machinery;
+import com.briamcarrasco.arriendomaquinaria.repository.CategoryRepository;
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryRepository;
+
+/**
+ * Índice invertido en memoria para la búsqueda de maquinarias.
+ * Indexa trigramas del nombre de la maquinaria, el nombre de su categoría y su
+ * descripción, permitiendo búsquedas por subcadena sin recorrer la tabla en la
+ * base de datos. Se reconstruye al iniciar la aplicación y se mantiene
+ * sincronizado desde {@link MachineryServiceImpl}.
+ */
+@Component
+public class MachinerySearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(MachinerySearchIndex.class);
+
+    static final int GRAM_SIZE = 3;
+    private static final String FIELD_SEPARATOR = "\n";
+
+    private final MachineryRepository machineryRepository;
+    private final CategoryRepository categoryRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String> documents = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+
+    public MachinerySearchIndex(MachineryRepository machineryRepository, CategoryRepository categoryRepository) {
+        this.machineryRepository = machineryRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    /**
+     * Reconstruye el índice completo a partir de la base de datos.
+     * Usa una proyección de columnas para no cargar las entidades completas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> rows = machineryRepository.findSearchDocuments();
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            for (Object[] row : rows) {
+                put((Long) row[0], buildDocument((String) row[1], (String) row[2], (String) row[3]));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Índice de búsqueda de maquinarias reconstruido: {} documentos", rows.size());
+    }
+
+    /**
+     * Agrega o reemplaza una maquinaria en el índice.
+     *
+     * @param machinery maquinaria a indexar
+     */
+    public void index(Machinery machinery) {
+        if (machinery == null || machinery.getId() == null) {
+            return;
+        }
+        String document = buildDocument(machinery.getNameMachinery(),
+                resolveCategoryName(machinery.getCategory()),
+                machinery.getMachineryInfo() != null ? machinery.getMachineryInfo().getDescription() : null);
+        lock.writeLock().lock();
+        try {
+            delete(machinery.getId());
+            put(machinery.getId(), document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Agrega o reemplaza varias maquinarias en el índice tomando el bloqueo una
+     * sola vez. Las maquinarias deben traer el nombre de su categoría.
+     *
+     * @param machinery maquinarias a indexar
+     */
+    public void indexAll(Collection<Machinery> machinery) {
+        lock.writeLock().lock();
+        try {
+            for (Machinery m : machinery) {
+                if (m.getId() == null) {
+                    continue;
+                }
+                delete(m.getId());
+                put(m.getId(), buildDocument(m.getNameMachinery(),
+                        m.getCategory() != null ? m.getCategory().getName() : null,
+                        m.getMachineryInfo() != null ? m.getMachineryInfo().getDescription() : null));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Elimina una maquinaria del índice.
+     *
+     * @param id identificador de la maquinaria
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            delete(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca las maquinarias cuyo nombre, categoría o descripción contienen el
+     * texto indicado, ignorando mayúsculas, minúsculas y tildes.
+     *
+     * @param text texto a buscar
+     * @return identificadores de las maquinarias encontradas, ordenados
+     *         ascendentemente
+     */
+    public List<Long> search(String text) {
+        String term = normalize(text);
+        if (term.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Set<Long> candidates = term.length() < GRAM_SIZE ? documents.keySet() : intersectGrams(term);
+            List<Long> result = new ArrayList<>();
+            for (Long id : candidates) {
+                if (documents.get(id).contains(term)) {
+                    result.add(id);
+                }
+            }
+            result.sort(null);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de documentos indexados.
+     *
+     * @return número de maquinarias en el índice
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Normaliza un texto para indexación: minúsculas, sin tildes y con espacios
+     * colapsados.
+     *
+     * @param text texto a normalizar
+     * @return texto normalizado, o cadena vacía si es null
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ").trim();
+    }
+
+    private Set<Long> intersectGrams(String term) {
+        Set<Long> result = null;
+        for (int i = 0; i + GRAM_SIZE <= term.length(); i++) {
+            Set<Long> ids = postings.get(term.substring(i, i + GRAM_SIZE));
+            if (ids == null) {
+                return Set.of();
+            }
+            if (result == null) {
+                result = new HashSet<>(ids);
+            } else {
+                result.retainAll(ids);
+            }
+            if (result.isEmpty()) {
+                return result;
+            }
+        }
+        return result;
+    }
+
+    private String resolveCategoryName(Category category) {
+        if (category == null) {
+            return null;
+        }
+        if (category.getName() == null && category.getId() != null) {
+            return categoryRepository.findById(category.getId()).map(Category::getName).orElse(null);
+        }
+        return category.getName();
+    }
+
+    private String buildDocument(String name, String category, String description) {
+        return normalize(name) + FIELD_SEPARATOR + normalize(category) + FIELD_SEPARATOR + normalize(description);
+    }
+
+    private void put(Long id, String document) {
+        documents.put(id, document);
+        for (String gram : grams(document)) {
+            postings.computeIfAbsent(gram, k -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void delete(Long id) {
+        String previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : grams(previous)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private Set<String> grams(String document) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= document.length(); i++) {
+            grams.add(document.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+}
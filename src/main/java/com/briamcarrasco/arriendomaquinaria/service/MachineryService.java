@@ -1,5 +1,11 @@
 package com.briamcarrasco.arriendomaquinaria.service;
 
+import com.briamcarrasco.arriendomaquinaria.dto.CursorPage;
+import com.briamcarrasco.arriendomaquinaria.dto.FacetedSearchResult;
+import com.briamcarrasco.arriendomaquinaria.dto.MachineryDetail;
+import com.briamcarrasco.arriendomaquinaria.dto.MachinerySearchCriteria;
+import com.briamcarrasco.arriendomaquinaria.dto.MachinerySummary;
+import com.briamcarrasco.arriendomaquinaria.dto.ResourceVersion;
 import com.briamcarrasco.arriendomaquinaria.model.Machinery;
 import java.util.Optional;
 import java.util.List;
@@ -27,12 +33,31 @@ public interface MachineryService {
      */
     Optional<Machinery> findById(Long id);
 
+    /**
+     * Obtiene el detalle de una maquinaria para la API JSON como proyección,
+     * sin cargar la entidad ni sus asociaciones.
+     *
+     * @param id identificador de la maquinaria
+     * @return un Optional con el detalle o vacío si la maquinaria no existe
+     */
+    Optional<MachineryDetail> findDetailById(Long id);
+
+    /**
+     * Obtiene la versión de una maquinaria para las peticiones GET
+     * condicionales, sin cargar la entidad.
+     *
+     * @param id identificador de la maquinaria
+     * @return versión de la maquinaria; sin filas si no existe
+     */
+    ResourceVersion getVersion(Long id);
+
     /**
      * Actualiza los datos de una maquinaria existente.
      *
      * @param id        identificador de la maquinaria a actualizar
      * @param machinery datos actualizados de la maquinaria
      * @return la maquinaria actualizada
+     * @throws IllegalArgumentException si la transición de estado no es válida
      */
     Machinery updateMachinery(Long id, Machinery machinery);
 
@@ -51,10 +76,37 @@ public interface MachineryService {
     List<Machinery> findAll();
 
     /**
-     * Busca maquinarias por nombre, ignorando mayúsculas y minúsculas.
+     * Obtiene una página del catálogo como proyección liviana para las vistas de
+     * listado y la API JSON, usando paginación por cursor sobre el
+     * identificador.
+     *
+     * @param cursor cursor opaco de la página anterior, o null para la primera
+     *               página
+     * @param size   cantidad máxima de elementos por página
+     * @return página de resúmenes con el cursor de la página siguiente
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    CursorPage<MachinerySummary> findSummaryPage(String cursor, int size);
+
+    /**
+     * Obtiene una página del catálogo para las vistas HTML. A diferencia de
+     * {@link #findSummaryPage(String, int)}, un cursor mal formado (por
+     * ejemplo, editado a mano en la URL) devuelve la primera página en vez de
+     * un error.
      *
-     * @param nameMachinery nombre de la maquinaria a buscar
-     * @return lista de maquinarias que coinciden con el nombre
+     * @param cursor cursor opaco de la página anterior, o null para la primera
+     *               página
+     * @param size   cantidad máxima de elementos por página
+     * @return página de resúmenes con el cursor de la página siguiente
+     */
+    CursorPage<MachinerySummary> findSummaryPageOrFirst(String cursor, int size);
+
+    /**
+     * Busca maquinarias cuyo nombre, categoría o descripción contienen el texto
+     * indicado, ignorando mayúsculas, minúsculas y tildes.
+     *
+     * @param nameMachinery texto a buscar
+     * @return lista de maquinarias que coinciden con el texto
      */
     List<Machinery> findByNameMachinery(String nameMachinery);
 
@@ -65,4 +117,14 @@ public interface MachineryService {
      * @return lista de maquinarias que pertenecen a la categoría
      */
     List<Machinery> findByCategory(String name);
-}
\ No newline at end of file
+
+    /**
+     * Realiza una búsqueda facetada combinando texto, categoría, estado y rango
+     * de precio, e incluye los conteos por categoría y estado.
+     *
+     * @param criteria filtros de búsqueda
+     * @param size     cantidad máxima de resultados a devolver
+     * @return resultados, total de coincidencias y conteos por faceta
+     */
+    FacetedSearchResult facetedSearch(MachinerySearchCriteria criteria, int size);
+}
@@ -1,10 +1,29 @@
 package com.briamcarrasco.arriendomaquinaria.service;
 
+import com.briamcarrasco.arriendomaquinaria.config.CacheConfig;
+import com.briamcarrasco.arriendomaquinaria.dto.CursorPage;
+import com.briamcarrasco.arriendomaquinaria.dto.FacetCount;
+import com.briamcarrasco.arriendomaquinaria.dto.FacetedSearchResult;
+import com.briamcarrasco.arriendomaquinaria.dto.MachineryDetail;
+import com.briamcarrasco.arriendomaquinaria.dto.MachineryFacetRow;
+import com.briamcarrasco.arriendomaquinaria.dto.MachinerySearchCriteria;
+import com.briamcarrasco.arriendomaquinaria.dto.MachinerySummary;
+import com.briamcarrasco.arriendomaquinaria.dto.ResourceVersion;
 import com.briamcarrasco.arriendomaquinaria.model.Machinery;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryStatus;
 import com.briamcarrasco.arriendomaquinaria.repository.MachineryRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Implementación del servicio para la gestión de maquinaria en el sistema de
@@ -15,64 +34,144 @@ import java.util.Optional;
 @Service
 public class MachineryServiceImpl implements MachineryService {
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Orden por calificación de la búsqueda facetada: promedio descendente,
+     * luego cantidad de reseñas descendente y, al empatar, identificador.
+     */
+    private static final Comparator<MachineryFacetRow> BY_RATING = Comparator
+            .comparingDouble(MachineryFacetRow::getAverageRating).reversed()
+            .thenComparing(MachineryFacetRow::getRatingCount, Comparator.reverseOrder())
+            .thenComparing(MachineryFacetRow::getId);
+
     private final MachineryRepository machineryRepository;
+    private final MachinerySearchIndex searchIndex;
+    private final RentalAvailabilityIndex availabilityIndex;
 
-    public MachineryServiceImpl(MachineryRepository machineryRepository) {
+    public MachineryServiceImpl(MachineryRepository machineryRepository, MachinerySearchIndex searchIndex,
+            RentalAvailabilityIndex availabilityIndex) {
         this.machineryRepository = machineryRepository;
+        this.searchIndex = searchIndex;
+        this.availabilityIndex = availabilityIndex;
     }
 
     /**
-     * Crea una nueva maquinaria en el sistema.
+     * Crea una nueva maquinaria en el sistema. Si no se indica estado, la
+     * maquinaria queda disponible.
      *
      * @param machinery objeto Machinery a crear
      * @return la maquinaria creada
      */
     @Override
+    @CacheEvict(cacheNames = CacheConfig.MACHINERY, key = "#result.id")
     public Machinery createMachinery(Machinery machinery) {
-        return machineryRepository.save(machinery);
+        if (machinery != null && machinery.getStatus() == null) {
+            machinery.setStatus(MachineryStatus.DISPONIBLE);
+        }
+        Machinery saved = machineryRepository.save(machinery);
+        if (saved != null) {
+            searchIndex.index(saved);
+            availabilityIndex.addMachinery(saved.getId());
+        }
+        return saved;
     }
 
     /**
-     * Busca una maquinaria por su identificador.
+     * Busca una maquinaria por su identificador. El resultado se guarda en caché
+     * junto con su categoría, información adicional y medios, de modo que la
+     * instancia cacheada se pueda usar sin una sesión abierta.
      *
      * @param id identificador de la maquinaria
      * @return un Optional con la maquinaria encontrada o vacío si no existe
      */
     @Override
+    @Cacheable(cacheNames = CacheConfig.MACHINERY, key = "#id")
     public Optional<Machinery> findById(Long id) {
-        return machineryRepository.findById(id);
+        return machineryRepository.findDetailedById(id);
+    }
+
+    /**
+     * Obtiene el detalle de una maquinaria para la API JSON con una consulta de
+     * proyección sobre la maquinaria, su categoría y su información adicional.
+     *
+     * @param id identificador de la maquinaria
+     * @return un Optional con el detalle o vacío si la maquinaria no existe
+     */
+    @Override
+    public Optional<MachineryDetail> findDetailById(Long id) {
+        return machineryRepository.findDetailById(id);
+    }
+
+    /**
+     * Obtiene la versión de una maquinaria a partir de su fecha de última
+     * modificación, con una consulta por clave primaria.
+     *
+     * @param id identificador de la maquinaria
+     * @return versión de la maquinaria; sin filas si no existe
+     */
+    @Override
+    public ResourceVersion getVersion(Long id) {
+        return machineryRepository.findVersionById(id);
     }
 
     /**
-     * Actualiza los datos de una maquinaria existente.
+     * Actualiza los datos de una maquinaria existente. El estado solo cambia si
+     * se indica uno distinto y la transición se puede hacer manualmente; si no
+     * se indica, se conserva el actual. Los cambios entre disponible y
+     * arrendada los hace la reconciliación a partir de los arriendos.
      *
      * @param id        identificador de la maquinaria a actualizar
      * @param machinery datos actualizados de la maquinaria
      * @return la maquinaria actualizada
      * @throws MachineryNotFoundException si la maquinaria no existe
+     * @throws IllegalArgumentException   si la transición de estado no es
+     *                                    válida o no se puede hacer
+     *                                    manualmente
      */
     @Override
+    @CacheEvict(cacheNames = CacheConfig.MACHINERY, key = "#id")
     public Machinery updateMachinery(Long id, Machinery machinery) {
         Optional<Machinery> existing = machineryRepository.findById(id);
         if (existing.isPresent()) {
             Machinery m = existing.get();
             m.setNameMachinery(machinery.getNameMachinery());
             m.setCategory(machinery.getCategory());
-            m.setStatus(machinery.getStatus());
+            MachineryStatus status = machinery.getStatus();
+            if (status != null && !isManualTransition(m.getStatus(), status)) {
+                throw new IllegalArgumentException(
+                        "Transición de estado inválida: " + m.getStatus() + " -> " + status);
+            }
+            if (status != null) {
+                m.setStatus(status);
+            }
             m.setPricePerDay(machinery.getPricePerDay());
-            return machineryRepository.save(m);
+            Machinery saved = machineryRepository.save(m);
+            searchIndex.index(saved);
+            return saved;
         }
         throw new MachineryNotFoundException("Machinery not found with id: " + id);
     }
 
+    private static boolean isManualTransition(MachineryStatus current, MachineryStatus target) {
+        if (current == null) {
+            return MachineryStatus.manualValues().contains(target);
+        }
+        return current.canTransitionManuallyTo(target);
+    }
+
     /**
      * Elimina una maquinaria por su identificador.
      *
      * @param id identificador de la maquinaria a eliminar
      */
     @Override
+    @CacheEvict(cacheNames = CacheConfig.MACHINERY, key = "#id")
     public void deleteMachinery(Long id) {
         machineryRepository.deleteById(id);
+        searchIndex.remove(id);
+        availabilityIndex.removeMachinery(id);
     }
 
     /**
@@ -86,14 +185,84 @@ public class MachineryServiceImpl implements MachineryService {
     }
 
     /**
-     * Busca maquinarias por nombre, ignorando mayúsculas y minúsculas.
+     * Obtiene una página del catálogo como proyección liviana para las vistas de
+     * listado y la API JSON. La página se resuelve con una sola consulta de
+     * columnas y se solicita un elemento adicional para saber si existe una
+     * página siguiente sin ejecutar un conteo.
+     *
+     * @param cursor cursor opaco de la página anterior, o null para la primera
+     *               página
+     * @param size   cantidad máxima de elementos por página
+     * @return página de resúmenes con el cursor de la página siguiente
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    @Override
+    public CursorPage<MachinerySummary> findSummaryPage(String cursor, int size) {
+        return findSummariesAfter(decodeIdCursor(cursor), size);
+    }
+
+    /**
+     * Obtiene una página del catálogo para las vistas HTML, empezando desde la
+     * primera si el cursor no es válido.
+     *
+     * @param cursor cursor opaco de la página anterior, o null para la primera
+     *               página
+     * @param size   cantidad máxima de elementos por página
+     * @return página de resúmenes con el cursor de la página siguiente
+     */
+    @Override
+    public CursorPage<MachinerySummary> findSummaryPageOrFirst(String cursor, int size) {
+        long afterId;
+        try {
+            afterId = decodeIdCursor(cursor);
+        } catch (IllegalArgumentException e) {
+            afterId = 0L;
+        }
+        return findSummariesAfter(afterId, size);
+    }
+
+    private CursorPage<MachinerySummary> findSummariesAfter(long afterId, int size) {
+        int limit = size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        List<MachinerySummary> rows = machineryRepository.findSummariesAfter(afterId, PageRequest.of(0, limit + 1));
+        return toPage(rows, limit, MachinerySummary::getId);
+    }
+
+    private <T> CursorPage<T> toPage(List<T> rows, int limit, Function<T, Long> idOf) {
+        boolean hasMore = rows.size() > limit;
+        List<T> items = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? CursorPage.encodeCursor(idOf.apply(items.get(items.size() - 1))) : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    private long decodeIdCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(CursorPage.decodeCursor(cursor)[0]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    /**
+     * Busca maquinarias por texto usando el índice en memoria. El texto se
+     * compara contra el nombre, la categoría y la descripción, ignorando
+     * mayúsculas, minúsculas y tildes; solo se consulta la base de datos por
+     * clave primaria para cargar los resultados.
      *
-     * @param nameMachinery nombre de la maquinaria a buscar
-     * @return lista de maquinarias que coinciden con el nombre
+     * @param nameMachinery texto a buscar
+     * @return lista de maquinarias que coinciden, ordenadas por identificador
      */
     @Override
     public List<Machinery> findByNameMachinery(String nameMachinery) {
-        return machineryRepository.findByNameMachineryContainingIgnoreCase(nameMachinery);
+        List<Long> ids = searchIndex.search(nameMachinery);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Machinery> result = new ArrayList<>(machineryRepository.findAllById(ids));
+        result.sort(Comparator.comparing(Machinery::getId));
+        return result;
     }
 
     /**
@@ -107,6 +276,76 @@ public class MachineryServiceImpl implements MachineryService {
         return machineryRepository.findByCategory_NameIgnoreCase(name);
     }
 
+    /**
+     * Realiza una búsqueda facetada combinando texto, categoría, estado y rango
+     * de precio. Sin texto, los resultados, el total y las facetas se
+     * resuelven con el índice compuesto de la tabla.
+     *
+     * Con texto, las coincidencias del índice en memoria se envían a la base
+     * de datos una sola vez, en lotes acotados, para leer las columnas de
+     * faceta de las que cumplen el rango de precio; el total, los conteos y
+     * el orden se calculan en memoria y solo se cargan los resúmenes de la
+     * página devuelta.
+     *
+     * @param criteria filtros de búsqueda
+     * @param size     cantidad máxima de resultados a devolver
+     * @return resultados, total de coincidencias y conteos por faceta
+     */
+    @Override
+    public FacetedSearchResult facetedSearch(MachinerySearchCriteria criteria, int size) {
+        int limit = size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        if (criteria.getText() == null || criteria.getText().isBlank()) {
+            return new FacetedSearchResult(
+                    machineryRepository.searchByCriteria(criteria, null, limit),
+                    machineryRepository.countByCriteria(criteria, null),
+                    machineryRepository.countCategoryFacets(criteria, null),
+                    machineryRepository.countStatusFacets(criteria, null));
+        }
+        List<Long> ids = searchIndex.search(criteria.getText());
+        if (ids.isEmpty()) {
+            return FacetedSearchResult.empty();
+        }
+
+        Map<Long, FacetCount> categories = new HashMap<>();
+        Map<MachineryStatus, Long> statuses = new EnumMap<>(MachineryStatus.class);
+        List<MachineryFacetRow> matches = new ArrayList<>();
+        for (MachineryFacetRow row : machineryRepository.findFacetRows(criteria, ids)) {
+            boolean categoryMatches = criteria.getCategoryId() == null
+                    || criteria.getCategoryId().equals(row.getCategoryId());
+            boolean statusMatches = criteria.getStatus() == null || criteria.getStatus() == row.getStatus();
+            if (statusMatches && row.getCategoryId() != null) {
+                FacetCount facet = categories.computeIfAbsent(row.getCategoryId(),
+                        id -> new FacetCount(String.valueOf(id), row.getCategoryName(), 0));
+                facet.setCount(facet.getCount() + 1);
+            }
+            if (categoryMatches) {
+                statuses.merge(row.getStatus(), 1L, Long::sum);
+            }
+            if (categoryMatches && statusMatches) {
+                matches.add(row);
+            }
+        }
+
+        matches.sort(criteria.isSortByRating() ? BY_RATING : Comparator.comparing(MachineryFacetRow::getId));
+        List<Long> pageIds = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int i = 0; i < limit && i < matches.size(); i++) {
+            pageIds.add(matches.get(i).getId());
+        }
+        List<MachinerySummary> items = pageIds.isEmpty() ? List.of()
+                : machineryRepository.searchByCriteria(criteria, pageIds, limit);
+
+        List<FacetCount> categoryFacets = new ArrayList<>(categories.values());
+        categoryFacets.sort(Comparator.comparing(FacetCount::getLabel,
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+        List<FacetCount> statusFacets = new ArrayList<>();
+        for (Map.Entry<MachineryStatus, Long> entry : statuses.entrySet()) {
+            statusFacets.add(new FacetCount(entry.getKey().name(), entry.getKey().getLabel(), entry.getValue()));
+        }
+        // Mismo orden que la consulta agrupada: por el nombre guardado.
+        statusFacets.sort(Comparator.comparing(FacetCount::getKey));
+        return new FacetedSearchResult(items, matches.size(), categoryFacets, statusFacets);
+    }
+
     class MachineryNotFoundException extends RuntimeException {
         public MachineryNotFoundException(String message) {
             super(message);
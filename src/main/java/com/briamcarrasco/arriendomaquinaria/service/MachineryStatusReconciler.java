@@ -0,0 +1,122 @@
+package com.briamcarrasco.arriendomaquinaria.service;
+
+import java.util.Date;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.briamcarrasco.arriendomaquinaria.config.CacheConfig;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryStatus;
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryRepository;
+
+/**
+ * Deriva periódicamente el estado de las maquinarias a partir de sus
+ * arriendos: las disponibles con un arriendo vigente pasan a arrendadas y las
+ * arrendadas sin arriendo vigente vuelven a disponibles. Las maquinarias en
+ * mantenimiento no se modifican.
+ *
+ * Cada pasada son dos actualizaciones masivas que usan el índice de arriendos
+ * por maquinaria y fechas, sin cargar entidades. Si alguna fila cambia se
+ * vacía la caché de maquinarias para que las fichas muestren el estado nuevo.
+ *
+ * Al iniciar la aplicación se reescriben además los estados guardados en
+ * texto libre con el nombre de su constante, porque las actualizaciones
+ * masivas, los filtros y los conteos por estado comparan la columna con ese
+ * nombre; los que no corresponden a ningún estado pasan a mantenimiento.
+ */
+@Component
+public class MachineryStatusReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(MachineryStatusReconciler.class);
+
+    private final MachineryRepository machineryRepository;
+    private final CacheManager cacheManager;
+
+    public MachineryStatusReconciler(MachineryRepository machineryRepository, CacheManager cacheManager) {
+        this.machineryRepository = machineryRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Reescribe los estados guardados en texto libre (por ejemplo
+     * {@code "disponible"} o {@code "En mantenimiento"}) con el nombre de la
+     * constante equivalente. Solo consulta los valores distintos de la
+     * columna, por lo que una vez migrados los datos no escribe ninguna fila.
+     * Los valores que no corresponden a ningún estado (por ejemplo
+     * {@code "Operativa"}) pasan a mantenimiento, que no se puede arrendar, y
+     * se registran en el log para que un administrador los revise; dejarlos
+     * haría fallar cada consulta que lea esas filas.
+     *
+     * @return cantidad de maquinarias cuyo estado se reescribió
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public int normalizeLegacyStatuses() {
+        int changed = 0;
+        List<String> values = machineryRepository.findDistinctStatusValues();
+        for (String value : values) {
+            if (value == null) {
+                continue;
+            }
+            MachineryStatus status;
+            try {
+                status = MachineryStatus.from(value);
+            } catch (IllegalArgumentException e) {
+                int quarantined = machineryRepository.replaceStatusValue(value, MachineryStatus.MANTENIMIENTO.name());
+                logger.warn("Estado de maquinaria desconocido en la base de datos: {}; {} maquinarias pasan a {}",
+                        value, quarantined, MachineryStatus.MANTENIMIENTO);
+                changed += quarantined;
+                continue;
+            }
+            if (!status.name().equals(value)) {
+                changed += machineryRepository.replaceStatusValue(value, status.name());
+            }
+        }
+        if (changed > 0) {
+            logger.info("Estados de maquinarias en texto libre normalizados: {}", changed);
+        }
+        return changed;
+    }
+
+    /**
+     * Ejecuta la reconciliación programada con el instante actual.
+     */
+    @Scheduled(initialDelayString = "${app.status.reconcile-initial-delay:PT30S}",
+            fixedDelayString = "${app.status.reconcile-interval:PT5M}")
+    @Transactional
+    public void reconcile() {
+        reconcile(new Date());
+    }
+
+    /**
+     * Reconcilia el estado de las maquinarias con los arriendos vigentes en el
+     * instante indicado.
+     *
+     * @param now instante de referencia
+     * @return cantidad de maquinarias cuyo estado cambió
+     */
+    @Transactional
+    public int reconcile(Date now) {
+        int rented = machineryRepository.updateStatusWithActiveRental(
+                MachineryStatus.DISPONIBLE, MachineryStatus.ARRENDADA, now);
+        int released = machineryRepository.updateStatusWithoutActiveRental(
+                MachineryStatus.ARRENDADA, MachineryStatus.DISPONIBLE, now);
+        int changed = rented + released;
+        if (changed > 0) {
+            Cache cache = cacheManager.getCache(CacheConfig.MACHINERY);
+            if (cache != null) {
+                cache.clear();
+            }
+            logger.info("Estado de maquinarias reconciliado: {} arrendadas, {} disponibles", rented, released);
+        }
+        return changed;
+    }
+}
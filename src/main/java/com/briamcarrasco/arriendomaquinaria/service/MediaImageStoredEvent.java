@@ -0,0 +1,14 @@
+package com.briamcarrasco.arriendomaquinaria.service;
+
+/**
+ * Evento publicado cuando se guarda una imagen subida. Lo procesa
+ * {@link MediaVariantProcessor} fuera del hilo de la petición para generar
+ * las variantes de la imagen.
+ *
+ * @param machineryId identificador de la maquinaria dueña de la imagen
+ * @param mediaId     identificador del archivo multimedia, o null si la
+ *                    imagen es la principal de la maquinaria
+ * @param filename    nombre del archivo guardado
+ */
+public record MediaImageStoredEvent(Long machineryId, Long mediaId, String filename) {
+}
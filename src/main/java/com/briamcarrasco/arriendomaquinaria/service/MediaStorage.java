@@ -0,0 +1,112 @@
+package com.briamcarrasco.arriendomaquinaria.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Almacenamiento en disco de los archivos subidos por los usuarios.
+ * Los archivos se guardan en el directorio configurado en
+ * {@code app.upload-dir} y se publican bajo la ruta {@code /uploads/}.
+ *
+ * El contenido se copia por bloques desde el flujo de entrada a un archivo
+ * temporal, sin cargar el archivo completo en memoria, calculando a la vez su
+ * hash SHA-256. El archivo se guarda con el hash como nombre, de modo que una
+ * misma imagen subida varias veces ocupa un único archivo y su URL nunca
+ * cambia de contenido.
+ */
+@Component
+public class MediaStorage {
+
+    /**
+     * Prefijo de las URLs públicas de los archivos subidos.
+     */
+    public static final String PUBLIC_PREFIX = "/uploads/";
+
+    private final Path directory;
+
+    public MediaStorage(@Value("${app.upload-dir:uploads}") String uploadDir) {
+        this.directory = Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Guarda un archivo subido usando el hash de su contenido como nombre. Si
+     * ya existe un archivo con el mismo contenido se reutiliza.
+     *
+     * @param file      archivo subido
+     * @param extension extensión del archivo, incluido el punto
+     * @return nombre del archivo guardado
+     * @throws IOException si ocurre un error al escribir el archivo
+     */
+    public String store(MultipartFile file, String extension) throws IOException {
+        Files.createDirectories(directory);
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(directory, "upload-", ".tmp");
+        try {
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String filename = HexFormat.of().formatHex(digest.digest()) + extension;
+            Path target = directory.resolve(filename);
+            if (!Files.exists(target)) {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return filename;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Obtiene la ruta en disco de un archivo guardado.
+     *
+     * @param filename nombre del archivo
+     * @return ruta absoluta del archivo
+     */
+    public Path resolve(String filename) {
+        return directory.resolve(filename);
+    }
+
+    /**
+     * Obtiene la URL pública de un archivo guardado.
+     *
+     * @param filename nombre del archivo
+     * @return URL pública del archivo
+     */
+    public String publicUrl(String filename) {
+        return PUBLIC_PREFIX + filename;
+    }
+
+    /**
+     * Obtiene el nombre del archivo a partir de su URL pública.
+     *
+     * @param url URL pública
+     * @return nombre del archivo, o null si la URL no corresponde a un archivo
+     *         subido
+     */
+    public String filenameOf(String url) {
+        if (url == null || !url.startsWith(PUBLIC_PREFIX)) {
+            return null;
+        }
+        return url.substring(PUBLIC_PREFIX.length());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.briamcarrasco.arriendomaquinaria.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.briamcarrasco.arriendomaquinaria.config.AsyncConfig;
+import com.briamcarrasco.arriendomaquinaria.config.CacheConfig;
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryMediaRepository;
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryRepository;
+
+/**
+ * Genera las variantes de las imágenes subidas: una miniatura JPEG para los
+ * listados y, si el entorno cuenta con un codificador WebP para ImageIO, una
+ * versión WebP de tamaño de visualización.
+ *
+ * El procesamiento se ejecuta en el pool {@link AsyncConfig#MEDIA_EXECUTOR}
+ * una vez confirmada la transacción que guardó la imagen, de modo que la
+ * petición de subida responde sin esperar la decodificación ni el
+ * redimensionado. Como los originales se guardan por hash de contenido, una
+ * variante que ya existe en disco se reutiliza sin volver a codificarla.
+ *
+ * Antes de decodificar se leen las dimensiones de la cabecera: las imágenes
+ * con más de {@code app.media.max-pixels} píxeles se omiten, porque un archivo
+ * pequeño puede declarar dimensiones enormes y agotar la memoria del proceso
+ * al decodificarlo.
+ */
+@Component
+public class MediaVariantProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(MediaVariantProcessor.class);
+
+    /**
+     * Ancho máximo de las miniaturas, en píxeles.
+     */
+    public static final int THUMBNAIL_WIDTH = 320;
+
+    /**
+     * Ancho máximo de la variante WebP, en píxeles.
+     */
+    public static final int DISPLAY_WIDTH = 1280;
+
+    private final MediaStorage storage;
+    private final MachineryMediaRepository mediaRepository;
+    private final MachineryRepository machineryRepository;
+    private final long maxPixels;
+
+    public MediaVariantProcessor(MediaStorage storage, MachineryMediaRepository mediaRepository,
+            MachineryRepository machineryRepository,
+            @Value("${app.media.max-pixels:40000000}") long maxPixels) {
+        this.storage = storage;
+        this.mediaRepository = mediaRepository;
+        this.machineryRepository = machineryRepository;
+        this.maxPixels = maxPixels;
+    }
+
+    /**
+     * Variantes generadas para una imagen.
+     *
+     * @param thumbUrl URL de la miniatura, o null si no se generó
+     * @param webpUrl  URL de la variante WebP, o null si no se generó
+     */
+    public record Variants(String thumbUrl, String webpUrl) {
+
+        static final Variants NONE = new Variants(null, null);
+
+        /**
+         * Indica si no se generó ninguna variante.
+         *
+         * @return true si no hay variantes
+         */
+        public boolean isEmpty() {
+            return thumbUrl == null && webpUrl == null;
+        }
+    }
+
+    /**
+     * Procesa una imagen recién guardada y registra sus variantes en la
+     * maquinaria o en el archivo multimedia correspondiente.
+     *
+     * @param event evento con los datos de la imagen guardada
+     */
+    @Async(AsyncConfig.MEDIA_EXECUTOR)
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @CacheEvict(cacheNames = CacheConfig.MACHINERY, key = "#event.machineryId()")
+    public void onImageStored(MediaImageStoredEvent event) {
+        Variants variants = createVariants(event.filename());
+        if (variants.isEmpty()) {
+            return;
+        }
+        if (event.mediaId() != null) {
+            mediaRepository.updateVariants(event.mediaId(), variants.thumbUrl(), variants.webpUrl());
+            machineryRepository.touch(event.machineryId());
+        } else if (variants.thumbUrl() != null) {
+            machineryRepository.updateThumbnailUrl(event.machineryId(), variants.thumbUrl());
+        }
+    }
+
+    /**
+     * Genera las variantes de una imagen guardada. Si el archivo no se puede
+     * decodificar o supera el límite de píxeles no se genera ninguna variante.
+     *
+     * @param filename nombre del archivo original
+     * @return variantes generadas
+     */
+    public Variants createVariants(String filename) {
+        String baseName = baseName(filename);
+        String thumbName = baseName + "_thumb.jpg";
+        String webpName = ImageIO.getImageWritersByFormatName("webp").hasNext() ? baseName + "_display.webp" : null;
+        if (exists(thumbName) && (webpName == null || exists(webpName))) {
+            return new Variants(storage.publicUrl(thumbName), webpName == null ? null : storage.publicUrl(webpName));
+        }
+
+        BufferedImage source;
+        try {
+            source = read(filename);
+        } catch (IOException e) {
+            logger.warn("No se pudo leer la imagen {}", filename, e);
+            return Variants.NONE;
+        }
+        if (source == null) {
+            return Variants.NONE;
+        }
+
+        String thumbUrl = write(resize(source, THUMBNAIL_WIDTH), "jpg", thumbName);
+        String webpUrl = webpName == null ? null : write(resize(source, DISPLAY_WIDTH), "webp", webpName);
+        return new Variants(thumbUrl, webpUrl);
+    }
+
+    /**
+     * Decodifica una imagen después de comprobar en su cabecera que no supera
+     * el límite de píxeles.
+     *
+     * @param filename nombre del archivo
+     * @return imagen decodificada, o null si el formato no es soportado o la
+     *         imagen es demasiado grande
+     * @throws IOException si ocurre un error al leer el archivo
+     */
+    private BufferedImage read(String filename) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(storage.resolve(filename).toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                logger.warn("Formato de imagen no soportado: {}", filename);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    logger.warn("Imagen {} omitida: {} píxeles superan el límite de {}", filename, pixels, maxPixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Redimensiona una imagen manteniendo la proporción, sin ampliarla. El
+     * resultado es RGB opaco, con fondo blanco donde la original era
+     * transparente, para que pueda codificarse como JPEG.
+     *
+     * @param source   imagen original
+     * @param maxWidth ancho máximo
+     * @return imagen redimensionada
+     */
+    static BufferedImage resize(BufferedImage source, int maxWidth) {
+        int width = Math.min(maxWidth, source.getWidth());
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private boolean exists(String filename) {
+        return Files.exists(storage.resolve(filename));
+    }
+
+    private String write(BufferedImage image, String format, String filename) {
+        if (exists(filename)) {
+            return storage.publicUrl(filename);
+        }
+        Path target = storage.resolve(filename);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(target.getParent(), "variant-", ".tmp");
+            if (!ImageIO.write(image, format, temp.toFile())) {
+                return null;
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return storage.publicUrl(filename);
+        } catch (IOException e) {
+            logger.warn("No se pudo generar la variante {}", filename, e);
+            return null;
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.debug("No se pudo eliminar el archivo temporal {}", path, e);
+        }
+    }
+
+    private static String baseName(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return dot > 0 ? filename.substring(0, dot) : filename;
+    }
+}
@@ -0,0 +1,274 @@
+package com.briamcarrasco.arriendomaquinaria.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.briamcarrasco.arriendomaquinaria.model.MachineryRental;
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryRentalRepository;
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryRepository;
+
+/**
+ * Índice en memoria de la disponibilidad de las maquinarias.
+ * Mantiene un {@link RentalIntervalTree} por maquinaria con sus arriendos, de
+ * modo que saber si una maquinaria está libre en un rango, o cuáles lo están,
+ * no requiere consultar la tabla de arriendos. Se reconstruye al iniciar la
+ * aplicación y se actualiza de forma incremental con cada arriendo y con el
+ * alta o baja de maquinarias.
+ *
+ * Cada cambio en los arriendos de una maquinaria aumenta su revisión, que
+ * forma parte de la clave de los calendarios en caché: un calendario calculado
+ * con datos anteriores queda guardado bajo una revisión que ya no se consulta.
+ */
+@Component
+public class RentalAvailabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RentalAvailabilityIndex.class);
+
+    private final MachineryRepository machineryRepository;
+    private final MachineryRentalRepository rentalRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, RentalIntervalTree> trees = new HashMap<>();
+    private final Map<Long, Long> revisions = new HashMap<>();
+    private long modifications;
+    private long rebuiltAt;
+
+    public RentalAvailabilityIndex(MachineryRepository machineryRepository,
+            MachineryRentalRepository rentalRepository) {
+        this.machineryRepository = machineryRepository;
+        this.rentalRepository = rentalRepository;
+    }
+
+    /**
+     * Reconstruye el índice completo a partir de la base de datos.
+     * Usa una proyección de columnas para no cargar las entidades completas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Long> machineryIds = machineryRepository.findAllIds();
+        List<Object[]> rows = rentalRepository.findIntervals();
+        lock.writeLock().lock();
+        try {
+            trees.clear();
+            revisions.clear();
+            rebuiltAt = ++modifications;
+            for (Long id : machineryIds) {
+                trees.put(id, new RentalIntervalTree());
+            }
+            for (Object[] row : rows) {
+                put((Long) row[0], (Long) row[1], (Date) row[2], (Date) row[3]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Índice de disponibilidad reconstruido: {} maquinarias, {} arriendos",
+                machineryIds.size(), rows.size());
+    }
+
+    /**
+     * Registra una maquinaria sin arriendos.
+     *
+     * @param machineryId identificador de la maquinaria
+     */
+    public void addMachinery(Long machineryId) {
+        if (machineryId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            trees.putIfAbsent(machineryId, new RentalIntervalTree());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Registra varias maquinarias sin arriendos tomando el bloqueo una sola
+     * vez.
+     *
+     * @param machineryIds identificadores de las maquinarias
+     */
+    public void addAllMachinery(Collection<Long> machineryIds) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : machineryIds) {
+                if (id != null) {
+                    trees.putIfAbsent(id, new RentalIntervalTree());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Elimina una maquinaria y sus arriendos del índice.
+     *
+     * @param machineryId identificador de la maquinaria
+     */
+    public void removeMachinery(Long machineryId) {
+        lock.writeLock().lock();
+        try {
+            trees.remove(machineryId);
+            touch(machineryId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Agrega un arriendo al índice.
+     *
+     * @param rental arriendo persistido
+     */
+    public void addRental(MachineryRental rental) {
+        if (rental == null || rental.getId() == null || rental.getMachinery() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            put(rental.getId(), rental.getMachinery().getId(), rental.getRentalDate(), rental.getReturnDate());
+            touch(rental.getMachinery().getId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene la revisión de los arriendos de una maquinaria. Aumenta con
+     * cada arriendo agregado y al eliminar la maquinaria, y nunca se repite,
+     * ni siquiera al reconstruir el índice.
+     *
+     * @param machineryId identificador de la maquinaria
+     * @return revisión actual de la maquinaria
+     */
+    public long revision(Long machineryId) {
+        lock.readLock().lock();
+        try {
+            return revisions.getOrDefault(machineryId, rebuiltAt);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indica si una maquinaria está libre en el rango {@code [from, to)}.
+     *
+     * @param machineryId identificador de la maquinaria
+     * @param from        inicio del rango, en milisegundos
+     * @param to          fin del rango (exclusivo), en milisegundos
+     * @return true si la maquinaria existe y no tiene arriendos en el rango
+     */
+    public boolean isAvailable(Long machineryId, long from, long to) {
+        lock.readLock().lock();
+        try {
+            RentalIntervalTree tree = trees.get(machineryId);
+            return tree != null && !tree.overlaps(from, to);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Indica si una maquinaria conocida por el índice tiene arriendos en el
+     * rango {@code [from, to)}. A diferencia de
+     * {@link #isAvailable(Long, long, long)}, una maquinaria desconocida no se
+     * considera ocupada.
+     *
+     * @param machineryId identificador de la maquinaria
+     * @param from        inicio del rango, en milisegundos
+     * @param to          fin del rango (exclusivo), en milisegundos
+     * @return true si la maquinaria tiene un arriendo en el rango
+     */
+    public boolean isBooked(Long machineryId, long from, long to) {
+        lock.readLock().lock();
+        try {
+            RentalIntervalTree tree = trees.get(machineryId);
+            return tree != null && tree.overlaps(from, to);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene los intervalos de los arriendos de una maquinaria que se solapan
+     * con el rango {@code [from, to)}.
+     *
+     * @param machineryId identificador de la maquinaria
+     * @param from        inicio del rango, en milisegundos
+     * @param to          fin del rango (exclusivo), en milisegundos
+     * @return pares {@code [inicio, fin]} ordenados por inicio, o una lista
+     *         vacía si la maquinaria no está en el índice
+     */
+    public List<long[]> findBookedIntervals(Long machineryId, long from, long to) {
+        lock.readLock().lock();
+        try {
+            RentalIntervalTree tree = trees.get(machineryId);
+            return tree == null ? List.of() : tree.findOverlappingIntervals(from, to);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene las maquinarias libres en el rango {@code [from, to)}.
+     *
+     * @param from inicio del rango, en milisegundos
+     * @param to   fin del rango (exclusivo), en milisegundos
+     * @return identificadores de las maquinarias libres, ordenados
+     *         ascendentemente
+     */
+    public List<Long> findAvailable(long from, long to) {
+        List<Long> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Long, RentalIntervalTree> entry : trees.entrySet()) {
+                if (!entry.getValue().overlaps(from, to)) {
+                    result.add(entry.getKey());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort(null);
+        return result;
+    }
+
+    /**
+     * Obtiene la cantidad de maquinarias indexadas.
+     *
+     * @return número de maquinarias en el índice
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return trees.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void touch(Long machineryId) {
+        revisions.put(machineryId, ++modifications);
+    }
+
+    private void put(Long rentalId, Long machineryId, Date start, Date end) {
+        if (start == null || end == null || !end.after(start)) {
+            logger.warn("Arriendo {} con fechas inválidas; se omite del índice", rentalId);
+            return;
+        }
+        trees.computeIfAbsent(machineryId, id -> new RentalIntervalTree())
+                .add(rentalId, start.getTime(), end.getTime());
+    }
+}
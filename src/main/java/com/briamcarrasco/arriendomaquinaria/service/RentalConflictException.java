@@ -0,0 +1,13 @@
+package com.briamcarrasco.arriendomaquinaria.service;
+
+/**
+ * Excepción lanzada cuando un arriendo no se puede registrar porque la
+ * maquinaria ya está arrendada en parte del rango solicitado, o porque otra
+ * solicitud la está reservando en ese momento.
+ */
+public class RentalConflictException extends RuntimeException {
+
+    public RentalConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,253 @@
+package com.briamcarrasco.arriendomaquinaria.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Árbol de intervalos con los arriendos de una maquinaria.
+ * Es un árbol AVL ordenado por fecha de inicio en el que cada nodo guarda el
+ * mayor fin de su subárbol, lo que permite descartar ramas completas al buscar
+ * solapamientos. Inserción, eliminación y consulta de disponibilidad toman
+ * tiempo logarítmico en la cantidad de arriendos.
+ *
+ * Los intervalos son semiabiertos, {@code [inicio, fin)}, expresados en
+ * milisegundos: un arriendo que termina en el mismo instante en que empieza
+ * otro no se solapa con él. La clase no es segura para hilos; la
+ * sincronización la hace {@link RentalAvailabilityIndex}.
+ */
+public class RentalIntervalTree {
+
+    private static final class Node {
+        final long start;
+        final long end;
+        final long rentalId;
+        long maxEnd;
+        int height = 1;
+        Node left;
+        Node right;
+
+        Node(long start, long end, long rentalId) {
+            this.start = start;
+            this.end = end;
+            this.rentalId = rentalId;
+            this.maxEnd = end;
+        }
+    }
+
+    private Node root;
+    private int size;
+
+    /**
+     * Agrega un arriendo al árbol.
+     *
+     * @param rentalId identificador del arriendo
+     * @param start    inicio del arriendo, en milisegundos
+     * @param end      fin del arriendo, en milisegundos
+     * @throws IllegalArgumentException si el fin no es posterior al inicio
+     */
+    public void add(long rentalId, long start, long end) {
+        if (end <= start) {
+            throw new IllegalArgumentException("Intervalo inválido");
+        }
+        root = insert(root, new Node(start, end, rentalId));
+        size++;
+    }
+
+    /**
+     * Elimina un arriendo del árbol.
+     *
+     * @param rentalId identificador del arriendo
+     * @param start    inicio del arriendo, en milisegundos
+     * @return true si el arriendo estaba en el árbol
+     */
+    public boolean remove(long rentalId, long start) {
+        int before = size;
+        root = delete(root, rentalId, start);
+        return size < before;
+    }
+
+    /**
+     * Indica si algún arriendo se solapa con el rango indicado.
+     *
+     * @param from inicio del rango, en milisegundos
+     * @param to   fin del rango (exclusivo), en milisegundos
+     * @return true si existe un arriendo que se solapa
+     */
+    public boolean overlaps(long from, long to) {
+        Node node = root;
+        while (node != null && node.maxEnd > from) {
+            if (node.start < to && node.end > from) {
+                return true;
+            }
+            // Si algún intervalo de la izquierda termina después de "from" pero
+            // ninguno se solapa, todos empiezan en o después de "to" y lo mismo
+            // vale para la derecha.
+            if (node.left != null && node.left.maxEnd > from) {
+                node = node.left;
+            } else if (node.start < to) {
+                node = node.right;
+            } else {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Obtiene los identificadores de los arriendos que se solapan con el rango
+     * indicado, ordenados por fecha de inicio.
+     *
+     * @param from inicio del rango, en milisegundos
+     * @param to   fin del rango (exclusivo), en milisegundos
+     * @return identificadores de los arriendos que se solapan
+     */
+    public List<Long> findOverlapping(long from, long to) {
+        List<Long> result = new ArrayList<>();
+        visit(root, from, to, node -> result.add(node.rentalId));
+        return result;
+    }
+
+    /**
+     * Obtiene los intervalos de los arriendos que se solapan con el rango
+     * indicado, ordenados por fecha de inicio.
+     *
+     * @param from inicio del rango, en milisegundos
+     * @param to   fin del rango (exclusivo), en milisegundos
+     * @return pares {@code [inicio, fin]} de los arriendos que se solapan
+     */
+    public List<long[]> findOverlappingIntervals(long from, long to) {
+        List<long[]> result = new ArrayList<>();
+        visit(root, from, to, node -> result.add(new long[] { node.start, node.end }));
+        return result;
+    }
+
+    /**
+     * Obtiene la cantidad de arriendos del árbol.
+     *
+     * @return número de arriendos
+     */
+    public int size() {
+        return size;
+    }
+
+    private static void visit(Node node, long from, long to, Consumer<Node> action) {
+        if (node == null || node.maxEnd <= from) {
+            return;
+        }
+        visit(node.left, from, to, action);
+        if (node.start >= to) {
+            return;
+        }
+        if (node.end > from) {
+            action.accept(node);
+        }
+        visit(node.right, from, to, action);
+    }
+
+    private static int compare(long start, long rentalId, Node node) {
+        int byStart = Long.compare(start, node.start);
+        return byStart != 0 ? byStart : Long.compare(rentalId, node.rentalId);
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.rentalId, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return balance(node);
+    }
+
+    private Node delete(Node node, long rentalId, long start) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, rentalId, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, rentalId, start);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, rentalId, start);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            Node replacement = new Node(successor.start, successor.end, successor.rentalId);
+            replacement.right = removeMin(node.right);
+            replacement.left = node.left;
+            return balance(replacement);
+        }
+        return balance(node);
+    }
+
+    private static Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return balance(node);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+}
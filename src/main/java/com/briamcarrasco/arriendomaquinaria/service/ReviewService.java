@@ -1,5 +1,8 @@
 package com.briamcarrasco.arriendomaquinaria.service;
 
+import com.briamcarrasco.arriendomaquinaria.dto.CursorPage;
+import com.briamcarrasco.arriendomaquinaria.dto.ResourceVersion;
+import com.briamcarrasco.arriendomaquinaria.dto.ReviewSummary;
 import com.briamcarrasco.arriendomaquinaria.model.Review;
 import java.util.List;
 
@@ -43,6 +46,28 @@ public interface ReviewService {
      */
     List<Review> getReviewsByMachinery(Long machineryId);
 
+    /**
+     * Obtiene una página de reseñas de una maquinaria, de la más reciente a la
+     * más antigua, usando paginación por cursor.
+     *
+     * @param machineryId identificador de la maquinaria
+     * @param cursor      cursor opaco de la página anterior, o null para la
+     *                    primera página
+     * @param size        cantidad máxima de reseñas por página
+     * @return página de reseñas resumidas
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    CursorPage<ReviewSummary> getReviewPage(Long machineryId, String cursor, int size);
+
+    /**
+     * Obtiene la versión de las reseñas de una maquinaria para las peticiones
+     * GET condicionales, sin cargar las reseñas.
+     *
+     * @param machineryId identificador de la maquinaria
+     * @return cantidad de reseñas y fecha de la última modificada
+     */
+    ResourceVersion getReviewsVersion(Long machineryId);
+
     /**
      * Calcula el promedio de calificaciones para una maquinaria.
      *
@@ -1,14 +1,26 @@
 package com.briamcarrasco.arriendomaquinaria.service;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.briamcarrasco.arriendomaquinaria.config.CacheConfig;
+import com.briamcarrasco.arriendomaquinaria.dto.CursorPage;
+import com.briamcarrasco.arriendomaquinaria.dto.ResourceVersion;
+import com.briamcarrasco.arriendomaquinaria.dto.ReviewSummary;
 import com.briamcarrasco.arriendomaquinaria.repository.ReviewRepository;
+import com.briamcarrasco.arriendomaquinaria.repository.ReviewUpsertRepository;
 import com.briamcarrasco.arriendomaquinaria.repository.MachineryRepository;
 import com.briamcarrasco.arriendomaquinaria.repository.UserRepository;
 import com.briamcarrasco.arriendomaquinaria.model.Review;
-import com.briamcarrasco.arriendomaquinaria.model.Machinery;
-import com.briamcarrasco.arriendomaquinaria.model.User;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.Optional;
 
 /**
  * Implementación del servicio para la gestión de reseñas de maquinaria.
@@ -20,23 +32,36 @@ import java.util.Optional;
 @Service
 public class ReviewServiceImpl implements ReviewService {
 
+    static final int DEFAULT_PAGE_SIZE = 10;
+    static final int MAX_PAGE_SIZE = 50;
+
     private final ReviewRepository reviewRepository;
     private final MachineryRepository machineryRepository;
     private final UserRepository userRepository;
+    private final ReviewUpsertRepository reviewUpsertRepository;
+    private final CacheManager cacheManager;
 
     /**
      * Constructor para la inyección de dependencias.
      *
-     * @param reviewRepository    repositorio de reseñas
-     * @param machineryRepository repositorio de maquinaria
-     * @param userRepository      repositorio de usuarios
+     * @param reviewRepository       repositorio de reseñas
+     * @param machineryRepository    repositorio de maquinaria
+     * @param userRepository         repositorio de usuarios
+     * @param reviewUpsertRepository inserción o actualización de reseñas en una
+     *                               sola sentencia
+     * @param cacheManager           administrador de cachés, para invalidar la
+     *                               maquinaria de una reseña eliminada
      */
     public ReviewServiceImpl(ReviewRepository reviewRepository,
             MachineryRepository machineryRepository,
-            UserRepository userRepository) {
+            UserRepository userRepository,
+            ReviewUpsertRepository reviewUpsertRepository,
+            CacheManager cacheManager) {
         this.reviewRepository = reviewRepository;
         this.machineryRepository = machineryRepository;
         this.userRepository = userRepository;
+        this.reviewUpsertRepository = reviewUpsertRepository;
+        this.cacheManager = cacheManager;
     }
 
     /**
@@ -62,13 +87,39 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     /**
-     * Elimina una reseña por su identificador.
+     * Sincroniza los contadores de calificación de las maquinarias con las
+     * reseñas existentes al iniciar la aplicación. Solo se escriben las
+     * maquinarias cuyos contadores no coinciden, como las creadas antes de
+     * existir los contadores; en los arranques siguientes no cambia ninguna
+     * fila.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.MACHINERY, allEntries = true)
+    public void syncRatingTotals() {
+        machineryRepository.recalculateRatingTotals();
+    }
+
+    /**
+     * Elimina una reseña por su identificador, descuenta su calificación de los
+     * contadores de la maquinaria e invalida solo esa maquinaria en caché. La
+     * clave se conoce recién al leer la reseña, por lo que la invalidación se
+     * hace aquí y no con {@link CacheEvict}.
      *
      * @param id identificador de la reseña a eliminar
      */
     @Override
+    @Transactional
     public void deleteReview(Long id) {
-        reviewRepository.deleteById(id);
+        reviewRepository.findById(id).ifPresent(review -> {
+            Long machineryId = review.getMachinery().getId();
+            reviewRepository.delete(review);
+            machineryRepository.adjustRatingTotals(machineryId, -1, -review.getRating());
+            Cache cache = cacheManager.getCache(CacheConfig.MACHINERY);
+            if (cache != null) {
+                cache.evict(machineryId);
+            }
+        });
     }
 
     /**
@@ -83,47 +134,121 @@ public class ReviewServiceImpl implements ReviewService {
     }
 
     /**
-     * Calcula el promedio de calificaciones para una maquinaria.
+     * Obtiene una página de reseñas de una maquinaria, de la más reciente a la
+     * más antigua. Cada página se resuelve con una sola consulta de proyección
+     * sobre el índice (machinery_id, created_at, id) y se solicita un elemento
+     * adicional para saber si existe una página siguiente.
+     *
+     * @param machineryId identificador de la maquinaria
+     * @param cursor      cursor opaco de la página anterior, o null para la
+     *                    primera página
+     * @param size        cantidad máxima de reseñas por página
+     * @return página de reseñas resumidas
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    @Override
+    public CursorPage<ReviewSummary> getReviewPage(Long machineryId, String cursor, int size) {
+        int limit = size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        PageRequest page = PageRequest.of(0, limit + 1);
+
+        List<ReviewSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = reviewRepository.findFeed(machineryId, page);
+        } else {
+            String[] parts = CursorPage.decodeCursor(cursor);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            LocalDateTime createdAt;
+            long lastId;
+            try {
+                createdAt = LocalDateTime.parse(parts[0]);
+                lastId = Long.parseLong(parts[1]);
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Cursor inválido", e);
+            }
+            rows = reviewRepository.findFeedBefore(machineryId, createdAt, lastId, page);
+        }
+
+        boolean hasMore = rows.size() > limit;
+        List<ReviewSummary> items = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            ReviewSummary last = items.get(items.size() - 1);
+            nextCursor = CursorPage.encodeCursor(last.getCreatedAt(), last.getId());
+        }
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    /**
+     * Obtiene la versión de las reseñas de una maquinaria: su cantidad, que
+     * cambia al eliminar una reseña, y la fecha de la última creada o
+     * actualizada.
      *
      * @param machineryId identificador de la maquinaria
-     * @return promedio de calificaciones
+     * @return cantidad de reseñas y fecha de la última modificada
+     */
+    @Override
+    public ResourceVersion getReviewsVersion(Long machineryId) {
+        return reviewRepository.findVersionByMachineryId(machineryId);
+    }
+
+    /**
+     * Obtiene el promedio de calificaciones para una maquinaria a partir de los
+     * contadores desnormalizados, sin recorrer sus reseñas.
+     *
+     * @param machineryId identificador de la maquinaria
+     * @return promedio de calificaciones, o 0 si no tiene reseñas
      */
     @Override
     public Double getAverageRating(Long machineryId) {
-        return reviewRepository.findAverageRatingByMachinery(machineryId);
+        Double average = machineryRepository.findAverageRating(machineryId);
+        return average != null ? average : 0.0;
     }
 
     /**
-     * Crea o actualiza una reseña para una maquinaria y usuario específicos.
+     * Crea o actualiza una reseña para una maquinaria y usuario específicos con
+     * una sola sentencia de inserción o actualización sobre la clave única
+     * (machinery_id, user_id), que devuelve además el identificador de la
+     * reseña. Antes, en la misma transacción, se aplica a los contadores de
+     * calificación de la maquinaria la diferencia con la calificación
+     * anterior, sin recalcularlos desde todas sus reseñas.
+     *
+     * La reseña devuelta referencia la maquinaria y el usuario mediante
+     * referencias diferidas, sin cargarlos.
      *
      * @param machineryId identificador de la maquinaria
      * @param userId      identificador del usuario
      * @param rating      calificación
      * @param comment     comentario de la reseña
      * @return la reseña creada o actualizada
-     * @throws IllegalArgumentException si la maquinaria o el usuario no existen
+     * @throws IllegalArgumentException si la calificación es nula o la
+     *                                  maquinaria o el usuario no existen
      */
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.MACHINERY, key = "#machineryId")
     public Review upsertReview(Long machineryId, Long userId, Integer rating, String comment) {
-        Optional<Review> existingOpt = reviewRepository.findByMachineryIdAndUserId(machineryId, userId);
-        Review review;
-        if (existingOpt.isPresent()) {
-            review = existingOpt.get();
-            review.setRating(rating);
-            review.setComment(comment);
-        } else {
-            Machinery machinery = machineryRepository.findById(machineryId).orElse(null);
-            User user = userRepository.findById(userId).orElse(null);
-            if (machinery == null || user == null) {
-                throw new IllegalArgumentException("Machinery o User no encontrados para crear reseña");
-            }
-            review = new Review();
-            review.setMachinery(machinery);
-            review.setUser(user);
-            review.setRating(rating);
-            review.setComment(comment);
+        if (rating == null) {
+            throw new IllegalArgumentException("La calificación es obligatoria");
         }
-        return reviewRepository.save(review);
+        if (machineryRepository.applyReviewRating(machineryId, userId, rating) == 0) {
+            throw new IllegalArgumentException("Machinery o User no encontrados para crear reseña");
+        }
+        Long id;
+        try {
+            id = reviewUpsertRepository.upsert(machineryId, userId, rating, comment);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException("Machinery o User no encontrados para crear reseña", e);
+        }
+
+        Review review = new Review();
+        review.setId(id);
+        review.setMachinery(machineryRepository.getReferenceById(machineryId));
+        review.setUser(userRepository.getReferenceById(userId));
+        review.setRating(rating);
+        review.setComment(comment);
+        return review;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+document.addEventListener("DOMContentLoaded", function () {
+  // Calendario de disponibilidad: el servidor envía un bitset en base64 donde
+  // el bit i indica si el día "from + i" tiene algún arriendo.
+  const container = document.getElementById("availabilityCalendar");
+  if (!container) {
+    return;
+  }
+  const machineryId = container.dataset.machineryId;
+
+  fetch(`/api/machinery/${machineryId}/calendar`)
+    .then((response) => {
+      if (!response.ok) {
+        throw new Error("Error al cargar disponibilidad");
+      }
+      return response.json();
+    })
+    .then((calendar) => render(calendar))
+    .catch((error) => console.error("Error:", error));
+
+  function decode(base64) {
+    const binary = atob(base64 || "");
+    const bytes = new Uint8Array(binary.length);
+    for (let i = 0; i < binary.length; i++) {
+      bytes[i] = binary.charCodeAt(i);
+    }
+    return (day) => {
+      const byte = day >> 3;
+      return byte < bytes.length && (bytes[byte] & (1 << (day & 7))) !== 0;
+    };
+  }
+
+  function render(calendar) {
+    const isBooked = decode(calendar.booked);
+    const [year, month, day] = calendar.from.split("-").map(Number);
+    const start = new Date(year, month - 1, day);
+    let monthGrid = null;
+    let currentMonth = -1;
+
+    for (let i = 0; i < calendar.days; i++) {
+      const date = new Date(start.getFullYear(), start.getMonth(), start.getDate() + i);
+      if (date.getMonth() !== currentMonth) {
+        currentMonth = date.getMonth();
+        monthGrid = appendMonth(date);
+      }
+      const cell = document.createElement("span");
+      cell.className = isBooked(i) ? "calendar-day booked" : "calendar-day";
+      cell.textContent = date.getDate();
+      monthGrid.appendChild(cell);
+    }
+  }
+
+  function appendMonth(date) {
+    const month = document.createElement("div");
+    month.className = "calendar-month";
+
+    const title = document.createElement("div");
+    title.className = "calendar-month-title";
+    title.textContent = date.toLocaleDateString("es-CL", {
+      month: "long",
+      year: "numeric",
+    });
+
+    const grid = document.createElement("div");
+    grid.className = "calendar-grid";
+    // Lunes como primer día de la semana
+    const offset = (date.getDay() + 6) % 7;
+    for (let i = 0; i < offset; i++) {
+      grid.appendChild(document.createElement("span"));
+    }
+
+    month.appendChild(title);
+    month.appendChild(grid);
+    container.appendChild(month);
+    return grid;
+  }
+});
@@ -46,4 +46,82 @@ document.addEventListener("DOMContentLoaded", function () {
         .catch((error) => console.error("Error:", error));
     });
   }
+
+  // Carga bajo demanda de la siguiente página de reseñas
+  const loadMoreButton = document.getElementById("loadMoreReviews");
+  const reviewsList = document.getElementById("reviewsList");
+  if (loadMoreButton && reviewsList) {
+    loadMoreButton.addEventListener("click", function () {
+      const machineryId = loadMoreButton.dataset.machineryId;
+      const cursor = loadMoreButton.dataset.nextCursor;
+      loadMoreButton.disabled = true;
+
+      fetch(
+        `/api/reviews/machinery/${machineryId}?cursor=${encodeURIComponent(cursor)}`
+      )
+        .then((response) => {
+          if (!response.ok) {
+            throw new Error("Error al cargar reseñas");
+          }
+          return response.json();
+        })
+        .then((page) => {
+          page.items.forEach((review) =>
+            reviewsList.appendChild(renderReview(review))
+          );
+          if (page.hasMore) {
+            loadMoreButton.dataset.nextCursor = page.nextCursor;
+            loadMoreButton.disabled = false;
+          } else {
+            loadMoreButton.remove();
+          }
+        })
+        .catch((error) => {
+          console.error("Error:", error);
+          loadMoreButton.disabled = false;
+        });
+    });
+  }
+
+  function renderReview(review) {
+    const item = document.createElement("div");
+    item.className = "review-item";
+
+    const header = document.createElement("div");
+    header.className = "review-header";
+
+    const user = document.createElement("span");
+    user.className = "review-user";
+    user.textContent = review.username;
+    header.appendChild(user);
+
+    for (let i = 0; i < review.rating; i++) {
+      const star = document.createElement("span");
+      star.className = "review-rating";
+      star.textContent = "⭐";
+      header.appendChild(star);
+    }
+
+    const date = document.createElement("span");
+    date.className = "review-date";
+    date.textContent = formatDate(review.createdAt);
+    header.appendChild(date);
+
+    const comment = document.createElement("p");
+    comment.className = "review-comment";
+    comment.textContent = review.comment || "";
+
+    item.appendChild(header);
+    item.appendChild(comment);
+    return item;
+  }
+
+  function formatDate(value) {
+    if (!value) {
+      return "";
+    }
+    const [datePart] = value.split("T");
+    const [year, month, day] = datePart.split("-");
+    return `${day}/${month}/${year}`;
+  }
 });
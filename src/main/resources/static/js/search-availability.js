@@ -0,0 +1,51 @@
+document.addEventListener("DOMContentLoaded", function () {
+  // Filtra los resultados de búsqueda por disponibilidad en un rango de
+  // fechas, consultando todas las maquinarias en una sola petición.
+  const button = document.getElementById("filterAvailable");
+  if (!button) {
+    return;
+  }
+  const fromInput = document.getElementById("availableFrom");
+  const toInput = document.getElementById("availableTo");
+
+  button.addEventListener("click", function () {
+    const cards = Array.from(
+      document.querySelectorAll("[data-machinery-id]")
+    );
+    const from = fromInput.value;
+    const to = toInput.value || from;
+    if (!from || cards.length === 0) {
+      cards.forEach((card) => (card.hidden = false));
+      return;
+    }
+    button.disabled = true;
+
+    fetch("/api/machinery/availability/batch", {
+      method: "POST",
+      headers: { "Content-Type": "application/json" },
+      body: JSON.stringify({
+        machineryIds: cards.map((card) => Number(card.dataset.machineryId)),
+        from: from,
+        to: to,
+      }),
+    })
+      .then((response) => {
+        if (!response.ok) {
+          throw new Error("Error al consultar disponibilidad");
+        }
+        return response.json();
+      })
+      .then((availability) => {
+        cards.forEach((card) => {
+          card.hidden = availability[card.dataset.machineryId] !== true;
+        });
+      })
+      .catch((error) => {
+        console.error("Error:", error);
+        alert("No se pudo consultar la disponibilidad. Revisa las fechas.");
+      })
+      .finally(() => {
+        button.disabled = false;
+      });
+  });
+});
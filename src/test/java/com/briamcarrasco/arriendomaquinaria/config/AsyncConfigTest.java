@@ -0,0 +1,26 @@
+package com.briamcarrasco.arriendomaquinaria.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+@SpringBootTest
+class AsyncConfigTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void applicationTaskExecutor_existsAlongsideMediaPool() {
+        Executor defaultExecutor = context.getBean("applicationTaskExecutor", Executor.class);
+        Executor mediaExecutor = context.getBean(AsyncConfig.MEDIA_EXECUTOR, Executor.class);
+
+        assertNotSame(mediaExecutor, defaultExecutor);
+        assertSame(defaultExecutor, context.getBean("taskExecutor", Executor.class));
+    }
+}
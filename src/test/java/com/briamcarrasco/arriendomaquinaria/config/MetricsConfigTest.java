@@ -0,0 +1,55 @@
+package com.briamcarrasco.arriendomaquinaria.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.briamcarrasco.arriendomaquinaria.controller.LoginController;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+
+class MetricsConfigTest {
+
+    private final DefaultServerRequestObservationConvention convention =
+            new MetricsConfig().handlerTagObservationConvention();
+
+    @Test
+    void lowCardinalityKeyValues_conHandlerMethod_agregaControladorYMetodo() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/login");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                new HandlerMethod(new LoginController(), LoginController.class.getMethod("showLogin")));
+
+        KeyValues keyValues = convention.getLowCardinalityKeyValues(context(request));
+
+        assertTrue(keyValues.stream().anyMatch(kv -> kv.equals(KeyValue.of("handler", "LoginController#showLogin"))));
+        assertTrue(keyValues.stream().anyMatch(kv -> kv.getKey().equals("uri")));
+    }
+
+    @Test
+    void lowCardinalityKeyValues_sinHandler_usaNone() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/no-existe");
+
+        KeyValues keyValues = convention.getLowCardinalityKeyValues(context(request));
+
+        assertTrue(keyValues.stream().anyMatch(kv -> kv.equals(KeyValue.of("handler", "none"))));
+    }
+
+    @Test
+    void handler_conHandlerNoMetodo_usaNone() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/css/style.css");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, new Object());
+
+        assertEquals(KeyValue.of("handler", "none"), MetricsConfig.handler(context(request)));
+    }
+
+    private static ServerRequestObservationContext context(MockHttpServletRequest request) {
+        return new ServerRequestObservationContext(request, new MockHttpServletResponse());
+    }
+}
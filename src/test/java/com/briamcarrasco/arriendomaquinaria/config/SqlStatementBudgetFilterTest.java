@@ -0,0 +1,135 @@
+package com.briamcarrasco.arriendomaquinaria.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Method;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.briamcarrasco.arriendomaquinaria.controller.LoginController;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class SqlStatementBudgetFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        registry = new SimpleMeterRegistry();
+        request = new MockHttpServletRequest("GET", "/login");
+        Method method = LoginController.class.getMethod("showLogin");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                new HandlerMethod(new LoginController(), method));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SqlStatementCounter.stop();
+    }
+
+    @Test
+    void doFilter_dentroDelPresupuesto_registraMetricasYAtributo() throws Exception {
+        SqlStatementBudgetFilter filter = new SqlStatementBudgetFilter(3, true, registry);
+
+        filter.doFilter(request, new MockHttpServletResponse(), chainExecuting(2));
+
+        SqlStatementCounter.Stats stats = (SqlStatementCounter.Stats) request
+                .getAttribute(SqlStatementBudgetFilter.STATS_ATTRIBUTE);
+        assertEquals(2, stats.getStatements());
+        assertNull(SqlStatementCounter.current());
+        assertEquals(2.0, registry.get("http.server.requests.sql.statements")
+                .tag("handler", "LoginController#showLogin").summary().totalAmount());
+        assertEquals(1, registry.get("http.server.requests.sql.time")
+                .tag("handler", "LoginController#showLogin").timer().count());
+    }
+
+    @Test
+    void doFilter_superaPresupuestoConFallo_lanzaExcepcion() {
+        SqlStatementBudgetFilter filter = new SqlStatementBudgetFilter(1, true, registry);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = chainExecuting(2);
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> filter.doFilter(request, response, chain));
+        assertTrue(ex.getMessage().contains("LoginController#showLogin"));
+        assertTrue(ex.getMessage().contains("2 sentencias SQL"));
+        assertNull(SqlStatementCounter.current());
+    }
+
+    @Test
+    void doFilter_superaPresupuestoSinFallo_continua() {
+        SqlStatementBudgetFilter filter = new SqlStatementBudgetFilter(1, false, registry);
+
+        assertDoesNotThrow(() -> filter.doFilter(request, new MockHttpServletResponse(), chainExecuting(5)));
+        assertEquals(5.0, registry.get("http.server.requests.sql.statements").summary().totalAmount());
+    }
+
+    @Test
+    void doFilter_excepcionEnLaCadena_cierraElAmbito() {
+        SqlStatementBudgetFilter filter = new SqlStatementBudgetFilter(1, true, registry);
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                throw new IllegalArgumentException("fallo");
+            }
+        });
+
+        assertThrows(IllegalArgumentException.class,
+                () -> filter.doFilter(request, new MockHttpServletResponse(), chain));
+        assertNull(SqlStatementCounter.current());
+    }
+
+    @Test
+    void inspector_fueraDeUnAmbito_noRegistra() {
+        SqlStatementInspector inspector = new SqlStatementInspector();
+
+        assertEquals("select 1", inspector.inspect("select 1"));
+        inspector.jdbcExecuteStatementStart();
+        inspector.jdbcExecuteStatementEnd();
+        assertNull(SqlStatementCounter.current());
+    }
+
+    @Test
+    void inspector_lotes_sumaTiempo() throws Exception {
+        SqlStatementCounter.Stats stats = SqlStatementCounter.start();
+        SqlStatementInspector inspector = new SqlStatementInspector();
+
+        inspector.inspect("insert into tb_reviews values (?)");
+        inspector.jdbcExecuteBatchStart();
+        Thread.sleep(1);
+        inspector.jdbcExecuteBatchEnd();
+
+        assertEquals(1, stats.getStatements());
+        assertTrue(stats.getJdbcTime().toMillis() >= 1);
+        assertTrue(stats.toString().startsWith("1 sentencias SQL"));
+    }
+
+    /**
+     * Cadena cuyo servlet simula sentencias ejecutadas por Hibernate.
+     */
+    private static MockFilterChain chainExecuting(int statements) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                SqlStatementInspector inspector = new SqlStatementInspector();
+                for (int i = 0; i < statements; i++) {
+                    inspector.inspect("select " + i);
+                    inspector.jdbcExecuteStatementStart();
+                    inspector.jdbcExecuteStatementEnd();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,75 @@
+package com.briamcarrasco.arriendomaquinaria.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class VirtualThreadPinningMonitorTest {
+
+    private SimpleMeterRegistry registry;
+    private VirtualThreadPinningMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        monitor = new VirtualThreadPinningMonitor(Duration.ofMillis(20), registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    void startAndStop_toggleRunning() {
+        assertFalse(monitor.isRunning());
+
+        monitor.start();
+        assertTrue(monitor.isRunning());
+
+        monitor.stop();
+        assertFalse(monitor.isRunning());
+    }
+
+    @Test
+    void constructor_registersCounter() {
+        assertNotNull(registry.find("jvm.threads.virtual.pinned").counter());
+        assertEquals(0, monitor.getPinnedCount());
+    }
+
+    @Test
+    void describe_withoutStackTrace() {
+        assertEquals("\t(sin pila)", VirtualThreadPinningMonitor.describe(null));
+    }
+
+    @Test
+    void start_detectsSleepInsideSynchronized() throws Exception {
+        // Desde Java 24 un bloque synchronized ya no fija el hilo virtual.
+        assumeTrue(Runtime.version().feature() < 24);
+        monitor.start();
+        Object lock = new Object();
+
+        Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (monitor.getPinnedCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        assertTrue(monitor.getPinnedCount() > 0);
+    }
+}
@@ -1,11 +1,13 @@
 package com.briamcarrasco.arriendomaquinaria.controller;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,15 +18,29 @@ import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.ui.Model;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.briamcarrasco.arriendomaquinaria.dto.CursorPage;
+import com.briamcarrasco.arriendomaquinaria.dto.FacetedSearchResult;
+import com.briamcarrasco.arriendomaquinaria.dto.MachineryDetail;
+import com.briamcarrasco.arriendomaquinaria.dto.MachinerySearchCriteria;
+import com.briamcarrasco.arriendomaquinaria.dto.MachinerySummary;
+import com.briamcarrasco.arriendomaquinaria.dto.ResourceVersion;
 import com.briamcarrasco.arriendomaquinaria.model.Machinery;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryStatus;
+import com.briamcarrasco.arriendomaquinaria.service.MachineryMediaService;
 import com.briamcarrasco.arriendomaquinaria.service.MachineryService;
 
 class AdminMachineryControllerTest {
@@ -32,6 +48,9 @@ class AdminMachineryControllerTest {
     @Mock
     private MachineryService machineryService;
 
+    @Mock
+    private MachineryMediaService mediaService;
+
     @Mock
     private MultipartFile multipartFile;
 
@@ -50,14 +69,21 @@ class AdminMachineryControllerTest {
     void createMachinery_WithImage_Success() throws Exception {
         when(multipartFile.isEmpty()).thenReturn(false);
         when(multipartFile.getOriginalFilename()).thenReturn("test.png");
-        when(multipartFile.getBytes()).thenReturn("fake-image".getBytes());
+        when(mediaService.storeImage(multipartFile)).thenReturn("/uploads/abc.png");
+        Machinery saved = new Machinery();
+        saved.setId(9L);
+        saved.setImageUrl("/uploads/abc.png");
+        when(machineryService.createMachinery(any(Machinery.class))).thenReturn(saved);
 
         String result = controller.createMachinery(
                 "Excavadora", 1L, "Disponible",
                 new BigDecimal("10000"), multipartFile);
 
         assertEquals("redirect:/home", result);
-        verify(machineryService, times(1)).createMachinery(any(Machinery.class));
+        ArgumentCaptor<Machinery> captor = ArgumentCaptor.forClass(Machinery.class);
+        verify(machineryService, times(1)).createMachinery(captor.capture());
+        assertEquals("/uploads/abc.png", captor.getValue().getImageUrl());
+        verify(mediaService).processMachineryImage(9L, "/uploads/abc.png");
     }
 
     @Test
@@ -65,13 +91,14 @@ class AdminMachineryControllerTest {
         when(multipartFile.isEmpty()).thenReturn(true);
 
         String result = controller.createMachinery(
-                "Tractor", 2L, "Operativa",
+                "Tractor", 2L, "Mantenimiento",
                 new BigDecimal("5000"), multipartFile);
 
         ArgumentCaptor<Machinery> captor = ArgumentCaptor.forClass(Machinery.class);
         verify(machineryService).createMachinery(captor.capture());
 
         assertEquals("/images/Case_IH_Axial-Flow.png", captor.getValue().getImageUrl());
+        assertEquals(MachineryStatus.MANTENIMIENTO, captor.getValue().getStatus());
         assertEquals("redirect:/home", result);
     }
 
@@ -79,14 +106,36 @@ class AdminMachineryControllerTest {
     void createMachinery_ErrorSavingImage_UsesDefaultImage() throws Exception {
         when(multipartFile.isEmpty()).thenReturn(false);
         when(multipartFile.getOriginalFilename()).thenReturn("bad.png");
-        when(multipartFile.getBytes()).thenThrow(new RuntimeException("Error"));
+        when(mediaService.storeImage(multipartFile)).thenThrow(new IllegalStateException("Error"));
 
         String result = controller.createMachinery(
-                "Camión", 3L, "OK",
+                "Camión", 3L, "Disponible",
                 new BigDecimal("7500"), multipartFile);
 
         assertEquals("redirect:/home", result);
-        verify(machineryService).createMachinery(any(Machinery.class));
+        ArgumentCaptor<Machinery> captor = ArgumentCaptor.forClass(Machinery.class);
+        verify(machineryService).createMachinery(captor.capture());
+        assertEquals("/images/Case_IH_Axial-Flow.png", captor.getValue().getImageUrl());
+    }
+
+    @Test
+    void createMachinery_UnknownStatus_ReturnsError() {
+        String result = controller.createMachinery(
+                "Prensa", 4L, "Operativa",
+                new BigDecimal("3000"), multipartFile);
+
+        assertEquals("redirect:/error", result);
+        verifyNoInteractions(machineryService, mediaService);
+    }
+
+    @Test
+    void createMachinery_RentedStatus_ReturnsError() {
+        String result = controller.createMachinery(
+                "Prensa", 4L, "Arrendada",
+                new BigDecimal("3000"), multipartFile);
+
+        assertEquals("redirect:/error", result);
+        verifyNoInteractions(machineryService, mediaService);
     }
 
     @Test
@@ -103,41 +152,84 @@ class AdminMachineryControllerTest {
     }
 
     @Test
-    void findAll_ReturnsList() {
-        List<Machinery> list = List.of(new Machinery());
-        when(machineryService.findAll()).thenReturn(list);
+    void findAll_ReturnsPage() {
+        List<MachinerySummary> list = List.of(new MachinerySummary());
+        when(machineryService.findSummaryPage(null, 20)).thenReturn(new CursorPage<>(list, "next", true));
 
-        ResponseEntity<List<Machinery>> response = controller.findAll();
+        ResponseEntity<CursorPage<MachinerySummary>> response = controller.findAll(null, 20);
         assertEquals(200, response.getStatusCode().value());
-        assertEquals(1, response.getBody().size());
+        assertEquals(1, response.getBody().getItems().size());
+        assertEquals("next", response.getBody().getNextCursor());
+        assertTrue(response.getBody().isHasMore());
+    }
+
+    @Test
+    void findAll_InvalidCursor_ReturnsBadRequest() {
+        when(machineryService.findSummaryPage("bad", 20)).thenThrow(new IllegalArgumentException("Cursor inválido"));
+
+        ResponseEntity<CursorPage<MachinerySummary>> response = controller.findAll("bad", 20);
+        assertEquals(400, response.getStatusCode().value());
     }
 
     @Test
     void findById_Found() {
-        Machinery m = new Machinery();
-        when(machineryService.findById(1L)).thenReturn(Optional.of(m));
+        MachineryDetail m = new MachineryDetail();
+        ResourceVersion version = new ResourceVersion(1L, LocalDateTime.of(2025, 3, 1, 12, 0));
+        when(machineryService.getVersion(1L)).thenReturn(version);
+        when(machineryService.findDetailById(1L)).thenReturn(Optional.of(m));
 
-        ResponseEntity<Machinery> resp = controller.findById(1L);
+        ResponseEntity<MachineryDetail> resp = controller.findById(1L, webRequest(null));
+        assertEquals(200, resp.getStatusCode().value());
+        assertEquals(m, resp.getBody());
+        assertEquals(version.getETag(), resp.getHeaders().getETag());
+        assertEquals(version.getLastModifiedMillis(), resp.getHeaders().getLastModified());
+        assertEquals("no-cache, public", resp.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void findById_NotModified_SkipsDetailQuery() {
+        ResourceVersion version = new ResourceVersion(1L, LocalDateTime.of(2025, 3, 1, 12, 0));
+        when(machineryService.getVersion(1L)).thenReturn(version);
+
+        ResponseEntity<MachineryDetail> resp = controller.findById(1L, webRequest(version.getETag()));
+        assertEquals(304, resp.getStatusCode().value());
+        assertNull(resp.getBody());
+        assertEquals(version.getETag(), resp.getHeaders().getETag());
+        verify(machineryService, never()).findDetailById(1L);
+    }
+
+    @Test
+    void findById_StaleETag_ReturnsDetail() {
+        MachineryDetail m = new MachineryDetail();
+        when(machineryService.getVersion(1L))
+                .thenReturn(new ResourceVersion(1L, LocalDateTime.of(2025, 3, 1, 12, 0)));
+        when(machineryService.findDetailById(1L)).thenReturn(Optional.of(m));
+
+        ResponseEntity<MachineryDetail> resp = controller.findById(1L, webRequest("W/\"1-0\""));
         assertEquals(200, resp.getStatusCode().value());
         assertEquals(m, resp.getBody());
     }
 
     @Test
     void findById_NotFound() {
-        when(machineryService.findById(2L)).thenReturn(Optional.empty());
+        when(machineryService.getVersion(2L)).thenReturn(new ResourceVersion(0L, null));
 
-        ResponseEntity<Machinery> resp = controller.findById(2L);
+        ResponseEntity<MachineryDetail> resp = controller.findById(2L, webRequest(null));
         assertEquals(404, resp.getStatusCode().value());
+        verify(machineryService, never()).findDetailById(2L);
     }
 
     @Test
     void updateMachinery_Success() {
         Machinery m = new Machinery();
+        MachineryDetail detail = new MachineryDetail();
         when(machineryService.updateMachinery(1L, m)).thenReturn(m);
+        when(machineryService.findDetailById(1L)).thenReturn(Optional.of(detail));
 
-        ResponseEntity<Machinery> resp = controller.updateMachinery(1L, m);
+        ResponseEntity<MachineryDetail> resp = controller.updateMachinery(1L, m);
 
         assertEquals(200, resp.getStatusCode().value());
+        assertEquals(detail, resp.getBody());
     }
 
     @Test
@@ -145,11 +237,24 @@ class AdminMachineryControllerTest {
         Machinery m = new Machinery();
         when(machineryService.updateMachinery(1L, m)).thenThrow(new RuntimeException());
 
-        ResponseEntity<Machinery> resp = controller.updateMachinery(1L, m);
+        ResponseEntity<MachineryDetail> resp = controller.updateMachinery(1L, m);
 
         assertEquals(404, resp.getStatusCode().value());
     }
 
+    @Test
+    void updateMachinery_RentalDrivenStatus_ReturnsBadRequest() {
+        Machinery m = new Machinery();
+        m.setStatus(MachineryStatus.ARRENDADA);
+        when(machineryService.updateMachinery(1L, m))
+                .thenThrow(new IllegalArgumentException("Transición de estado inválida: DISPONIBLE -> ARRENDADA"));
+
+        ResponseEntity<MachineryDetail> resp = controller.updateMachinery(1L, m);
+
+        assertEquals(400, resp.getStatusCode().value());
+        verify(machineryService, never()).findDetailById(1L);
+    }
+
     @Test
     void deleteMachinery_Success() {
         ResponseEntity<Void> resp = controller.deleteMachinery(1L);
@@ -282,9 +387,9 @@ class AdminMachineryControllerTest {
 
     @Test
     void findById_WithNegativeId_ShouldReturnNotFound() {
-        when(machineryService.findById(-1L)).thenReturn(Optional.empty());
+        when(machineryService.getVersion(-1L)).thenReturn(new ResourceVersion(0L, null));
 
-        ResponseEntity<Machinery> resp = controller.findById(-1L);
+        ResponseEntity<MachineryDetail> resp = controller.findById(-1L, webRequest(null));
 
         assertEquals(404, resp.getStatusCode().value());
     }
@@ -299,14 +404,25 @@ class AdminMachineryControllerTest {
     }
 
     @Test
-    void findAll_WhenServiceReturnsEmpty_ShouldReturnEmptyList() {
-        when(machineryService.findAll()).thenReturn(List.of());
+    void findAll_WhenServiceReturnsEmpty_ShouldReturnEmptyPage() {
+        when(machineryService.findSummaryPage("abc", 10)).thenReturn(new CursorPage<>(List.of(), null, false));
 
-        ResponseEntity<List<Machinery>> response = controller.findAll();
+        ResponseEntity<CursorPage<MachinerySummary>> response = controller.findAll("abc", 10);
 
         assertEquals(200, response.getStatusCode().value());
         assertNotNull(response.getBody());
-        assertTrue(response.getBody().isEmpty());
+        assertTrue(response.getBody().getItems().isEmpty());
+        assertNull(response.getBody().getNextCursor());
+    }
+
+    @Test
+    void updateMachinery_InvalidTransition_ReturnsBadRequest() {
+        Machinery m = new Machinery();
+        when(machineryService.updateMachinery(1L, m)).thenThrow(new IllegalArgumentException("Transición"));
+
+        ResponseEntity<MachineryDetail> resp = controller.updateMachinery(1L, m);
+
+        assertEquals(400, resp.getStatusCode().value());
     }
 
     @Test
@@ -314,8 +430,53 @@ class AdminMachineryControllerTest {
         when(machineryService.updateMachinery(eq(1L), any()))
                 .thenThrow(new RuntimeException("Null machinery"));
 
-        ResponseEntity<Machinery> resp = controller.updateMachinery(1L, null);
+        ResponseEntity<MachineryDetail> resp = controller.updateMachinery(1L, null);
 
         assertEquals(404, resp.getStatusCode().value());
     }
-}
\ No newline at end of file
+
+    @Test
+    void facetedSearch_BuildsCriteriaAndReturnsResult() {
+        FacetedSearchResult expected = FacetedSearchResult.empty();
+        when(machineryService.facetedSearch(any(MachinerySearchCriteria.class), eq(20))).thenReturn(expected);
+
+        ResponseEntity<FacetedSearchResult> resp = controller.facetedSearch("tractor", 2L, "disponible",
+                new BigDecimal("100"), new BigDecimal("300"), "rating", 20);
+
+        ArgumentCaptor<MachinerySearchCriteria> captor = ArgumentCaptor.forClass(MachinerySearchCriteria.class);
+        verify(machineryService).facetedSearch(captor.capture(), eq(20));
+        assertEquals(200, resp.getStatusCode().value());
+        assertEquals(expected, resp.getBody());
+        assertEquals("tractor", captor.getValue().getText());
+        assertEquals(2L, captor.getValue().getCategoryId());
+        assertEquals(MachineryStatus.DISPONIBLE, captor.getValue().getStatus());
+        assertEquals(new BigDecimal("100"), captor.getValue().getMinPrice());
+        assertEquals(new BigDecimal("300"), captor.getValue().getMaxPrice());
+        assertTrue(captor.getValue().isSortByRating());
+    }
+
+    @Test
+    void facetedSearch_InvertedPriceRange_ReturnsBadRequest() {
+        ResponseEntity<FacetedSearchResult> resp = controller.facetedSearch(null, null, null,
+                new BigDecimal("500"), new BigDecimal("100"), null, 20);
+
+        assertEquals(400, resp.getStatusCode().value());
+    }
+
+    @Test
+    void facetedSearch_UnknownStatus_ReturnsBadRequest() {
+        ResponseEntity<FacetedSearchResult> resp = controller.facetedSearch(null, null, "Operativa",
+                null, null, null, 20);
+
+        assertEquals(400, resp.getStatusCode().value());
+        verifyNoInteractions(machineryService);
+    }
+
+    private static WebRequest webRequest(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/machinery/1");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
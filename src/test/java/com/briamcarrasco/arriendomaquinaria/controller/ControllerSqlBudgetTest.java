@@ -0,0 +1,323 @@
+package com.briamcarrasco.arriendomaquinaria.controller;
+
+import com.briamcarrasco.arriendomaquinaria.config.SqlStatementBudgetFilter;
+import com.briamcarrasco.arriendomaquinaria.config.SqlStatementCounter;
+import com.briamcarrasco.arriendomaquinaria.jwt.Constants;
+import com.briamcarrasco.arriendomaquinaria.jwt.JWTAuthtenticationConfig;
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryRepository;
+import com.briamcarrasco.arriendomaquinaria.repository.UserRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Presupuesto de sentencias SQL por endpoint. Cada prueba recorre un
+ * controlador con la cadena de filtros completa sobre los datos de
+ * {@code DataInitializer} y verifica la cantidad de sentencias que registró
+ * {@link SqlStatementBudgetFilter}, incluidas las cargas diferidas durante la
+ * serialización o el renderizado de la vista. Cada petición debe además
+ * responder con éxito, para que un rechazo temprano (401, 403, 400) no pase
+ * por debajo del presupuesto.
+ *
+ * Los controladores cuya vista no coincide en mayúsculas con su plantilla se
+ * invocan directamente dentro de un ámbito de {@link SqlStatementCounter}.
+ */
+@SpringBootTest
+class ControllerSqlBudgetTest {
+
+    private static final String JOHN_DEERE = "John Deere 5075E Tractor";
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private SqlStatementBudgetFilter budgetFilter;
+
+    @Autowired
+    private JWTAuthtenticationConfig tokenConfig;
+
+    @Autowired
+    private MachineryRepository machineryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private InfoMachineryController infoMachineryController;
+
+    @Autowired
+    private RegisterInfoController registerInfoController;
+
+    @Autowired
+    private PostMachineryController postMachineryController;
+
+    private MockMvc mockMvc;
+    private Long machineryId;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(budgetFilter)
+                .apply(springSecurity())
+                .build();
+        machineryId = machineryRepository.findByNameMachinery(JOHN_DEERE).getId();
+    }
+
+    @Test
+    void adminMachineryController() throws Exception {
+        // Las respuestas son proyecciones: no hay cargas diferidas al serializar.
+        assertWithinBudget(get("/api/machinery").param("size", "3"), 1);
+        // La versión de la maquinaria y el detalle; con el ETag vigente, solo
+        // la versión.
+        assertNotModifiedWithinBudget("/api/machinery/" + machineryId, 2, 1);
+        // Con texto: las columnas de faceta de las coincidencias (total y
+        // conteos en memoria) y los resúmenes de la página.
+        assertWithinBudget(get("/api/machinery/faceted-search").param("text", "John"), 2);
+    }
+
+    @Test
+    void adminPanelController() throws Exception {
+        assertWithinBudget(get("/adminpanel")
+                .header(Constants.HEADER_AUTHORIZACION_KEY, token("admin", "ROLE_ADMIN")), 0);
+    }
+
+    @Test
+    void adminUserController() throws Exception {
+        Long userId = userRepository.findByUsername("user1").getId();
+        // La información del usuario es el lado inverso de un uno a uno y se
+        // carga con una consulta por usuario.
+        int users = (int) userRepository.count();
+        assertWithinBudget(get("/api/admin/users")
+                .header(Constants.HEADER_AUTHORIZACION_KEY, token("admin", "ROLE_ADMIN")), 1 + users);
+        assertWithinBudget(get("/api/admin/users/edit/" + userId)
+                .header(Constants.HEADER_AUTHORIZACION_KEY, token("admin", "ROLE_ADMIN")), 2);
+    }
+
+    @Test
+    void authController() throws Exception {
+        assertRedirectWithinBudget(post("/auth/login").with(csrf())
+                .param("username", "user1")
+                .param("password", "password"), "/home", 2);
+    }
+
+    @Test
+    void homeController() throws Exception {
+        assertWithinBudget(get("/landing"), 0);
+        int statements = assertWithinBudget(get("/home")
+                .header(Constants.HEADER_AUTHORIZACION_KEY, token("user1", "ROLE_USER")), 1);
+        assertTrue(statements > 0, "El conteo de sentencias no está registrado en Hibernate");
+    }
+
+    @Test
+    void infoMachineryController() {
+        assertEquals(0, countStatements(infoMachineryController::infoMachinery));
+    }
+
+    @Test
+    void loginController() throws Exception {
+        assertWithinBudget(get("/login"), 0);
+    }
+
+    @Test
+    void machineryAvailabilityController() throws Exception {
+        LocalDate from = LocalDate.now();
+        assertWithinBudget(get("/api/machinery/" + machineryId + "/calendar")
+                .param("from", from.toString())
+                .param("to", from.plusDays(30).toString()), 1);
+        assertWithinBudget(post("/api/machinery/availability/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"machineryIds\":[" + machineryId + "],\"from\":\"" + from
+                        + "\",\"to\":\"" + from.plusDays(7) + "\"}"), 2);
+    }
+
+    @Test
+    void machineryController() throws Exception {
+        assertWithinBudget(get("/inventario")
+                .header(Constants.HEADER_AUTHORIZACION_KEY, token("user1", "ROLE_USER")), 1);
+    }
+
+    @Test
+    void machineryDetailController() throws Exception {
+        assertWithinBudget(get("/public/machinerydetail").param("id", machineryId.toString()), 3);
+        assertWithinBudget(get("/machinerydetail").param("id", machineryId.toString())
+                .header(Constants.HEADER_AUTHORIZACION_KEY, token("user1", "ROLE_USER")), 3);
+    }
+
+    @Test
+    void machineryExportController() throws Exception {
+        // El catálogo se escribe en otro hilo; el hilo de la petición no
+        // debe consultar la base de datos.
+        MvcResult result = assertWithinBudgetResult(get("/api/machinery/export").param("format", "csv"), 0);
+        result.getAsyncResult();
+    }
+
+    @Test
+    void machineryImportController() throws Exception {
+        // Las filas se insertan con JDBC en lotes y se agregan a los índices en
+        // memoria con sus claves generadas; solo se cuenta la carga de
+        // categorías.
+        MockMultipartFile file = new MockMultipartFile("file", "maquinarias.csv", "text/csv",
+                ("name,category,price_per_day\n"
+                        + "Presupuesto Tractor 1,Tractores,100\n"
+                        + "Presupuesto Tractor 2,Tractores,110\n").getBytes(StandardCharsets.UTF_8));
+        assertWithinBudget(multipart("/api/machinery/import").file(file)
+                .header(Constants.HEADER_AUTHORIZACION_KEY, token("admin", "ROLE_ADMIN")), 1);
+    }
+
+    @Test
+    void machineryMediaController() throws Exception {
+        assertNotModifiedWithinBudget("/api/machinery-media/machinery/" + machineryId, 2, 1);
+    }
+
+    @Test
+    void machineryRentalController() throws Exception {
+        LocalDate from = LocalDate.now().plusYears(3).plusDays(System.nanoTime() % 300);
+        assertWithinBudget(post("/api/machinery/" + machineryId + "/rentals")
+                .header(Constants.HEADER_AUTHORIZACION_KEY, token("user1", "ROLE_USER"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"from\":\"" + from + "\",\"to\":\"" + from.plusDays(2) + "\"}"), 7);
+    }
+
+    @Test
+    void postMachineryController() {
+        // Las categorías quedan en caché después de la primera consulta.
+        assertTrue(countStatements(() -> postMachineryController.postMachinery(new ExtendedModelMap())) <= 1);
+    }
+
+    @Test
+    void registerController() throws Exception {
+        assertWithinBudget(get("/register"), 0);
+        assertRedirectWithinBudget(post("/register/user").with(csrf())
+                .param("username", "presupuesto" + System.nanoTime())
+                .param("password", "password")
+                .param("email", "presupuesto@demo.com"), "/login?registered", 2);
+    }
+
+    @Test
+    void registerInfoController() {
+        assertEquals(0, countStatements(registerInfoController::registerinfouser));
+    }
+
+    @Test
+    void reviewController() throws Exception {
+        assertNotModifiedWithinBudget("/api/reviews/machinery/" + machineryId, 2, 1);
+        assertWithinBudget(get("/api/reviews/machinery/" + machineryId + "/average"), 1);
+        // Usuario por nombre, la diferencia de calificación aplicada a los
+        // contadores, la inserción o actualización que devuelve el
+        // identificador y el promedio.
+        assertWithinBudget(post("/api/reviews/machinery/" + machineryId)
+                .header(Constants.HEADER_AUTHORIZACION_KEY, token("user2", "ROLE_USER"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"rating\":4,\"comment\":\"Buen estado\"}"), 4);
+    }
+
+    @Test
+    void searchController() throws Exception {
+        assertWithinBudget(get("/search"), 0);
+    }
+
+    private String token(String username, String role) {
+        return tokenConfig.getJWTToken(username, role);
+    }
+
+    /**
+     * Verifica el presupuesto de una petición GET y el de su repetición con el
+     * ETag recibido, que debe responder 304.
+     */
+    private void assertNotModifiedWithinBudget(String uri, int budget, int notModifiedBudget) throws Exception {
+        MvcResult first = assertWithinBudgetResult(get(uri), budget);
+        String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag, () -> uri + " no devolvió ETag");
+
+        MvcResult second = performWithinBudget(get(uri).header(HttpHeaders.IF_NONE_MATCH, eTag),
+                notModifiedBudget);
+        assertStatus(second, 304);
+        assertEquals(0, second.getResponse().getContentAsByteArray().length);
+    }
+
+    /**
+     * Verifica el presupuesto de un formulario que, al procesarse con éxito,
+     * redirige a la URL indicada.
+     */
+    private void assertRedirectWithinBudget(RequestBuilder request, String redirectedUrl, int budget)
+            throws Exception {
+        MvcResult result = performWithinBudget(request, budget);
+        assertStatus(result, 302);
+        assertEquals(redirectedUrl, result.getResponse().getRedirectedUrl());
+    }
+
+    private int assertWithinBudget(RequestBuilder request, int budget) throws Exception {
+        MvcResult result = assertWithinBudgetResult(request, budget);
+        return statements(result);
+    }
+
+    private MvcResult assertWithinBudgetResult(RequestBuilder request, int budget) throws Exception {
+        MvcResult result = performWithinBudget(request, budget);
+        int status = result.getResponse().getStatus();
+        assertTrue(status >= 200 && status < 300, () -> describe(result) + " respondió " + status + ": "
+                + contentOf(result));
+        return result;
+    }
+
+    private MvcResult performWithinBudget(RequestBuilder request, int budget) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        int statements = statements(result);
+        assertTrue(statements <= budget, () -> describe(result) + " ejecutó " + statements
+                + " sentencias SQL; presupuesto: " + budget);
+        return result;
+    }
+
+    private static void assertStatus(MvcResult result, int expected) {
+        int status = result.getResponse().getStatus();
+        assertEquals(expected, status, () -> describe(result) + " respondió " + status + ": " + contentOf(result));
+    }
+
+    private static String describe(MvcResult result) {
+        return result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+    }
+
+    private static String contentOf(MvcResult result) {
+        try {
+            return result.getResponse().getContentAsString();
+        } catch (UnsupportedEncodingException e) {
+            return "";
+        }
+    }
+
+    private static int statements(MvcResult result) {
+        SqlStatementCounter.Stats stats = (SqlStatementCounter.Stats) result.getRequest()
+                .getAttribute(SqlStatementBudgetFilter.STATS_ATTRIBUTE);
+        assertNotNull(stats);
+        return stats.getStatements();
+    }
+
+    private static int countStatements(Runnable call) {
+        SqlStatementCounter.Stats stats = SqlStatementCounter.start();
+        try {
+            call.run();
+        } finally {
+            SqlStatementCounter.stop();
+        }
+        return stats.getStatements();
+    }
+}
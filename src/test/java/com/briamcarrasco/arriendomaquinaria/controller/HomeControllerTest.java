@@ -1,7 +1,8 @@
 package com.briamcarrasco.arriendomaquinaria.controller;
 
-import com.briamcarrasco.arriendomaquinaria.model.Machinery;
-import com.briamcarrasco.arriendomaquinaria.repository.MachineryRepository;
+import com.briamcarrasco.arriendomaquinaria.dto.CursorPage;
+import com.briamcarrasco.arriendomaquinaria.dto.MachinerySummary;
+import com.briamcarrasco.arriendomaquinaria.service.MachineryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -18,7 +19,7 @@ import static org.mockito.Mockito.*;
 class HomeControllerTest {
 
     @Mock
-    private MachineryRepository repo;
+    private MachineryService machineryService;
 
     @Mock
     private Authentication authentication;
@@ -61,26 +62,29 @@ class HomeControllerTest {
 
     @Test
     void home_withAuthentication_returnsHome() {
-        List<Machinery> machines = List.of(new Machinery());
+        List<MachinerySummary> machines = List.of(new MachinerySummary());
         when(authentication.getName()).thenReturn("testUser");
-        when(repo.findAll()).thenReturn(machines);
+        when(machineryService.findSummaryPageOrFirst(null, 0)).thenReturn(new CursorPage<>(machines, "abc", true));
 
-        String result = controller.home(authentication, model);
+        String result = controller.home(authentication, null, model);
 
         assertEquals("home", result);
         verify(model).addAttribute("name", "testUser");
         verify(model).addAttribute("maquinarias", machines);
+        verify(model).addAttribute("nextCursor", "abc");
+        verify(model).addAttribute("pageUrl", "/home");
     }
 
     @Test
     void home_noAuthentication_returnsHomeWithInvitado() {
-        List<Machinery> machines = List.of();
-        when(repo.findAll()).thenReturn(machines);
+        List<MachinerySummary> machines = List.of();
+        when(machineryService.findSummaryPageOrFirst("cur", 0)).thenReturn(new CursorPage<>(machines, null, false));
 
-        String result = controller.home(null, model);
+        String result = controller.home(null, "cur", model);
 
         assertEquals("home", result);
         verify(model).addAttribute("name", "Invitado");
+        verify(model).addAttribute("nextCursor", null);
     }
 
     @Test
@@ -0,0 +1,134 @@
+package com.briamcarrasco.arriendomaquinaria.controller;
+
+import com.briamcarrasco.arriendomaquinaria.dto.AvailabilityBatchRequest;
+import com.briamcarrasco.arriendomaquinaria.dto.AvailabilityCalendar;
+import com.briamcarrasco.arriendomaquinaria.model.Machinery;
+import com.briamcarrasco.arriendomaquinaria.service.MachineryRentalService;
+import com.briamcarrasco.arriendomaquinaria.service.MachineryService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MachineryAvailabilityControllerTest {
+
+    @Mock
+    private MachineryRentalService rentalService;
+
+    @Mock
+    private MachineryService machineryService;
+
+    @InjectMocks
+    private MachineryAvailabilityController controller;
+
+    private static final LocalDate FROM = LocalDate.of(2025, 5, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 5, 7);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void findAvailable_ReturnsIds() {
+        when(rentalService.findAvailableMachinery(FROM, TO)).thenReturn(List.of(2L, 5L));
+
+        ResponseEntity<List<Long>> response = controller.findAvailable(FROM, TO);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(List.of(2L, 5L), response.getBody());
+    }
+
+    @Test
+    void findAvailable_InvalidRange_ReturnsBadRequest() {
+        when(rentalService.findAvailableMachinery(TO, FROM))
+                .thenThrow(new IllegalArgumentException("Rango de fechas inválido"));
+
+        ResponseEntity<List<Long>> response = controller.findAvailable(TO, FROM);
+
+        assertEquals(400, response.getStatusCode().value());
+    }
+
+    @Test
+    void isAvailable_ReturnsAvailability() {
+        when(rentalService.isAvailable(3L, FROM, TO)).thenReturn(false);
+
+        ResponseEntity<Map<String, Object>> response = controller.isAvailable(3L, FROM, TO);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(3L, response.getBody().get("machineryId"));
+        assertEquals(false, response.getBody().get("available"));
+    }
+
+    @Test
+    void getCalendar_ReturnsCalendar() {
+        AvailabilityCalendar calendar = new AvailabilityCalendar(3L, FROM, TO, 7, 1, "AQ==");
+        when(machineryService.findById(3L)).thenReturn(Optional.of(new Machinery()));
+        when(rentalService.getCalendar(3L, FROM, TO)).thenReturn(calendar);
+
+        ResponseEntity<AvailabilityCalendar> response = controller.getCalendar(3L, FROM, TO);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertSame(calendar, response.getBody());
+    }
+
+    @Test
+    void getCalendar_DefaultsToNextYear() {
+        LocalDate today = LocalDate.now();
+        when(machineryService.findById(3L)).thenReturn(Optional.of(new Machinery()));
+
+        controller.getCalendar(3L, today, null);
+
+        verify(rentalService).getCalendar(3L, today, today.plusDays(364));
+    }
+
+    @Test
+    void getCalendar_MachineryNotFound_Returns404() {
+        when(machineryService.findById(9L)).thenReturn(Optional.empty());
+
+        ResponseEntity<AvailabilityCalendar> response = controller.getCalendar(9L, FROM, TO);
+
+        assertEquals(404, response.getStatusCode().value());
+        verifyNoInteractions(rentalService);
+    }
+
+    @Test
+    void findAvailabilityBatch_ReturnsMap() {
+        AvailabilityBatchRequest request = new AvailabilityBatchRequest();
+        request.setMachineryIds(List.of(1L, 2L));
+        request.setFrom(FROM);
+        request.setTo(TO);
+        when(rentalService.findAvailability(List.of(1L, 2L), FROM, TO)).thenReturn(Map.of(1L, true, 2L, false));
+
+        ResponseEntity<Map<Long, Boolean>> response = controller.findAvailability(request);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(true, response.getBody().get(1L));
+        assertEquals(false, response.getBody().get(2L));
+    }
+
+    @Test
+    void findAvailabilityBatch_InvalidRequest_ReturnsBadRequest() {
+        AvailabilityBatchRequest request = new AvailabilityBatchRequest();
+        request.setMachineryIds(List.of(1L));
+        request.setFrom(TO);
+        request.setTo(FROM);
+        when(rentalService.findAvailability(List.of(1L), TO, FROM))
+                .thenThrow(new IllegalArgumentException("Rango de fechas inválido"));
+
+        ResponseEntity<Map<Long, Boolean>> response = controller.findAvailability(request);
+
+        assertEquals(400, response.getStatusCode().value());
+    }
+}
@@ -1,7 +1,8 @@
 package com.briamcarrasco.arriendomaquinaria.controller;
 
-import com.briamcarrasco.arriendomaquinaria.model.Machinery;
-import com.briamcarrasco.arriendomaquinaria.repository.MachineryRepository;
+import com.briamcarrasco.arriendomaquinaria.dto.CursorPage;
+import com.briamcarrasco.arriendomaquinaria.dto.MachinerySummary;
+import com.briamcarrasco.arriendomaquinaria.service.MachineryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -18,7 +19,7 @@ import static org.mockito.Mockito.*;
 class MachineryControllerTest {
 
     @Mock
-    private MachineryRepository repo;
+    private MachineryService machineryService;
 
     @Mock
     private UserDetails userDetails;
@@ -36,23 +37,25 @@ class MachineryControllerTest {
 
     @Test
     void home_withUser_returnsHome() {
-        List<Machinery> machines = List.of(new Machinery());
-        when(repo.findAll()).thenReturn(machines);
+        List<MachinerySummary> machines = List.of(new MachinerySummary());
+        when(machineryService.findSummaryPageOrFirst(null, 0)).thenReturn(new CursorPage<>(machines, "next", true));
         when(userDetails.getUsername()).thenReturn("testUser");
 
-        String result = controller.home(model, userDetails);
+        String result = controller.home(model, userDetails, null);
 
         assertEquals("home", result);
         verify(model).addAttribute("maquinarias", machines);
+        verify(model).addAttribute("nextCursor", "next");
+        verify(model).addAttribute("pageUrl", "/inventario");
         verify(model).addAttribute("name", "testUser");
     }
 
     @Test
     void home_noUser_returnsHomeWithDefaultName() {
-        List<Machinery> machines = List.of();
-        when(repo.findAll()).thenReturn(machines);
+        List<MachinerySummary> machines = List.of();
+        when(machineryService.findSummaryPageOrFirst(null, 0)).thenReturn(new CursorPage<>(machines, null, false));
 
-        String result = controller.home(model, null);
+        String result = controller.home(model, null, null);
 
         assertEquals("home", result);
         verify(model).addAttribute("name", "la plataforma");
@@ -1,7 +1,8 @@
 package com.briamcarrasco.arriendomaquinaria.controller;
 
+import com.briamcarrasco.arriendomaquinaria.dto.CursorPage;
+import com.briamcarrasco.arriendomaquinaria.dto.ReviewSummary;
 import com.briamcarrasco.arriendomaquinaria.model.Machinery;
-import com.briamcarrasco.arriendomaquinaria.model.Review;
 import com.briamcarrasco.arriendomaquinaria.service.MachineryService;
 import com.briamcarrasco.arriendomaquinaria.service.ReviewService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -52,11 +53,12 @@ class MachineryDetailControllerTest {
     void machineryDetail_MachineryFound_WithAuthentication_WithQueryString() {
         Machinery machinery = new Machinery();
         machinery.setId(1L);
-        List<Review> reviews = List.of(new Review());
+        machinery.setRatingCount(2L);
+        machinery.setRatingSum(9L);
+        List<ReviewSummary> reviews = List.of(new ReviewSummary());
 
         when(machineryService.findById(1L)).thenReturn(Optional.of(machinery));
-        when(reviewService.getReviewsByMachinery(1L)).thenReturn(reviews);
-        when(reviewService.getAverageRating(1L)).thenReturn(4.5);
+        when(reviewService.getReviewPage(1L, null, 0)).thenReturn(new CursorPage<>(reviews, "next", true));
         when(request.getRequestURL()).thenReturn(new StringBuffer("http://localhost/machinerydetail"));
         when(request.getQueryString()).thenReturn("id=1");
         when(authentication.getName()).thenReturn("testUser");
@@ -66,6 +68,7 @@ class MachineryDetailControllerTest {
         assertEquals("machinerydetail", result);
         verify(model).addAttribute("machinery", machinery);
         verify(model).addAttribute("reviews", reviews);
+        verify(model).addAttribute("reviewsNextCursor", "next");
         verify(model).addAttribute("averageRating", 4.5);
         verify(model).addAttribute("currentUrl", "http://localhost/machinerydetail?id=1");
         verify(model).addAttribute("name", "testUser");
@@ -75,11 +78,10 @@ class MachineryDetailControllerTest {
     void machineryDetail_MachineryFound_WithAuthentication_NoQueryString() {
         Machinery machinery = new Machinery();
         machinery.setId(2L);
-        List<Review> reviews = List.of();
+        List<ReviewSummary> reviews = List.of();
 
         when(machineryService.findById(2L)).thenReturn(Optional.of(machinery));
-        when(reviewService.getReviewsByMachinery(2L)).thenReturn(reviews);
-        when(reviewService.getAverageRating(2L)).thenReturn(3.0);
+        when(reviewService.getReviewPage(2L, null, 0)).thenReturn(new CursorPage<>(reviews, "next", true));
         when(request.getRequestURL()).thenReturn(new StringBuffer("http://localhost/machinerydetail"));
         when(request.getQueryString()).thenReturn(null);
         when(authentication.getName()).thenReturn("adminUser");
@@ -97,15 +99,16 @@ class MachineryDetailControllerTest {
         machinery.setId(3L);
 
         when(machineryService.findById(3L)).thenReturn(Optional.of(machinery));
-        when(reviewService.getReviewsByMachinery(3L)).thenReturn(List.of());
-        when(reviewService.getAverageRating(3L)).thenReturn(null);
+        when(reviewService.getReviewPage(3L, null, 0)).thenReturn(new CursorPage<>(List.of(), null, false));
         when(request.getRequestURL()).thenReturn(new StringBuffer("http://localhost/machinerydetail"));
         when(request.getQueryString()).thenReturn("id=3");
 
         String result = controller.machineryDetail(3L, null, model, request);
 
         assertEquals("machinerydetail", result);
+        verify(model).addAttribute("averageRating", 0.0);
         verify(model).addAttribute("name", "Invitado");
+        verify(reviewService, never()).getAverageRating(anyLong());
     }
 
     @Test
@@ -127,11 +130,12 @@ class MachineryDetailControllerTest {
     void publicMachineryDetail_MachineryFound_WithQueryString() {
         Machinery machinery = new Machinery();
         machinery.setId(1L);
-        List<Review> reviews = List.of(new Review());
+        machinery.setRatingCount(3L);
+        machinery.setRatingSum(12L);
+        List<ReviewSummary> reviews = List.of(new ReviewSummary());
 
         when(machineryService.findById(1L)).thenReturn(Optional.of(machinery));
-        when(reviewService.getReviewsByMachinery(1L)).thenReturn(reviews);
-        when(reviewService.getAverageRating(1L)).thenReturn(4.0);
+        when(reviewService.getReviewPage(1L, null, 0)).thenReturn(new CursorPage<>(reviews, "next", true));
         when(request.getRequestURL()).thenReturn(new StringBuffer("http://localhost/public/machinerydetail"));
         when(request.getQueryString()).thenReturn("id=1");
 
@@ -151,8 +155,7 @@ class MachineryDetailControllerTest {
         machinery.setId(5L);
 
         when(machineryService.findById(5L)).thenReturn(Optional.of(machinery));
-        when(reviewService.getReviewsByMachinery(5L)).thenReturn(List.of());
-        when(reviewService.getAverageRating(5L)).thenReturn(0.0);
+        when(reviewService.getReviewPage(5L, null, 0)).thenReturn(new CursorPage<>(List.of(), null, false));
         when(request.getRequestURL()).thenReturn(new StringBuffer("http://localhost/public/machinerydetail"));
         when(request.getQueryString()).thenReturn(null);
 
@@ -0,0 +1,91 @@
+package com.briamcarrasco.arriendomaquinaria.controller;
+
+import com.briamcarrasco.arriendomaquinaria.service.MachineryExportService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MachineryExportControllerTest {
+
+    @Mock
+    private MachineryExportService exportService;
+
+    private MachineryExportController controller;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        controller = new MachineryExportController(exportService, 1);
+    }
+
+    @Test
+    void export_DefaultsToNdjsonAndStreamsFromService() throws Exception {
+        ResponseEntity<StreamingResponseBody> resp = controller.export("ndjson");
+
+        assertEquals(200, resp.getStatusCode().value());
+        assertEquals(MachineryExportController.NDJSON, resp.getHeaders().getContentType());
+        assertTrue(resp.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION).contains("maquinarias.ndjson"));
+        verifyNoInteractions(exportService);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        resp.getBody().writeTo(out);
+        verify(exportService).exportNdjson(out);
+    }
+
+    @Test
+    void export_Csv_StreamsCsv() throws Exception {
+        ResponseEntity<StreamingResponseBody> resp = controller.export("CSV");
+
+        assertEquals(200, resp.getStatusCode().value());
+        assertEquals(MachineryExportController.CSV, resp.getHeaders().getContentType());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        resp.getBody().writeTo(out);
+        verify(exportService).exportCsv(out);
+    }
+
+    @Test
+    void export_UnknownFormat_ReturnsBadRequest() {
+        ResponseEntity<StreamingResponseBody> resp = controller.export("xml");
+
+        assertEquals(400, resp.getStatusCode().value());
+        verifyNoInteractions(exportService);
+    }
+
+    @Test
+    void export_LimitReached_ReturnsServiceUnavailableUntilReleased() throws Exception {
+        ResponseEntity<StreamingResponseBody> first = controller.export("csv");
+        ResponseEntity<StreamingResponseBody> rejected = controller.export("ndjson");
+
+        assertEquals(200, first.getStatusCode().value());
+        assertEquals(503, rejected.getStatusCode().value());
+        assertEquals(MachineryExportController.RETRY_AFTER_SECONDS,
+                rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertNull(rejected.getBody());
+
+        first.getBody().writeTo(new ByteArrayOutputStream());
+
+        assertEquals(200, controller.export("ndjson").getStatusCode().value());
+    }
+
+    @Test
+    void export_FailedDownload_ReleasesSlot() throws Exception {
+        when(exportService.exportCsv(any())).thenThrow(new IOException("Conexión cerrada"));
+        ResponseEntity<StreamingResponseBody> resp = controller.export("csv");
+
+        assertThrows(IOException.class, () -> resp.getBody().writeTo(new ByteArrayOutputStream()));
+
+        assertEquals(200, controller.export("csv").getStatusCode().value());
+    }
+}
@@ -0,0 +1,115 @@
+package com.briamcarrasco.arriendomaquinaria.controller;
+
+import com.briamcarrasco.arriendomaquinaria.dto.BulkImportResult;
+import com.briamcarrasco.arriendomaquinaria.jwt.Constants;
+import com.briamcarrasco.arriendomaquinaria.service.MachineryImportService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MachineryImportControllerTest {
+
+    @Mock
+    private MachineryImportService importService;
+
+    @InjectMocks
+    private MachineryImportController controller;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private static MockMultipartFile file(String filename) {
+        return new MockMultipartFile("file", filename, "text/plain", "contenido".getBytes());
+    }
+
+    @Test
+    void importMachinery_CsvExtension_UsesCsvImport() throws Exception {
+        BulkImportResult result = new BulkImportResult();
+        result.setImported(3);
+        when(importService.importCsv(any(InputStream.class))).thenReturn(result);
+
+        ResponseEntity<Object> resp = controller.importMachinery(file("maquinarias.CSV"), null);
+
+        assertEquals(200, resp.getStatusCode().value());
+        assertSame(result, resp.getBody());
+        verify(importService, never()).importNdjson(any());
+    }
+
+    @Test
+    void importMachinery_FormatParam_OverridesExtension() throws Exception {
+        BulkImportResult result = new BulkImportResult();
+        when(importService.importNdjson(any(InputStream.class))).thenReturn(result);
+
+        ResponseEntity<Object> resp = controller.importMachinery(file("maquinarias.txt"), "NDJSON");
+
+        assertEquals(200, resp.getStatusCode().value());
+        assertSame(result, resp.getBody());
+    }
+
+    @Test
+    void importMachinery_JsonlExtension_UsesNdjsonImport() throws Exception {
+        when(importService.importNdjson(any(InputStream.class))).thenReturn(new BulkImportResult());
+
+        ResponseEntity<Object> resp = controller.importMachinery(file("maquinarias.jsonl"), null);
+
+        assertEquals(200, resp.getStatusCode().value());
+        verify(importService).importNdjson(any(InputStream.class));
+    }
+
+    @Test
+    void importMachinery_EmptyFile_ReturnsBadRequest() {
+        MockMultipartFile empty = new MockMultipartFile("file", "maquinarias.csv", "text/csv", new byte[0]);
+
+        ResponseEntity<Object> resp = controller.importMachinery(empty, null);
+
+        assertEquals(400, resp.getStatusCode().value());
+        assertEquals("empty_file", ((Map<?, ?>) resp.getBody()).get(Constants.ERROR_KEY));
+        verifyNoInteractions(importService);
+    }
+
+    @Test
+    void importMachinery_UnknownFormat_ReturnsBadRequest() {
+        ResponseEntity<Object> resp = controller.importMachinery(file("maquinarias.xlsx"), null);
+
+        assertEquals(400, resp.getStatusCode().value());
+        assertEquals("invalid_format", ((Map<?, ?>) resp.getBody()).get(Constants.ERROR_KEY));
+        verifyNoInteractions(importService);
+    }
+
+    @Test
+    void importMachinery_InvalidFile_ReturnsBadRequest() throws Exception {
+        when(importService.importCsv(any(InputStream.class)))
+                .thenThrow(new IllegalArgumentException("Faltan columnas obligatorias"));
+
+        ResponseEntity<Object> resp = controller.importMachinery(file("maquinarias.csv"), null);
+
+        assertEquals(400, resp.getStatusCode().value());
+        Map<?, ?> body = (Map<?, ?>) resp.getBody();
+        assertEquals("invalid_file", body.get(Constants.ERROR_KEY));
+        assertEquals("Faltan columnas obligatorias", body.get(Constants.MESSAGE_KEY));
+    }
+
+    @Test
+    void importMachinery_ReadError_ReturnsServerError() throws Exception {
+        when(importService.importCsv(any(InputStream.class))).thenThrow(new IOException("fallo"));
+
+        ResponseEntity<Object> resp = controller.importMachinery(file("maquinarias.csv"), null);
+
+        assertEquals(500, resp.getStatusCode().value());
+    }
+}
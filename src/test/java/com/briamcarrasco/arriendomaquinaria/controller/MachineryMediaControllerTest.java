@@ -1,5 +1,7 @@
 package com.briamcarrasco.arriendomaquinaria.controller;
 
+import com.briamcarrasco.arriendomaquinaria.dto.MachineryMediaSummary;
+import com.briamcarrasco.arriendomaquinaria.dto.ResourceVersion;
 import com.briamcarrasco.arriendomaquinaria.model.MachineryMedia;
 import com.briamcarrasco.arriendomaquinaria.service.MachineryMediaService;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,8 +11,13 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -39,13 +46,30 @@ class MachineryMediaControllerTest {
 
     @Test
     void list_returnsMediaList() {
-        List<MachineryMedia> media = List.of(new MachineryMedia());
+        List<MachineryMediaSummary> media = List.of(new MachineryMediaSummary());
+        ResourceVersion version = new ResourceVersion(1L, LocalDateTime.of(2025, 4, 10, 8, 0));
+        when(mediaService.getMediaVersion(1L)).thenReturn(version);
         when(mediaService.getMediaByMachinery(1L)).thenReturn(media);
 
-        ResponseEntity<List<MachineryMedia>> response = controller.list(1L);
+        ResponseEntity<List<MachineryMediaSummary>> response = controller.list(1L, webRequest(null));
 
         assertEquals(200, response.getStatusCode().value());
         assertEquals(1, response.getBody().size());
+        assertEquals(version.getETag(), response.getHeaders().getETag());
+    }
+
+    @Test
+    void list_notModifiedSince_returns304WithoutMedia() {
+        ResourceVersion version = new ResourceVersion(1L, LocalDateTime.of(2025, 4, 10, 8, 0));
+        when(mediaService.getMediaVersion(1L)).thenReturn(version);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/machinery-media/machinery/1");
+        request.addHeader("If-Modified-Since", version.getLastModifiedMillis());
+
+        ResponseEntity<List<MachineryMediaSummary>> response = controller.list(1L,
+                new ServletWebRequest(request, new MockHttpServletResponse()));
+
+        assertEquals(304, response.getStatusCode().value());
+        verify(mediaService, never()).getMediaByMachinery(1L);
     }
 
     // -------------------------------------------------------------
@@ -55,11 +79,16 @@ class MachineryMediaControllerTest {
     @Test
     void addImage_success_returnsOk() {
         MachineryMedia media = new MachineryMedia();
+        media.setId(7L);
+        media.setImgUrl("http://img.url");
         when(mediaService.addImage(1L, "http://img.url")).thenReturn(media);
 
         ResponseEntity<Object> response = controller.addImage(1L, Map.of("url", "http://img.url"));
 
         assertEquals(200, response.getStatusCode().value());
+        MachineryMediaSummary body = (MachineryMediaSummary) response.getBody();
+        assertEquals(7L, body.getId());
+        assertEquals("http://img.url", body.getImgUrl());
     }
 
     @Test
@@ -199,4 +228,12 @@ class MachineryMediaControllerTest {
         assertEquals(204, response.getStatusCode().value());
         verify(mediaService).deleteMedia(1L);
     }
+
+    private static WebRequest webRequest(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/machinery-media/machinery/1");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
 }
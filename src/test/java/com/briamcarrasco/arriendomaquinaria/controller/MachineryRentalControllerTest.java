@@ -0,0 +1,113 @@
+package com.briamcarrasco.arriendomaquinaria.controller;
+
+import com.briamcarrasco.arriendomaquinaria.dto.RentalRequest;
+import com.briamcarrasco.arriendomaquinaria.model.Machinery;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryRental;
+import com.briamcarrasco.arriendomaquinaria.model.User;
+import com.briamcarrasco.arriendomaquinaria.repository.UserRepository;
+import com.briamcarrasco.arriendomaquinaria.service.MachineryRentalService;
+import com.briamcarrasco.arriendomaquinaria.service.MachineryService;
+import com.briamcarrasco.arriendomaquinaria.service.RentalConflictException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MachineryRentalControllerTest {
+
+    @Mock
+    private MachineryRentalService rentalService;
+
+    @Mock
+    private MachineryService machineryService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private Authentication authentication;
+
+    @InjectMocks
+    private MachineryRentalController controller;
+
+    private RentalRequest request;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        request = new RentalRequest();
+        request.setFrom(LocalDate.of(2025, 6, 1));
+        request.setTo(LocalDate.of(2025, 6, 3));
+        user = new User();
+        user.setUsername("cliente");
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getName()).thenReturn("cliente");
+        when(machineryService.findById(1L)).thenReturn(Optional.of(new Machinery()));
+        when(userRepository.findByUsername("cliente")).thenReturn(user);
+    }
+
+    @Test
+    void book_ReturnsCreated() {
+        MachineryRental rental = new MachineryRental();
+        rental.setId(12L);
+        when(rentalService.book(1L, user, request.getFrom(), request.getTo())).thenReturn(rental);
+
+        ResponseEntity<Object> response = controller.book(1L, request, authentication);
+
+        assertEquals(201, response.getStatusCode().value());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = (Map<String, Object>) response.getBody();
+        assertEquals(12L, body.get("id"));
+        assertEquals("cliente", body.get("user"));
+    }
+
+    @Test
+    void book_Conflict_Returns409() {
+        when(rentalService.book(1L, user, request.getFrom(), request.getTo()))
+                .thenThrow(new RentalConflictException("La maquinaria ya está arrendada en esas fechas"));
+
+        ResponseEntity<Object> response = controller.book(1L, request, authentication);
+
+        assertEquals(409, response.getStatusCode().value());
+        assertEquals("La maquinaria ya está arrendada en esas fechas", response.getBody());
+    }
+
+    @Test
+    void book_InvalidRange_ReturnsBadRequest() {
+        when(rentalService.book(1L, user, request.getFrom(), request.getTo()))
+                .thenThrow(new IllegalArgumentException("Rango de fechas inválido"));
+
+        ResponseEntity<Object> response = controller.book(1L, request, authentication);
+
+        assertEquals(400, response.getStatusCode().value());
+    }
+
+    @Test
+    void book_NotAuthenticated_Returns401() {
+        ResponseEntity<Object> response = controller.book(1L, request, null);
+
+        assertEquals(401, response.getStatusCode().value());
+        verifyNoInteractions(rentalService);
+    }
+
+    @Test
+    void book_MachineryNotFound_Returns404() {
+        when(machineryService.findById(2L)).thenReturn(Optional.empty());
+
+        ResponseEntity<Object> response = controller.book(2L, request, authentication);
+
+        assertEquals(404, response.getStatusCode().value());
+    }
+}
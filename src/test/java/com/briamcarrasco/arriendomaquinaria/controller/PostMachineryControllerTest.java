@@ -1,9 +1,8 @@
 package com.briamcarrasco.arriendomaquinaria.controller;
 
 import com.briamcarrasco.arriendomaquinaria.model.Category;
-import com.briamcarrasco.arriendomaquinaria.model.Status;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryStatus;
 import com.briamcarrasco.arriendomaquinaria.service.CategoryService;
-import com.briamcarrasco.arriendomaquinaria.service.StatusService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -21,9 +20,6 @@ class PostMachineryControllerTest {
     @Mock
     private CategoryService categoryService;
 
-    @Mock
-    private StatusService statusService;
-
     @Mock
     private Model model;
 
@@ -38,14 +34,13 @@ class PostMachineryControllerTest {
     @Test
     void postMachinery_returnsPostMachineryView() {
         List<Category> categories = List.of(new Category());
-        List<Status> statuses = List.of(new Status());
         when(categoryService.findAll()).thenReturn(categories);
-        when(statusService.findAll()).thenReturn(statuses);
 
         String result = controller.postMachinery(model);
 
         assertEquals("postmachinery", result);
         verify(model).addAttribute("categories", categories);
-        verify(model).addAttribute("statuses", statuses);
+        verify(model).addAttribute("statuses",
+                List.of(MachineryStatus.DISPONIBLE, MachineryStatus.MANTENIMIENTO));
     }
 }
\ No newline at end of file
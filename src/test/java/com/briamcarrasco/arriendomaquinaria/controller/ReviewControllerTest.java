@@ -1,11 +1,11 @@
 package com.briamcarrasco.arriendomaquinaria.controller;
 
+import com.briamcarrasco.arriendomaquinaria.dto.CursorPage;
+import com.briamcarrasco.arriendomaquinaria.dto.ResourceVersion;
 import com.briamcarrasco.arriendomaquinaria.dto.ReviewRequest;
-import com.briamcarrasco.arriendomaquinaria.model.Machinery;
+import com.briamcarrasco.arriendomaquinaria.dto.ReviewSummary;
 import com.briamcarrasco.arriendomaquinaria.model.Review;
-import com.briamcarrasco.arriendomaquinaria.model.User;
 import com.briamcarrasco.arriendomaquinaria.repository.UserRepository;
-import com.briamcarrasco.arriendomaquinaria.service.MachineryService;
 import com.briamcarrasco.arriendomaquinaria.service.ReviewService;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -14,11 +14,15 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,9 +32,6 @@ class ReviewControllerTest {
     @Mock
     private ReviewService reviewService;
 
-    @Mock
-    private MachineryService machineryService;
-
     @Mock
     private UserRepository userRepository;
 
@@ -50,16 +51,60 @@ class ReviewControllerTest {
     // -------------------------------------------------------------
 
     @Test
-    void getReviewsByMachinery_returnsListOk() {
-        Review review = new Review();
+    void getReviewsByMachinery_returnsPageOk() {
+        ReviewSummary review = new ReviewSummary();
         review.setId(1L);
-        when(reviewService.getReviewsByMachinery(10L)).thenReturn(List.of(review));
+        CursorPage<ReviewSummary> page = new CursorPage<>(List.of(review), "next", true);
+        ResourceVersion version = new ResourceVersion(3L, LocalDateTime.of(2025, 5, 2, 9, 30));
+        when(reviewService.getReviewsVersion(10L)).thenReturn(version);
+        when(reviewService.getReviewPage(10L, "abc", 5)).thenReturn(page);
+
+        ResponseEntity<CursorPage<ReviewSummary>> response = controller.getReviewsByMachinery(10L, "abc", 5,
+                webRequest(null));
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(1, response.getBody().getItems().size());
+        assertEquals(1L, response.getBody().getItems().get(0).getId());
+        assertEquals("next", response.getBody().getNextCursor());
+        assertEquals(version.getETag(), response.getHeaders().getETag());
+    }
+
+    @Test
+    void getReviewsByMachinery_sameETag_returns304WithoutPage() {
+        ResourceVersion version = new ResourceVersion(3L, LocalDateTime.of(2025, 5, 2, 9, 30));
+        when(reviewService.getReviewsVersion(10L)).thenReturn(version);
+
+        ResponseEntity<CursorPage<ReviewSummary>> response = controller.getReviewsByMachinery(10L, null, 10,
+                webRequest(version.getETag()));
+
+        assertEquals(304, response.getStatusCode().value());
+        assertNull(response.getBody());
+        verify(reviewService, never()).getReviewPage(anyLong(), any(), anyInt());
+    }
+
+    @Test
+    void getReviewsByMachinery_afterNewReview_returnsPage() {
+        ResourceVersion before = new ResourceVersion(3L, LocalDateTime.of(2025, 5, 2, 9, 30));
+        ResourceVersion after = new ResourceVersion(4L, LocalDateTime.of(2025, 5, 2, 9, 31));
+        when(reviewService.getReviewsVersion(10L)).thenReturn(after);
+        when(reviewService.getReviewPage(10L, null, 10)).thenReturn(new CursorPage<>(List.of(), null, false));
 
-        ResponseEntity<List<Review>> response = controller.getReviewsByMachinery(10L);
+        ResponseEntity<CursorPage<ReviewSummary>> response = controller.getReviewsByMachinery(10L, null, 10,
+                webRequest(before.getETag()));
 
         assertEquals(200, response.getStatusCode().value());
-        assertEquals(1, response.getBody().size());
-        assertEquals(1L, response.getBody().get(0).getId());
+        assertEquals(after.getETag(), response.getHeaders().getETag());
+    }
+
+    @Test
+    void getReviewsByMachinery_invalidCursor_returns400() {
+        when(reviewService.getReviewsVersion(10L)).thenReturn(new ResourceVersion(0L, null));
+        when(reviewService.getReviewPage(10L, "bad", 10)).thenThrow(new IllegalArgumentException("Cursor inválido"));
+
+        ResponseEntity<CursorPage<ReviewSummary>> response = controller.getReviewsByMachinery(10L, "bad", 10,
+                webRequest(null));
+
+        assertEquals(400, response.getStatusCode().value());
     }
 
     // -------------------------------------------------------------
@@ -109,7 +154,10 @@ class ReviewControllerTest {
     @Test
     void upsertReview_machineryNotFound_returns404() {
         when(authentication.isAuthenticated()).thenReturn(true);
-        when(machineryService.findById(8L)).thenReturn(Optional.empty());
+        when(authentication.getName()).thenReturn("briam");
+        when(userRepository.findIdByUsername("briam")).thenReturn(10L);
+        when(reviewService.upsertReview(8L, 10L, 4, "ok"))
+                .thenThrow(new IllegalArgumentException("Machinery o User no encontrados para crear reseña"));
 
         ReviewRequest request = new ReviewRequest();
         request.setRating(4);
@@ -125,8 +173,7 @@ class ReviewControllerTest {
     void upsertReview_userNotFound_returns404() {
         when(authentication.isAuthenticated()).thenReturn(true);
         when(authentication.getName()).thenReturn("ghost");
-        when(machineryService.findById(1L)).thenReturn(Optional.of(new Machinery()));
-        when(userRepository.findByUsername("ghost")).thenReturn(null);
+        when(userRepository.findIdByUsername("ghost")).thenReturn(null);
 
         ReviewRequest request = new ReviewRequest();
         request.setRating(5);
@@ -143,12 +190,8 @@ class ReviewControllerTest {
     void upsertReview_success_returns200WithPayload() {
         when(authentication.isAuthenticated()).thenReturn(true);
         when(authentication.getName()).thenReturn("briam");
-        when(machineryService.findById(2L)).thenReturn(Optional.of(new Machinery()));
 
-        User user = new User();
-        user.setId(10L);
-        user.setUsername("briam");
-        when(userRepository.findByUsername("briam")).thenReturn(user);
+        when(userRepository.findIdByUsername("briam")).thenReturn(10L);
 
         Review review = new Review();
         review.setId(99L);
@@ -171,4 +214,12 @@ class ReviewControllerTest {
         assertEquals("briam", payload.get("user"));
         assertEquals(4.8, payload.get("averageRating"));
     }
-}
\ No newline at end of file
+
+    private static WebRequest webRequest(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reviews/machinery/10");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 
 import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -29,6 +30,12 @@ class JWTAuthorizationFilterTest {
     @Autowired
     private JWTAuthorizationFilter filter;
 
+    @Autowired
+    private JwtAuthenticationCache authenticationCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
@@ -55,6 +62,7 @@ class JWTAuthorizationFilterTest {
     @Test
     void shouldNotFilter_variasRutas() {
         MockHttpServletRequest req = new MockHttpServletRequest();
+        req.setMethod("GET");
         req.setServletPath("/login");
         assertThat(filter.shouldNotFilter(req)).isTrue();
 
@@ -83,6 +91,14 @@ class JWTAuthorizationFilterTest {
         // Ruta arbitraria protegida
         req.setServletPath("/api/other");
         assertThat(filter.shouldNotFilter(req)).isFalse();
+
+        // Las escrituras en la API de maquinaria requieren el token
+        req.setMethod("POST");
+        req.setServletPath("/api/machinery/1/rentals");
+        assertThat(filter.shouldNotFilter(req)).isFalse();
+
+        req.setServletPath("/api/machinery/import");
+        assertThat(filter.shouldNotFilter(req)).isFalse();
     }
 
     @Test
@@ -259,6 +275,57 @@ class JWTAuthorizationFilterTest {
         assertThat(chain.count).isEqualTo(1);
     }
 
+    @Test
+    void doFilterInternal_tokenRepetido_seResuelveDesdeCache() throws Exception {
+        String token = buildToken(List.of("ROLE_OWNER"), Instant.now().plusSeconds(600));
+
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.setServletPath("/api/protected");
+            request.addHeader(Constants.HEADER_AUTHORIZACION_KEY, Constants.TOKEN_BEARER_PREFIX + token);
+            filter.doFilterInternal(request, new MockHttpServletResponse(), new CountingFilterChain());
+
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            assertThat(auth.getName()).isEqualTo("test-user");
+            assertThat(auth.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_OWNER");
+            SecurityContextHolder.clearContext();
+        }
+
+        assertThat(authenticationCache.get(token)).isNotNull();
+    }
+
+    @Test
+    void doFilterInternal_registraTiempoPorResultado() throws Exception {
+        String token = buildToken(List.of("ROLE_USER"), Instant.now().plusSeconds(600));
+        long verified = timerCount("verified");
+        long cached = timerCount("cached");
+        long anonymous = timerCount("anonymous");
+        long invalid = timerCount("invalid");
+
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.setServletPath("/api/protected");
+            request.addHeader(Constants.HEADER_AUTHORIZACION_KEY, Constants.TOKEN_BEARER_PREFIX + token);
+            filter.doFilterInternal(request, new MockHttpServletResponse(), new CountingFilterChain());
+        }
+        MockHttpServletRequest anonymousRequest = new MockHttpServletRequest();
+        anonymousRequest.setServletPath("/api/protected");
+        filter.doFilterInternal(anonymousRequest, new MockHttpServletResponse(), new CountingFilterChain());
+        MockHttpServletRequest invalidRequest = new MockHttpServletRequest();
+        invalidRequest.setServletPath("/api/protected");
+        invalidRequest.addHeader(Constants.HEADER_AUTHORIZACION_KEY, Constants.TOKEN_BEARER_PREFIX + "abc.def.ghi");
+        filter.doFilterInternal(invalidRequest, new MockHttpServletResponse(), new CountingFilterChain());
+
+        assertThat(timerCount("verified")).isEqualTo(verified + 1);
+        assertThat(timerCount("cached")).isEqualTo(cached + 1);
+        assertThat(timerCount("anonymous")).isEqualTo(anonymous + 1);
+        assertThat(timerCount("invalid")).isEqualTo(invalid + 1);
+    }
+
+    private long timerCount(String outcome) {
+        return meterRegistry.get(JWTAuthorizationFilter.TIMER_NAME).tag("outcome", outcome).timer().count();
+    }
+
     // Cadena de filtros contadora
     private static class CountingFilterChain implements FilterChain {
         int count = 0;
@@ -82,4 +82,14 @@ class JWTAuthtenticationConfigTest {
                 List<String> authorities = (List<String>) claims.get("authorities");
                 assertThat(authorities).containsExactly("ROLE_USER");
         }
-}
\ No newline at end of file
+
+        @Test
+        void jwtKeyProvider_parseaTokenGeneradoConLaMismaClave() {
+                JwtKeyProvider provider = new JwtKeyProvider(jwtSecret);
+                String rawToken = config.getJWTToken("clave@user.cl", "ROLE_USER")
+                                .substring(Constants.TOKEN_BEARER_PREFIX.length());
+
+                assertThat(provider.parseClaims(rawToken).getSubject()).isEqualTo("clave@user.cl");
+                assertThat(provider.getSigningKey()).isEqualTo(Constants.getSigningKey(jwtSecret));
+        }
+}
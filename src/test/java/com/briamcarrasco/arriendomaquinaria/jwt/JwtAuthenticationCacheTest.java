@@ -0,0 +1,70 @@
+package com.briamcarrasco.arriendomaquinaria.jwt;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtAuthenticationCacheTest {
+
+    private static Authentication auth(String user) {
+        return new UsernamePasswordAuthenticationToken(user, null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    private static Date inSeconds(long seconds) {
+        return new Date(System.currentTimeMillis() + seconds * 1000);
+    }
+
+    @Test
+    void get_tokenGuardado_devuelveCopiaAutenticada() {
+        JwtAuthenticationCache cache = new JwtAuthenticationCache(10);
+        Authentication original = auth("ana");
+        cache.put("t1", original, inSeconds(60));
+
+        Authentication found = cache.get("t1");
+
+        assertThat(found).isNotNull().isNotSameAs(original);
+        assertThat(found.getName()).isEqualTo("ana");
+        assertThat(found.isAuthenticated()).isTrue();
+        assertThat(found.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_USER");
+        assertThat(cache.get("otro")).isNull();
+    }
+
+    @Test
+    void put_tokenExpiradoOSinExpiracion_noSeGuarda() {
+        JwtAuthenticationCache cache = new JwtAuthenticationCache(10);
+
+        cache.put("expirado", auth("ana"), inSeconds(-5));
+        cache.put("sinExp", auth("ana"), null);
+
+        assertThat(cache.get("expirado")).isNull();
+        assertThat(cache.get("sinExp")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void get_entradaQueExpira_dejaDeResolverse() throws InterruptedException {
+        JwtAuthenticationCache cache = new JwtAuthenticationCache(10);
+        cache.put("corto", auth("ana"), new Date(System.currentTimeMillis() + 50));
+
+        Thread.sleep(100);
+
+        assertThat(cache.get("corto")).isNull();
+    }
+
+    @Test
+    void put_respetaTamanoMaximo() {
+        JwtAuthenticationCache cache = new JwtAuthenticationCache(2);
+        for (int i = 0; i < 10; i++) {
+            cache.put("t" + i, auth("u" + i), inSeconds(60));
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(2);
+    }
+}
@@ -126,14 +126,14 @@ class MachineryInfoTest {
         Machinery m = new Machinery();
         m.setId(100L);
         m.setNameMachinery("Grúa Torre");
-        m.setStatus("Disponible");
+        m.setStatus(MachineryStatus.DISPONIBLE);
 
         machineryInfo.setMachinery(m);
 
         assertNotNull(machineryInfo.getMachinery());
         assertEquals(100L, machineryInfo.getMachinery().getId());
         assertEquals("Grúa Torre", machineryInfo.getMachinery().getNameMachinery());
-        assertEquals("Disponible", machineryInfo.getMachinery().getStatus());
+        assertEquals(MachineryStatus.DISPONIBLE, machineryInfo.getMachinery().getStatus());
     }
 
     @Test
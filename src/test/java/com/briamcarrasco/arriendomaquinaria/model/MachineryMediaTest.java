@@ -152,14 +152,14 @@ class MachineryMediaTest {
         Machinery m = new Machinery();
         m.setId(100L);
         m.setNameMachinery("Grúa Torre");
-        m.setStatus("Disponible");
+        m.setStatus(MachineryStatus.DISPONIBLE);
 
         machineryMedia.setMachinery(m);
 
         assertNotNull(machineryMedia.getMachinery());
         assertEquals(100L, machineryMedia.getMachinery().getId());
         assertEquals("Grúa Torre", machineryMedia.getMachinery().getNameMachinery());
-        assertEquals("Disponible", machineryMedia.getMachinery().getStatus());
+        assertEquals(MachineryStatus.DISPONIBLE, machineryMedia.getMachinery().getStatus());
     }
 
     @Test
@@ -175,14 +175,14 @@ class MachineryRentalTest {
         Machinery m = new Machinery();
         m.setId(100L);
         m.setNameMachinery("Grúa Torre");
-        m.setStatus("Arrendada");
+        m.setStatus(MachineryStatus.ARRENDADA);
 
         machineryRental.setMachinery(m);
 
         assertNotNull(machineryRental.getMachinery());
         assertEquals(100L, machineryRental.getMachinery().getId());
         assertEquals("Grúa Torre", machineryRental.getMachinery().getNameMachinery());
-        assertEquals("Arrendada", machineryRental.getMachinery().getStatus());
+        assertEquals(MachineryStatus.ARRENDADA, machineryRental.getMachinery().getStatus());
     }
 
     @Test
@@ -0,0 +1,63 @@
+package com.briamcarrasco.arriendomaquinaria.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MachineryStatusTest {
+
+    @Test
+    void canTransitionTo_followsStateMachine() {
+        assertTrue(MachineryStatus.DISPONIBLE.canTransitionTo(MachineryStatus.ARRENDADA));
+        assertTrue(MachineryStatus.DISPONIBLE.canTransitionTo(MachineryStatus.MANTENIMIENTO));
+        assertTrue(MachineryStatus.ARRENDADA.canTransitionTo(MachineryStatus.DISPONIBLE));
+        assertTrue(MachineryStatus.ARRENDADA.canTransitionTo(MachineryStatus.MANTENIMIENTO));
+        assertTrue(MachineryStatus.MANTENIMIENTO.canTransitionTo(MachineryStatus.DISPONIBLE));
+        assertFalse(MachineryStatus.MANTENIMIENTO.canTransitionTo(MachineryStatus.ARRENDADA));
+    }
+
+    @Test
+    void canTransitionTo_sameStatusAllowedAndNullRejected() {
+        for (MachineryStatus status : MachineryStatus.values()) {
+            assertTrue(status.canTransitionTo(status));
+            assertFalse(status.canTransitionTo(null));
+        }
+    }
+
+    @Test
+    void canTransitionManuallyTo_excludesRentalDrivenChanges() {
+        assertFalse(MachineryStatus.DISPONIBLE.canTransitionManuallyTo(MachineryStatus.ARRENDADA));
+        assertFalse(MachineryStatus.ARRENDADA.canTransitionManuallyTo(MachineryStatus.DISPONIBLE));
+        assertFalse(MachineryStatus.MANTENIMIENTO.canTransitionManuallyTo(MachineryStatus.ARRENDADA));
+        assertTrue(MachineryStatus.DISPONIBLE.canTransitionManuallyTo(MachineryStatus.MANTENIMIENTO));
+        assertTrue(MachineryStatus.ARRENDADA.canTransitionManuallyTo(MachineryStatus.MANTENIMIENTO));
+        assertTrue(MachineryStatus.MANTENIMIENTO.canTransitionManuallyTo(MachineryStatus.DISPONIBLE));
+        assertTrue(MachineryStatus.ARRENDADA.canTransitionManuallyTo(MachineryStatus.ARRENDADA));
+        assertFalse(MachineryStatus.DISPONIBLE.canTransitionManuallyTo(null));
+    }
+
+    @Test
+    void from_acceptsNamesAndLabelsIgnoringCase() {
+        assertEquals(MachineryStatus.DISPONIBLE, MachineryStatus.from("disponible"));
+        assertEquals(MachineryStatus.ARRENDADA, MachineryStatus.from(" Arrendada "));
+        assertEquals(MachineryStatus.MANTENIMIENTO, MachineryStatus.from("MANTENIMIENTO"));
+        assertEquals(MachineryStatus.MANTENIMIENTO, MachineryStatus.from("En mantenimiento"));
+        assertEquals(MachineryStatus.MANTENIMIENTO, MachineryStatus.from("Mantenimiento"));
+    }
+
+    @Test
+    void from_withUnknownValue_throws() {
+        assertThrows(IllegalArgumentException.class, () -> MachineryStatus.from("Operativa"));
+        assertThrows(IllegalArgumentException.class, () -> MachineryStatus.from(null));
+    }
+
+    @Test
+    void converter_storesNameAndReadsLegacyValues() {
+        MachineryStatusConverter converter = new MachineryStatusConverter();
+
+        assertEquals("ARRENDADA", converter.convertToDatabaseColumn(MachineryStatus.ARRENDADA));
+        assertEquals(MachineryStatus.DISPONIBLE, converter.convertToEntityAttribute("disponible"));
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+}
@@ -48,23 +48,39 @@ class MachineryTest {
         Machinery m = new Machinery(
                 1L,
                 "Excavadora CAT",
-                "Disponible",
+                MachineryStatus.DISPONIBLE,
                 new BigDecimal("5000"),
                 "http://image.url",
+                "/uploads/thumb.jpg",
                 category,
                 info,
                 reviews,
-                media);
+                media,
+                4L,
+                18L);
 
         assertEquals(1L, m.getId());
         assertEquals("Excavadora CAT", m.getNameMachinery());
-        assertEquals("Disponible", m.getStatus());
+        assertEquals(MachineryStatus.DISPONIBLE, m.getStatus());
         assertEquals(new BigDecimal("5000"), m.getPricePerDay());
         assertEquals("http://image.url", m.getImageUrl());
+        assertEquals("/uploads/thumb.jpg", m.getThumbnailUrl());
         assertEquals(category, m.getCategory());
         assertEquals(info, m.getMachineryInfo());
         assertEquals(reviews, m.getReviews());
         assertEquals(media, m.getMedia());
+        assertEquals(4L, m.getRatingCount());
+        assertEquals(18L, m.getRatingSum());
+    }
+
+    @Test
+    void getAverageRating_shouldUseRatingCounters() {
+        assertEquals(0.0, machinery.getAverageRating());
+
+        machinery.setRatingCount(4L);
+        machinery.setRatingSum(18L);
+
+        assertEquals(4.5, machinery.getAverageRating());
     }
 
     @Test
@@ -83,9 +99,9 @@ class MachineryTest {
 
     @Test
     void setStatus_shouldSetValue() {
-        machinery.setStatus("Disponible");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
 
-        assertEquals("Disponible", machinery.getStatus());
+        assertEquals(MachineryStatus.DISPONIBLE, machinery.getStatus());
     }
 
     @Test
@@ -185,13 +201,29 @@ class MachineryTest {
     void toString_shouldContainFieldValues() {
         machinery.setId(1L);
         machinery.setNameMachinery("Excavadora");
-        machinery.setStatus("Disponible");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
         machinery.setPricePerDay(new BigDecimal("5000"));
 
         String result = machinery.toString();
 
         assertTrue(result.contains("Excavadora"));
-        assertTrue(result.contains("Disponible"));
+        assertTrue(result.contains("DISPONIBLE"));
+    }
+
+    @Test
+    void toString_shouldNotWalkAssociations() {
+        MachineryInfo info = new MachineryInfo();
+        info.setDescription("Descripción");
+        info.setMachinery(machinery);
+        machinery.setMachineryInfo(info);
+        Review review = new Review();
+        review.setComment("comentario-oculto");
+        machinery.setReviews(List.of(review));
+
+        String result = machinery.toString();
+
+        assertTrue(result.contains("Descripción"));
+        assertFalse(result.contains("comentario-oculto"));
     }
 
     @Test
@@ -218,10 +250,10 @@ class MachineryTest {
     }
 
     @Test
-    void setStatus_withEmptyString_shouldAccept() {
-        machinery.setStatus("");
+    void setStatus_withMantenimiento_shouldAccept() {
+        machinery.setStatus(MachineryStatus.MANTENIMIENTO);
 
-        assertEquals("", machinery.getStatus());
+        assertEquals(MachineryStatus.MANTENIMIENTO, machinery.getStatus());
     }
 
     @Test
@@ -287,7 +319,7 @@ class MachineryTest {
     void complexScenario_fullMachinerySetup() {
         machinery.setId(1L);
         machinery.setNameMachinery("Excavadora CAT 320");
-        machinery.setStatus("Disponible");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
         machinery.setPricePerDay(new BigDecimal("5000"));
         machinery.setImageUrl("http://example.com/image.jpg");
         machinery.setCategory(category);
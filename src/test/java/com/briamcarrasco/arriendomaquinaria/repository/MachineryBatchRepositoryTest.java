@@ -0,0 +1,69 @@
+package com.briamcarrasco.arriendomaquinaria.repository;
+
+import com.briamcarrasco.arriendomaquinaria.model.Category;
+import com.briamcarrasco.arriendomaquinaria.model.Machinery;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import static org.junit.jupiter.api.Assertions.*;
+import java.math.BigDecimal;
+import java.util.List;
+
+@DataJpaTest
+@Import(MachineryBatchRepository.class)
+class MachineryBatchRepositoryTest {
+
+    @Autowired
+    private MachineryBatchRepository machineryBatchRepository;
+
+    @Autowired
+    private MachineryRepository machineryRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private static Machinery machinery(String name, Category category, String imageUrl) {
+        Category reference = new Category();
+        reference.setId(category.getId());
+        Machinery machinery = new Machinery();
+        machinery.setNameMachinery(name);
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
+        machinery.setPricePerDay(new BigDecimal("15000.50"));
+        machinery.setImageUrl(imageUrl);
+        machinery.setCategory(reference);
+        return machinery;
+    }
+
+    @Test
+    void testInsertAll() {
+        Category category = new Category();
+        category.setName("Agrícola");
+        entityManager.persistAndFlush(category);
+
+        List<Machinery> batch = List.of(
+                machinery("Tractor", category, "/images/tractor.png"),
+                machinery("Cosechadora", category, null));
+        int inserted = machineryBatchRepository.insertAll(batch);
+        entityManager.clear();
+
+        assertEquals(2, inserted);
+        List<Machinery> all = machineryRepository.findAll();
+        assertEquals(2, all.size());
+        assertEquals(all.stream().map(Machinery::getId).sorted().toList(),
+                batch.stream().map(Machinery::getId).sorted().toList());
+        Machinery tractor = all.stream().filter(m -> m.getNameMachinery().equals("Tractor")).findFirst().orElseThrow();
+        assertEquals(MachineryStatus.DISPONIBLE, tractor.getStatus());
+        assertEquals(0, new BigDecimal("15000.50").compareTo(tractor.getPricePerDay()));
+        assertEquals("/images/tractor.png", tractor.getImageUrl());
+        assertEquals(category.getId(), tractor.getCategory().getId());
+        assertEquals(0L, tractor.getRatingCount());
+    }
+
+    @Test
+    void testInsertAllEmpty() {
+        assertEquals(0, machineryBatchRepository.insertAll(List.of()));
+    }
+}
@@ -1,8 +1,10 @@
 package com.briamcarrasco.arriendomaquinaria.repository;
 
+import com.briamcarrasco.arriendomaquinaria.dto.MachineryMediaSummary;
 import com.briamcarrasco.arriendomaquinaria.model.MachineryMedia;
 import com.briamcarrasco.arriendomaquinaria.model.Machinery;
 import com.briamcarrasco.arriendomaquinaria.model.Category;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryStatus;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
@@ -29,7 +31,7 @@ class MachineryMediaRepositoryTest {
 
         Machinery machinery = new Machinery();
         machinery.setNameMachinery("Excavadora");
-        machinery.setStatus("Disponible");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
         machinery.setPricePerDay(new BigDecimal("10000"));
         machinery.setCategory(category);
         entityManager.persistAndFlush(machinery);
@@ -55,7 +57,7 @@ class MachineryMediaRepositoryTest {
 
         Machinery machinery = new Machinery();
         machinery.setNameMachinery("Grúa");
-        machinery.setStatus("Disponible");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
         machinery.setPricePerDay(new BigDecimal("15000"));
         machinery.setCategory(category);
         entityManager.persistAndFlush(machinery);
@@ -80,7 +82,7 @@ class MachineryMediaRepositoryTest {
 
         Machinery machinery = new Machinery();
         machinery.setNameMachinery("Tractor");
-        machinery.setStatus("Disponible");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
         machinery.setPricePerDay(new BigDecimal("8000"));
         machinery.setCategory(category);
         entityManager.persistAndFlush(machinery);
@@ -102,6 +104,42 @@ class MachineryMediaRepositoryTest {
         assertEquals(2, mediaList.size());
     }
 
+    @Test
+    void testFindSummariesByMachineryId() {
+        Category category = new Category();
+        category.setName("Forestal");
+        entityManager.persistAndFlush(category);
+
+        Machinery machinery = new Machinery();
+        machinery.setNameMachinery("Chipeadora");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
+        machinery.setPricePerDay(new BigDecimal("6000"));
+        machinery.setCategory(category);
+        entityManager.persistAndFlush(machinery);
+
+        MachineryMedia image = new MachineryMedia();
+        image.setImgUrl("/uploads/chipeadora.png");
+        image.setThumbUrl("/uploads/chipeadora_thumb.jpg");
+        image.setMachinery(machinery);
+        entityManager.persistAndFlush(image);
+
+        MachineryMedia video = new MachineryMedia();
+        video.setVidUrl("https://www.youtube.com/embed/demo");
+        video.setMachinery(machinery);
+        entityManager.persistAndFlush(video);
+        entityManager.clear();
+
+        List<MachineryMediaSummary> summaries = machineryMediaRepository.findSummariesByMachineryId(machinery.getId());
+
+        assertEquals(2, summaries.size());
+        assertEquals(image.getId(), summaries.get(0).getId());
+        assertEquals("/uploads/chipeadora.png", summaries.get(0).getImgUrl());
+        assertEquals("/uploads/chipeadora_thumb.jpg", summaries.get(0).getThumbUrl());
+        assertEquals("https://www.youtube.com/embed/demo", summaries.get(1).getVidUrl());
+        assertNull(summaries.get(1).getImgUrl());
+        assertTrue(machineryMediaRepository.findSummariesByMachineryId(999L).isEmpty());
+    }
+
     @Test
     void testFindByMachineryIdReturnsEmpty() {
         List<MachineryMedia> mediaList = machineryMediaRepository.findByMachineryId(999L);
@@ -118,7 +156,7 @@ class MachineryMediaRepositoryTest {
 
         Machinery machinery = new Machinery();
         machinery.setNameMachinery("Montacargas");
-        machinery.setStatus("Disponible");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
         machinery.setPricePerDay(new BigDecimal("5000"));
         machinery.setCategory(category);
         entityManager.persistAndFlush(machinery);
@@ -147,7 +185,7 @@ class MachineryMediaRepositoryTest {
 
         Machinery machinery = new Machinery();
         machinery.setNameMachinery("Bulldozer");
-        machinery.setStatus("Disponible");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
         machinery.setPricePerDay(new BigDecimal("12000"));
         machinery.setCategory(category);
         entityManager.persistAndFlush(machinery);
@@ -171,7 +209,7 @@ class MachineryMediaRepositoryTest {
 
         Machinery machinery = new Machinery();
         machinery.setNameMachinery("Sierra");
-        machinery.setStatus("Disponible");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
         machinery.setPricePerDay(new BigDecimal("3000"));
         machinery.setCategory(category);
         entityManager.persistAndFlush(machinery);
@@ -196,7 +234,7 @@ class MachineryMediaRepositoryTest {
 
         Machinery machinery = new Machinery();
         machinery.setNameMachinery("Generador");
-        machinery.setStatus("Disponible");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
         machinery.setPricePerDay(new BigDecimal("4000"));
         machinery.setCategory(category);
         entityManager.persistAndFlush(machinery);
@@ -218,7 +256,7 @@ class MachineryMediaRepositoryTest {
 
         Machinery machinery = new Machinery();
         machinery.setNameMachinery("Compactadora");
-        machinery.setStatus("Disponible");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
         machinery.setPricePerDay(new BigDecimal("7000"));
         machinery.setCategory(category);
         entityManager.persistAndFlush(machinery);
@@ -244,7 +282,7 @@ class MachineryMediaRepositoryTest {
 
         Machinery machinery = new Machinery();
         machinery.setNameMachinery("Cortacésped");
-        machinery.setStatus("Disponible");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
         machinery.setPricePerDay(new BigDecimal("2000"));
         machinery.setCategory(category);
         entityManager.persistAndFlush(machinery);
@@ -267,7 +305,7 @@ class MachineryMediaRepositoryTest {
 
         Machinery machinery = new Machinery();
         machinery.setNameMachinery("Hidrolavadora");
-        machinery.setStatus("Disponible");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
         machinery.setPricePerDay(new BigDecimal("2500"));
         machinery.setCategory(category);
         entityManager.persistAndFlush(machinery);
@@ -290,7 +328,7 @@ class MachineryMediaRepositoryTest {
 
         Machinery machinery = new Machinery();
         machinery.setNameMachinery("Martillo Hidráulico");
-        machinery.setStatus("Disponible");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
         machinery.setPricePerDay(new BigDecimal("9000"));
         machinery.setCategory(category);
         entityManager.persistAndFlush(machinery);
@@ -332,7 +370,7 @@ class MachineryMediaRepositoryTest {
 
         Machinery machinery = new Machinery();
         machinery.setNameMachinery("Test Machinery");
-        machinery.setStatus("Disponible");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
         machinery.setPricePerDay(new BigDecimal("1000"));
         machinery.setCategory(category);
         entityManager.persistAndFlush(machinery);
@@ -2,6 +2,7 @@ package com.briamcarrasco.arriendomaquinaria.repository;
 
 import com.briamcarrasco.arriendomaquinaria.model.MachineryRental;
 import com.briamcarrasco.arriendomaquinaria.model.Machinery;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryStatus;
 import com.briamcarrasco.arriendomaquinaria.model.User;
 import com.briamcarrasco.arriendomaquinaria.model.Category;
 import org.junit.jupiter.api.Test;
@@ -39,7 +40,7 @@ class MachineryRentalRepositoryTest {
 
         Machinery machinery = new Machinery();
         machinery.setNameMachinery("Excavadora");
-        machinery.setStatus("Disponible");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
         machinery.setPricePerDay(new BigDecimal("10000"));
         machinery.setCategory(category);
         entityManager.persistAndFlush(machinery);
@@ -78,7 +79,7 @@ class MachineryRentalRepositoryTest {
 
         Machinery machinery = new Machinery();
         machinery.setNameMachinery("Grúa");
-        machinery.setStatus("Disponible");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
         machinery.setPricePerDay(new BigDecimal("15000"));
         machinery.setCategory(category);
         entityManager.persistAndFlush(machinery);
@@ -118,7 +119,7 @@ class MachineryRentalRepositoryTest {
 
         Machinery machinery = new Machinery();
         machinery.setNameMachinery("Montacargas");
-        machinery.setStatus("Disponible");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
         machinery.setPricePerDay(new BigDecimal("5000"));
         machinery.setCategory(category);
         entityManager.persistAndFlush(machinery);
@@ -158,7 +159,7 @@ class MachineryRentalRepositoryTest {
 
         Machinery machinery = new Machinery();
         machinery.setNameMachinery("Bulldozer");
-        machinery.setStatus("Disponible");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
         machinery.setPricePerDay(new BigDecimal("12000"));
         machinery.setCategory(category);
         entityManager.persistAndFlush(machinery);
@@ -191,7 +192,7 @@ class MachineryRentalRepositoryTest {
 
         Machinery machinery = new Machinery();
         machinery.setNameMachinery("Tractor");
-        machinery.setStatus("Disponible");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
         machinery.setPricePerDay(new BigDecimal("8000"));
         machinery.setCategory(category);
         entityManager.persistAndFlush(machinery);
@@ -225,7 +226,7 @@ class MachineryRentalRepositoryTest {
 
         Machinery machinery = new Machinery();
         machinery.setNameMachinery("Generador");
-        machinery.setStatus("Disponible");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
         machinery.setPricePerDay(new BigDecimal("4000"));
         machinery.setCategory(category);
         entityManager.persistAndFlush(machinery);
@@ -256,7 +257,7 @@ class MachineryRentalRepositoryTest {
 
         Machinery machinery = new Machinery();
         machinery.setNameMachinery("Compactadora");
-        machinery.setStatus("Disponible");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
         machinery.setPricePerDay(new BigDecimal("7000"));
         machinery.setCategory(category);
         entityManager.persistAndFlush(machinery);
@@ -294,7 +295,7 @@ class MachineryRentalRepositoryTest {
 
         Machinery machinery = new Machinery();
         machinery.setNameMachinery("Cortacésped");
-        machinery.setStatus("Disponible");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
         machinery.setPricePerDay(new BigDecimal("2000"));
         machinery.setCategory(category);
         entityManager.persistAndFlush(machinery);
@@ -330,14 +331,14 @@ class MachineryRentalRepositoryTest {
 
         Machinery machinery1 = new Machinery();
         machinery1.setNameMachinery("Hidrolavadora");
-        machinery1.setStatus("Disponible");
+        machinery1.setStatus(MachineryStatus.DISPONIBLE);
         machinery1.setPricePerDay(new BigDecimal("2500"));
         machinery1.setCategory(category);
         entityManager.persistAndFlush(machinery1);
 
         Machinery machinery2 = new Machinery();
         machinery2.setNameMachinery("Aspiradora Industrial");
-        machinery2.setStatus("Disponible");
+        machinery2.setStatus(MachineryStatus.DISPONIBLE);
         machinery2.setPricePerDay(new BigDecimal("3000"));
         machinery2.setCategory(category);
         entityManager.persistAndFlush(machinery2);
@@ -386,7 +387,7 @@ class MachineryRentalRepositoryTest {
 
         Machinery machinery = new Machinery();
         machinery.setNameMachinery("Martillo Hidráulico");
-        machinery.setStatus("Disponible");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
         machinery.setPricePerDay(new BigDecimal("9000"));
         machinery.setCategory(category);
         entityManager.persistAndFlush(machinery);
@@ -440,7 +441,7 @@ class MachineryRentalRepositoryTest {
 
         Machinery machinery = new Machinery();
         machinery.setNameMachinery("Test Machinery");
-        machinery.setStatus("Disponible");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
         machinery.setPricePerDay(new BigDecimal("1000"));
         machinery.setCategory(category);
         entityManager.persistAndFlush(machinery);
@@ -464,4 +465,98 @@ class MachineryRentalRepositoryTest {
         assertFalse(machineryRentalRepository.existsById(saved1.getId()));
         assertFalse(machineryRentalRepository.existsById(saved2.getId()));
     }
+
+    @Test
+    void findIntervals_returnsIdsAndDatesWithoutLoadingEntities() {
+        User user = new User();
+        user.setUsername("intervaluser");
+        user.setPassword("intervalpass");
+        user.setEmail("interval@example.com");
+        user.setRole(User.Role.USER);
+        entityManager.persistAndFlush(user);
+
+        Category category = new Category();
+        category.setName("Intervalos");
+        entityManager.persistAndFlush(category);
+
+        Machinery machinery = new Machinery();
+        machinery.setNameMachinery("Grúa");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
+        machinery.setPricePerDay(new BigDecimal("2000"));
+        machinery.setCategory(category);
+        entityManager.persistAndFlush(machinery);
+
+        Date start = new Date(1_700_000_000_000L);
+        Date end = new Date(1_700_086_400_000L);
+        MachineryRental rental = new MachineryRental();
+        rental.setRentalDate(start);
+        rental.setReturnDate(end);
+        rental.setMachinery(machinery);
+        rental.setUser(user);
+        MachineryRental saved = entityManager.persistAndFlush(rental);
+        entityManager.clear();
+
+        List<Object[]> rows = machineryRentalRepository.findIntervals();
+
+        assertEquals(1, rows.size());
+        Object[] row = rows.get(0);
+        assertEquals(saved.getId(), row[0]);
+        assertEquals(machinery.getId(), row[1]);
+        assertEquals(start.getTime(), ((Date) row[2]).getTime());
+        assertEquals(end.getTime(), ((Date) row[3]).getTime());
+    }
+
+    @Test
+    void countOverlappingByMachinery_countsOnlyOverlapsForRequestedMachines() {
+        User user = new User();
+        user.setUsername("batchuser");
+        user.setPassword("batchpass");
+        user.setEmail("batch@example.com");
+        user.setRole(User.Role.USER);
+        entityManager.persistAndFlush(user);
+
+        Category category = new Category();
+        category.setName("Lote");
+        entityManager.persistAndFlush(category);
+
+        Machinery busy = new Machinery();
+        busy.setNameMachinery("Ocupada");
+        busy.setStatus(MachineryStatus.DISPONIBLE);
+        busy.setPricePerDay(new BigDecimal("1000"));
+        busy.setCategory(category);
+        entityManager.persistAndFlush(busy);
+
+        Machinery free = new Machinery();
+        free.setNameMachinery("Libre");
+        free.setStatus(MachineryStatus.DISPONIBLE);
+        free.setPricePerDay(new BigDecimal("1000"));
+        free.setCategory(category);
+        entityManager.persistAndFlush(free);
+
+        long day = 24L * 60 * 60 * 1000;
+        long base = 1_700_000_000_000L;
+        MachineryRental inside = new MachineryRental();
+        inside.setRentalDate(new Date(base));
+        inside.setReturnDate(new Date(base + 3 * day));
+        inside.setMachinery(busy);
+        inside.setUser(user);
+        entityManager.persistAndFlush(inside);
+
+        MachineryRental before = new MachineryRental();
+        before.setRentalDate(new Date(base - 10 * day));
+        before.setReturnDate(new Date(base - 5 * day));
+        before.setMachinery(free);
+        before.setUser(user);
+        entityManager.persistAndFlush(before);
+        entityManager.clear();
+
+        List<Object[]> rows = machineryRentalRepository.countOverlappingByMachinery(
+                List.of(busy.getId(), free.getId(), -1L), new Date(base + day), new Date(base + 2 * day));
+
+        assertEquals(2, rows.size());
+        for (Object[] row : rows) {
+            long expected = row[0].equals(busy.getId()) ? 1L : 0L;
+            assertEquals(expected, row[1]);
+        }
+    }
 }
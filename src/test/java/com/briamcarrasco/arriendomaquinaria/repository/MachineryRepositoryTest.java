@@ -1,16 +1,33 @@
 package com.briamcarrasco.arriendomaquinaria.repository;
 
+import com.briamcarrasco.arriendomaquinaria.dto.FacetCount;
+import com.briamcarrasco.arriendomaquinaria.dto.MachineryDetail;
+import com.briamcarrasco.arriendomaquinaria.dto.MachineryFacetRow;
+import com.briamcarrasco.arriendomaquinaria.dto.MachinerySearchCriteria;
+import com.briamcarrasco.arriendomaquinaria.dto.MachinerySummary;
+import com.briamcarrasco.arriendomaquinaria.dto.ResourceVersion;
 import com.briamcarrasco.arriendomaquinaria.model.Category;
 import com.briamcarrasco.arriendomaquinaria.model.Machinery;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryInfo;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryRental;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryStatus;
+import com.briamcarrasco.arriendomaquinaria.model.User;
+import com.briamcarrasco.arriendomaquinaria.service.MachineryStatusReconciler;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -45,24 +62,56 @@ class MachineryRepositoryTest {
         // Crear maquinarias
         machinery1 = new Machinery();
         machinery1.setNameMachinery("Excavadora CAT 320");
-        machinery1.setStatus("Disponible");
+        machinery1.setStatus(MachineryStatus.DISPONIBLE);
         machinery1.setPricePerDay(new BigDecimal("5000"));
         machinery1.setCategory(category);
 
         machinery2 = new Machinery();
         machinery2.setNameMachinery("Excavadora Komatsu");
-        machinery2.setStatus("Arrendada");
+        machinery2.setStatus(MachineryStatus.ARRENDADA);
         machinery2.setPricePerDay(new BigDecimal("4500"));
         machinery2.setCategory(category);
     }
 
+    @Test
+    void replaceStatusValue_shouldRewriteFreeTextStatus() {
+        Machinery saved = entityManager.persistAndFlush(machinery1);
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE tb_machinery SET status = 'disponible' WHERE id = :id")
+                .setParameter("id", saved.getId())
+                .executeUpdate();
+
+        assertTrue(machineryRepository.findDistinctStatusValues().contains("disponible"));
+        assertEquals(1, machineryRepository.replaceStatusValue("disponible", "DISPONIBLE"));
+        assertEquals(List.of("DISPONIBLE"), machineryRepository.findDistinctStatusValues());
+    }
+
+    @Test
+    void normalizeLegacyStatuses_unknownValue_leavesReadableRowInMaintenance() {
+        Machinery saved = entityManager.persistAndFlush(machinery1);
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE tb_machinery SET status = 'Operativa' WHERE id = :id")
+                .setParameter("id", saved.getId())
+                .executeUpdate();
+        entityManager.clear();
+
+        MachineryStatusReconciler reconciler = new MachineryStatusReconciler(machineryRepository,
+                new ConcurrentMapCacheManager());
+        assertEquals(1, reconciler.normalizeLegacyStatuses());
+        entityManager.clear();
+
+        Machinery reloaded = machineryRepository.findById(saved.getId()).orElseThrow();
+        assertEquals(MachineryStatus.MANTENIMIENTO, reloaded.getStatus());
+        assertEquals(List.of("MANTENIMIENTO"), machineryRepository.findDistinctStatusValues());
+    }
+
     @Test
     void save_shouldPersistMachinery() {
         Machinery saved = machineryRepository.save(machinery1);
 
         assertNotNull(saved.getId());
         assertEquals("Excavadora CAT 320", saved.getNameMachinery());
-        assertEquals("Disponible", saved.getStatus());
+        assertEquals(MachineryStatus.DISPONIBLE, saved.getStatus());
         assertEquals(new BigDecimal("5000"), saved.getPricePerDay());
     }
 
@@ -204,14 +253,14 @@ class MachineryRepositoryTest {
     void update_shouldModifyMachinery() {
         Machinery saved = entityManager.persistAndFlush(machinery1);
 
-        saved.setStatus("Mantenimiento");
+        saved.setStatus(MachineryStatus.MANTENIMIENTO);
         saved.setPricePerDay(new BigDecimal("5500"));
         Machinery updated = machineryRepository.save(saved);
         entityManager.flush();
 
         Machinery found = machineryRepository.findById(updated.getId()).orElse(null);
         assertNotNull(found);
-        assertEquals("Mantenimiento", found.getStatus());
+        assertEquals(MachineryStatus.MANTENIMIENTO, found.getStatus());
         assertEquals(new BigDecimal("5500"), found.getPricePerDay());
     }
 
@@ -225,4 +274,304 @@ class MachineryRepositoryTest {
 
         assertEquals(2, count);
     }
+
+    @Test
+    void findSummariesAfter_shouldSeekAfterGivenId() {
+        Machinery first = entityManager.persist(machinery1);
+        Machinery second = entityManager.persist(machinery2);
+        entityManager.flush();
+
+        List<MachinerySummary> firstPage = machineryRepository.findSummariesAfter(0L, PageRequest.of(0, 1));
+        List<MachinerySummary> secondPage = machineryRepository.findSummariesAfter(first.getId(),
+                PageRequest.of(0, 1));
+
+        assertEquals(1, firstPage.size());
+        assertEquals(first.getId(), firstPage.get(0).getId());
+        assertEquals(1, secondPage.size());
+        assertEquals(second.getId(), secondPage.get(0).getId());
+    }
+
+    @Test
+    void findSearchDocuments_shouldProjectTextFields() {
+        Machinery saved = entityManager.persistAndFlush(machinery1);
+
+        List<Object[]> rows = machineryRepository.findSearchDocuments();
+
+        assertEquals(1, rows.size());
+        assertEquals(saved.getId(), rows.get(0)[0]);
+        assertEquals("Excavadora CAT 320", rows.get(0)[1]);
+        assertEquals("Excavadoras", rows.get(0)[2]);
+        assertNull(rows.get(0)[3]);
+    }
+
+    @Test
+    void searchByCriteria_shouldCombineStatusAndPriceRange() {
+        entityManager.persist(machinery1);
+        Machinery cheap = entityManager.persist(machinery2);
+        entityManager.flush();
+
+        MachinerySearchCriteria criteria = new MachinerySearchCriteria();
+        criteria.setCategoryId(category.getId());
+        criteria.setStatus(MachineryStatus.ARRENDADA);
+        criteria.setMaxPrice(new BigDecimal("4800"));
+
+        List<MachinerySummary> found = machineryRepository.searchByCriteria(criteria, null, 10);
+
+        assertEquals(1, found.size());
+        assertEquals(cheap.getId(), found.get(0).getId());
+        assertEquals("Excavadoras", found.get(0).getCategoryName());
+        assertEquals(1, machineryRepository.countByCriteria(criteria, null));
+    }
+
+    @Test
+    void searchByCriteria_shouldRestrictToGivenIds() {
+        Machinery first = entityManager.persist(machinery1);
+        entityManager.persist(machinery2);
+        entityManager.flush();
+
+        List<MachinerySummary> found = machineryRepository.searchByCriteria(new MachinerySearchCriteria(),
+                List.of(first.getId()), 10);
+
+        assertEquals(1, found.size());
+        assertEquals(first.getId(), found.get(0).getId());
+    }
+
+    @Test
+    void findFacetRows_shouldApplyPriceRangeOnlyAndSplitLargeIdLists() {
+        Machinery first = entityManager.persist(machinery1);
+        Machinery second = entityManager.persist(machinery2);
+        entityManager.flush();
+
+        MachinerySearchCriteria criteria = new MachinerySearchCriteria();
+        criteria.setStatus(MachineryStatus.DISPONIBLE);
+        criteria.setMaxPrice(new BigDecimal("4800"));
+        List<Long> ids = new ArrayList<>();
+        for (long id = -MachineryRepositoryCustomImpl.MAX_IDS_PER_QUERY; id < 0; id++) {
+            ids.add(id);
+        }
+        ids.add(first.getId());
+        ids.add(second.getId());
+
+        List<MachineryFacetRow> rows = machineryRepository.findFacetRows(criteria, ids);
+
+        // El estado se filtra en memoria; el precio en la consulta.
+        assertEquals(1, rows.size());
+        assertEquals(second.getId(), rows.get(0).getId());
+        assertEquals(category.getId(), rows.get(0).getCategoryId());
+        assertEquals("Excavadoras", rows.get(0).getCategoryName());
+        assertEquals(MachineryStatus.ARRENDADA, rows.get(0).getStatus());
+    }
+
+    @Test
+    void facetCounts_shouldIgnoreOwnDimension() {
+        entityManager.persist(machinery1);
+        entityManager.persist(machinery2);
+        entityManager.flush();
+
+        MachinerySearchCriteria criteria = new MachinerySearchCriteria();
+        criteria.setStatus(MachineryStatus.DISPONIBLE);
+        criteria.setCategoryId(category.getId());
+
+        List<FacetCount> statuses = machineryRepository.countStatusFacets(criteria, null);
+        List<FacetCount> categories = machineryRepository.countCategoryFacets(criteria, null);
+
+        assertEquals(2, statuses.size());
+        assertEquals("ARRENDADA", statuses.get(0).getKey());
+        assertEquals("Arrendada", statuses.get(0).getLabel());
+        assertEquals(1, statuses.get(0).getCount());
+        assertEquals(1, categories.size());
+        assertEquals(String.valueOf(category.getId()), categories.get(0).getKey());
+        assertEquals("Excavadoras", categories.get(0).getLabel());
+        assertEquals(1, categories.get(0).getCount());
+    }
+
+    @Test
+    void findSummariesAfter_shouldProjectCatalogColumns() {
+        Machinery first = entityManager.persist(machinery1);
+        entityManager.persist(machinery2);
+        entityManager.flush();
+
+        List<MachinerySummary> page = machineryRepository.findSummariesAfter(0L, PageRequest.of(0, 1));
+
+        assertEquals(1, page.size());
+        assertEquals(first.getId(), page.get(0).getId());
+        assertEquals("Excavadora CAT 320", page.get(0).getNameMachinery());
+        assertEquals("Excavadoras", page.get(0).getCategoryName());
+        assertEquals(MachineryStatus.DISPONIBLE, page.get(0).getStatus());
+        assertEquals(0L, page.get(0).getRatingCount());
+        assertEquals(0.0, page.get(0).getAverageRating());
+    }
+
+    @Test
+    void streamSummaries_shouldReturnWholeCatalogOrderedById() {
+        Machinery first = entityManager.persist(machinery1);
+        Machinery second = entityManager.persist(machinery2);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<MachinerySummary> rows;
+        try (Stream<MachinerySummary> stream = machineryRepository.streamSummaries(500)) {
+            rows = stream.toList();
+        }
+
+        assertEquals(2, rows.size());
+        assertEquals(first.getId(), rows.get(0).getId());
+        assertEquals(second.getId(), rows.get(1).getId());
+        assertEquals("Excavadoras", rows.get(1).getCategoryName());
+        assertEquals(MachineryStatus.ARRENDADA, rows.get(1).getStatus());
+    }
+
+    @Test
+    void adjustRatingTotals_shouldApplyDeltasInDatabase() {
+        Machinery saved = entityManager.persistAndFlush(machinery1);
+
+        machineryRepository.adjustRatingTotals(saved.getId(), 1, 5);
+        machineryRepository.adjustRatingTotals(saved.getId(), 1, 2);
+        machineryRepository.adjustRatingTotals(saved.getId(), 0, 2);
+        entityManager.clear();
+
+        Machinery reloaded = entityManager.find(Machinery.class, saved.getId());
+        assertEquals(2L, reloaded.getRatingCount());
+        assertEquals(9L, reloaded.getRatingSum());
+        assertEquals(4.5, machineryRepository.findAverageRating(saved.getId()));
+    }
+
+    @Test
+    void findAverageRating_whenNoReviews_shouldReturnZero() {
+        Machinery saved = entityManager.persistAndFlush(machinery1);
+
+        assertEquals(0.0, machineryRepository.findAverageRating(saved.getId()));
+        assertNull(machineryRepository.findAverageRating(-1L));
+    }
+
+    @Test
+    void searchByCriteria_sortByRating_shouldOrderByAverageDescending() {
+        machinery1.setRatingCount(2L);
+        machinery1.setRatingSum(6L);
+        machinery2.setRatingCount(1L);
+        machinery2.setRatingSum(5L);
+        Machinery unrated = new Machinery();
+        unrated.setNameMachinery("Excavadora Volvo");
+        unrated.setStatus(MachineryStatus.DISPONIBLE);
+        unrated.setPricePerDay(new BigDecimal("4000"));
+        unrated.setCategory(category);
+        Machinery first = entityManager.persist(machinery1);
+        Machinery second = entityManager.persist(machinery2);
+        Machinery third = entityManager.persist(unrated);
+        entityManager.flush();
+
+        MachinerySearchCriteria criteria = new MachinerySearchCriteria();
+        criteria.setSortByRating(true);
+
+        List<MachinerySummary> result = machineryRepository.searchByCriteria(criteria, null, 10);
+
+        assertEquals(List.of(second.getId(), first.getId(), third.getId()),
+                result.stream().map(MachinerySummary::getId).toList());
+    }
+
+    @Test
+    void findDetailedById_shouldLoadAssociationsEagerly() {
+        Machinery saved = entityManager.persistAndFlush(machinery1);
+        entityManager.clear();
+
+        Optional<Machinery> found = machineryRepository.findDetailedById(saved.getId());
+        entityManager.clear();
+
+        assertTrue(found.isPresent());
+        assertEquals("Excavadoras", found.get().getCategory().getName());
+        assertTrue(found.get().getMedia().isEmpty());
+    }
+
+    @Test
+    void findDetailById_shouldProjectCategoryAndDescription() {
+        MachineryInfo info = new MachineryInfo();
+        info.setDescription("Excavadora de 20 toneladas");
+        machinery1.setMachineryInfo(info);
+        machinery1.setRatingCount(2L);
+        machinery1.setRatingSum(9L);
+        Machinery saved = entityManager.persistAndFlush(machinery1);
+        Machinery withoutInfo = entityManager.persistAndFlush(machinery2);
+        entityManager.clear();
+
+        MachineryDetail detail = machineryRepository.findDetailById(saved.getId()).orElseThrow();
+
+        assertEquals("Excavadora CAT 320", detail.getNameMachinery());
+        assertEquals(category.getId(), detail.getCategoryId());
+        assertEquals("Excavadoras", detail.getCategoryName());
+        assertEquals(MachineryStatus.DISPONIBLE, detail.getStatus());
+        assertEquals("Excavadora de 20 toneladas", detail.getDescription());
+        assertEquals(4.5, detail.getAverageRating());
+        assertNull(machineryRepository.findDetailById(withoutInfo.getId()).orElseThrow().getDescription());
+        assertTrue(machineryRepository.findDetailById(-1L).isEmpty());
+    }
+
+    @Test
+    void findVersionById_shouldChangeWhenMachineryIsTouched() {
+        Machinery saved = entityManager.persistAndFlush(machinery1);
+        assertNotNull(saved.getUpdatedAt());
+        entityManager.getEntityManager().createQuery("UPDATE Machinery m SET m.updatedAt = :at")
+                .setParameter("at", LocalDateTime.of(2025, 1, 1, 10, 0))
+                .executeUpdate();
+
+        ResourceVersion before = machineryRepository.findVersionById(saved.getId());
+        assertEquals(1L, before.getCount());
+        assertEquals(LocalDateTime.of(2025, 1, 1, 10, 0), before.getLastModified());
+
+        assertEquals(1, machineryRepository.touch(saved.getId()));
+        ResourceVersion after = machineryRepository.findVersionById(saved.getId());
+        assertTrue(after.getLastModified().isAfter(before.getLastModified()));
+        assertNotEquals(before.getETag(), after.getETag());
+
+        ResourceVersion missing = machineryRepository.findVersionById(-1L);
+        assertFalse(missing.exists());
+        assertNull(missing.getLastModified());
+    }
+
+    @Test
+    void updateStatus_shouldFollowActiveRentalsAndSkipMaintenance() {
+        User user = new User();
+        user.setUsername("statususer");
+        user.setPassword("statuspass");
+        user.setEmail("status@example.com");
+        user.setRole(User.Role.USER);
+        entityManager.persist(user);
+
+        Machinery rentedNow = entityManager.persist(machinery1);
+        Machinery returned = entityManager.persist(machinery2);
+        Machinery inMaintenance = new Machinery();
+        inMaintenance.setNameMachinery("Excavadora Volvo");
+        inMaintenance.setStatus(MachineryStatus.MANTENIMIENTO);
+        inMaintenance.setPricePerDay(new BigDecimal("4000"));
+        inMaintenance.setCategory(category);
+        entityManager.persist(inMaintenance);
+
+        long day = 24L * 60 * 60 * 1000;
+        Date now = new Date(1_700_000_000_000L);
+        persistRental(rentedNow, user, new Date(now.getTime() - day), new Date(now.getTime() + day));
+        persistRental(returned, user, new Date(now.getTime() - 5 * day), new Date(now.getTime() - day));
+        persistRental(inMaintenance, user, new Date(now.getTime() - day), new Date(now.getTime() + day));
+        entityManager.flush();
+
+        int rented = machineryRepository.updateStatusWithActiveRental(
+                MachineryStatus.DISPONIBLE, MachineryStatus.ARRENDADA, now);
+        int released = machineryRepository.updateStatusWithoutActiveRental(
+                MachineryStatus.ARRENDADA, MachineryStatus.DISPONIBLE, now);
+        entityManager.clear();
+
+        assertEquals(1, rented);
+        assertEquals(1, released);
+        assertEquals(MachineryStatus.ARRENDADA, entityManager.find(Machinery.class, rentedNow.getId()).getStatus());
+        assertEquals(MachineryStatus.DISPONIBLE, entityManager.find(Machinery.class, returned.getId()).getStatus());
+        assertEquals(MachineryStatus.MANTENIMIENTO,
+                entityManager.find(Machinery.class, inMaintenance.getId()).getStatus());
+    }
+
+    private void persistRental(Machinery machinery, User user, Date from, Date to) {
+        MachineryRental rental = new MachineryRental();
+        rental.setMachinery(machinery);
+        rental.setUser(user);
+        rental.setRentalDate(from);
+        rental.setReturnDate(to);
+        entityManager.persist(rental);
+    }
 }
@@ -1,7 +1,10 @@
 package com.briamcarrasco.arriendomaquinaria.repository;
 
+import com.briamcarrasco.arriendomaquinaria.dto.ResourceVersion;
+import com.briamcarrasco.arriendomaquinaria.dto.ReviewSummary;
 import com.briamcarrasco.arriendomaquinaria.model.Category;
 import com.briamcarrasco.arriendomaquinaria.model.Machinery;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryStatus;
 import com.briamcarrasco.arriendomaquinaria.model.Review;
 import com.briamcarrasco.arriendomaquinaria.model.User;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,8 +12,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import jakarta.persistence.PersistenceException;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +32,9 @@ class ReviewRepositoryTest {
     @Autowired
     private ReviewRepository reviewRepository;
 
+    @Autowired
+    private MachineryRepository machineryRepository;
+
     @Autowired
     private TestEntityManager entityManager;
 
@@ -64,7 +74,7 @@ class ReviewRepositoryTest {
         // Crear maquinaria
         machinery = new Machinery();
         machinery.setNameMachinery("Excavadora CAT");
-        machinery.setStatus("Disponible");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
         machinery.setPricePerDay(new BigDecimal("5000"));
         machinery.setCategory(category);
         machinery = entityManager.persistAndFlush(machinery);
@@ -223,7 +233,7 @@ class ReviewRepositoryTest {
 
         Machinery otherMachinery = new Machinery();
         otherMachinery.setNameMachinery("Grúa");
-        otherMachinery.setStatus("Disponible");
+        otherMachinery.setStatus(MachineryStatus.DISPONIBLE);
         otherMachinery.setPricePerDay(new BigDecimal("6000"));
         otherMachinery.setCategory(category);
         otherMachinery = entityManager.persistAndFlush(otherMachinery);
@@ -243,4 +253,130 @@ class ReviewRepositoryTest {
         assertEquals(1, found.size());
         assertEquals("Excelente maquinaria", found.get(0).getComment());
     }
+
+    @Test
+    void save_duplicateMachineryAndUser_shouldViolateUniqueConstraint() {
+        entityManager.persistAndFlush(review1);
+
+        Review duplicate = new Review();
+        duplicate.setMachinery(machinery);
+        duplicate.setUser(user1);
+        duplicate.setRating(1);
+        duplicate.setComment("Duplicada");
+
+        assertThrows(PersistenceException.class, () -> entityManager.persistAndFlush(duplicate));
+    }
+
+    @Test
+    void applyReviewRating_shouldAddNewReviewAndReplacePreviousRating() {
+        entityManager.persist(review1);
+        entityManager.flush();
+        machineryRepository.recalculateRatingTotals();
+        entityManager.clear();
+
+        // Reseña nueva de user2: suma una reseña y su calificación.
+        assertEquals(1, machineryRepository.applyReviewRating(machinery.getId(), user2.getId(), 3));
+        // Reemplazo de la reseña de user1: solo cambia la suma.
+        assertEquals(1, machineryRepository.applyReviewRating(machinery.getId(), user1.getId(), 1));
+        entityManager.clear();
+
+        Machinery reloaded = entityManager.find(Machinery.class, machinery.getId());
+        assertEquals(2L, reloaded.getRatingCount());
+        assertEquals(1L + 3L, reloaded.getRatingSum());
+        assertEquals(0, machineryRepository.applyReviewRating(-1L, user1.getId(), 5));
+    }
+
+    @Test
+    void findVersionByMachineryId_shouldCountReviewsAndTrackLatestUpdate() {
+        ResourceVersion empty = reviewRepository.findVersionByMachineryId(machinery.getId());
+        assertEquals(0L, empty.getCount());
+        assertNull(empty.getLastModified());
+
+        entityManager.persist(review1);
+        entityManager.flush();
+        // @UpdateTimestamp asigna la fecha al insertar; se fija una conocida.
+        entityManager.getEntityManager().createQuery("UPDATE Review r SET r.updatedAt = :at")
+                .setParameter("at", LocalDateTime.of(2025, 1, 1, 10, 0))
+                .executeUpdate();
+        ResourceVersion first = reviewRepository.findVersionByMachineryId(machinery.getId());
+        assertEquals(1L, first.getCount());
+        assertEquals(LocalDateTime.of(2025, 1, 1, 10, 0), first.getLastModified());
+
+        entityManager.persist(review2);
+        entityManager.flush();
+        entityManager.clear();
+        ResourceVersion second = reviewRepository.findVersionByMachineryId(machinery.getId());
+        assertEquals(2L, second.getCount());
+        assertTrue(second.getLastModified().isAfter(first.getLastModified()));
+        assertNotEquals(first.getETag(), second.getETag());
+    }
+
+    @Test
+    void recalculateRatingTotals_shouldSyncMachineryCounters() {
+        entityManager.persist(review1);
+        entityManager.persist(review2);
+        entityManager.flush();
+
+        machineryRepository.recalculateRatingTotals();
+        entityManager.clear();
+
+        Machinery reloaded = entityManager.find(Machinery.class, machinery.getId());
+        assertEquals(2L, reloaded.getRatingCount());
+        assertEquals(9L, reloaded.getRatingSum());
+        assertEquals(4.5, machineryRepository.findAverageRating(machinery.getId()));
+    }
+
+    @Test
+    void recalculateRatingTotals_shouldSkipMachineryAlreadyInSync() {
+        entityManager.persist(review1);
+        entityManager.flush();
+
+        assertEquals(1, machineryRepository.recalculateRatingTotals());
+        assertEquals(0, machineryRepository.recalculateRatingTotals());
+    }
+
+    @Test
+    void recalculateRatingTotals_shouldKeepVersionOfMachineryInSync() {
+        LocalDateTime version = LocalDateTime.of(2025, 1, 1, 10, 0);
+        entityManager.getEntityManager().createQuery("UPDATE Machinery m SET m.updatedAt = :at")
+                .setParameter("at", version)
+                .executeUpdate();
+
+        machineryRepository.recalculateRatingTotals();
+        entityManager.clear();
+
+        // Sin reseñas los contadores ya coinciden: el ETag no debe cambiar.
+        assertEquals(version, entityManager.find(Machinery.class, machinery.getId()).getUpdatedAt());
+    }
+
+    @Test
+    void findFeed_shouldProjectNewestReviewsFirst() {
+        Review older = entityManager.persistAndFlush(review1);
+        Review newer = entityManager.persistAndFlush(review2);
+
+        List<ReviewSummary> page = reviewRepository.findFeed(machinery.getId(), PageRequest.of(0, 10));
+
+        assertEquals(2, page.size());
+        assertTrue(page.get(0).getCreatedAt().compareTo(page.get(1).getCreatedAt()) >= 0);
+        ReviewSummary first = page.stream().filter(r -> r.getId().equals(older.getId())).findFirst().orElseThrow();
+        assertEquals("testuser", first.getUsername());
+        assertEquals(5, first.getRating());
+        assertEquals("Excelente maquinaria", first.getComment());
+        assertNotNull(first.getCreatedAt());
+        assertTrue(page.stream().anyMatch(r -> r.getId().equals(newer.getId())));
+    }
+
+    @Test
+    void findFeedBefore_shouldReturnReviewsAfterCursorPosition() {
+        entityManager.persistAndFlush(review1);
+        entityManager.persistAndFlush(review2);
+        List<ReviewSummary> all = reviewRepository.findFeed(machinery.getId(), PageRequest.of(0, 10));
+        ReviewSummary first = all.get(0);
+
+        List<ReviewSummary> next = reviewRepository.findFeedBefore(machinery.getId(), first.getCreatedAt(),
+                first.getId(), PageRequest.of(0, 10));
+
+        assertEquals(1, next.size());
+        assertEquals(all.get(1).getId(), next.get(0).getId());
+    }
 }
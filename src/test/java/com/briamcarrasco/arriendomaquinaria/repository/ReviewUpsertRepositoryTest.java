@@ -0,0 +1,88 @@
+package com.briamcarrasco.arriendomaquinaria.repository;
+
+import com.briamcarrasco.arriendomaquinaria.model.Category;
+import com.briamcarrasco.arriendomaquinaria.model.Machinery;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryStatus;
+import com.briamcarrasco.arriendomaquinaria.model.Review;
+import com.briamcarrasco.arriendomaquinaria.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import static org.junit.jupiter.api.Assertions.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@DataJpaTest
+@Import(ReviewUpsertRepository.class)
+class ReviewUpsertRepositoryTest {
+
+    @Autowired
+    private ReviewUpsertRepository reviewUpsertRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Machinery machinery;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("reviewer");
+        user.setPassword("password");
+        user.setEmail("reviewer@example.com");
+        user.setRole(User.Role.USER);
+        user = entityManager.persistAndFlush(user);
+
+        Category category = new Category();
+        category.setName("Tractores");
+        category = entityManager.persistAndFlush(category);
+
+        machinery = new Machinery();
+        machinery.setNameMachinery("Tractor");
+        machinery.setStatus(MachineryStatus.DISPONIBLE);
+        machinery.setPricePerDay(new BigDecimal("1000"));
+        machinery.setCategory(category);
+        machinery = entityManager.persistAndFlush(machinery);
+    }
+
+    @Test
+    void testUpsertInsertsThenUpdatesSameRow() {
+        Long insertedId = reviewUpsertRepository.upsert(machinery.getId(), user.getId(), 3, "Regular");
+        entityManager.clear();
+        List<Review> inserted = reviewRepository.findByMachineryId(machinery.getId());
+        assertEquals(1, inserted.size());
+        assertEquals(inserted.get(0).getId(), insertedId);
+        LocalDateTime createdAt = inserted.get(0).getCreatedAt();
+        assertNotNull(createdAt);
+
+        Long updatedId = reviewUpsertRepository.upsert(machinery.getId(), user.getId(), 5, "Mejoró");
+        entityManager.clear();
+        assertEquals(insertedId, updatedId);
+
+        List<Review> updated = reviewRepository.findByMachineryId(machinery.getId());
+        assertEquals(1, updated.size());
+        Review review = updated.get(0);
+        assertEquals(inserted.get(0).getId(), review.getId());
+        assertEquals(5, review.getRating());
+        assertEquals("Mejoró", review.getComment());
+        assertEquals(createdAt, review.getCreatedAt());
+        assertNotNull(review.getUpdatedAt());
+    }
+
+    @Test
+    void testUpsertUnknownMachinery() {
+        Long userId = user.getId();
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> reviewUpsertRepository.upsert(-1L, userId, 4, "Sin maquinaria"));
+    }
+}
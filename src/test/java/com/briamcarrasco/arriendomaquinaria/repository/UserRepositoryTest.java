@@ -117,6 +117,14 @@ class UserRepositoryTest {
         assertFalse(exists);
     }
 
+    @Test
+    void findIdByUsername_shouldReturnIdOrNull() {
+        User saved = entityManager.persistAndFlush(user1);
+
+        assertEquals(saved.getId(), userRepository.findIdByUsername("testuser"));
+        assertNull(userRepository.findIdByUsername("noexiste"));
+    }
+
     @Test
     void delete_shouldRemoveUser() {
         User saved = entityManager.persistAndFlush(user1);
@@ -0,0 +1,49 @@
+package com.briamcarrasco.arriendomaquinaria.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void next_readsSimpleRecordsWithLineNumbers() throws Exception {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,b\r\nc,d\n"));
+
+        assertEquals(List.of("a", "b"), reader.next());
+        assertEquals(1, reader.recordLine());
+        assertEquals(List.of("c", "d"), reader.next());
+        assertEquals(2, reader.recordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void next_handlesQuotedFieldsWithSeparatorsAndNewlines() throws Exception {
+        CsvRecordReader reader = new CsvRecordReader(
+                new StringReader("\"Tractor, 75 HP\",\"dice \"\"hola\"\"\"\n\"dos\nlíneas\",x\nfin,y"));
+
+        assertEquals(List.of("Tractor, 75 HP", "dice \"hola\""), reader.next());
+        assertEquals(List.of("dos\nlíneas", "x"), reader.next());
+        assertEquals(List.of("fin", "y"), reader.next());
+        assertEquals(4, reader.recordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void next_keepsEmptyFields() throws Exception {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(",,\n"));
+
+        assertEquals(List.of("", "", ""), reader.next());
+    }
+
+    @Test
+    void next_withUnclosedQuote_returnsRestAsField() throws Exception {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,\"sin cerrar\nb"));
+
+        assertEquals(List.of("a", "sin cerrar\nb"), reader.next());
+        assertNull(reader.next());
+    }
+}
@@ -0,0 +1,98 @@
+package com.briamcarrasco.arriendomaquinaria.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.briamcarrasco.arriendomaquinaria.dto.MachinerySummary;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryStatus;
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@ExtendWith(MockitoExtension.class)
+class MachineryExportServiceImplTest {
+
+    @Mock
+    private MachineryRepository machineryRepository;
+
+    private static final int FETCH_SIZE = 500;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MachineryExportServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new MachineryExportServiceImpl(machineryRepository, objectMapper, FETCH_SIZE);
+    }
+
+    private static MachinerySummary summary(Long id, String name) {
+        return new MachinerySummary(id, name, "Tractores", MachineryStatus.DISPONIBLE,
+                new BigDecimal("150.00"), "/images/a.png", 2L, 9L);
+    }
+
+    @Test
+    void exportNdjson_writesOneObjectPerLineAndClosesStream() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(machineryRepository.streamSummaries(FETCH_SIZE)).thenReturn(
+                Stream.of(summary(1L, "Tractor"), summary(2L, "Cosechadora")).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = service.exportNdjson(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(1L, first.get("id").asLong());
+        assertEquals("Tractor", first.get("nameMachinery").asText());
+        assertEquals("DISPONIBLE", first.get("status").asText());
+        assertEquals(4.5, first.get("averageRating").asDouble());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void exportCsv_writesHeaderAndRows() throws Exception {
+        when(machineryRepository.streamSummaries(FETCH_SIZE)).thenReturn(Stream.of(summary(1L, "Tractor")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = service.exportCsv(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(1, count);
+        assertEquals(MachineryExportServiceImpl.CSV_HEADER, lines[0]);
+        assertEquals("1,Tractor,Tractores,DISPONIBLE,150.00,/images/a.png,2,4.5", lines[1]);
+    }
+
+    @Test
+    void exportCsv_withEmptyCatalog_writesOnlyHeader() throws Exception {
+        when(machineryRepository.streamSummaries(FETCH_SIZE)).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = service.exportCsv(out);
+
+        assertEquals(0, count);
+        assertEquals(MachineryExportServiceImpl.CSV_HEADER + "\r\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void csvText_escapesSeparatorsQuotesAndFormulas() {
+        assertEquals("", MachineryExportServiceImpl.csvText(null));
+        assertEquals("Tractor", MachineryExportServiceImpl.csvText("Tractor"));
+        assertEquals("\"Tractor, 75 HP\"", MachineryExportServiceImpl.csvText("Tractor, 75 HP"));
+        assertEquals("\"Modelo \"\"X\"\"\"", MachineryExportServiceImpl.csvText("Modelo \"X\""));
+        assertEquals("'=SUM(A1)", MachineryExportServiceImpl.csvText("=SUM(A1)"));
+    }
+}
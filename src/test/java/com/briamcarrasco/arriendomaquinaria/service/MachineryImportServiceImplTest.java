@@ -0,0 +1,194 @@
+package com.briamcarrasco.arriendomaquinaria.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.briamcarrasco.arriendomaquinaria.dto.BulkImportResult;
+import com.briamcarrasco.arriendomaquinaria.model.Category;
+import com.briamcarrasco.arriendomaquinaria.model.Machinery;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryStatus;
+import com.briamcarrasco.arriendomaquinaria.repository.CategoryRepository;
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryBatchRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@ExtendWith(MockitoExtension.class)
+class MachineryImportServiceImplTest {
+
+    @Mock
+    private MachineryBatchRepository batchRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private MachinerySearchIndex searchIndex;
+
+    @Mock
+    private RentalAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<List<Machinery>> batches = new ArrayList<>();
+
+    private long lastId;
+
+    private MachineryImportServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new MachineryImportServiceImpl(batchRepository, categoryRepository, searchIndex,
+                availabilityIndex, new ObjectMapper(), transactionManager, 2);
+        Category tractores = new Category();
+        tractores.setId(1L);
+        tractores.setName("Tractores");
+        lenient().when(categoryRepository.findAll()).thenReturn(List.of(tractores));
+        lenient().when(batchRepository.insertAll(anyList())).thenAnswer(inv -> {
+            List<Machinery> inserted = inv.getArgument(0);
+            for (Machinery m : inserted) {
+                m.setId(++lastId);
+            }
+            List<Machinery> batch = new ArrayList<>(inserted);
+            if (!batch.isEmpty()) {
+                batches.add(batch);
+            }
+            return batch.size();
+        });
+    }
+
+    private static InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void importCsv_insertsValidRowsInBatchesAndReportsErrors() throws Exception {
+        String csv = "name,category,status,price_per_day,image_url\n"
+                + "Tractor A,Tractores,Disponible,100.00,\n"
+                + "Tractor B,tractores,,200,/images/b.png\n"
+                + ",Tractores,,100,\n"
+                + "Tractor C,Grúas,,100,\n"
+                + "Tractor D,Tractores,,-5,\n"
+                + "Tractor E,Tractores,Mantenimiento,300.50,\n";
+
+        BulkImportResult result = service.importCsv(input(csv));
+
+        assertEquals(3, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of(4L, 5L, 6L), result.getErrors().stream().map(BulkImportResult.RowError::getLine).toList());
+        assertEquals(2, batches.size());
+        assertEquals(2, batches.get(0).size());
+        Machinery first = batches.get(0).get(0);
+        assertEquals("Tractor A", first.getNameMachinery());
+        assertEquals(1L, first.getCategory().getId());
+        assertEquals(MachineryStatus.DISPONIBLE, first.getStatus());
+        assertEquals(new BigDecimal("100.00"), first.getPricePerDay());
+        assertEquals(Machinery.DEFAULT_IMAGE_URL, first.getImageUrl());
+        assertEquals("/images/b.png", batches.get(0).get(1).getImageUrl());
+        assertEquals(MachineryStatus.MANTENIMIENTO, batches.get(1).get(0).getStatus());
+        verify(searchIndex).indexAll(argThat(indexed -> indexed.size() == 2
+                && "Tractores".equals(indexed.iterator().next().getCategory().getName())));
+        verify(searchIndex).indexAll(argThat(indexed -> indexed.size() == 1));
+        verify(availabilityIndex).addAllMachinery(List.of(1L, 2L));
+        verify(availabilityIndex).addAllMachinery(List.of(3L));
+        verify(transactionManager, times(2)).commit(any());
+        verify(searchIndex, never()).rebuild();
+        verify(availabilityIndex, never()).rebuild();
+    }
+
+    @Test
+    void importCsv_acceptsCatalogExport() throws Exception {
+        String csv = "id,name,category,status,price_per_day,image_url,rating_count,average_rating\r\n"
+                + "7,\"Tractor, 75 HP\",Tractores,ARRENDADA,150.00,/images/a.png,2,4.5\r\n"
+                + "8,'=Formula,Tractores,DISPONIBLE,10,,0,0.0\r\n";
+
+        BulkImportResult result = service.importCsv(input(csv));
+
+        assertEquals(2, result.getImported());
+        Machinery rented = batches.get(0).get(0);
+        assertEquals("Tractor, 75 HP", rented.getNameMachinery());
+        assertEquals(MachineryStatus.DISPONIBLE, rented.getStatus());
+        assertEquals("=Formula", batches.get(0).get(1).getNameMachinery());
+    }
+
+    @Test
+    void importCsv_withMissingColumns_throws() {
+        InputStream in = input("name,status\nTractor,Disponible\n");
+
+        assertThrows(IllegalArgumentException.class, () -> service.importCsv(in));
+        verifyNoInteractions(batchRepository, searchIndex, availabilityIndex);
+    }
+
+    @Test
+    void importCsv_withWrongColumnCount_reportsRow() throws Exception {
+        BulkImportResult result = service.importCsv(input("name,category,price_per_day\nTractor,Tractores\n"));
+
+        assertEquals(0, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(2, result.getErrors().get(0).getLine());
+        verifyNoInteractions(searchIndex, availabilityIndex);
+    }
+
+    @Test
+    void importNdjson_mapsExportFieldsAndReportsInvalidLines() throws Exception {
+        String ndjson = "{\"nameMachinery\":\"Tractor\",\"categoryName\":\"Tractores\",\"pricePerDay\":120.5}\n"
+                + "\n"
+                + "no es json\n"
+                + "{\"name\":\"Otro\",\"category_id\":1,\"price_per_day\":\"80\",\"status\":\"Operativa\"}\n"
+                + "{\"name\":\"Sin categoría\",\"category_id\":99,\"price_per_day\":80}\n";
+
+        BulkImportResult result = service.importNdjson(input(ndjson));
+
+        assertEquals(1, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of(3L, 4L, 5L), result.getErrors().stream().map(BulkImportResult.RowError::getLine).toList());
+        assertEquals(new BigDecimal("120.5"), batches.get(0).get(0).getPricePerDay());
+    }
+
+    @Test
+    void importCsv_whenReadFailsMidFile_keepsCommittedBatches() throws Exception {
+        byte[] head = ("name,category,price_per_day\n"
+                + "Tractor A,Tractores,100\nTractor B,Tractores,200\nTractor C,Tractores,300\n")
+                .getBytes(StandardCharsets.UTF_8);
+        InputStream in = new SequenceInputStream(new ByteArrayInputStream(head), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("conexión cerrada");
+            }
+        });
+
+        assertThrows(IOException.class, () -> service.importCsv(in));
+        assertEquals(1, batches.size());
+        verify(availabilityIndex).addAllMachinery(List.of(1L, 2L));
+    }
+
+    @Test
+    void importRows_limitsReportedErrors() throws Exception {
+        StringBuilder csv = new StringBuilder("name,category,price_per_day\n");
+        for (int i = 0; i < MachineryImportServiceImpl.MAX_REPORTED_ERRORS + 5; i++) {
+            csv.append("Tractor,Tractores,abc\n");
+        }
+
+        BulkImportResult result = service.importCsv(input(csv.toString()));
+
+        assertEquals(MachineryImportServiceImpl.MAX_REPORTED_ERRORS + 5, result.getFailed());
+        assertEquals(MachineryImportServiceImpl.MAX_REPORTED_ERRORS, result.getErrors().size());
+        assertTrue(result.isErrorsTruncated());
+    }
+}
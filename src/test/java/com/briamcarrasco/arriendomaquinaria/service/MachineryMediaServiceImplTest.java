@@ -3,21 +3,26 @@ package com.briamcarrasco.arriendomaquinaria.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.lang.reflect.Field;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.briamcarrasco.arriendomaquinaria.dto.MachineryMediaSummary;
+import com.briamcarrasco.arriendomaquinaria.dto.ResourceVersion;
 import com.briamcarrasco.arriendomaquinaria.model.Machinery;
 import com.briamcarrasco.arriendomaquinaria.model.MachineryMedia;
 import com.briamcarrasco.arriendomaquinaria.repository.MachineryMediaRepository;
@@ -32,21 +37,32 @@ class MachineryMediaServiceImplTest {
     @Mock
     private MachineryRepository machineryRepository;
 
+    @Mock
+    private MediaStorage storage;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private MachineryMediaServiceImpl service;
 
+    private MachineryMediaServiceImpl serviceWithUploadDir(Path dir) {
+        return new MachineryMediaServiceImpl(mediaRepository, machineryRepository,
+                new MediaStorage(dir.toString()), eventPublisher);
+    }
+
     @Test
-    void getMediaByMachinery_returnsListFromRepository() {
-        MachineryMedia m1 = mock(MachineryMedia.class);
-        MachineryMedia m2 = mock(MachineryMedia.class);
+    void getMediaByMachinery_returnsProjectionFromRepository() {
+        MachineryMediaSummary m1 = new MachineryMediaSummary();
+        MachineryMediaSummary m2 = new MachineryMediaSummary();
 
-        when(mediaRepository.findByMachineryId(1L)).thenReturn(Arrays.asList(m1, m2));
+        when(mediaRepository.findSummariesByMachineryId(1L)).thenReturn(Arrays.asList(m1, m2));
 
-        List<MachineryMedia> res = service.getMediaByMachinery(1L);
+        List<MachineryMediaSummary> res = service.getMediaByMachinery(1L);
 
         assertNotNull(res);
         assertEquals(2, res.size());
-        verify(mediaRepository, times(1)).findByMachineryId(1L);
+        verify(mediaRepository, times(1)).findSummariesByMachineryId(1L);
     }
 
     @Test
@@ -61,6 +77,7 @@ class MachineryMediaServiceImplTest {
         assertEquals("http://img", saved.getImgUrl());
         assertSame(machinery, saved.getMachinery());
         verify(mediaRepository).save(any(MachineryMedia.class));
+        verify(machineryRepository).touch(10L);
     }
 
     @Test
@@ -83,6 +100,7 @@ class MachineryMediaServiceImplTest {
         assertEquals("http://vid", saved.getVidUrl());
         assertSame(machinery, saved.getMachinery());
         verify(mediaRepository).save(any(MachineryMedia.class));
+        verify(machineryRepository).touch(20L);
     }
 
     @Test
@@ -97,9 +115,7 @@ class MachineryMediaServiceImplTest {
     void addImageFile_withValidImage_savesAndUsesUploadDir() throws Exception {
         Path tmp = Files.createTempDirectory("test-uploads-");
         try {
-            Field f = service.getClass().getDeclaredField("uploadDir");
-            f.setAccessible(true);
-            f.set(service, tmp.toString());
+            MachineryMediaServiceImpl service = serviceWithUploadDir(tmp);
 
             Machinery machinery = mock(Machinery.class);
             when(machineryRepository.findById(5L)).thenReturn(Optional.of(machinery));
@@ -108,16 +124,21 @@ class MachineryMediaServiceImplTest {
             MultipartFile file = mock(MultipartFile.class);
             when(file.isEmpty()).thenReturn(false);
             when(file.getContentType()).thenReturn("image/jpeg");
-            doAnswer(inv -> {
-                return null;
-            }).when(file).transferTo(any(java.nio.file.Path.class));
+            when(file.getInputStream()).thenReturn(new ByteArrayInputStream("fake-image".getBytes()));
 
             MachineryMedia saved = service.addImageFile(5L, file);
 
             assertNotNull(saved);
             assertNotNull(saved.getImgUrl());
             assertTrue(saved.getImgUrl().startsWith("/uploads/"));
+            String filename = saved.getImgUrl().substring("/uploads/".length());
+            assertArrayEquals("fake-image".getBytes(), Files.readAllBytes(tmp.resolve(filename)));
             verify(mediaRepository).save(any(MachineryMedia.class));
+
+            ArgumentCaptor<MediaImageStoredEvent> event = ArgumentCaptor.forClass(MediaImageStoredEvent.class);
+            verify(eventPublisher).publishEvent(event.capture());
+            assertEquals(5L, event.getValue().machineryId());
+            assertEquals(filename, event.getValue().filename());
         } finally {
             // cleanup
             Files.walk(tmp)
@@ -162,20 +183,43 @@ class MachineryMediaServiceImplTest {
         assertEquals("Tipo de archivo no permitido", ex.getMessage());
     }
 
+    @Test
+    void addImageFile_whenMachineryMissing_throwsWithoutWritingFile() throws Exception {
+        Path tmp = Files.createTempDirectory("test-uploads-");
+        try {
+            MachineryMediaServiceImpl service = serviceWithUploadDir(tmp);
+            when(machineryRepository.findById(9L)).thenReturn(Optional.empty());
+
+            MultipartFile file = mock(MultipartFile.class);
+            when(file.isEmpty()).thenReturn(false);
+            when(file.getContentType()).thenReturn("image/png");
+
+            IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                    () -> service.addImageFile(9L, file));
+
+            assertEquals("Maquinaria no encontrada", ex.getMessage());
+            verify(file, never()).getInputStream();
+            try (var files = Files.list(tmp)) {
+                assertEquals(0, files.count());
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
     @Test
     void addImageFile_whenTransferFails_throwsIllegalState() throws Exception {
         Path tmp = Files.createTempDirectory("test-uploads-");
         try {
-            Field f = service.getClass().getDeclaredField("uploadDir");
-            f.setAccessible(true);
-            f.set(service, tmp.toString());
+            MachineryMediaServiceImpl service = serviceWithUploadDir(tmp);
+            when(machineryRepository.findById(2L)).thenReturn(Optional.of(new Machinery()));
 
             MultipartFile file = mock(MultipartFile.class);
             when(file.isEmpty()).thenReturn(false);
             when(file.getContentType()).thenReturn("image/png");
-            // el servicio llama transferTo(Path), así que lanzamos la excepción en esa
-            // firma
-            doThrow(new IOException("io err")).when(file).transferTo(any(java.nio.file.Path.class));
+            // el contenido se copia desde el flujo de entrada, así que lanzamos la
+            // excepción al abrirlo
+            when(file.getInputStream()).thenThrow(new IOException("io err"));
 
             IllegalStateException ex = assertThrows(IllegalStateException.class, () -> service.addImageFile(2L, file));
             assertTrue(ex.getMessage().contains("Error guardando archivo"));
@@ -196,9 +240,7 @@ class MachineryMediaServiceImplTest {
     void addImageFile_withWebpContentType_savesWithWebpExtension() throws Exception {
         Path tmp = Files.createTempDirectory("test-uploads-");
         try {
-            Field f = service.getClass().getDeclaredField("uploadDir");
-            f.setAccessible(true);
-            f.set(service, tmp.toString());
+            MachineryMediaServiceImpl service = serviceWithUploadDir(tmp);
 
             Machinery machinery = mock(Machinery.class);
             when(machineryRepository.findById(7L)).thenReturn(Optional.of(machinery));
@@ -207,12 +249,7 @@ class MachineryMediaServiceImplTest {
             MultipartFile file = mock(MultipartFile.class);
             when(file.isEmpty()).thenReturn(false);
             when(file.getContentType()).thenReturn("image/webp");
-            doAnswer(inv -> {
-                // simulate successful transfer creating the file on disk
-                java.nio.file.Path target = inv.getArgument(0);
-                Files.createFile(target);
-                return null;
-            }).when(file).transferTo(any(java.nio.file.Path.class));
+            when(file.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[] { 1, 2, 3 }));
 
             MachineryMedia saved = service.addImageFile(7L, file);
 
@@ -237,19 +274,13 @@ class MachineryMediaServiceImplTest {
     void addImageFile_fileSavedButMachineryNotFound_fileRemainsAndThrows() throws Exception {
         Path tmp = Files.createTempDirectory("test-uploads-");
         try {
-            Field f = service.getClass().getDeclaredField("uploadDir");
-            f.setAccessible(true);
-            f.set(service, tmp.toString());
+            MachineryMediaServiceImpl service = serviceWithUploadDir(tmp);
             when(machineryRepository.findById(42L)).thenReturn(Optional.empty());
 
             MultipartFile file = mock(MultipartFile.class);
             when(file.isEmpty()).thenReturn(false);
             when(file.getContentType()).thenReturn("image/gif");
-            doAnswer(inv -> {
-                java.nio.file.Path target = inv.getArgument(0);
-                Files.createFile(target);
-                return null;
-            }).when(file).transferTo(any(java.nio.file.Path.class));
+            when(file.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[] { 1, 2, 3 }));
 
             IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
                     () -> service.addImageFile(42L, file));
@@ -270,8 +301,102 @@ class MachineryMediaServiceImplTest {
     }
 
     @Test
-    void deleteMedia_callsRepositoryDelete() {
+    void addImageFile_sameContentTwice_reusesStoredFile() throws Exception {
+        Path tmp = Files.createTempDirectory("test-uploads-");
+        try {
+            MachineryMediaServiceImpl service = serviceWithUploadDir(tmp);
+            Machinery machinery = mock(Machinery.class);
+            when(machineryRepository.findById(8L)).thenReturn(Optional.of(machinery));
+            when(mediaRepository.save(any(MachineryMedia.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            MultipartFile file = mock(MultipartFile.class);
+            when(file.isEmpty()).thenReturn(false);
+            when(file.getContentType()).thenReturn("image/png");
+            when(file.getInputStream())
+                    .thenReturn(new ByteArrayInputStream("same-image".getBytes()))
+                    .thenReturn(new ByteArrayInputStream("same-image".getBytes()));
+
+            MachineryMedia first = service.addImageFile(8L, file);
+            MachineryMedia second = service.addImageFile(8L, file);
+
+            assertEquals(first.getImgUrl(), second.getImgUrl());
+            // el nombre es el hash SHA-256 del contenido en hexadecimal
+            assertTrue(first.getImgUrl().matches("/uploads/[0-9a-f]{64}\\.png"));
+            try (var files = Files.list(tmp)) {
+                assertEquals(1, files.count());
+            }
+        } finally {
+            Files.walk(tmp)
+                    .sorted((a, b) -> b.compareTo(a))
+                    .forEach(p -> {
+                        try {
+                            Files.deleteIfExists(p);
+                        } catch (IOException ignored) {
+                            // ignore
+                        }
+                    });
+        }
+    }
+
+    @Test
+    void storeImage_returnsPublicUrlWithoutSavingMedia() throws Exception {
+        MultipartFile file = mock(MultipartFile.class);
+        when(file.isEmpty()).thenReturn(false);
+        when(file.getContentType()).thenReturn("image/png");
+        when(storage.store(file, ".png")).thenReturn("abc.png");
+        when(storage.publicUrl("abc.png")).thenReturn("/uploads/abc.png");
+
+        assertEquals("/uploads/abc.png", service.storeImage(file));
+        verifyNoInteractions(mediaRepository, eventPublisher);
+    }
+
+    @Test
+    void processMachineryImage_withUploadedImage_publishesEvent() {
+        when(storage.filenameOf("/uploads/abc.png")).thenReturn("abc.png");
+
+        service.processMachineryImage(3L, "/uploads/abc.png");
+
+        verify(eventPublisher).publishEvent(new MediaImageStoredEvent(3L, null, "abc.png"));
+    }
+
+    @Test
+    void processMachineryImage_withStaticImage_doesNothing() {
+        when(storage.filenameOf("/images/default.png")).thenReturn(null);
+
+        service.processMachineryImage(3L, "/images/default.png");
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void deleteMedia_deletesAndTouchesMachinery() {
+        Machinery machinery = new Machinery();
+        machinery.setId(4L);
+        MachineryMedia media = new MachineryMedia();
+        media.setMachinery(machinery);
+        when(mediaRepository.findById(123L)).thenReturn(Optional.of(media));
+
         service.deleteMedia(123L);
-        verify(mediaRepository).deleteById(123L);
+
+        verify(mediaRepository).delete(media);
+        verify(machineryRepository).touch(4L);
+    }
+
+    @Test
+    void deleteMedia_whenMissing_doesNothing() {
+        when(mediaRepository.findById(123L)).thenReturn(Optional.empty());
+
+        service.deleteMedia(123L);
+
+        verify(mediaRepository, never()).delete(any());
+        verifyNoInteractions(machineryRepository);
+    }
+
+    @Test
+    void getMediaVersion_usesMachineryVersion() {
+        ResourceVersion version = new ResourceVersion(1L, LocalDateTime.of(2025, 1, 1, 10, 0));
+        when(machineryRepository.findVersionById(5L)).thenReturn(version);
+
+        assertSame(version, service.getMediaVersion(5L));
     }
 }
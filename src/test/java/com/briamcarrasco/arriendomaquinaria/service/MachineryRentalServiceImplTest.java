@@ -0,0 +1,287 @@
+package com.briamcarrasco.arriendomaquinaria.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.briamcarrasco.arriendomaquinaria.config.CacheConfig;
+import com.briamcarrasco.arriendomaquinaria.dto.AvailabilityCalendar;
+import com.briamcarrasco.arriendomaquinaria.model.Machinery;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryRental;
+import com.briamcarrasco.arriendomaquinaria.model.User;
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryRentalRepository;
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+@ExtendWith(MockitoExtension.class)
+class MachineryRentalServiceImplTest {
+
+    @Mock
+    private RentalAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private MachineryRepository machineryRepository;
+
+    @Mock
+    private MachineryRentalRepository rentalRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    private final CaffeineCache calendars = new CaffeineCache(CacheConfig.CALENDARS, Caffeine.newBuilder().build());
+
+    private MachineryRentalServiceImpl service;
+
+    private static final LocalDate FROM = LocalDate.now().plusYears(1).withDayOfMonth(10);
+    private static final LocalDate TO = FROM.plusDays(2);
+
+    @BeforeEach
+    void setUp() {
+        service = new MachineryRentalServiceImpl(availabilityIndex, machineryRepository, rentalRepository,
+                cacheManager, transactionManager, 16, Duration.ofSeconds(5));
+        lenient().when(cacheManager.getCache(CacheConfig.CALENDARS)).thenReturn(calendars);
+    }
+
+    private Machinery machinery(Long id) {
+        Machinery m = new Machinery();
+        m.setId(id);
+        return m;
+    }
+
+    @Test
+    void isAvailable_consultaElRangoDeDiasCompletos() {
+        long from = MachineryRentalServiceImpl.startOf(FROM);
+        long to = MachineryRentalServiceImpl.startOf(TO.plusDays(1));
+        when(availabilityIndex.isAvailable(4L, from, to)).thenReturn(true);
+
+        assertTrue(service.isAvailable(4L, FROM, TO));
+    }
+
+    @Test
+    void findAvailableMachinery_delegaEnElIndice() {
+        when(availabilityIndex.findAvailable(anyLong(), anyLong())).thenReturn(List.of(1L, 2L));
+
+        assertEquals(List.of(1L, 2L), service.findAvailableMachinery(FROM, FROM));
+    }
+
+    @Test
+    void rangoInvalido_lanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> service.isAvailable(1L, TO, FROM));
+        assertThrows(IllegalArgumentException.class, () -> service.findAvailableMachinery(null, TO));
+        assertThrows(IllegalArgumentException.class, () -> service.book(1L, new User(), TO, FROM));
+        verifyNoInteractions(availabilityIndex);
+    }
+
+    @Test
+    void book_guardaArriendoYActualizaIndice() {
+        User user = new User();
+        when(machineryRepository.findById(4L)).thenReturn(Optional.of(machinery(4L)));
+        when(rentalRepository.save(any(MachineryRental.class))).thenAnswer(inv -> {
+            MachineryRental r = inv.getArgument(0);
+            r.setId(30L);
+            return r;
+        });
+
+        calendars.put("4:" + FROM + ":" + TO, "ocupado");
+        calendars.put("14:" + FROM + ":" + TO, "libre");
+
+        MachineryRental rental = service.book(4L, user, FROM, TO);
+
+        assertEquals(30L, rental.getId());
+        assertSame(user, rental.getUser());
+        assertEquals(MachineryRentalServiceImpl.startOf(FROM), rental.getRentalDate().getTime());
+        assertEquals(MachineryRentalServiceImpl.startOf(TO.plusDays(1)),
+                rental.getReturnDate().getTime());
+        verify(availabilityIndex).addRental(rental);
+        assertNull(calendars.get("4:" + FROM + ":" + TO));
+        assertNotNull(calendars.get("14:" + FROM + ":" + TO));
+    }
+
+    @Test
+    void book_conInicioAnteriorAHoy_lanzaExcepcion() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.book(4L, new User(), yesterday, yesterday.plusDays(2)));
+        verifyNoInteractions(availabilityIndex, machineryRepository, rentalRepository);
+    }
+
+    @Test
+    void book_conSolapamientoEnIndice_fallaSinConsultarBaseDeDatos() {
+        when(availabilityIndex.isBooked(eq(4L), anyLong(), anyLong())).thenReturn(true);
+
+        assertThrows(RentalConflictException.class, () -> service.book(4L, new User(), FROM, TO));
+        verifyNoInteractions(machineryRepository, rentalRepository);
+    }
+
+    @Test
+    void book_conSolapamientoEnBaseDeDatos_lanzaConflicto() {
+        when(machineryRepository.findById(4L)).thenReturn(Optional.of(machinery(4L)));
+        when(rentalRepository.existsByMachineryIdAndRentalDateBeforeAndReturnDateAfter(eq(4L), any(), any()))
+                .thenReturn(true);
+
+        assertThrows(RentalConflictException.class, () -> service.book(4L, new User(), FROM, TO));
+        verify(rentalRepository, never()).save(any());
+        verify(availabilityIndex, never()).addRental(any());
+    }
+
+    @Test
+    void book_maquinariaInexistente_lanzaExcepcion() {
+        when(machineryRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> service.book(99L, new User(), FROM, TO));
+    }
+
+    @Test
+    void book_concurrenteMismaMaquinaria_soloUnoSeRegistra() throws Exception {
+        List<MachineryRental> stored = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong ids = new AtomicLong();
+        when(machineryRepository.findById(4L)).thenReturn(Optional.of(machinery(4L)));
+        when(rentalRepository.existsByMachineryIdAndRentalDateBeforeAndReturnDateAfter(eq(4L), any(), any()))
+                .thenAnswer(inv -> {
+                    Date to = inv.getArgument(1);
+                    Date from = inv.getArgument(2);
+                    synchronized (stored) {
+                        return stored.stream().anyMatch(
+                                r -> r.getRentalDate().before(to) && r.getReturnDate().after(from));
+                    }
+                });
+        when(rentalRepository.save(any(MachineryRental.class))).thenAnswer(inv -> {
+            MachineryRental r = inv.getArgument(0);
+            Thread.sleep(5);
+            r.setId(ids.incrementAndGet());
+            stored.add(r);
+            return r;
+        });
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        service.book(4L, new User(), FROM, TO);
+                        return true;
+                    } catch (RentalConflictException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int booked = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(10, TimeUnit.SECONDS)) {
+                    booked++;
+                }
+            }
+            assertEquals(1, booked);
+            assertEquals(1, stored.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void findAvailability_usaUnaSolaConsultaYRespetaElOrden() {
+        when(rentalRepository.countOverlappingByMachinery(anyCollection(), any(Date.class), any(Date.class)))
+                .thenReturn(List.of(new Object[] { 1L, 0L }, new Object[] { 3L, 2L }));
+
+        Map<Long, Boolean> result = service.findAvailability(List.of(3L, 1L, 99L), FROM, TO);
+
+        assertEquals(List.of(3L, 1L), List.copyOf(result.keySet()));
+        assertFalse(result.get(3L));
+        assertTrue(result.get(1L));
+        verify(rentalRepository, times(1)).countOverlappingByMachinery(anyCollection(), any(Date.class),
+                any(Date.class));
+    }
+
+    @Test
+    void findAvailability_conDemasiadasMaquinarias_lanzaExcepcion() {
+        List<Long> ids = new ArrayList<>();
+        for (long i = 0; i <= MachineryRentalServiceImpl.MAX_BATCH_SIZE; i++) {
+            ids.add(i);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> service.findAvailability(ids, FROM, TO));
+        assertThrows(IllegalArgumentException.class, () -> service.findAvailability(List.of(), FROM, TO));
+        verifyNoInteractions(rentalRepository);
+    }
+
+    @Test
+    void getCalendar_marcaLosDiasConArriendos() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 1, 31);
+        long day = 24L * 60 * 60 * 1000;
+        long jan3Noon = MachineryRentalServiceImpl.startOf(LocalDate.of(2025, 1, 3)) + day / 2;
+        long jan5 = MachineryRentalServiceImpl.startOf(LocalDate.of(2025, 1, 5));
+        long dec30 = MachineryRentalServiceImpl.startOf(LocalDate.of(2024, 12, 30));
+        long jan2 = MachineryRentalServiceImpl.startOf(LocalDate.of(2025, 1, 2));
+        when(availabilityIndex.findBookedIntervals(eq(4L), anyLong(), anyLong()))
+                .thenReturn(List.of(new long[] { dec30, jan2 }, new long[] { jan3Noon, jan5 }));
+
+        AvailabilityCalendar calendar = service.getCalendar(4L, from, to);
+
+        assertEquals(31, calendar.getDays());
+        assertEquals(3, calendar.getBookedDays());
+        BitSet booked = BitSet.valueOf(Base64.getDecoder().decode(calendar.getBooked()));
+        assertTrue(booked.get(0));
+        assertFalse(booked.get(1));
+        assertTrue(booked.get(2));
+        assertTrue(booked.get(3));
+        assertFalse(booked.get(4));
+    }
+
+    @Test
+    void getCalendar_sinArriendos_devuelveBitsetVacio() {
+        when(availabilityIndex.findBookedIntervals(eq(4L), anyLong(), anyLong())).thenReturn(List.of());
+
+        AvailabilityCalendar calendar = service.getCalendar(4L, FROM, TO);
+
+        assertEquals(3, calendar.getDays());
+        assertEquals(0, calendar.getBookedDays());
+        assertEquals("", calendar.getBooked());
+    }
+
+    @Test
+    void getCalendar_rangoDemasiadoAmplio_lanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getCalendar(4L, FROM, FROM.plusDays(MachineryRentalServiceImpl.MAX_CALENDAR_DAYS)));
+    }
+
+    @Test
+    void stripeFor_mismaMaquinariaUsaElMismoLock() {
+        assertSame(service.stripeFor(7L), service.stripeFor(7L));
+    }
+}
@@ -0,0 +1,135 @@
+package com.briamcarrasco.arriendomaquinaria.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.briamcarrasco.arriendomaquinaria.model.Category;
+import com.briamcarrasco.arriendomaquinaria.model.Machinery;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryInfo;
+import com.briamcarrasco.arriendomaquinaria.repository.CategoryRepository;
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryRepository;
+
+@ExtendWith(MockitoExtension.class)
+class MachinerySearchIndexTest {
+
+    @Mock
+    private MachineryRepository machineryRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @InjectMocks
+    private MachinerySearchIndex index;
+
+    private Machinery machinery(Long id, String name, String categoryName, String description) {
+        Machinery m = new Machinery();
+        m.setId(id);
+        m.setNameMachinery(name);
+        Category c = new Category();
+        c.setName(categoryName);
+        m.setCategory(c);
+        MachineryInfo info = new MachineryInfo();
+        info.setDescription(description);
+        m.setMachineryInfo(info);
+        return m;
+    }
+
+    @Test
+    void rebuild_loadsDocumentsFromProjection() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] { 1L, "John Deere 5075E", "Tractores", "Tractor utilitario" });
+        rows.add(new Object[] { 2L, "Case IH Axial-Flow", "Cosechadoras", null });
+        when(machineryRepository.findSearchDocuments()).thenReturn(rows);
+
+        index.rebuild();
+
+        assertEquals(2, index.size());
+        assertEquals(List.of(1L), index.search("deere"));
+        assertEquals(List.of(2L), index.search("cosechadora"));
+    }
+
+    @Test
+    void search_matchesNameCategoryAndDescription_ignoringCaseAndAccents() {
+        index.index(machinery(1L, "Excavadora CAT 320", "Excavadoras", "Brazo hidráulico"));
+        index.index(machinery(2L, "Tractor Komatsu", "Tractores", "Tracción integral"));
+
+        assertEquals(List.of(1L), index.search("cat 320"));
+        assertEquals(List.of(2L), index.search("TRACTORES"));
+        assertEquals(List.of(1L), index.search("hidraulico"));
+        assertEquals(List.of(1L, 2L), index.search("a"));
+        assertTrue(index.search("grúa").isEmpty());
+        assertTrue(index.search("   ").isEmpty());
+        assertTrue(index.search(null).isEmpty());
+    }
+
+    @Test
+    void indexAll_addsDocumentsWithoutTouchingOthers() {
+        index.index(machinery(1L, "Excavadora CAT 320", "Excavadoras", null));
+
+        index.indexAll(List.of(machinery(2L, "Tractor Komatsu", "Tractores", null),
+                machinery(null, "Sin id", "Tractores", null)));
+
+        assertEquals(2, index.size());
+        assertEquals(List.of(1L), index.search("excavadora"));
+        assertEquals(List.of(2L), index.search("komatsu"));
+        verifyNoInteractions(categoryRepository);
+    }
+
+    @Test
+    void index_replacesPreviousDocument() {
+        index.index(machinery(1L, "Excavadora", "Excavadoras", null));
+        index.index(machinery(1L, "Grúa horquilla", "Grúas", null));
+
+        assertTrue(index.search("excavadora").isEmpty());
+        assertEquals(List.of(1L), index.search("grua"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void index_resolvesCategoryNameWhenOnlyIdIsPresent() {
+        Machinery m = machinery(1L, "Tractor", null, null);
+        m.getCategory().setId(9L);
+        Category stored = new Category();
+        stored.setName("Cosechadoras");
+        when(categoryRepository.findById(9L)).thenReturn(Optional.of(stored));
+
+        index.index(m);
+
+        assertEquals(List.of(1L), index.search("cosechadoras"));
+    }
+
+    @Test
+    void index_ignoresUnsavedMachinery() {
+        index.index(null);
+        index.index(new Machinery());
+
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void remove_dropsDocumentFromIndex() {
+        index.index(machinery(1L, "Excavadora", "Excavadoras", null));
+
+        index.remove(1L);
+        index.remove(99L);
+
+        assertTrue(index.search("excavadora").isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void normalize_stripsAccentsAndCollapsesSpaces() {
+        assertEquals("grua horquilla", MachinerySearchIndex.normalize("  Grúa   HORQUILLA "));
+        assertEquals("", MachinerySearchIndex.normalize(null));
+    }
+}
@@ -1,6 +1,7 @@
 package com.briamcarrasco.arriendomaquinaria.service;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -8,6 +9,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -15,14 +17,29 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.briamcarrasco.arriendomaquinaria.dto.CursorPage;
+import com.briamcarrasco.arriendomaquinaria.dto.FacetCount;
+import com.briamcarrasco.arriendomaquinaria.dto.FacetedSearchResult;
+import com.briamcarrasco.arriendomaquinaria.dto.MachineryDetail;
+import com.briamcarrasco.arriendomaquinaria.dto.MachineryFacetRow;
+import com.briamcarrasco.arriendomaquinaria.dto.MachinerySearchCriteria;
+import com.briamcarrasco.arriendomaquinaria.dto.MachinerySummary;
+import com.briamcarrasco.arriendomaquinaria.dto.ResourceVersion;
 import com.briamcarrasco.arriendomaquinaria.model.Category;
 import com.briamcarrasco.arriendomaquinaria.model.Machinery;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryStatus;
 import com.briamcarrasco.arriendomaquinaria.repository.MachineryRepository;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,43 +48,82 @@ class MachineryServiceImplTest {
     @Mock
     private MachineryRepository machineryRepository;
 
+    @Mock
+    private MachinerySearchIndex searchIndex;
+
+    @Mock
+    private RentalAvailabilityIndex availabilityIndex;
+
     @InjectMocks
     private MachineryServiceImpl service;
 
     @Test
     void createMachinery_savesAndReturnsMachinery() {
         Machinery m = new Machinery();
+        m.setId(3L);
         when(machineryRepository.save(m)).thenReturn(m);
 
         Machinery result = service.createMachinery(m);
 
         assertSame(m, result);
         verify(machineryRepository).save(m);
+        verify(searchIndex).index(m);
+        verify(availabilityIndex).addMachinery(3L);
+    }
+
+    @Test
+    void createMachinery_withoutStatus_defaultsToDisponible() {
+        Machinery m = new Machinery();
+        when(machineryRepository.save(m)).thenReturn(m);
+
+        service.createMachinery(m);
+
+        assertEquals(MachineryStatus.DISPONIBLE, m.getStatus());
     }
 
     @Test
     void findById_returnsOptionalFromRepository() {
         Machinery m = new Machinery();
-        when(machineryRepository.findById(1L)).thenReturn(Optional.of(m));
+        when(machineryRepository.findDetailedById(1L)).thenReturn(Optional.of(m));
 
         Optional<Machinery> result = service.findById(1L);
 
         assertTrue(result.isPresent());
         assertSame(m, result.get());
-        verify(machineryRepository).findById(1L);
+        verify(machineryRepository).findDetailedById(1L);
+    }
+
+    @Test
+    void findDetailById_returnsProjectionFromRepository() {
+        MachineryDetail detail = new MachineryDetail();
+        when(machineryRepository.findDetailById(1L)).thenReturn(Optional.of(detail));
+
+        Optional<MachineryDetail> result = service.findDetailById(1L);
+
+        assertSame(detail, result.orElseThrow());
+        verify(machineryRepository, never()).findDetailedById(any());
+    }
+
+    @Test
+    void getVersion_readsVersionFromRepository() {
+        ResourceVersion version = new ResourceVersion(1L, LocalDateTime.of(2025, 2, 3, 4, 5));
+        when(machineryRepository.findVersionById(1L)).thenReturn(version);
+
+        assertSame(version, service.getVersion(1L));
+        verify(machineryRepository, never()).findDetailById(any());
     }
 
     @Test
     void updateMachinery_whenExists_updatesAndReturns() {
         Machinery old = new Machinery();
         old.setNameMachinery("Old");
-        old.setStatus("Disponible");
+        old.setStatus(MachineryStatus.DISPONIBLE);
         old.setPricePerDay(BigDecimal.valueOf(1000));
         old.setCategory(new Category());
 
         Machinery updated = new Machinery();
         updated.setNameMachinery("New");
-        updated.setStatus("Arrendada");
+        updated.setStatus(MachineryStatus.MANTENIMIENTO);
         updated.setPricePerDay(BigDecimal.valueOf(2000));
         Category cat = new Category();
         updated.setCategory(cat);
@@ -78,11 +134,61 @@ class MachineryServiceImplTest {
         Machinery result = service.updateMachinery(5L, updated);
 
         assertEquals("New", result.getNameMachinery());
-        assertEquals("Arrendada", result.getStatus());
+        assertEquals(MachineryStatus.MANTENIMIENTO, result.getStatus());
         assertEquals(BigDecimal.valueOf(2000), result.getPricePerDay());
         assertSame(cat, result.getCategory());
         verify(machineryRepository).findById(5L);
         verify(machineryRepository).save(old);
+        verify(searchIndex).index(old);
+    }
+
+    @Test
+    void updateMachinery_withInvalidTransition_throwsAndDoesNotSave() {
+        Machinery old = new Machinery();
+        old.setStatus(MachineryStatus.MANTENIMIENTO);
+        Machinery updated = new Machinery();
+        updated.setStatus(MachineryStatus.ARRENDADA);
+        when(machineryRepository.findById(5L)).thenReturn(Optional.of(old));
+
+        assertThrows(IllegalArgumentException.class, () -> service.updateMachinery(5L, updated));
+
+        assertEquals(MachineryStatus.MANTENIMIENTO, old.getStatus());
+        verify(machineryRepository, never()).save(any());
+    }
+
+    @Test
+    void updateMachinery_withRentalDrivenStatus_throwsAndDoesNotSave() {
+        Machinery available = new Machinery();
+        available.setStatus(MachineryStatus.DISPONIBLE);
+        Machinery rented = new Machinery();
+        rented.setStatus(MachineryStatus.ARRENDADA);
+        when(machineryRepository.findById(5L)).thenReturn(Optional.of(available));
+        when(machineryRepository.findById(6L)).thenReturn(Optional.of(rented));
+        Machinery toRented = new Machinery();
+        toRented.setStatus(MachineryStatus.ARRENDADA);
+        Machinery toAvailable = new Machinery();
+        toAvailable.setStatus(MachineryStatus.DISPONIBLE);
+
+        assertThrows(IllegalArgumentException.class, () -> service.updateMachinery(5L, toRented));
+        assertThrows(IllegalArgumentException.class, () -> service.updateMachinery(6L, toAvailable));
+
+        assertEquals(MachineryStatus.DISPONIBLE, available.getStatus());
+        assertEquals(MachineryStatus.ARRENDADA, rented.getStatus());
+        verify(machineryRepository, never()).save(any());
+    }
+
+    @Test
+    void updateMachinery_withoutStatus_keepsCurrentStatus() {
+        Machinery old = new Machinery();
+        old.setStatus(MachineryStatus.ARRENDADA);
+        Machinery updated = new Machinery();
+        updated.setNameMachinery("Nuevo");
+        when(machineryRepository.findById(5L)).thenReturn(Optional.of(old));
+        when(machineryRepository.save(old)).thenReturn(old);
+
+        Machinery result = service.updateMachinery(5L, updated);
+
+        assertEquals(MachineryStatus.ARRENDADA, result.getStatus());
     }
 
     @Test
@@ -99,6 +205,8 @@ class MachineryServiceImplTest {
     void deleteMachinery_callsRepositoryDelete() {
         service.deleteMachinery(7L);
         verify(machineryRepository).deleteById(7L);
+        verify(searchIndex).remove(7L);
+        verify(availabilityIndex).removeMachinery(7L);
     }
 
     @Test
@@ -114,15 +222,20 @@ class MachineryServiceImplTest {
     }
 
     @Test
-    void findByNameMachinery_returnsListFromRepository() {
-        Machinery m = new Machinery();
-        when(machineryRepository.findByNameMachineryContainingIgnoreCase("excavadora"))
-                .thenReturn(Collections.singletonList(m));
+    void findByNameMachinery_loadsIndexMatchesByIdInOrder() {
+        Machinery m1 = new Machinery();
+        m1.setId(1L);
+        Machinery m2 = new Machinery();
+        m2.setId(4L);
+        when(searchIndex.search("excavadora")).thenReturn(List.of(1L, 4L));
+        when(machineryRepository.findAllById(List.of(1L, 4L))).thenReturn(Arrays.asList(m2, m1));
 
         List<Machinery> result = service.findByNameMachinery("excavadora");
 
-        assertEquals(1, result.size());
-        verify(machineryRepository).findByNameMachineryContainingIgnoreCase("excavadora");
+        assertEquals(2, result.size());
+        assertSame(m1, result.get(0));
+        assertSame(m2, result.get(1));
+        verify(searchIndex).search("excavadora");
     }
 
     @Test
@@ -149,12 +262,12 @@ class MachineryServiceImplTest {
 
     @Test
     void findById_whenNotExists_returnsEmptyOptional() {
-        when(machineryRepository.findById(999L)).thenReturn(Optional.empty());
+        when(machineryRepository.findDetailedById(999L)).thenReturn(Optional.empty());
 
         Optional<Machinery> result = service.findById(999L);
 
         assertFalse(result.isPresent());
-        verify(machineryRepository).findById(999L);
+        verify(machineryRepository).findDetailedById(999L);
     }
 
     @Test
@@ -168,14 +281,13 @@ class MachineryServiceImplTest {
     }
 
     @Test
-    void findByNameMachinery_withEmptyString_returnsEmptyList() {
-        when(machineryRepository.findByNameMachineryContainingIgnoreCase(""))
-                .thenReturn(Collections.emptyList());
+    void findByNameMachinery_withoutIndexMatches_doesNotQueryRepository() {
+        when(searchIndex.search("")).thenReturn(List.of());
 
         List<Machinery> result = service.findByNameMachinery("");
 
         assertTrue(result.isEmpty());
-        verify(machineryRepository).findByNameMachineryContainingIgnoreCase("");
+        verifyNoInteractions(machineryRepository);
     }
 
     @Test
@@ -194,4 +306,141 @@ class MachineryServiceImplTest {
         
         verify(machineryRepository).deleteById(-1L);
     }
-}
\ No newline at end of file
+
+    @Test
+    void findSummaryPage_withCursor_seeksAfterLastId() {
+        MachinerySummary m = new MachinerySummary();
+        m.setId(8L);
+        String cursor = CursorPage.encodeCursor(7L);
+        when(machineryRepository.findSummariesAfter(eq(7L), any(Pageable.class)))
+                .thenReturn(List.of(m));
+
+        CursorPage<MachinerySummary> page = service.findSummaryPage(cursor, 20);
+
+        assertEquals(1, page.getItems().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void findSummaryPage_sizeOutOfRange_isClamped() {
+        when(machineryRepository.findSummariesAfter(0L,
+                PageRequest.of(0, MachineryServiceImpl.MAX_PAGE_SIZE + 1)))
+                .thenReturn(Collections.emptyList());
+
+        CursorPage<MachinerySummary> page = service.findSummaryPage("", 5000);
+
+        assertTrue(page.getItems().isEmpty());
+        verify(machineryRepository).findSummariesAfter(0L,
+                PageRequest.of(0, MachineryServiceImpl.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void findSummaryPage_invalidCursor_throwsIllegalArgument() {
+        String cursor = CursorPage.encodeCursor("no-es-numero");
+
+        assertThrows(IllegalArgumentException.class, () -> service.findSummaryPage(cursor, 10));
+        assertThrows(IllegalArgumentException.class, () -> service.findSummaryPage("%%%", 10));
+    }
+
+    @Test
+    void findSummaryPageOrFirst_invalidCursor_returnsFirstPage() {
+        MachinerySummary m = new MachinerySummary();
+        m.setId(1L);
+        when(machineryRepository.findSummariesAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(m));
+
+        CursorPage<MachinerySummary> page = service.findSummaryPageOrFirst("%%%", 10);
+
+        assertEquals(List.of(m), page.getItems());
+        verify(machineryRepository).findSummariesAfter(0L, PageRequest.of(0, 11));
+    }
+
+    @Test
+    void findSummaryPageOrFirst_validCursor_seeksAfterLastId() {
+        when(machineryRepository.findSummariesAfter(eq(7L), any(Pageable.class))).thenReturn(List.of());
+
+        CursorPage<MachinerySummary> page = service.findSummaryPageOrFirst(CursorPage.encodeCursor(7L), 10);
+
+        assertTrue(page.getItems().isEmpty());
+        verify(machineryRepository).findSummariesAfter(7L, PageRequest.of(0, 11));
+    }
+
+    @Test
+    void facetedSearch_withoutText_queriesRepositoryWithoutIds() {
+        MachinerySearchCriteria criteria = new MachinerySearchCriteria();
+        criteria.setStatus(MachineryStatus.DISPONIBLE);
+        MachinerySummary m = new MachinerySummary();
+        List<FacetCount> categories = List.of(new FacetCount("1", "Tractores", 1));
+        List<FacetCount> statuses = List.of(new FacetCount("DISPONIBLE", "Disponible", 1));
+        when(machineryRepository.searchByCriteria(criteria, null, 20)).thenReturn(List.of(m));
+        when(machineryRepository.countByCriteria(criteria, null)).thenReturn(1L);
+        when(machineryRepository.countCategoryFacets(criteria, null)).thenReturn(categories);
+        when(machineryRepository.countStatusFacets(criteria, null)).thenReturn(statuses);
+
+        FacetedSearchResult result = service.facetedSearch(criteria, 0);
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(1L, result.getTotal());
+        assertSame(categories, result.getCategories());
+        assertSame(statuses, result.getStatuses());
+        verifyNoInteractions(searchIndex);
+    }
+
+    @Test
+    void facetedSearch_withText_countsFacetsInMemoryAndLoadsOnlyThePage() {
+        MachinerySearchCriteria criteria = new MachinerySearchCriteria();
+        criteria.setText("tractor");
+        criteria.setCategoryId(1L);
+        criteria.setStatus(MachineryStatus.DISPONIBLE);
+        criteria.setSortByRating(true);
+        List<Long> ids = List.of(3L, 5L, 7L, 9L);
+        when(searchIndex.search("tractor")).thenReturn(ids);
+        when(machineryRepository.findFacetRows(criteria, ids)).thenReturn(List.of(
+                new MachineryFacetRow(3L, 1L, "Tractores", MachineryStatus.DISPONIBLE, 1L, 3L),
+                new MachineryFacetRow(5L, 1L, "Tractores", MachineryStatus.DISPONIBLE, 2L, 10L),
+                new MachineryFacetRow(7L, 1L, "Tractores", MachineryStatus.MANTENIMIENTO, 0L, 0L),
+                new MachineryFacetRow(9L, 2L, "Cosechadoras", MachineryStatus.DISPONIBLE, 0L, 0L)));
+        MachinerySummary page = new MachinerySummary();
+        when(machineryRepository.searchByCriteria(criteria, List.of(5L), 1)).thenReturn(List.of(page));
+
+        FacetedSearchResult result = service.facetedSearch(criteria, 1);
+
+        assertEquals(List.of(page), result.getItems());
+        assertEquals(2L, result.getTotal());
+        assertEquals(List.of(new FacetCount("2", "Cosechadoras", 1), new FacetCount("1", "Tractores", 2)),
+                result.getCategories());
+        assertEquals(List.of(new FacetCount("DISPONIBLE", "Disponible", 2),
+                new FacetCount("MANTENIMIENTO", "En mantenimiento", 1)), result.getStatuses());
+        verify(machineryRepository, never()).countByCriteria(any(), any());
+        verify(machineryRepository, never()).countCategoryFacets(any(), any());
+        verify(machineryRepository, never()).countStatusFacets(any(), any());
+    }
+
+    @Test
+    void facetedSearch_textWithoutMatches_returnsEmptyWithoutQuerying() {
+        MachinerySearchCriteria criteria = new MachinerySearchCriteria();
+        criteria.setText("nada");
+        when(searchIndex.search("nada")).thenReturn(List.of());
+
+        FacetedSearchResult result = service.facetedSearch(criteria, 10);
+
+        assertEquals(0L, result.getTotal());
+        assertTrue(result.getCategories().isEmpty());
+        verifyNoInteractions(machineryRepository);
+    }
+
+    @Test
+    void findSummaryPage_usesProjectionAndEncodesLastId() {
+        MachinerySummary s1 = new MachinerySummary(4L, "Tractor", "Tractores", MachineryStatus.DISPONIBLE,
+                BigDecimal.TEN, null, 2L, 9L);
+        MachinerySummary s2 = new MachinerySummary(6L, "Cosechadora", "Cosechadoras", MachineryStatus.DISPONIBLE,
+                BigDecimal.ONE, null, 0L, 0L);
+        when(machineryRepository.findSummariesAfter(0L, PageRequest.of(0, 2))).thenReturn(List.of(s1, s2));
+
+        CursorPage<MachinerySummary> page = service.findSummaryPage(null, 1);
+
+        assertEquals(List.of(s1), page.getItems());
+        assertTrue(page.isHasMore());
+        assertEquals("4", CursorPage.decodeCursor(page.getNextCursor())[0]);
+    }
+}
@@ -0,0 +1,81 @@
+package com.briamcarrasco.arriendomaquinaria.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import com.briamcarrasco.arriendomaquinaria.config.CacheConfig;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryStatus;
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryRepository;
+
+@ExtendWith(MockitoExtension.class)
+class MachineryStatusReconcilerTest {
+
+    @Mock
+    private MachineryRepository machineryRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
+    private MachineryStatusReconciler reconciler;
+
+    private final Date now = new Date(1_700_000_000_000L);
+
+    @BeforeEach
+    void setUp() {
+        reconciler = new MachineryStatusReconciler(machineryRepository, cacheManager);
+    }
+
+    @Test
+    void reconcile_marksRentedAndReleasedMachinesAndClearsCache() {
+        when(machineryRepository.updateStatusWithActiveRental(MachineryStatus.DISPONIBLE,
+                MachineryStatus.ARRENDADA, now)).thenReturn(2);
+        when(machineryRepository.updateStatusWithoutActiveRental(MachineryStatus.ARRENDADA,
+                MachineryStatus.DISPONIBLE, now)).thenReturn(1);
+        when(cacheManager.getCache(CacheConfig.MACHINERY)).thenReturn(cache);
+
+        int changed = reconciler.reconcile(now);
+
+        assertEquals(3, changed);
+        verify(cache).clear();
+    }
+
+    @Test
+    void reconcile_withoutChanges_keepsCache() {
+        when(machineryRepository.updateStatusWithActiveRental(MachineryStatus.DISPONIBLE,
+                MachineryStatus.ARRENDADA, now)).thenReturn(0);
+        when(machineryRepository.updateStatusWithoutActiveRental(MachineryStatus.ARRENDADA,
+                MachineryStatus.DISPONIBLE, now)).thenReturn(0);
+
+        int changed = reconciler.reconcile(now);
+
+        assertEquals(0, changed);
+        verifyNoInteractions(cacheManager);
+    }
+
+    @Test
+    void normalizeLegacyStatuses_rewritesFreeTextValuesOnly() {
+        when(machineryRepository.findDistinctStatusValues())
+                .thenReturn(Arrays.asList("DISPONIBLE", "disponible", "En mantenimiento", "roto", null));
+        when(machineryRepository.replaceStatusValue("disponible", "DISPONIBLE")).thenReturn(3);
+        when(machineryRepository.replaceStatusValue("En mantenimiento", "MANTENIMIENTO")).thenReturn(1);
+        when(machineryRepository.replaceStatusValue("roto", "MANTENIMIENTO")).thenReturn(2);
+
+        assertEquals(6, reconciler.normalizeLegacyStatuses());
+        verify(machineryRepository, never()).replaceStatusValue(eq("DISPONIBLE"), anyString());
+        verify(machineryRepository).replaceStatusValue("roto", "MANTENIMIENTO");
+    }
+}
@@ -0,0 +1,117 @@
+package com.briamcarrasco.arriendomaquinaria.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryMediaRepository;
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryRepository;
+
+@ExtendWith(MockitoExtension.class)
+class MediaVariantProcessorTest {
+
+    @TempDir
+    Path uploadDir;
+
+    @Mock
+    private MachineryMediaRepository mediaRepository;
+
+    @Mock
+    private MachineryRepository machineryRepository;
+
+    private MediaVariantProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        processor = new MediaVariantProcessor(new MediaStorage(uploadDir.toString()), mediaRepository,
+                machineryRepository, 4_000_000);
+    }
+
+    private void writeImage(String filename, int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        ImageIO.write(image, "png", uploadDir.resolve(filename).toFile());
+    }
+
+    @Test
+    void createVariants_generaMiniaturaConAnchoMaximo() throws Exception {
+        writeImage("foto.png", 1600, 800);
+
+        MediaVariantProcessor.Variants variants = processor.createVariants("foto.png");
+
+        assertEquals("/uploads/foto_thumb.jpg", variants.thumbUrl());
+        BufferedImage thumb = ImageIO.read(uploadDir.resolve("foto_thumb.jpg").toFile());
+        assertEquals(MediaVariantProcessor.THUMBNAIL_WIDTH, thumb.getWidth());
+        assertEquals(160, thumb.getHeight());
+    }
+
+    @Test
+    void createVariants_noAmpliaImagenesPequenas() throws Exception {
+        writeImage("chica.png", 100, 50);
+
+        processor.createVariants("chica.png");
+
+        BufferedImage thumb = ImageIO.read(uploadDir.resolve("chica_thumb.jpg").toFile());
+        assertEquals(100, thumb.getWidth());
+        assertEquals(50, thumb.getHeight());
+    }
+
+    @Test
+    void createVariants_conImagenSobreLimiteDePixeles_noGeneraVariantes() throws Exception {
+        writeImage("enorme.png", 2100, 2000);
+
+        MediaVariantProcessor.Variants variants = processor.createVariants("enorme.png");
+
+        assertTrue(variants.isEmpty());
+        assertFalse(Files.exists(uploadDir.resolve("enorme_thumb.jpg")));
+    }
+
+    @Test
+    void createVariants_conArchivoNoImagen_noGeneraVariantes() throws Exception {
+        Files.write(uploadDir.resolve("roto.img"), new byte[] { 1, 2, 3 });
+
+        MediaVariantProcessor.Variants variants = processor.createVariants("roto.img");
+
+        assertTrue(variants.isEmpty());
+    }
+
+    @Test
+    void onImageStored_conMedia_registraVariantesEnMedia() throws Exception {
+        writeImage("media.png", 640, 480);
+
+        processor.onImageStored(new MediaImageStoredEvent(1L, 7L, "media.png"));
+
+        verify(mediaRepository).updateVariants(eq(7L), eq("/uploads/media_thumb.jpg"), any());
+        verify(machineryRepository).touch(1L);
+        verifyNoMoreInteractions(machineryRepository);
+    }
+
+    @Test
+    void onImageStored_sinMedia_registraMiniaturaEnMaquinaria() throws Exception {
+        writeImage("principal.png", 640, 480);
+
+        processor.onImageStored(new MediaImageStoredEvent(3L, null, "principal.png"));
+
+        verify(machineryRepository).updateThumbnailUrl(3L, "/uploads/principal_thumb.jpg");
+        verifyNoInteractions(mediaRepository);
+    }
+
+    @Test
+    void onImageStored_conImagenIlegible_noActualiza() {
+        processor.onImageStored(new MediaImageStoredEvent(3L, null, "no-existe.png"));
+
+        verifyNoInteractions(mediaRepository, machineryRepository);
+    }
+}
@@ -0,0 +1,113 @@
+package com.briamcarrasco.arriendomaquinaria.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.briamcarrasco.arriendomaquinaria.model.Machinery;
+import com.briamcarrasco.arriendomaquinaria.model.MachineryRental;
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryRentalRepository;
+import com.briamcarrasco.arriendomaquinaria.repository.MachineryRepository;
+
+@ExtendWith(MockitoExtension.class)
+class RentalAvailabilityIndexTest {
+
+    @Mock
+    private MachineryRepository machineryRepository;
+
+    @Mock
+    private MachineryRentalRepository rentalRepository;
+
+    @InjectMocks
+    private RentalAvailabilityIndex index;
+
+    private MachineryRental rental(Long id, Long machineryId, long start, long end) {
+        Machinery machinery = new Machinery();
+        machinery.setId(machineryId);
+        MachineryRental rental = new MachineryRental();
+        rental.setId(id);
+        rental.setMachinery(machinery);
+        rental.setRentalDate(new Date(start));
+        rental.setReturnDate(new Date(end));
+        return rental;
+    }
+
+    private void rebuildWith(List<Long> machineryIds, Object[]... rows) {
+        List<Object[]> list = new ArrayList<>(List.of(rows));
+        when(machineryRepository.findAllIds()).thenReturn(machineryIds);
+        when(rentalRepository.findIntervals()).thenReturn(list);
+        index.rebuild();
+    }
+
+    @Test
+    void rebuild_cargaMaquinariasYArriendos() {
+        rebuildWith(List.of(1L, 2L, 3L),
+                new Object[] { 10L, 1L, new Date(100), new Date(200) },
+                new Object[] { 11L, 2L, new Date(150), new Date(300) });
+
+        assertEquals(3, index.size());
+        assertFalse(index.isAvailable(1L, 150, 160));
+        assertTrue(index.isAvailable(1L, 200, 250));
+        assertEquals(List.of(1L, 3L), index.findAvailable(200, 250));
+    }
+
+    @Test
+    void rebuild_omiteArriendosConFechasInvalidas() {
+        rebuildWith(List.of(1L), new Object[] { 10L, 1L, new Date(200), new Date(100) });
+
+        assertTrue(index.isAvailable(1L, 0, 1000));
+    }
+
+    @Test
+    void isAvailable_maquinariaDesconocida_noEstaDisponible() {
+        assertFalse(index.isAvailable(99L, 0, 10));
+    }
+
+    @Test
+    void addRental_actualizaIncrementalmente() {
+        index.addMachinery(1L);
+
+        index.addRental(rental(5L, 1L, 100, 200));
+
+        assertFalse(index.isAvailable(1L, 150, 250));
+        assertTrue(index.isAvailable(1L, 200, 250));
+    }
+
+    @Test
+    void revision_aumentaConCadaCambioYNoSeRepiteAlReconstruir() {
+        rebuildWith(List.of(1L, 2L));
+        long initial = index.revision(1L);
+        long other = index.revision(2L);
+
+        index.addRental(rental(10L, 1L, 100, 200));
+        long afterAdd = index.revision(1L);
+        index.addRental(rental(11L, 1L, 300, 400));
+        long afterSecondAdd = index.revision(1L);
+
+        assertTrue(afterAdd > initial);
+        assertTrue(afterSecondAdd > afterAdd);
+        assertEquals(other, index.revision(2L));
+
+        rebuildWith(List.of(1L, 2L));
+        assertTrue(index.revision(1L) > afterSecondAdd);
+    }
+
+    @Test
+    void removeMachinery_laQuitaDelIndice() {
+        index.addMachinery(1L);
+        index.addMachinery(2L);
+
+        index.removeMachinery(1L);
+
+        assertEquals(List.of(2L), index.findAvailable(0, 10));
+    }
+}
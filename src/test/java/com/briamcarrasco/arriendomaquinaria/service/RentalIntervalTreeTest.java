@@ -0,0 +1,76 @@
+package com.briamcarrasco.arriendomaquinaria.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class RentalIntervalTreeTest {
+
+    @Test
+    void overlaps_detectaSolapamientoYRespetaExtremoAbierto() {
+        RentalIntervalTree tree = new RentalIntervalTree();
+        tree.add(1L, 10, 20);
+        tree.add(2L, 30, 40);
+
+        assertTrue(tree.overlaps(15, 16));
+        assertTrue(tree.overlaps(5, 11));
+        assertTrue(tree.overlaps(0, 100));
+        assertFalse(tree.overlaps(20, 30));
+        assertFalse(tree.overlaps(0, 10));
+        assertFalse(tree.overlaps(40, 50));
+    }
+
+    @Test
+    void add_conIntervaloInvalido_lanzaExcepcion() {
+        RentalIntervalTree tree = new RentalIntervalTree();
+        assertThrows(IllegalArgumentException.class, () -> tree.add(1L, 10, 10));
+    }
+
+    @Test
+    void remove_eliminaSoloElArriendoIndicado() {
+        RentalIntervalTree tree = new RentalIntervalTree();
+        tree.add(1L, 10, 20);
+        tree.add(2L, 10, 15);
+
+        assertTrue(tree.remove(1L, 10));
+        assertFalse(tree.remove(1L, 10));
+        assertEquals(1, tree.size());
+        assertTrue(tree.overlaps(12, 13));
+        assertFalse(tree.overlaps(16, 19));
+    }
+
+    @Test
+    void consultas_coincidenConBusquedaLineal() {
+        Random random = new Random(42);
+        RentalIntervalTree tree = new RentalIntervalTree();
+        List<long[]> intervals = new ArrayList<>();
+        for (long id = 0; id < 500; id++) {
+            long start = random.nextInt(10_000);
+            long end = start + 1 + random.nextInt(200);
+            tree.add(id, start, end);
+            intervals.add(new long[] { id, start, end });
+        }
+        for (int i = 0; i < 200; i += 2) {
+            long[] removed = intervals.remove(i);
+            assertTrue(tree.remove(removed[0], removed[1]));
+        }
+        assertEquals(intervals.size(), tree.size());
+
+        for (int q = 0; q < 1000; q++) {
+            long from = random.nextInt(10_300);
+            long to = from + 1 + random.nextInt(100);
+            List<Long> expected = new ArrayList<>();
+            intervals.stream()
+                    .filter(in -> in[1] < to && in[2] > from)
+                    .sorted((a, b) -> a[1] != b[1] ? Long.compare(a[1], b[1]) : Long.compare(a[0], b[0]))
+                    .forEach(in -> expected.add(in[0]));
+
+            assertEquals(!expected.isEmpty(), tree.overlaps(from, to));
+            assertEquals(expected, tree.findOverlapping(from, to));
+        }
+    }
+}
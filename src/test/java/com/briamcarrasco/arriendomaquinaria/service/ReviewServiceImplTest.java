@@ -3,6 +3,7 @@ package com.briamcarrasco.arriendomaquinaria.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -10,14 +11,25 @@ import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+
+import com.briamcarrasco.arriendomaquinaria.config.CacheConfig;
+import com.briamcarrasco.arriendomaquinaria.dto.CursorPage;
+import com.briamcarrasco.arriendomaquinaria.dto.ResourceVersion;
+import com.briamcarrasco.arriendomaquinaria.dto.ReviewSummary;
 import com.briamcarrasco.arriendomaquinaria.model.Machinery;
 import com.briamcarrasco.arriendomaquinaria.model.Review;
 import com.briamcarrasco.arriendomaquinaria.model.User;
 import com.briamcarrasco.arriendomaquinaria.repository.MachineryRepository;
 import com.briamcarrasco.arriendomaquinaria.repository.ReviewRepository;
+import com.briamcarrasco.arriendomaquinaria.repository.ReviewUpsertRepository;
 import com.briamcarrasco.arriendomaquinaria.repository.UserRepository;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,6 +44,15 @@ class ReviewServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ReviewUpsertRepository reviewUpsertRepository;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
     @InjectMocks
     private ReviewServiceImpl service;
 
@@ -60,9 +81,31 @@ class ReviewServiceImplTest {
     }
 
     @Test
-    void deleteReview_callsRepositoryDeleteById() {
+    void deleteReview_deletesAndDecrementsRatingTotals() {
+        Machinery mach = new Machinery();
+        mach.setId(4L);
+        Review r = new Review();
+        r.setMachinery(mach);
+        r.setRating(3);
+        when(reviewRepository.findById(11L)).thenReturn(Optional.of(r));
+        when(cacheManager.getCache(CacheConfig.MACHINERY)).thenReturn(cache);
+
         service.deleteReview(11L);
-        verify(reviewRepository).deleteById(11L);
+
+        verify(reviewRepository).delete(r);
+        verify(machineryRepository).adjustRatingTotals(4L, -1, -3);
+        verify(cache).evict(4L);
+        verifyNoMoreInteractions(cache);
+    }
+
+    @Test
+    void deleteReview_whenMissing_doesNothing() {
+        when(reviewRepository.findById(12L)).thenReturn(Optional.empty());
+
+        service.deleteReview(12L);
+
+        verify(reviewRepository, never()).delete(any(Review.class));
+        verifyNoInteractions(machineryRepository, cacheManager);
     }
 
     @Test
@@ -80,68 +123,123 @@ class ReviewServiceImplTest {
     }
 
     @Test
-    void getAverageRating_returnsRepositoryValue() {
-        when(reviewRepository.findAverageRatingByMachinery(7L)).thenReturn(4.25);
-        Double avg = service.getAverageRating(7L);
-        assertEquals(4.25, avg);
-        verify(reviewRepository).findAverageRatingByMachinery(7L);
+    void getReviewPage_firstPage_encodesCursorFromLastItem() {
+        LocalDateTime t1 = LocalDateTime.of(2025, 3, 2, 10, 0);
+        LocalDateTime t2 = LocalDateTime.of(2025, 3, 1, 9, 30);
+        ReviewSummary r1 = new ReviewSummary(9L, 5, "a", "ana", t1, t1);
+        ReviewSummary r2 = new ReviewSummary(7L, 4, "b", "luis", t2, t2);
+        ReviewSummary r3 = new ReviewSummary(3L, 3, "c", "eva", t2, t2);
+        when(reviewRepository.findFeed(5L, PageRequest.of(0, 3))).thenReturn(List.of(r1, r2, r3));
+
+        CursorPage<ReviewSummary> page = service.getReviewPage(5L, null, 2);
+
+        assertEquals(List.of(r1, r2), page.getItems());
+        assertTrue(page.isHasMore());
+        assertArrayEquals(new String[] { t2.toString(), "7" }, CursorPage.decodeCursor(page.getNextCursor()));
     }
 
     @Test
-    void upsertReview_whenExisting_updatesRatingAndComment_thenSaves() {
-        Review existing = new Review();
-        existing.setRating(2);
-        existing.setComment("old");
-        when(reviewRepository.findByMachineryIdAndUserId(3L, 9L)).thenReturn(Optional.of(existing));
-        when(reviewRepository.save(any(Review.class))).thenAnswer(inv -> inv.getArgument(0));
+    void getReviewPage_withCursor_queriesAfterPosition() {
+        LocalDateTime t = LocalDateTime.of(2025, 3, 1, 9, 30);
+        ReviewSummary r = new ReviewSummary(3L, 3, "c", "eva", t, t);
+        when(reviewRepository.findFeedBefore(5L, t, 7L, PageRequest.of(0, ReviewServiceImpl.DEFAULT_PAGE_SIZE + 1)))
+                .thenReturn(List.of(r));
 
-        Review res = service.upsertReview(3L, 9L, 5, "new comment");
+        CursorPage<ReviewSummary> page = service.getReviewPage(5L, CursorPage.encodeCursor(t, 7L), 0);
 
-        assertSame(existing, res);
-        assertEquals(5, res.getRating());
-        assertEquals("new comment", res.getComment());
-        verify(reviewRepository).findByMachineryIdAndUserId(3L, 9L);
-        verify(reviewRepository).save(existing);
+        assertEquals(List.of(r), page.getItems());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
     }
 
     @Test
-    void upsertReview_whenNotExisting_andMachineryOrUserMissing_throws() {
-        when(reviewRepository.findByMachineryIdAndUserId(4L, 2L)).thenReturn(Optional.empty());
-        when(machineryRepository.findById(4L)).thenReturn(Optional.empty());
-        when(userRepository.findById(2L)).thenReturn(Optional.of(new User()));
+    void getReviewPage_invalidCursor_throws() {
+        String malformed = CursorPage.encodeCursor("ayer", 7L);
+        String incomplete = CursorPage.encodeCursor(7L);
 
-        IllegalArgumentException ex1 = assertThrows(IllegalArgumentException.class,
-                () -> service.upsertReview(4L, 2L, 3, "c"));
-        assertEquals("Machinery o User no encontrados para crear reseña", ex1.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> service.getReviewPage(5L, malformed, 10));
+        assertThrows(IllegalArgumentException.class, () -> service.getReviewPage(5L, incomplete, 10));
+        verifyNoInteractions(reviewRepository);
+    }
+
+    @Test
+    void getReviewsVersion_readsAggregateFromRepository() {
+        ResourceVersion version = new ResourceVersion(2L, LocalDateTime.of(2025, 6, 1, 18, 0));
+        when(reviewRepository.findVersionByMachineryId(7L)).thenReturn(version);
 
-        // reverse: machinery present, user missing
-        when(machineryRepository.findById(4L)).thenReturn(Optional.of(new Machinery()));
-        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+        assertSame(version, service.getReviewsVersion(7L));
+        verify(reviewRepository, never()).findFeed(anyLong(), any());
+    }
 
-        IllegalArgumentException ex2 = assertThrows(IllegalArgumentException.class,
-                () -> service.upsertReview(4L, 2L, 4, "c2"));
-        assertEquals("Machinery o User no encontrados para crear reseña", ex2.getMessage());
+    @Test
+    void getAverageRating_readsRatingTotals() {
+        when(machineryRepository.findAverageRating(7L)).thenReturn(4.25);
+        when(machineryRepository.findAverageRating(8L)).thenReturn(null);
 
-        verify(reviewRepository, times(2)).findByMachineryIdAndUserId(4L, 2L);
+        assertEquals(4.25, service.getAverageRating(7L));
+        assertEquals(0.0, service.getAverageRating(8L));
+        verifyNoInteractions(reviewRepository);
     }
 
     @Test
-    void upsertReview_whenNotExisting_createsReviewAndSaves() {
-        when(reviewRepository.findByMachineryIdAndUserId(8L, 6L)).thenReturn(Optional.empty());
+    void syncRatingTotals_recalculatesFromReviews() {
+        service.syncRatingTotals();
+        verify(machineryRepository).recalculateRatingTotals();
+    }
 
+    @Test
+    void upsertReview_appliesRatingDeltaUpsertsAndReturnsReview() {
         Machinery mach = new Machinery();
         User user = new User();
-        when(machineryRepository.findById(8L)).thenReturn(Optional.of(mach));
-        when(userRepository.findById(6L)).thenReturn(Optional.of(user));
-        when(reviewRepository.save(any(Review.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(machineryRepository.applyReviewRating(3L, 9L, 5)).thenReturn(1);
+        when(reviewUpsertRepository.upsert(3L, 9L, 5, "new comment")).thenReturn(21L);
+        when(machineryRepository.getReferenceById(3L)).thenReturn(mach);
+        when(userRepository.getReferenceById(9L)).thenReturn(user);
 
-        Review res = service.upsertReview(8L, 6L, 5, "great");
+        Review res = service.upsertReview(3L, 9L, 5, "new comment");
 
-        assertNotNull(res);
+        assertEquals(21L, res.getId());
         assertSame(mach, res.getMachinery());
         assertSame(user, res.getUser());
         assertEquals(5, res.getRating());
-        assertEquals("great", res.getComment());
-        verify(reviewRepository).save(res);
+        assertEquals("new comment", res.getComment());
+        InOrder order = inOrder(machineryRepository, reviewUpsertRepository);
+        order.verify(machineryRepository).applyReviewRating(3L, 9L, 5);
+        order.verify(reviewUpsertRepository).upsert(3L, 9L, 5, "new comment");
+        verify(reviewRepository, never()).save(any(Review.class));
+        verify(machineryRepository, never()).findById(anyLong());
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void upsertReview_withoutRating_throwsWithoutWriting() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> service.upsertReview(4L, 2L, null, "c"));
+
+        assertEquals("La calificación es obligatoria", ex.getMessage());
+        verifyNoInteractions(machineryRepository, reviewUpsertRepository);
+    }
+
+    @Test
+    void upsertReview_whenUserMissing_throws() {
+        when(machineryRepository.applyReviewRating(4L, 2L, 3)).thenReturn(1);
+        when(reviewUpsertRepository.upsert(4L, 2L, 3, "c"))
+                .thenThrow(new DataIntegrityViolationException("fk"));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> service.upsertReview(4L, 2L, 3, "c"));
+
+        assertEquals("Machinery o User no encontrados para crear reseña", ex.getMessage());
+    }
+
+    @Test
+    void upsertReview_whenMachineryMissing_throwsWithoutUpsert() {
+        when(machineryRepository.applyReviewRating(4L, 2L, 3)).thenReturn(0);
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> service.upsertReview(4L, 2L, 3, "c"));
+
+        assertEquals("Machinery o User no encontrados para crear reseña", ex.getMessage());
+        verifyNoInteractions(reviewUpsertRepository);
     }
 }
\ No newline at end of file